@@ -0,0 +1,60 @@
+package com.raisedeel.foodappmanager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Configuration of the in-memory caches of the application, backed by Caffeine. <br/>
+ * Every cache is bounded by the {@code app.cache.maximum-size} property and its entries expire after the
+ * {@code app.cache.time-to-live} property. The entries are evicted when the data changes
+ * (see {@link com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheEvictionListener}) and a read that raced
+ * with the change does not cache the data it read before it
+ * (see {@link com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheGuard}). <br/>
+ * The catalog versions checked against the ETags are not cached, they are read from the restaurant by its primary
+ * key, so a response is never considered unchanged from a stale version. <br/>
+ * The statistics of the caches (hits, misses and evictions) are published as metrics (e.g. {@code cache.gets}).
+ * <p/>The available caches are:
+ * <ul>
+ *   <li><b>{@value #RESTAURANTS}:</b> The restaurants with their menus, by ID of the restaurant.</li>
+ *   <li><b>{@value #RESTAURANT_MENUS}:</b> The menus of the restaurants, by ID of the restaurant.</li>
+ *   <li><b>{@value #RESTAURANT_RESPONSES}:</b> The serialized responses of the restaurants, by ID of the restaurant.</li>
+ *   <li><b>{@value #MENU_RESPONSES}:</b> The serialized responses of the menus, by ID of the restaurant.</li>
+ * </ul>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String RESTAURANTS = "restaurants";
+  public static final String RESTAURANT_MENUS = "restaurantMenus";
+  public static final String RESTAURANT_RESPONSES = "restaurantResponses";
+  public static final String MENU_RESPONSES = "menuResponses";
+
+  /**
+   * The caches holding data of a single restaurant, keyed by its ID.
+   */
+  public static final List<String> RESTAURANT_CACHES =
+      List.of(RESTAURANTS, RESTAURANT_MENUS, RESTAURANT_RESPONSES, MENU_RESPONSES);
+
+  @Bean
+  public CacheManager cacheManager(
+      @Value("${app.cache.maximum-size:10000}") long maximumSize,
+      @Value("${app.cache.time-to-live:10m}") Duration timeToLive) {
+    // The names are fixed, so the caches exist at startup and their metrics can be registered
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setCaffeine(Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(timeToLive)
+        .recordStats());
+    cacheManager.setCacheNames(RESTAURANT_CACHES);
+    return cacheManager;
+  }
+}
@@ -1,5 +1,7 @@
 package com.raisedeel.foodappmanager;
 
+import com.raisedeel.foodappmanager.sync.model.SyncState;
+import com.raisedeel.foodappmanager.sync.repository.SyncStateRepository;
 import com.raisedeel.foodappmanager.user.model.Role;
 import com.raisedeel.foodappmanager.user.model.User;
 import com.raisedeel.foodappmanager.user.repository.UserRepository;
@@ -8,6 +10,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -15,9 +18,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 @AllArgsConstructor
 @SpringBootApplication
+@EnableScheduling
 public class FoodAppManagerApplication implements CommandLineRunner {
 
   private UserRepository userRepository;
+  private SyncStateRepository syncStateRepository;
 
   public static void main(String[] args) {
     SpringApplication.run(FoodAppManagerApplication.class, args);
@@ -30,6 +35,11 @@ public class FoodAppManagerApplication implements CommandLineRunner {
       User admin = new User(null, "administrador", "admin", passwordEncoder().encode("1234"), "Nowhere", Role.ROLE_ADMIN, null);
       userRepository.save(admin);
     }
+
+    // The writers of the change log lock this row, so it must exist before the first change
+    if (!syncStateRepository.existsById(SyncState.ID)) {
+      syncStateRepository.save(new SyncState(SyncState.ID, 0));
+    }
   }
 
   @Bean
@@ -26,7 +26,7 @@ public class OpenApiConfig {
         .group("all")
         .displayName("Client and Owners endpoints")
         .pathsToMatch("/**")
-        .pathsToExclude("/user/promote/**", "/user/demote/*", "/restaurant/remove/*")
+        .pathsToExclude("/user/promote/**", "/user/demote/*", "/restaurant/remove/*", "/restaurant/admin/**")
         .build();
   }
 
@@ -35,7 +35,7 @@ public class OpenApiConfig {
     return GroupedOpenApi.builder()
         .group("exclusive")
         .displayName("Admin exclusive endpoints")
-        .pathsToMatch("/user/promote/**", "/user/demote/*", "/restaurant/remove/*")
+        .pathsToMatch("/user/promote/**", "/user/demote/*", "/restaurant/remove/*", "/restaurant/admin/**")
         .build();
   }
 }
@@ -0,0 +1,57 @@
+package com.raisedeel.foodappmanager.concurrent;
+
+import com.raisedeel.foodappmanager.exception.exceptions.ConcurrentUpdateException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+/**
+ * Executes operations over versioned entities (see {@link jakarta.persistence.Version}) in a transaction, retrying
+ * them when the transaction fails because another request updated the same entities first (or any other
+ * {@link ConcurrencyFailureException}, such as a deadlock). <br/>
+ * Every attempt runs in a new transaction, so the entities are read again with their latest version. The number of
+ * attempts is limited by the {@code app.optimistic-retry.max-attempts} property, after the last one a
+ * {@link ConcurrentUpdateException} is thrown.
+ * <p/>
+ * <em>-Note:</em> The operations must not be called within an existing transaction, otherwise a failed attempt
+ * would mark the whole transaction as rollback-only.
+ */
+@Component
+public class OptimisticRetry {
+
+  private final TransactionTemplate transactionTemplate;
+  private final int maxAttempts;
+
+  public OptimisticRetry(
+      PlatformTransactionManager transactionManager,
+      @Value("${app.optimistic-retry.max-attempts:5}") int maxAttempts) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * Executes the operation in a transaction, retrying it when a concurrency conflict occurs.
+   *
+   * @param entity    the name of the entity updated, used in the message of the exception.
+   * @param operation the operation to execute.
+   * @param <T>       the type of the result of the operation.
+   * @return the result of the operation.
+   * @throws ConcurrentUpdateException if every attempt failed because of a conflict.
+   */
+  public <T> T execute(String entity, Supplier<T> operation) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> operation.get());
+      } catch (ConcurrencyFailureException ex) {
+        // Optimistic locking conflicts, but also deadlocks and lock timeouts between the concurrent transactions
+        if (attempt >= maxAttempts) {
+          throw new ConcurrentUpdateException(entity);
+        }
+      }
+    }
+  }
+}
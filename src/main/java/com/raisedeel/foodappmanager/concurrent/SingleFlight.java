@@ -0,0 +1,116 @@
+package com.raisedeel.foodappmanager.concurrent;
+
+import com.raisedeel.foodappmanager.exception.exceptions.LoadTimeoutException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent loads of the same data. <br/>
+ * The first caller asking for a key executes the load, the callers asking for the same key while the load is in
+ * flight wait for it and share its result instead of executing the same queries again. Once the load finishes, the
+ * next caller starts a new one, so the results are never reused after they are returned.
+ * <p/>
+ * The behavior of the shared loads:
+ * <ul>
+ *   <li>If the load throws an exception, every waiting caller receives the same exception.</li>
+ *   <li>A waiting caller gives up after a timeout ({@code app.single-flight.timeout} by default, or the one given for
+ *   the key) with a {@link LoadTimeoutException}. The load itself is not cancelled.</li>
+ * </ul>
+ * The metrics {@code single.flight.loads} (loads executed) and {@code single.flight.shared} (calls served by the load
+ * of another caller) are published to the {@link MeterRegistry}.
+ */
+@Component
+public class SingleFlight {
+
+  private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final Duration timeout;
+
+  private final Counter loads;
+  private final Counter shared;
+
+  public SingleFlight(
+      MeterRegistry meterRegistry,
+      @Value("${app.single-flight.timeout:5s}") Duration timeout) {
+    this.timeout = timeout;
+
+    this.loads = Counter.builder("single.flight.loads")
+        .description("Loads executed by the single-flight layer")
+        .register(meterRegistry);
+    this.shared = Counter.builder("single.flight.shared")
+        .description("Calls served by a load already in flight for the same key")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Executes the load of the key, or waits for the load already in flight with the default timeout.
+   *
+   * @param key    the key identifying the data loaded, e.g. {@code restaurant:1}.
+   * @param loader the load to execute.
+   * @param <T>    the type of the data loaded.
+   * @return the data loaded.
+   * @throws LoadTimeoutException if the load in flight did not finish before the timeout.
+   */
+  public <T> T execute(String key, Supplier<T> loader) {
+    return execute(key, timeout, loader);
+  }
+
+  /**
+   * Executes the load of the key, or waits for the load already in flight with the given timeout.
+   *
+   * @param key     the key identifying the data loaded, e.g. {@code restaurant:1}.
+   * @param timeout the maximum time to wait for the load in flight.
+   * @param loader  the load to execute.
+   * @param <T>     the type of the data loaded.
+   * @return the data loaded.
+   * @throws LoadTimeoutException if the load in flight did not finish before the timeout.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T execute(String key, Duration timeout, Supplier<T> loader) {
+    CompletableFuture<Object> call = new CompletableFuture<>();
+    CompletableFuture<Object> current = inFlight.putIfAbsent(key, call);
+
+    if (current != null) {
+      shared.increment();
+      return (T) await(key, current, timeout);
+    }
+
+    loads.increment();
+    try {
+      T result = loader.get();
+      call.complete(result);
+      return result;
+    } catch (RuntimeException | Error ex) {
+      call.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  private Object await(String key, CompletableFuture<Object> call, Duration timeout) {
+    try {
+      return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      throw new LoadTimeoutException(key);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new LoadTimeoutException(key);
+    } catch (ExecutionException ex) {
+      // Propagate the exception of the load as if this caller had executed it
+      if (ex.getCause() instanceof RuntimeException cause) throw cause;
+      if (ex.getCause() instanceof Error cause) throw cause;
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+}
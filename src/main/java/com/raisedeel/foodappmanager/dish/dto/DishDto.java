@@ -46,7 +46,9 @@ public class DishDto {
   private String category;
 
   @NotBlank(message = "Description cannot be blank")
+  @Size(max = 255, message = "Description cannot be larger than 255 characters")
   private String description;
 
+  @Size(max = 255, message = "Photo URL cannot be larger than 255 characters")
   private String photoUrl = "";
 }
@@ -0,0 +1,40 @@
+package com.raisedeel.foodappmanager.dish.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the whole menu of a restaurant. It is sent to replace the menu at once and
+ * returned with the version of the menu after the replacement.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant of the menu. <em>Read only.</em></li>
+ *   <li><b>Version:</b> The catalog version of the restaurant after the replacement, the menu ETag is built from it.
+ *   <em>Read only.</em></li>
+ *   <li><b>Menu:</b> The dishes of the menu, see {@link DishDto}. The dishes with an ID are kept (and updated if they
+ *   changed), the dishes without an ID are created and the dishes of the restaurant that are missing are deleted.
+ *   <em>Must not be null.</em></li>
+ * </ul>
+ *
+ * @see DishDto
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MenuDto {
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long restaurantId;
+
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private long version;
+
+  @Valid
+  @NotNull(message = "Menu cannot be null")
+  private List<DishDto> menu;
+}
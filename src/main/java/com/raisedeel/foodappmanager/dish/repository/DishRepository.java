@@ -1,9 +1,11 @@
 package com.raisedeel.foodappmanager.dish.repository;
 
 import com.raisedeel.foodappmanager.dish.model.Dish;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.repository.CrudRepository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * This Spring Data JPA repository interface is dedicated to the management of {@link Dish} entities.
@@ -30,4 +32,13 @@ public interface DishRepository extends CrudRepository<Dish, Long> {
    * @return A list of matching dish entities.
    */
   List<Dish> findAllByRestaurantId(Long restaurantId);
+
+  /**
+   * Find a dish entity by its ID, fetching its restaurant and the owner of the restaurant in the same query.
+   *
+   * @param id The ID of the dish.
+   * @return An {@link Optional} containing the matching dish, if found.
+   */
+  @EntityGraph(attributePaths = {"restaurant", "restaurant.owner"})
+  Optional<Dish> findWithRestaurantById(Long id);
 }
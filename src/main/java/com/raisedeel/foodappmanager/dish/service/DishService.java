@@ -1,6 +1,9 @@
 package com.raisedeel.foodappmanager.dish.service;
 
 import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.MenuDto;
+import com.raisedeel.foodappmanager.exception.exceptions.PreconditionFailedException;
+import com.raisedeel.foodappmanager.response.Versioned;
 
 import java.util.List;
 
@@ -37,6 +40,15 @@ public interface DishService {
    */
   List<DishDto> retrieveDishesByRestaurant(Long restaurantId);
 
+  /**
+   * Retrieves the dishes associated with a specific restaurant ID, along with the catalog version of the restaurant
+   * they were read at.
+   *
+   * @param restaurantId the ID of the restaurant's dishes.
+   * @return a list of {@link DishDto} with the catalog version, 0 if the restaurant does not exist.
+   */
+  Versioned<List<DishDto>> retrieveVersionedDishesByRestaurant(Long restaurantId);
+
   /**
    * Updates the dish with the given id using the data in the {@link DishDto}.
    *
@@ -46,6 +58,19 @@ public interface DishService {
    */
   DishDto updateDish(Long id, DishDto dishDto);
 
+  /**
+   * Replaces the menu of a specific restaurant with the dishes in the {@link MenuDto}, writing only the differences:
+   * the dishes without an ID are created, the dishes that changed are updated and the dishes missing from the menu
+   * are deleted.
+   *
+   * @param restaurantId the ID of the restaurant whose menu is replaced.
+   * @param menuDto      the {@link MenuDto} with the whole menu.
+   * @param ifMatch      the ETag the menu must still have to be replaced, or {@code null} to replace it anyway.
+   * @return the {@link MenuDto} with the new menu and its version.
+   * @throws PreconditionFailedException if the menu no longer has the ETag sent.
+   */
+  MenuDto replaceMenu(Long restaurantId, MenuDto menuDto, String ifMatch);
+
   /**
    * Deletes the dish with the given id from the database.
    *
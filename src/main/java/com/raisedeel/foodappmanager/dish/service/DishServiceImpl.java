@@ -1,16 +1,30 @@
 package com.raisedeel.foodappmanager.dish.service;
 
+import com.raisedeel.foodappmanager.CacheConfig;
+import com.raisedeel.foodappmanager.concurrent.OptimisticRetry;
+import com.raisedeel.foodappmanager.concurrent.SingleFlight;
 import com.raisedeel.foodappmanager.dish.dto.DishDto;
 import com.raisedeel.foodappmanager.dish.dto.DishMapper;
+import com.raisedeel.foodappmanager.dish.dto.MenuDto;
 import com.raisedeel.foodappmanager.dish.model.Dish;
 import com.raisedeel.foodappmanager.dish.repository.DishRepository;
 import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.exception.exceptions.PreconditionFailedException;
+import com.raisedeel.foodappmanager.response.ETags;
+import com.raisedeel.foodappmanager.response.Versioned;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheGuard;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
 import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the {@link DishService} interface for dish management operations.
@@ -26,6 +40,10 @@ public class DishServiceImpl implements DishService {
   DishRepository dishRepository;
   RestaurantRepository restaurantRepository;
   DishMapper dishMapper;
+  ApplicationEventPublisher eventPublisher;
+  SingleFlight singleFlight;
+  OptimisticRetry optimisticRetry;
+  RestaurantCacheGuard restaurantCacheGuard;
 
   /**
    * {@inheritDoc}
@@ -37,7 +55,10 @@ public class DishServiceImpl implements DishService {
         .orElseThrow(() -> new EntityNotFoundException("Restaurant"));
 
     dish.setRestaurant(restaurant);
-    return dishMapper.dishToDto(dishRepository.save(dish));
+    DishDto savedDish = dishMapper.dishToDto(dishRepository.save(dish));
+
+    eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
+    return savedDish;
   }
 
   /**
@@ -45,16 +66,31 @@ public class DishServiceImpl implements DishService {
    */
   @Override
   public DishDto retrieveDish(Long id) {
-    return dishMapper.dishToDto(getDishById(id));
+    return singleFlight.execute("dish:" + id, () -> dishMapper.dishToDto(getDishById(id)));
   }
 
   /**
    * {@inheritDoc}
+   * The menu is cached until it changes, concurrent misses of the same menu share a single load.
    */
   @Override
   public List<DishDto> retrieveDishesByRestaurant(Long restaurantId) {
-    return dishRepository.findAllByRestaurantId(restaurantId)
-        .stream().map(dishMapper::dishToDto).toList();
+    return restaurantCacheGuard.get(CacheConfig.RESTAURANT_MENUS, restaurantId,
+        () -> dishRepository.findAllByRestaurantId(restaurantId).stream().map(dishMapper::dishToDto).toList());
+  }
+
+  /**
+   * {@inheritDoc}
+   * The menu is read from the database with its restaurant in a single query, not from the cache, so the version is
+   * the one of the row read.
+   */
+  @Override
+  public Versioned<List<DishDto>> retrieveVersionedDishesByRestaurant(Long restaurantId) {
+    return singleFlight.execute("versionedMenu:" + restaurantId, () -> restaurantRepository
+        .findWithMenuById(restaurantId)
+        .map(restaurant -> new Versioned<>(restaurant.getCatalogVersion(),
+            restaurant.getMenu().stream().map(dishMapper::dishToDto).toList()))
+        .orElseGet(() -> new Versioned<>(0L, List.of())));
   }
 
   /**
@@ -63,7 +99,59 @@ public class DishServiceImpl implements DishService {
   @Override
   public DishDto updateDish(Long id, DishDto dishDto) {
     Dish updatedDish = dishMapper.updateDishFromDto(dishDto, getDishById(id));
-    return dishMapper.dishToDto(dishRepository.save(updatedDish));
+    DishDto savedDish = dishMapper.dishToDto(dishRepository.save(updatedDish));
+
+    eventPublisher.publishEvent(new RestaurantChangedEvent(getRestaurantId(updatedDish)));
+    return savedDish;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The restaurant is locked while its menu is compared and written, so concurrent replacements are applied one after
+   * another. The unchanged dishes are not written, the inserts, updates and deletes are sent in JDBC batches within a
+   * single transaction.
+   */
+  @Override
+  public MenuDto replaceMenu(Long restaurantId, MenuDto menuDto, String ifMatch) {
+    return optimisticRetry.execute("Menu", () -> {
+      Restaurant restaurant = restaurantRepository.findForUpdateById(restaurantId)
+          .orElseThrow(() -> new EntityNotFoundException("Restaurant"));
+
+      String etag = ETags.of(restaurantId, restaurant.getCatalogVersion());
+      if (ifMatch != null && !ETags.matchesStrong(ifMatch, etag)) {
+        throw new PreconditionFailedException("Menu");
+      }
+
+      // The dishes left in the map after going through the new menu are the ones removed from it
+      Map<Long, Dish> removedDishes = new HashMap<>();
+      dishRepository.findAllByRestaurantId(restaurantId).forEach(dish -> removedDishes.put(dish.getId(), dish));
+      List<Dish> newDishes = new ArrayList<>();
+      List<Dish> dishes = new ArrayList<>();
+
+      for (DishDto dishDto : menuDto.getMenu()) {
+        if (dishDto.getId() == null) {
+          Dish dish = dishMapper.dtoToDish(dishDto);
+          dish.setRestaurant(restaurant);
+          newDishes.add(dish);
+          dishes.add(dish);
+        } else {
+          Dish dish = removedDishes.remove(dishDto.getId());
+          if (dish == null) {
+            throw new InvalidOperationException("The dish " + dishDto.getId() +
+                " is not on the menu of the restaurant or is repeated");
+          }
+          // Hibernate only updates the dishes whose values changed
+          dishes.add(dishMapper.updateDishFromDto(dishDto, dish));
+        }
+      }
+
+      dishRepository.saveAll(newDishes);
+      dishRepository.deleteAll(removedDishes.values());
+      eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
+      // The event increases the catalog version exactly once before the commit, while the restaurant is still locked
+      return new MenuDto(restaurantId, restaurant.getCatalogVersion() + 1,
+          dishes.stream().map(dishMapper::dishToDto).toList());
+    });
   }
 
   /**
@@ -71,7 +159,15 @@ public class DishServiceImpl implements DishService {
    */
   @Override
   public void deleteDish(Long id) {
-    dishRepository.deleteById(id);
+    Dish dish = getDishById(id);
+    dishRepository.delete(dish);
+
+    eventPublisher.publishEvent(new RestaurantChangedEvent(getRestaurantId(dish)));
+  }
+
+  private Long getRestaurantId(Dish dish) {
+    // The restaurant is a lazy reference, reading its ID does not load it
+    return dish.getRestaurant() != null ? dish.getRestaurant().getId() : null;
   }
 
   private Dish getDishById(Long id) {
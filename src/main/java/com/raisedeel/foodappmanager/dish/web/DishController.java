@@ -1,9 +1,16 @@
 package com.raisedeel.foodappmanager.dish.web;
 
+import com.raisedeel.foodappmanager.CacheConfig;
 import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.MenuDto;
 import com.raisedeel.foodappmanager.dish.service.DishService;
 import com.raisedeel.foodappmanager.exception.model.ErrorResponse;
+import com.raisedeel.foodappmanager.response.ETags;
+import com.raisedeel.foodappmanager.response.SerializedResponse;
+import com.raisedeel.foodappmanager.response.SerializedResponseCache;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,11 +18,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Optional;
 
 @AllArgsConstructor
 @Tag(name = "4.- Dish Controller", description = "Allow the owners creation, updating and deletion of dishes on their specific restaurant. All users are allowed retrieving of data.")
@@ -24,6 +32,8 @@ import java.util.List;
 public class DishController {
 
   DishService dishService;
+  RestaurantService restaurantService;
+  SerializedResponseCache serializedResponseCache;
 
   @Operation(summary = "Create a dish", description = "Creates the dish on the restaurant with the given id using the data sent. Requires the owner of the restaurant.")
   @ApiResponses(value = {
@@ -48,6 +58,8 @@ public class DishController {
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successful operation"),
       @ApiResponse(responseCode = "404", description = "The dish could not be found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
   })
   @GetMapping(value = "/{id}", produces = "application/json")
@@ -55,11 +67,31 @@ public class DishController {
     return new ResponseEntity<>(dishService.retrieveDish(id), HttpStatus.OK);
   }
 
-  @Operation(summary = "Get all dishes from a restaurant", description = "Get all the dishes from the restaurant with the given id. No token is required.")
-  @ApiResponse(responseCode = "200", description = "Successful operation")
+  @Operation(summary = "Get all dishes from a restaurant", description = "Get all the dishes from the restaurant with the given id. The response is compressed with gzip if the client accepts it. Send the ETag of a previous response in the If-None-Match header to skip the data if it did not change. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = DishDto.class)))),
+      @ApiResponse(responseCode = "304", description = "The data did not change since the ETag sent in If-None-Match", content = @Content),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
   @GetMapping(value = "restaurant/{restaurantId}", produces = "application/json")
-  public ResponseEntity<List<DishDto>> retrieveDishesByRestaurantHandler(@PathVariable Long restaurantId) {
-    return new ResponseEntity<>(dishService.retrieveDishesByRestaurant(restaurantId), HttpStatus.OK);
+  public ResponseEntity<byte[]> retrieveDishesByRestaurantHandler(
+      @PathVariable Long restaurantId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    // The menu shares the catalog version of its restaurant, a restaurant that does not exist has an empty menu
+    Optional<Long> version = restaurantService.retrieveCatalogVersion(restaurantId);
+    String etag = version.map(catalogVersion -> ETags.of(restaurantId, catalogVersion)).orElse(null);
+
+    if (ETags.matches(ifNoneMatch, etag)) {
+      return ETags.notModified(etag);
+    }
+    SerializedResponse response = serializedResponseCache.get(CacheConfig.MENU_RESPONSES, restaurantId,
+        version.orElse(0L), () -> dishService.retrieveVersionedDishesByRestaurant(restaurantId));
+    // The ETag of the version serialized, which may be newer than the one checked
+    return response.toResponseEntity(acceptEncoding,
+        version.isPresent() ? ETags.of(restaurantId, response.version()) : null);
   }
 
   @Operation(summary = "Update a dish", description = "Updates the past data of the dish using the data sent. Requires the owner of the restaurant.")
@@ -81,6 +113,34 @@ public class DishController {
     return new ResponseEntity<>(dishService.updateDish(id, dishDto), HttpStatus.OK);
   }
 
+  @Operation(summary = "Replace the menu of a restaurant", description = "Replaces the whole menu of the restaurant with the given id in a single transaction. The dishes with an id are kept and updated if they changed, the dishes without an id are created and the dishes of the restaurant that are not sent are deleted. Send the (uncompressed) ETag of the menu in the If-Match header to reject the replacement if the menu changed since it was read. Returns the new menu with its version and ETag. Requires the owner of the restaurant.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. Some fields/parameters were invalid or a dish is not on the menu",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "401", description = "The bearer could not be authenticated",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "403", description = "The bearer is not the owner of the restaurant",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "404", description = "The restaurant could not be found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "409", description = "The menu was modified by another request at the same time",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "412", description = "The menu changed since the ETag sent in If-Match",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @PutMapping(value = "/restaurant/{restaurantId}/menu", produces = "application/json")
+  public ResponseEntity<MenuDto> replaceMenuHandler(
+      @PathVariable Long restaurantId,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody MenuDto menuDto) {
+    MenuDto menu = dishService.replaceMenu(restaurantId, menuDto, ifMatch);
+
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(ETags.of(restaurantId, menu.getVersion()))
+        .body(menu);
+  }
+
   @Operation(summary = "Delete a dish", description = "Deletes the dish with the given id. Requires the owner of the restaurant.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "204", description = "Successful operation", content = @Content),
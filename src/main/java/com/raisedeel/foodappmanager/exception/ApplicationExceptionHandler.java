@@ -1,11 +1,15 @@
 package com.raisedeel.foodappmanager.exception;
 
+import com.raisedeel.foodappmanager.exception.exceptions.ConcurrentUpdateException;
 import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
 import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.exception.exceptions.LoadTimeoutException;
+import com.raisedeel.foodappmanager.exception.exceptions.PreconditionFailedException;
 import com.raisedeel.foodappmanager.exception.model.ErrorResponse;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -64,6 +68,39 @@ public class ApplicationExceptionHandler extends ResponseEntityExceptionHandler
     return new ResponseEntity<>(new ErrorResponse(404, ex.getMessage()), HttpStatus.NOT_FOUND);
   }
 
+  /**
+   * Handles exceptions thrown when an entity was updated by another request at the same time.
+   *
+   * @param ex the {@link ConcurrentUpdateException} or {@link OptimisticLockingFailureException} caught.
+   * @return a {@link ResponseEntity} with the status of conflict (409).
+   */
+  @ExceptionHandler({ConcurrentUpdateException.class, OptimisticLockingFailureException.class})
+  public ResponseEntity<ErrorResponse> handleConcurrentUpdateException(Exception ex) {
+    return new ResponseEntity<>(new ErrorResponse(409, ex.getMessage()), HttpStatus.CONFLICT);
+  }
+
+  /**
+   * Handles exceptions thrown when an entity changed since the version sent in the {@code If-Match} header.
+   *
+   * @param ex the {@link PreconditionFailedException} caught.
+   * @return a {@link ResponseEntity} with the status of precondition failed (412).
+   */
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ErrorResponse> handlePreconditionFailedException(Exception ex) {
+    return new ResponseEntity<>(new ErrorResponse(412, ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+  }
+
+  /**
+   * Handles exceptions thrown when a request waited too long for the data loaded by another request.
+   *
+   * @param ex the {@link LoadTimeoutException} caught.
+   * @return a {@link ResponseEntity} with the status of service unavailable (503).
+   */
+  @ExceptionHandler(LoadTimeoutException.class)
+  public ResponseEntity<ErrorResponse> handleLoadTimeoutException(Exception ex) {
+    return new ResponseEntity<>(new ErrorResponse(503, ex.getMessage()), HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   /**
    * Handles exceptions thrown when a constraint in a SQL table is broken by an operation.
    *
@@ -0,0 +1,12 @@
+package com.raisedeel.foodappmanager.exception.exceptions;
+
+/**
+ * Exception thrown when an entity could not be updated because other requests kept modifying it at the same time.
+ */
+public class ConcurrentUpdateException extends RuntimeException {
+
+  public ConcurrentUpdateException(String entity) {
+    super(entity + " was modified by another request at the same time, try again");
+  }
+
+}
@@ -0,0 +1,12 @@
+package com.raisedeel.foodappmanager.exception.exceptions;
+
+/**
+ * Exception thrown when a request waited too long for the same data to be loaded by another request.
+ */
+public class LoadTimeoutException extends RuntimeException {
+
+  public LoadTimeoutException(String key) {
+    super("Loading " + key + " took too long, try again");
+  }
+
+}
@@ -0,0 +1,13 @@
+package com.raisedeel.foodappmanager.exception.exceptions;
+
+/**
+ * Exception thrown when an entity could not be updated because it changed since the version the client sent in the
+ * {@code If-Match} header.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+  public PreconditionFailedException(String entity) {
+    super(entity + " changed since the version sent in If-Match, retrieve it again");
+  }
+
+}
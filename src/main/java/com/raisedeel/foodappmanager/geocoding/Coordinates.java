@@ -0,0 +1,21 @@
+package com.raisedeel.foodappmanager.geocoding;
+
+/**
+ * The geographic position of a place, in decimal degrees (WGS 84).
+ *
+ * @param latitude  the latitude, from -90 (south) to 90 (north).
+ * @param longitude the longitude, from -180 (west) to 180 (east).
+ */
+public record Coordinates(double latitude, double longitude) {
+
+  /**
+   * Checks if a latitude and a longitude are in range.
+   *
+   * @param latitude  the latitude in decimal degrees.
+   * @param longitude the longitude in decimal degrees.
+   * @return true if the latitude is between -90 and 90 and the longitude between -180 and 180.
+   */
+  public static boolean isValid(double latitude, double longitude) {
+    return latitude >= -90 && latitude <= 90 && longitude >= -180 && longitude <= 180;
+  }
+}
@@ -0,0 +1,20 @@
+package com.raisedeel.foodappmanager.geocoding;
+
+import java.util.Optional;
+
+/**
+ * Finds the {@link Coordinates} of the addresses of the restaurants. <br/>
+ * The implementation is chosen with the {@code app.geocoder.provider} property, {@link OfflineGeocoder} by default.
+ * A geocoder backed by an external service only needs to implement this interface as a bean enabled by another value
+ * of the property.
+ */
+public interface Geocoder {
+
+  /**
+   * Finds the coordinates of an address.
+   *
+   * @param address the free text address.
+   * @return the {@link Coordinates} of the address, empty if the address is blank or could not be located.
+   */
+  Optional<Coordinates> geocode(String address);
+}
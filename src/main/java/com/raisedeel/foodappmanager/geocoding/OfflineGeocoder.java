@@ -0,0 +1,78 @@
+package com.raisedeel.foodappmanager.geocoding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@link Geocoder} that works without any external service, used while no real geocoding provider is configured.
+ * <br/>
+ * An address containing decimal coordinates (e.g. {@code "Av. Reforma 222, 19.4270, -99.1677"}) is placed at them.
+ * Any other address is placed at a point derived from its hash within {@code app.geocoder.offline.radius-km} of
+ * the configured center, so the same address is always placed at the same point and different addresses are spread
+ * over the area.
+ */
+@Component
+@ConditionalOnProperty(name = "app.geocoder.provider", havingValue = "offline", matchIfMissing = true)
+public class OfflineGeocoder implements Geocoder {
+
+  // The mean radius of the Earth in kilometers
+  static final double EARTH_RADIUS_KM = 6371.0088;
+  // A latitude and a longitude with decimals, separated by a comma
+  private static final Pattern COORDINATES = Pattern.compile("(-?\\d{1,2}\\.\\d+)\\s*,\\s*(-?\\d{1,3}\\.\\d+)");
+
+  private final double centerLatitude;
+  private final double centerLongitude;
+  private final double radiusKm;
+
+  public OfflineGeocoder(
+      @Value("${app.geocoder.offline.latitude:19.4326}") double centerLatitude,
+      @Value("${app.geocoder.offline.longitude:-99.1332}") double centerLongitude,
+      @Value("${app.geocoder.offline.radius-km:20}") double radiusKm) {
+    this.centerLatitude = centerLatitude;
+    this.centerLongitude = centerLongitude;
+    this.radiusKm = radiusKm;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Optional<Coordinates> geocode(String address) {
+    if (address == null || address.isBlank()) {
+      return Optional.empty();
+    }
+
+    Matcher matcher = COORDINATES.matcher(address);
+    if (matcher.find()) {
+      double latitude = Double.parseDouble(matcher.group(1));
+      double longitude = Double.parseDouble(matcher.group(2));
+      if (Coordinates.isValid(latitude, longitude)) {
+        return Optional.of(new Coordinates(latitude, longitude));
+      }
+    }
+
+    // The bits of the hash pick the direction and the distance from the center, uniformly over the disk
+    UUID hash = UUID.nameUUIDFromBytes(address.strip().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+    double bearing = (hash.getMostSignificantBits() >>> 11) * 0x1.0p-53 * 2 * Math.PI;
+    double distance = Math.sqrt((hash.getLeastSignificantBits() >>> 11) * 0x1.0p-53) * radiusKm / EARTH_RADIUS_KM;
+
+    double latitude = Math.toRadians(centerLatitude);
+    double destinationLatitude = Math.asin(Math.sin(latitude) * Math.cos(distance)
+        + Math.cos(latitude) * Math.sin(distance) * Math.cos(bearing));
+    double destinationLongitude = Math.toRadians(centerLongitude) + Math.atan2(
+        Math.sin(bearing) * Math.sin(distance) * Math.cos(latitude),
+        Math.cos(distance) - Math.sin(latitude) * Math.sin(destinationLatitude));
+
+    // The longitude is normalized between -180 and 180
+    double longitude = (Math.toDegrees(destinationLongitude) + 540) % 360 - 180;
+    return Optional.of(new Coordinates(Math.toDegrees(destinationLatitude), longitude));
+  }
+}
@@ -0,0 +1,87 @@
+package com.raisedeel.foodappmanager.pagination;
+
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Represents the position of the last element of a page in a keyset (cursor) pagination. <br/>
+ * A cursor is sent to the client as an opaque continuation token through {@link #encode()} and recovered from the
+ * next request using {@link #decode(String, String)}.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Key:</b> The name of the sort the cursor was created for. A token cannot be reused with another sort.</li>
+ *   <li><b>ID:</b> The unique identifier of the last element, used to break ties between equal sort values.</li>
+ *   <li><b>Value:</b> The sort value of the last element as a string (e.g. a name or a rating).</li>
+ * </ul>
+ *
+ * @see CursorPage
+ */
+public record Cursor(String key, long id, String value) {
+
+  private static final String SEPARATOR = "\n";
+
+  /**
+   * Encodes the cursor into an opaque URL-safe token.
+   *
+   * @return the continuation token representing this cursor.
+   */
+  public String encode() {
+    String raw = key + SEPARATOR + id + SEPARATOR + value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Recovers the sort value of the cursor as a {@code double}.
+   *
+   * @return the value of the cursor.
+   * @throws InvalidOperationException if the value is not a number.
+   */
+  public double valueAsDouble() {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException ex) {
+      throw new InvalidOperationException("The continuation token is invalid");
+    }
+  }
+
+  /**
+   * Recovers the sort value of the cursor as an {@code int}.
+   *
+   * @return the value of the cursor.
+   * @throws InvalidOperationException if the value is not an integer.
+   */
+  public int valueAsInt() {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException ex) {
+      throw new InvalidOperationException("The continuation token is invalid");
+    }
+  }
+
+  /**
+   * Decodes a continuation token created by {@link #encode()}.
+   *
+   * @param token       the continuation token sent by the client.
+   * @param expectedKey the name of the sort requested, must match the key stored in the token.
+   * @return the decoded {@link Cursor}.
+   * @throws InvalidOperationException if the token is malformed or was created for another sort.
+   */
+  public static Cursor decode(String token, String expectedKey) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      // The value goes last, so it can contain any character including the separator
+      String[] parts = raw.split(SEPARATOR, 3);
+
+      if (parts.length != 3 || !parts[0].equals(expectedKey)) {
+        throw new InvalidOperationException("The continuation token is invalid for the requested sort");
+      }
+
+      return new Cursor(parts[0], Long.parseLong(parts[1]), parts[2]);
+    } catch (IllegalArgumentException ex) {
+      // Thrown by the decoder or when the id is not a number
+      throw new InvalidOperationException("The continuation token is invalid");
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package com.raisedeel.foodappmanager.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A page of elements retrieved through keyset (cursor) pagination. Unlike offset pagination, every page is fetched
+ * by seeking the position of the last element of the previous page, so the cost of a request does not grow with the
+ * size of the collection and pages stay stable when new elements are inserted concurrently.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Content:</b> The elements of the page, in the order requested.</li>
+ *   <li><b>NextCursor:</b> An opaque continuation token to request the next page. <em>Null if this is the last page.</em></li>
+ * </ul>
+ *
+ * @param <T> The type of the elements in the page.
+ * @see Cursor
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> {
+  private List<T> content;
+  private String nextCursor;
+
+  /**
+   * Builds a page from the rows fetched by a keyset query. The query is expected to fetch one row more than the
+   * page size, this extra row is only used to know if there is a next page and is not included in the content.
+   *
+   * @param rows       the rows fetched, up to {@code pageSize + 1}.
+   * @param pageSize   the number of elements in a page.
+   * @param positionOf a function creating the {@link Cursor} of a row.
+   * @param <E>        the type of the rows.
+   * @return a {@link CursorPage} with the content and the token of the next page, if any.
+   */
+  public static <E> CursorPage<E> of(List<E> rows, int pageSize, Function<E, Cursor> positionOf) {
+    if (rows.size() <= pageSize) {
+      return new CursorPage<>(rows, null);
+    }
+
+    List<E> content = rows.subList(0, pageSize);
+    return new CursorPage<>(content, positionOf.apply(content.get(pageSize - 1)).encode());
+  }
+
+  /**
+   * Converts the content of the page keeping the same continuation token.
+   *
+   * @param mapper the function applied to each element.
+   * @param <R>    the type of the converted elements.
+   * @return a new {@link CursorPage} with the converted content.
+   */
+  public <R> CursorPage<R> map(Function<T, R> mapper) {
+    return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor);
+  }
+}
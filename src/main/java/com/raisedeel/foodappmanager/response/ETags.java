@@ -0,0 +1,96 @@
+package com.raisedeel.foodappmanager.response;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Utility methods to create the strong ETags of the responses and to handle the {@code If-None-Match} and
+ * {@code If-Match} headers of the conditional requests. <br/>
+ * A response compressed with gzip is a different representation, so its ETag has the {@value #GZIP_SUFFIX} suffix.
+ * Both variants match the same data when comparing them with the {@code If-None-Match} header, while the
+ * {@code If-Match} header only matches the exact ETag.
+ */
+public final class ETags {
+
+  public static final String GZIP_SUFFIX = "-gzip";
+
+  private ETags() {
+  }
+
+  /**
+   * Creates a strong ETag from the parts identifying a version of the data, e.g. an ID and a version counter.
+   *
+   * @param parts the parts of the ETag.
+   * @return the quoted ETag.
+   */
+  public static String of(Object... parts) {
+    return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+  }
+
+  /**
+   * Gets the ETag of the variant compressed with gzip.
+   *
+   * @param etag the ETag of the uncompressed response.
+   * @return the quoted ETag of the compressed response.
+   */
+  public static String gzip(String etag) {
+    return etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\"";
+  }
+
+  /**
+   * Checks if any of the ETags of the {@code If-None-Match} header matches the current ETag of the data.
+   *
+   * @param ifNoneMatch the value of the {@code If-None-Match} header, may be null.
+   * @param etag        the current ETag of the data, may be null if it is unknown.
+   * @return true if the client already has the current data.
+   */
+  public static boolean matches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null || etag == null) return false;
+
+    for (String candidate : ifNoneMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*")) return true;
+
+      // The comparison of If-None-Match is weak, the prefix of a weak ETag is ignored
+      if (tag.startsWith("W/")) tag = tag.substring(2);
+      if (tag.equals(etag) || tag.equals(gzip(etag))) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks if any of the ETags of the {@code If-Match} header matches the current ETag of the data with the strong
+   * comparison: weak ETags never match and the ETag of the compressed variant is a different one.
+   *
+   * @param ifMatch the value of the {@code If-Match} header, may be null.
+   * @param etag    the current ETag of the data, may be null if the data does not exist.
+   * @return true if the client sent the current ETag of the data, or {@code *} and the data exists.
+   */
+  public static boolean matchesStrong(String ifMatch, String etag) {
+    if (ifMatch == null || etag == null) return false;
+
+    for (String candidate : ifMatch.split(",")) {
+      String tag = candidate.trim();
+      if (tag.equals("*") || tag.equals(etag)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Creates a response with the status not modified (304) and no body.
+   *
+   * @param etag the current ETag of the data.
+   * @param <T>  the type of the body of the response.
+   * @return the {@link ResponseEntity} telling the client to use its copy of the data.
+   */
+  public static <T> ResponseEntity<T> notModified(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(etag)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+        .build();
+  }
+}
@@ -0,0 +1,112 @@
+package com.raisedeel.foodappmanager.response;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents the body of a response already serialized to JSON, ready to be written to the client without mapping or
+ * serializing the data again.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Json:</b> The UTF-8 bytes of the JSON body.</li>
+ *   <li><b>Gzip:</b> The JSON body compressed with gzip. <em>Null if the body is smaller than
+ *   {@value #GZIP_MIN_SIZE} bytes, as compressing it would not pay off.</em></li>
+ *   <li><b>Version:</b> The version of the data serialized, e.g. the catalog version of a restaurant.</li>
+ * </ul>
+ *
+ * @see SerializedResponseCache
+ */
+public record SerializedResponse(byte[] json, byte[] gzip, long version) {
+
+  public static final int GZIP_MIN_SIZE = 1024;
+
+  /**
+   * Creates a serialized response from the JSON body, compressing it when it is large enough.
+   *
+   * @param json    the UTF-8 bytes of the JSON body.
+   * @param version the version of the data serialized.
+   * @return the {@link SerializedResponse} of the body.
+   */
+  public static SerializedResponse of(byte[] json, long version) {
+    return new SerializedResponse(json, json.length >= GZIP_MIN_SIZE ? compress(json) : null, version);
+  }
+
+  /**
+   * Creates a response with the status ok (200) and the body, compressed if the client accepts gzip and a compressed
+   * variant exists. The client accepts gzip if it lists it, or the {@code *} coding, with a quality above 0.
+   *
+   * @param acceptEncoding the value of the {@code Accept-Encoding} header of the request, may be null.
+   * @param etag           the ETag of the uncompressed body (see {@link ETags}), may be null if it is unknown.
+   * @return the {@link ResponseEntity} with the body written as is.
+   */
+  public ResponseEntity<byte[]> toResponseEntity(String acceptEncoding, String etag) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.OK)
+        .contentType(MediaType.APPLICATION_JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+    boolean compressed = gzip != null && acceptsGzip(acceptEncoding);
+    if (etag != null) {
+      builder.eTag(compressed ? ETags.gzip(etag) : etag);
+    }
+
+    if (compressed) {
+      return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+    }
+    return builder.body(json);
+  }
+
+  private static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) return false;
+
+    // The quality of gzip if it is listed, otherwise the quality of any coding
+    Double gzipQuality = null;
+    Double anyQuality = null;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parameters = element.split(";");
+      String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+      double quality = 1;
+      for (int i = 1; i < parameters.length; i++) {
+        String parameter = parameters[i].trim();
+        if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+          quality = parseQuality(parameter.substring(2).trim());
+        }
+      }
+
+      if (coding.equals("gzip") || coding.equals("x-gzip")) {
+        gzipQuality = gzipQuality == null ? quality : Math.max(gzipQuality, quality);
+      } else if (coding.equals("*")) {
+        anyQuality = quality;
+      }
+    }
+
+    if (gzipQuality != null) return gzipQuality > 0;
+    return anyQuality != null && anyQuality > 0;
+  }
+
+  private static double parseQuality(String value) {
+    try {
+      return Double.parseDouble(value);
+    } catch (NumberFormatException ex) {
+      // A malformed quality does not accept the coding
+      return 0;
+    }
+  }
+
+  private static byte[] compress(byte[] json) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream(json.length / 4);
+    try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+      gzipOutput.write(json);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    return output.toByteArray();
+  }
+}
@@ -0,0 +1,68 @@
+package com.raisedeel.foodappmanager.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.CacheConfig;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caches the serialized JSON bodies of the responses served the most, so a cache hit skips both the mapping of the
+ * entities and their serialization. <br/>
+ * The bodies are stored in the caches of {@link CacheConfig} and serialized with the same {@link ObjectMapper} used by
+ * the controllers, so they are identical to the ones produced without the cache. Each body keeps the version of the
+ * data it was serialized from, so a body cached by a read that raced with a change is replaced as soon as a newer
+ * version is requested, instead of being served until it expires. The entries are also evicted along with the cached
+ * data of the restaurant they belong to.
+ *
+ * @see SerializedResponse
+ * @see com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheEvictionListener
+ */
+@AllArgsConstructor
+@Component
+public class SerializedResponseCache {
+
+  CacheManager cacheManager;
+  ObjectMapper objectMapper;
+
+  /**
+   * Gets the serialized body from the cache, or loads the data and serializes it if the body is not cached or it was
+   * serialized from a version older than the one requested. A body is never replaced by an older one.
+   *
+   * @param cacheName the name of the cache, e.g. {@link CacheConfig#RESTAURANT_RESPONSES}.
+   * @param key       the key of the body in the cache, usually the ID of the restaurant.
+   * @param version   the minimum version of the data accepted, usually the catalog version of the restaurant.
+   * @param loader    the load of the data to serialize, with the version it was read at.
+   * @return the {@link SerializedResponse} of the data, of the version requested or a newer one.
+   */
+  public SerializedResponse get(String cacheName, Object key, long version, Supplier<Versioned<?>> loader) {
+    Cache cache = Objects.requireNonNull(cacheManager.getCache(cacheName));
+
+    SerializedResponse cached = cache.get(key, SerializedResponse.class);
+    if (cached != null && cached.version() >= version) {
+      return cached;
+    }
+
+    SerializedResponse response = serialize(loader.get());
+    // A concurrent request may have stored a newer body meanwhile
+    SerializedResponse current = cache.get(key, SerializedResponse.class);
+    if (current == null || current.version() < response.version()) {
+      cache.put(key, response);
+    }
+    return response;
+  }
+
+  private SerializedResponse serialize(Versioned<?> data) {
+    try {
+      return SerializedResponse.of(objectMapper.writeValueAsBytes(data.data()), data.version());
+    } catch (JsonProcessingException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
@@ -0,0 +1,12 @@
+package com.raisedeel.foodappmanager.response;
+
+/**
+ * Represents some data along with the version it was read at, e.g. a restaurant and its catalog version.
+ *
+ * @param version the version of the data.
+ * @param data    the data read.
+ * @param <T>     the type of the data.
+ * @see SerializedResponseCache
+ */
+public record Versioned<T>(long version, T data) {
+}
@@ -0,0 +1,24 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Defines the formats available when exporting the catalog of restaurants.
+ * <p/>The available formats are:
+ * <ul>
+ *   <li><b>NDJSON:</b> One JSON object per line, each holding a restaurant with its menu.</li>
+ *   <li><b>CSV:</b> One row per dish with the data of its restaurant, restaurants without dishes fill a single row
+ *   with empty dish columns.</li>
+ * </ul>
+ */
+@AllArgsConstructor
+@Getter
+public enum CatalogFormat {
+  NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+  CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+  private final MediaType mediaType;
+  private final String extension;
+}
@@ -0,0 +1,19 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a restaurant that could not be imported.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Row:</b> The line of the imported file where the restaurant starts.</li>
+ *   <li><b>Message:</b> The reasons why the restaurant was rejected.</li>
+ * </ul>
+ *
+ * @see CatalogImportReportDto
+ */
+public record CatalogImportErrorDto(
+    long row,
+    List<String> message
+) {
+}
@@ -0,0 +1,22 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the result of an import of the catalog. The valid restaurants are imported
+ * even if other restaurants of the same file are rejected.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantsImported:</b> The number of restaurants imported.</li>
+ *   <li><b>DishesImported:</b> The number of dishes imported with those restaurants.</li>
+ *   <li><b>Errors:</b> The restaurants rejected, see {@link CatalogImportErrorDto}.</li>
+ * </ul>
+ *
+ * @see RestaurantImportDto
+ */
+public record CatalogImportReportDto(
+    int restaurantsImported,
+    int dishesImported,
+    List<CatalogImportErrorDto> errors
+) {
+}
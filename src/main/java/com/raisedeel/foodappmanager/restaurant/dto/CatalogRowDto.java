@@ -0,0 +1,30 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+/**
+ * Data Transfer Object (DTO) representing a row of the catalog export: a restaurant joined with one of its dishes.
+ * This record is built directly by the repository query that streams the catalog (as a projection), so the export
+ * never loads managed entities and memory use does not grow with the size of the catalog. <br/>
+ * The dish fields are {@code null} for a restaurant without dishes.
+ *
+ * @see com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository#streamCatalog()
+ * @see CatalogFormat
+ */
+public record CatalogRowDto(
+    Long id,
+    String name,
+    String type,
+    String description,
+    String email,
+    String telephone,
+    String address,
+    double rating,
+    long totalOfRatings,
+    String photoUrl,
+    Long dishId,
+    String dishName,
+    Double dishPrice,
+    String dishCategory,
+    String dishDescription,
+    String dishPhotoUrl
+) {
+}
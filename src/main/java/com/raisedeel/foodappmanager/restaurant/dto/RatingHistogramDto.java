@@ -0,0 +1,26 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+/**
+ * Data Transfer Object (DTO) representing the distribution of the ratings given to a restaurant. This record is built
+ * directly by the repository from the counters stored with the restaurant, without reading its subscriptions.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The unique identifier of the restaurant.</li>
+ *   <li><b>OneStar:</b> The number of ratings of 1 star.</li>
+ *   <li><b>TwoStars:</b> The number of ratings of 2 stars.</li>
+ *   <li><b>ThreeStars:</b> The number of ratings of 3 stars.</li>
+ *   <li><b>FourStars:</b> The number of ratings of 4 stars.</li>
+ *   <li><b>FiveStars:</b> The number of ratings of 5 stars.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.restaurant.model.RestaurantRatingHistogram
+ */
+public record RatingHistogramDto(
+    Long restaurantId,
+    long oneStar,
+    long twoStars,
+    long threeStars,
+    long fourStars,
+    long fiveStars
+) {
+}
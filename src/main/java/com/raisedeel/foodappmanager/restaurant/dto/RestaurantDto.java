@@ -24,7 +24,9 @@ import java.util.List;
  *   <li><b>Email:</b> The email address associated with the restaurant. <em>Must not be blank.</em></li>
  *   <li><b>Telephone:</b> The phone number for contacting the restaurant <em>Must have 10 digits.<em/>.</li>
  *   <li><b>Address:</b> The physical address of the restaurant. <em>Must not be blank.</em></li>
+ *   <li><b>Latitude, Longitude:</b> The position of the address. <em>Can only be read in a response, null if the address could not be located.</em></li>
  *   <li><b>Rating:</b> The average rating of the restaurant on a 5-star scale. <em>Can only be read in a response.</em></li>
+ *   <li><b>TotalOfRatings:</b> The number of ratings given to the restaurant. <em>Can only be read in a response.</em></li>
  *   <li><b>PhotoUrl:</b> The URL to a photo or image representing the restaurant.</li>
  *   <li><b>Menu:</b> A list of {@link DishDto} objects representing the restaurant's menu. <em>Can only be read in a response.</em></li>
  * </ul>
@@ -46,10 +48,12 @@ public class RestaurantDto {
   private String type;
 
   @NotBlank(message = "Description cannot be blank")
+  @Size(max = 255, message = "Description cannot be larger than 255 characters")
   private String description;
 
   @NotBlank(message = "Restaurant email address cannot be blank")
   @Email(message = "The email provided must be valid")
+  @Size(max = 255, message = "Email cannot be larger than 255 characters")
   private String email;
 
   @NotBlank(message = "Telephone cannot be blank")
@@ -57,11 +61,22 @@ public class RestaurantDto {
   private String telephone;
 
   @NotBlank(message = "Restaurant address cannot be blank")
+  @Size(max = 255, message = "Address cannot be larger than 255 characters")
   private String address;
 
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Double latitude;
+
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Double longitude;
+
   @JsonProperty(access = JsonProperty.Access.READ_ONLY)
   private BigDecimal rating;
 
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private long totalOfRatings;
+
+  @Size(max = 255, message = "Photo URL cannot be larger than 255 characters")
   private String photoUrl = "";
 
   @JsonProperty(access = JsonProperty.Access.READ_ONLY)
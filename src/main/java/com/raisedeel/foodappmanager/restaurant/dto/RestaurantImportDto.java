@@ -0,0 +1,40 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a restaurant to import together with its menu. <br/>
+ * The fields of the restaurant are unwrapped, so in JSON a restaurant to import has the same shape as a restaurant
+ * exported as NDJSON. The restaurant and its dishes are validated with the constraints of {@link RestaurantDto} and
+ * {@link DishDto}, the IDs, ratings and totals of ratings sent are ignored.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Restaurant:</b> The data of the restaurant.</li>
+ *   <li><b>Menu:</b> The dishes of the restaurant.</li>
+ * </ul>
+ *
+ * @see CatalogImportReportDto
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RestaurantImportDto {
+
+  @Valid
+  @JsonUnwrapped
+  // The menu of the restaurant is the one below
+  @JsonIgnoreProperties("menu")
+  private RestaurantDto restaurant = new RestaurantDto();
+
+  @Valid
+  private List<DishDto> menu = new ArrayList<>();
+}
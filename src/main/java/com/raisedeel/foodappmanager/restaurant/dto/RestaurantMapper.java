@@ -41,13 +41,15 @@ public interface RestaurantMapper {
 
   /**
    * Updates a {@link Restaurant} object from a {@link RestaurantDto} while ignoring null values.
-   * This method is useful for selectively updating Restaurant attributes.
+   * This method is useful for selectively updating Restaurant attributes. The rating is not updated, it is
+   * calculated from the ratings of the subscriptions.
    *
    * @param restaurantDto the {@link RestaurantDto} containing updated information.
    * @param restaurant    the {@link Restaurant} object to be updated.
    * @return the updated {@link Restaurant} object.
    */
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "rating", ignore = true)
   Restaurant updateRestaurantFromDto(RestaurantDto restaurantDto, @MappingTarget Restaurant restaurant);
 
 }
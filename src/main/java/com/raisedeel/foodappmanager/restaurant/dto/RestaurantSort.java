@@ -0,0 +1,17 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+/**
+ * Defines the orders available when listing restaurants. Every order uses the ID of the restaurant to break ties,
+ * which keeps the pages of a listing stable.
+ * <p/>The available orders are:
+ * <ul>
+ *   <li><b>ID:</b> Ascending by ID, the order of creation.</li>
+ *   <li><b>NAME:</b> Ascending by name.</li>
+ *   <li><b>RATING:</b> Descending by rating, the best rated restaurants first.</li>
+ * </ul>
+ */
+public enum RestaurantSort {
+  ID,
+  NAME,
+  RATING
+}
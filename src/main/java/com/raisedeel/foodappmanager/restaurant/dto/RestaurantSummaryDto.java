@@ -0,0 +1,35 @@
+package com.raisedeel.foodappmanager.restaurant.dto;
+
+/**
+ * Data Transfer Object (DTO) representing a lightweight view of a restaurant. This record only holds the scalar columns
+ * of the restaurant and is built directly by the repository queries (as a projection), so listing restaurants never
+ * loads their menus, owners or subscriptions. <br/>
+ * Used by the listing and search endpoints, the complete information with the menu is provided by {@link RestaurantDto}.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>ID:</b> The unique identifier of the restaurant.</li>
+ *   <li><b>Name:</b> The name of the restaurant.</li>
+ *   <li><b>Type:</b> The type of the restaurant (e.g., Bar, Café, Seafood restaurant, etc.).</li>
+ *   <li><b>Description:</b> A description of the restaurant.</li>
+ *   <li><b>Email:</b> The email address associated with the restaurant.</li>
+ *   <li><b>Telephone:</b> The phone number for contacting the restaurant.</li>
+ *   <li><b>Address:</b> The physical address of the restaurant.</li>
+ *   <li><b>Rating:</b> The average rating of the restaurant on a 5-star scale.</li>
+ *   <li><b>PhotoUrl:</b> The URL to a photo or image representing the restaurant.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.restaurant.model.Restaurant
+ * @see RestaurantDto
+ */
+public record RestaurantSummaryDto(
+    Long id,
+    String name,
+    String type,
+    String description,
+    String email,
+    String telephone,
+    String address,
+    double rating,
+    String photoUrl
+) {
+}
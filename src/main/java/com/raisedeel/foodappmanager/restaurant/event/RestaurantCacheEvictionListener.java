@@ -0,0 +1,39 @@
+package com.raisedeel.foodappmanager.restaurant.event;
+
+import com.raisedeel.foodappmanager.CacheConfig;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts the cached data of a restaurant when a {@link RestaurantChangedEvent} is published. <br/>
+ * The eviction happens after the transaction that changed the restaurant commits, so the reads that start after it
+ * see the change. A read that loaded the data before the commit does not cache it after the eviction: the
+ * {@link RestaurantCacheGuard} drops the entries loaded while the restaurant was evicted, and the serialized responses
+ * keep the version they were read at, replaced as soon as a newer version is requested (see
+ * {@link com.raisedeel.foodappmanager.response.SerializedResponseCache}). Events published outside a transaction are
+ * handled immediately.
+ *
+ * @see CacheConfig
+ */
+@AllArgsConstructor
+@Component
+public class RestaurantCacheEvictionListener {
+
+  RestaurantCacheGuard restaurantCacheGuard;
+
+  /**
+   * Evicts the restaurant, its menu and their serialized responses from the caches, or every entry if the event
+   * affects all the restaurants.
+   *
+   * @param event the {@link RestaurantChangedEvent} published.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    if (event.restaurantId() == null) {
+      restaurantCacheGuard.evictAll();
+    } else {
+      restaurantCacheGuard.evict(event.restaurantId());
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.raisedeel.foodappmanager.restaurant.event;
+
+import com.raisedeel.foodappmanager.CacheConfig;
+import com.raisedeel.foodappmanager.concurrent.SingleFlight;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fills and evicts the cached data of the restaurants, so a read that raced with a change never leaves the data it
+ * read before the change in the cache. <br/>
+ * Every restaurant has a generation, increased before its entries are evicted (see
+ * {@link RestaurantCacheEvictionListener}). A load remembers the generation when it starts and, once its data is
+ * stored, checks it again: if the restaurant was evicted meanwhile, the data may be older than the change, so it is
+ * evicted as well. As the generation is increased before the eviction, an entry stored after the check is always
+ * removed by the eviction that follows.
+ * <p/>
+ * Concurrent misses of the same entry share a single load through the {@link SingleFlight}, the generation checked is
+ * the one of the load shared.
+ *
+ * @see CacheConfig
+ */
+@AllArgsConstructor
+@Component
+public class RestaurantCacheGuard {
+
+  CacheManager cacheManager;
+  SingleFlight singleFlight;
+
+  // The generation of every restaurant evicted, and the one of the evictions of every restaurant
+  private final ConcurrentMap<Long, Long> generations = new ConcurrentHashMap<>();
+  private final AtomicLong allGeneration = new AtomicLong();
+
+  /**
+   * Gets the data of a restaurant from a cache, or loads it and caches it if no change of the restaurant was
+   * committed while it was loaded.
+   *
+   * @param cacheName    the name of the cache, one of {@link CacheConfig#RESTAURANT_CACHES}.
+   * @param restaurantId the ID of the restaurant, the key of the entry.
+   * @param loader       the load of the data, from the database.
+   * @param <T>          the type of the data.
+   * @return the data cached or loaded.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String cacheName, Long restaurantId, Supplier<T> loader) {
+    Cache cache = cache(cacheName);
+
+    Cache.ValueWrapper cached = cache.get(restaurantId);
+    if (cached != null) {
+      return (T) cached.get();
+    }
+
+    return singleFlight.execute(cacheName + ":" + restaurantId, () -> {
+      long generation = generation(restaurantId);
+      T data = loader.get();
+
+      cache.put(restaurantId, data);
+      if (generation(restaurantId) != generation) {
+        cache.evict(restaurantId);
+      }
+      return data;
+    });
+  }
+
+  /**
+   * Evicts the cached data of a restaurant from every cache of {@link CacheConfig#RESTAURANT_CACHES}.
+   *
+   * @param restaurantId the ID of the restaurant.
+   */
+  public void evict(Long restaurantId) {
+    generations.merge(restaurantId, 1L, Long::sum);
+    for (String name : CacheConfig.RESTAURANT_CACHES) {
+      cache(name).evict(restaurantId);
+    }
+  }
+
+  /**
+   * Evicts the cached data of every restaurant.
+   */
+  public void evictAll() {
+    allGeneration.incrementAndGet();
+    for (String name : CacheConfig.RESTAURANT_CACHES) {
+      cache(name).clear();
+    }
+  }
+
+  private long generation(Long restaurantId) {
+    // Both only increase, so their sum changes whenever one of them does
+    return allGeneration.get() + generations.getOrDefault(restaurantId, 0L);
+  }
+
+  private Cache cache(String name) {
+    return Objects.requireNonNull(cacheManager.getCache(name));
+  }
+}
@@ -0,0 +1,39 @@
+package com.raisedeel.foodappmanager.restaurant.event;
+
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Increases the catalog version of a restaurant when a {@link RestaurantChangedEvent} is published. <br/>
+ * The version is increased before the transaction that changed the restaurant commits, so the change and the new
+ * version become visible together. Events published outside a transaction are handled immediately, always before the
+ * caches are evicted by the {@link RestaurantCacheEvictionListener}.
+ *
+ * @see com.raisedeel.foodappmanager.restaurant.model.Restaurant
+ */
+@AllArgsConstructor
+@Component
+public class RestaurantCatalogVersionListener {
+
+  RestaurantRepository restaurantRepository;
+
+  /**
+   * Increases the catalog version of the restaurant, or of every restaurant if the event affects all of them.
+   *
+   * @param event the {@link RestaurantChangedEvent} published.
+   */
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    if (event.restaurantId() == null) {
+      restaurantRepository.incrementAllCatalogVersions();
+    } else {
+      restaurantRepository.incrementCatalogVersion(event.restaurantId());
+    }
+  }
+}
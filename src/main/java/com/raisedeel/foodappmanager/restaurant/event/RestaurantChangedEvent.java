@@ -0,0 +1,26 @@
+package com.raisedeel.foodappmanager.restaurant.event;
+
+/**
+ * Event published when the data of a restaurant served to the clients changes, including its menu and its ratings.
+ * <br/>
+ * When published within a transaction, the catalog version is increased as part of the transaction and the caches are
+ * evicted after it commits.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant changed. <em>Null if every restaurant may have changed.</em></li>
+ * </ul>
+ *
+ * @see RestaurantCatalogVersionListener
+ * @see RestaurantCacheEvictionListener
+ */
+public record RestaurantChangedEvent(Long restaurantId) {
+
+  /**
+   * Creates an event for a change that may affect every restaurant.
+   *
+   * @return the {@link RestaurantChangedEvent} of all the restaurants.
+   */
+  public static RestaurantChangedEvent all() {
+    return new RestaurantChangedEvent(null);
+  }
+}
@@ -0,0 +1,74 @@
+package com.raisedeel.foodappmanager.restaurant.model;
+
+/**
+ * Represents a pending change to the rating aggregates of a {@link Restaurant}, the differences to add to its sum
+ * of ratings, number of ratings and to each counter of its {@link RestaurantRatingHistogram}. <br/>
+ * Deltas are immutable and can be combined with {@link #plus(RatingDelta)}, so many rating changes of the same
+ * restaurant can be applied with a single update.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Sum:</b> The difference to add to the sum of ratings.</li>
+ *   <li><b>Count:</b> The difference to add to the number of ratings greater than 0.</li>
+ *   <li><b>OneStar - FiveStars:</b> The differences to add to the number of ratings of each number of stars.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository#applyRatingDelta(Long, RatingDelta)
+ */
+public record RatingDelta(
+    long sum,
+    long count,
+    long oneStar,
+    long twoStars,
+    long threeStars,
+    long fourStars,
+    long fiveStars
+) {
+
+  /**
+   * Creates the delta produced by changing a rating. Ratings equal to 0 are not counted.
+   *
+   * @param oldRating the previous rating (0 for a new subscription).
+   * @param newRating the new rating (0 for a deleted subscription).
+   * @return the {@link RatingDelta} of the change.
+   */
+  public static RatingDelta of(int oldRating, int newRating) {
+    // Index 0 collects the ratings equal to 0, which are not part of the histogram
+    long[] stars = new long[6];
+    stars[oldRating]--;
+    stars[newRating]++;
+
+    return new RatingDelta(
+        newRating - oldRating,
+        Integer.signum(newRating) - Integer.signum(oldRating),
+        stars[1], stars[2], stars[3], stars[4], stars[5]
+    );
+  }
+
+  /**
+   * Combines this delta with another one.
+   *
+   * @param other the {@link RatingDelta} to add.
+   * @return a new {@link RatingDelta} with the differences of both deltas.
+   */
+  public RatingDelta plus(RatingDelta other) {
+    return new RatingDelta(
+        sum + other.sum,
+        count + other.count,
+        oneStar + other.oneStar,
+        twoStars + other.twoStars,
+        threeStars + other.threeStars,
+        fourStars + other.fourStars,
+        fiveStars + other.fiveStars
+    );
+  }
+
+  /**
+   * Checks if applying this delta would not change the aggregates (e.g. a rating changed and then restored).
+   *
+   * @return {@code true} if every difference is 0.
+   */
+  public boolean isEmpty() {
+    return sum == 0 && count == 0 && oneStar == 0 && twoStars == 0 && threeStars == 0 && fourStars == 0
+        && fiveStars == 0;
+  }
+}
@@ -6,6 +6,8 @@ import com.raisedeel.foodappmanager.subscription.model.Subscription;
 import com.raisedeel.foodappmanager.user.model.UserOwner;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
 
@@ -15,19 +17,37 @@ import java.util.List;
  * contact information, and owner.
  * <p/><b>Fields</b>
  * <ul>
- *   <li><b>ID:</b> The unique identifier for this restaurant, automatically assigned by Spring JPA upon creation.</li>
+ *   <li><b>ID:</b> The unique identifier for this restaurant, automatically assigned by Spring JPA upon creation. The IDs
+ *   are reserved from a sequence 50 at a time (a table on MySQL), so inserts of many restaurants can be batched.</li>
  *   <li><b>Name:</b> The name of the restaurant.</li>
  *   <li><b>Type:</b> The type or category of the restaurant.</li>
  *   <li><b>Description:</b> A description of the restaurant.</li>
  *   <li><b>Email:</b> The email address associated with the restaurant.</li>
  *   <li><b>Telephone:</b> The phone number for contacting the restaurant.</li>
  *   <li><b>Address:</b> The physical address of the restaurant.</li>
+ *   <li><b>Latitude, Longitude:</b> The position of the address, found by the
+ *   {@link com.raisedeel.foodappmanager.geocoding.Geocoder}. <em>Null if the address could not be located.</em></li>
  *   <li><b>Rating:</b> The overall rating of the restaurant based on user ratings.</li>
+ *   <li><b>RatingSum:</b> The sum of all the ratings given to the restaurant.</li>
+ *   <li><b>RatingCount:</b> The number of ratings greater than 0 given to the restaurant.</li>
+ *   <li><b>RatingHistogram:</b> The number of ratings given for each number of stars, see {@link RestaurantRatingHistogram}.</li>
  *   <li><b>PhotoUrl:</b> The URL to a photo or image representing the restaurant.</li>
+ *   <li><b>Version:</b> The version of the restaurant, used to detect concurrent updates (optimistic locking).</li>
+ *   <li><b>CatalogVersion:</b> A counter increased on every change of the data served to the clients, including its
+ *   menu and ratings. Used as the ETag of the restaurant and its menu.</li>
  *   <li><b>Owner:</b> The owner of the restaurant, linked to a {@link UserOwner} entity.</li>
  *   <li><b>Menu:</b> A list of {@link Dish} entities representing the restaurant's menu.</li>
  *   <li><b>Subscriptions:</b> A list of user subscriptions to the restaurant, linked to the {@link Subscription} entity.</li>
  * </ul>
+ * The name and rating columns are indexed together with the ID, in the order of their listings, to support the keyset
+ * pagination of restaurants.<br/>
+ * The entity graph {@value #WITH_MENU} fetches the menu and the owner together with the restaurant in a single query.
+ * Otherwise, the collections are loaded in batches to avoid a query per restaurant.<br/>
+ * The rating columns, aggregates of the subscriptions, and the catalog version are only written by the atomic
+ * updates of {@link com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository} and never by saving the
+ * entity.
+ * Saving the entity only writes the columns that changed, so the updates of the owner and the updates of the ratings
+ * never overwrite each other.
  *
  * @see Entity
  * @see UserOwner
@@ -38,9 +58,21 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@DynamicUpdate
+@NamedEntityGraph(name = Restaurant.WITH_MENU, attributeNodes = {
+    @NamedAttributeNode("menu"),
+    @NamedAttributeNode("owner")
+})
+@Table(indexes = {
+    @Index(name = "idx_restaurant_name_id", columnList = "name, id"),
+    @Index(name = "idx_restaurant_rating_id", columnList = "rating desc, id")
+})
 public class Restaurant {
+  public static final String WITH_MENU = "Restaurant.withMenu";
+
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_seq")
+  @SequenceGenerator(name = "restaurant_seq", sequenceName = "restaurant_seq", allocationSize = 50)
   private Long id;
   private String name;
   private String type;
@@ -48,26 +80,55 @@ public class Restaurant {
   private String email;
   private String telephone;
   private String address;
+  private Double latitude;
+  private Double longitude;
+  @Column(updatable = false)
   private double rating;
+  @Column(updatable = false)
+  private long ratingSum;
+  @Column(updatable = false)
+  private long ratingCount;
+  @Embedded
+  private RestaurantRatingHistogram ratingHistogram = new RestaurantRatingHistogram();
   private String photoUrl;
+  @Version
+  private long version;
+  @Column(updatable = false)
+  private long catalogVersion;
 
   @ToString.Exclude
   @EqualsAndHashCode.Exclude
   @OneToOne(mappedBy = "restaurantOwned")
   private UserOwner owner;
 
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @BatchSize(size = 50)
   @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
   private List<Dish> menu;
 
   @ToString.Exclude
   @EqualsAndHashCode.Exclude
+  @BatchSize(size = 50)
   @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL)
   private List<Subscription> subscriptions;
 
+  @PrePersist
+  private void prePersist() {
+    // The counters of the histogram cannot be null
+    if (ratingHistogram == null) {
+      ratingHistogram = new RestaurantRatingHistogram();
+    }
+  }
+
+  /**
+   * Gets the number of ratings greater than 0 given to the restaurant. The count is maintained with the rating
+   * aggregates, so the subscriptions are not loaded.
+   *
+   * @return the number of ratings of the restaurant.
+   */
   @JsonIgnore
-  public int getTotalOfRatings() {
-    return (int) getSubscriptions().stream()
-        .filter((sub) -> sub.getRating() > 0) // Only counts ratings greater than 0
-        .mapToInt(Subscription::getRating).count();
+  public long getTotalOfRatings() {
+    return ratingCount;
   }
 }
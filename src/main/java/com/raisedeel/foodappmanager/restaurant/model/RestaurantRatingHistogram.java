@@ -0,0 +1,40 @@
+package com.raisedeel.foodappmanager.restaurant.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link Embeddable} class representing the distribution of the ratings given to a restaurant, stored as one counter
+ * per number of stars in the table of the {@link Restaurant}. Ratings equal to 0 are not counted. <br/>
+ * Like the rest of the rating aggregates, the counters are only written by the atomic updates of
+ * {@link com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository}.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>OneStar:</b> The number of ratings of 1 star.</li>
+ *   <li><b>TwoStars:</b> The number of ratings of 2 stars.</li>
+ *   <li><b>ThreeStars:</b> The number of ratings of 3 stars.</li>
+ *   <li><b>FourStars:</b> The number of ratings of 4 stars.</li>
+ *   <li><b>FiveStars:</b> The number of ratings of 5 stars.</li>
+ * </ul>
+ *
+ * @see Restaurant
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class RestaurantRatingHistogram {
+  @Column(nullable = false, updatable = false)
+  private long oneStar;
+  @Column(nullable = false, updatable = false)
+  private long twoStars;
+  @Column(nullable = false, updatable = false)
+  private long threeStars;
+  @Column(nullable = false, updatable = false)
+  private long fourStars;
+  @Column(nullable = false, updatable = false)
+  private long fiveStars;
+}
@@ -1,7 +1,26 @@
 package com.raisedeel.foodappmanager.restaurant.repository;
 
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogRowDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RatingHistogramDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.model.RatingDelta;
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * This Spring Data JPA repository interface is dedicated to the management of {@link Restaurant} entities.
@@ -13,11 +32,236 @@ import org.springframework.data.repository.CrudRepository;
  *   <li>Retrieve restaurant entities by their IDs.</li>
  *   <li>Save new restaurant entities or update existing ones.</li>
  *   <li>Delete restaurant entities by their IDs.</li>
- *   <li>Query and filter restaurant entities using Spring Data JPA repository query methods.</li>
+ *   <li>Query and filter restaurant entities using Spring Data JPA repository query methods,
+ *   including keyset pagination of the restaurants.</li>
  * </ul>
+ * The keyset queries seek the position of the last restaurant of the previous page instead of skipping rows, the
+ * size of each page is limited through the {@link Pageable} parameter (use a single page, e.g. {@code PageRequest.of(0, size)}).<br/>
+ * The listing queries return {@link RestaurantSummaryDto} projections, selecting only the scalar columns of the
+ * restaurants so the menus are never loaded.<br/>
+ * The rating of a restaurant is maintained incrementally: each change of a rating applies its difference to the
+ * sum and count of ratings and to the rating histogram with a single atomic update, instead of recalculating the
+ * average from every subscription.<br/>
+ * The whole catalog is streamed row by row with {@link #streamCatalog()}, which must be consumed inside a
+ * transaction and closed afterwards.
  *
  * @see CrudRepository
  * @see Restaurant
  */
 public interface RestaurantRepository extends CrudRepository<Restaurant, Long> {
+
+  // Constructor expression shared by the queries returning a RestaurantSummaryDto projection
+  String SUMMARY = "select new com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto(" +
+      "r.id, r.name, r.type, r.description, r.email, r.telephone, r.address, r.rating, r.photoUrl) " +
+      "from Restaurant r ";
+
+  // Number of rows fetched from the database at a time when streaming the catalog
+  String CATALOG_FETCH_SIZE = "1000";
+
+  // Subquery counting the subscriptions of a restaurant with the number of stars appended after it
+  String COUNT_RATINGS = "(select count(s) from Subscription s where s.restaurant.id = r.id and s.rating = ";
+
+  /**
+   * Find a restaurant entity by its ID, fetching its menu and owner in the same query.
+   *
+   * @param id The ID of the restaurant.
+   * @return An {@link Optional} containing the matching restaurant, if found.
+   */
+  @EntityGraph(Restaurant.WITH_MENU)
+  Optional<Restaurant> findWithMenuById(Long id);
+
+  /**
+   * Find a restaurant entity by its ID, locking its row until the end of the transaction, so the concurrent changes
+   * of the same restaurant (e.g. replacements of its menu) are applied one after another.
+   *
+   * @param id The ID of the restaurant.
+   * @return An {@link Optional} containing the matching restaurant, if found.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<Restaurant> findForUpdateById(Long id);
+
+  /**
+   * Get a page of restaurant summaries ordered by ID, starting after the given ID.
+   *
+   * @param lastId   The ID of the last restaurant of the previous page (0 for the first page).
+   * @param pageable The size of the page.
+   * @return A list of restaurant summaries.
+   */
+  @Query(SUMMARY + "where r.id > :lastId order by r.id")
+  List<RestaurantSummaryDto> findPageOrderById(Long lastId, Pageable pageable);
+
+  /**
+   * Get the summaries of the restaurants with the given IDs, in no particular order.
+   *
+   * @param ids The IDs of the restaurants, must not be empty.
+   * @return A list of restaurant summaries, without the IDs that do not exist.
+   */
+  @Query(SUMMARY + "where r.id in :ids")
+  List<RestaurantSummaryDto> findSummariesByIdIn(Collection<Long> ids);
+
+  /**
+   * Get a page of restaurant summaries ordered by name and ID, starting after the given name and ID.
+   *
+   * @param lastName The name of the last restaurant of the previous page (empty for the first page).
+   * @param lastId   The ID of the last restaurant of the previous page (0 for the first page).
+   * @param pageable The size of the page.
+   * @return A list of restaurant summaries.
+   */
+  @Query(SUMMARY + "where r.name > :lastName or (r.name = :lastName and r.id > :lastId) order by r.name, r.id")
+  List<RestaurantSummaryDto> findPageOrderByName(String lastName, Long lastId, Pageable pageable);
+
+  /**
+   * Get a page of restaurant summaries ordered by descending rating and ID, starting after the given rating and ID.
+   *
+   * @param lastRating The rating of the last restaurant of the previous page ({@link Double#MAX_VALUE} for the first page).
+   * @param lastId     The ID of the last restaurant of the previous page (0 for the first page).
+   * @param pageable   The size of the page.
+   * @return A list of restaurant summaries.
+   */
+  @Query(SUMMARY + "where r.rating < :lastRating or (r.rating = :lastRating and r.id > :lastId) " +
+      "order by r.rating desc, r.id")
+  List<RestaurantSummaryDto> findPageOrderByRating(Double lastRating, Long lastId, Pageable pageable);
+
+  /**
+   * Get the rating histogram of a restaurant.
+   *
+   * @param id The ID of the restaurant.
+   * @return An {@link Optional} containing the histogram, if the restaurant exists.
+   */
+  @Query("select new com.raisedeel.foodappmanager.restaurant.dto.RatingHistogramDto(r.id, " +
+      "r.ratingHistogram.oneStar, r.ratingHistogram.twoStars, r.ratingHistogram.threeStars, " +
+      "r.ratingHistogram.fourStars, r.ratingHistogram.fiveStars) from Restaurant r where r.id = :id")
+  Optional<RatingHistogramDto> findRatingHistogramById(Long id);
+
+  /**
+   * Applies the change of a subscription rating to the rating aggregates and the histogram of a restaurant.
+   * Ratings equal to 0 are not counted.
+   *
+   * @param id        The ID of the restaurant.
+   * @param oldRating The previous rating of the subscription (0 for a new subscription).
+   * @param newRating The new rating of the subscription (0 for a deleted subscription).
+   * @return The number of restaurants updated, 0 if the restaurant does not exist.
+   */
+  default int updateRatingAggregates(Long id, int oldRating, int newRating) {
+    return applyRatingDelta(id, RatingDelta.of(oldRating, newRating));
+  }
+
+  /**
+   * Applies a (possibly combined) {@link RatingDelta} to the rating aggregates and the histogram of a restaurant.
+   *
+   * @param id    The ID of the restaurant.
+   * @param delta The {@link RatingDelta} to apply.
+   * @return The number of restaurants updated, 0 if the restaurant does not exist.
+   */
+  default int applyRatingDelta(Long id, RatingDelta delta) {
+    return applyRatingDelta(
+        id,
+        delta.sum(),
+        delta.count(),
+        delta.oneStar(), delta.twoStars(), delta.threeStars(), delta.fourStars(), delta.fiveStars()
+    );
+  }
+
+  /**
+   * Adds the given differences to the sum and count of ratings and to the histogram of a restaurant, recalculating
+   * its average rating within the same statement.
+   *
+   * @param id              The ID of the restaurant.
+   * @param sumDelta        The difference to add to the sum of ratings.
+   * @param countDelta      The difference to add to the number of ratings.
+   * @param oneStarDelta    The difference to add to the number of ratings of 1 star.
+   * @param twoStarsDelta   The difference to add to the number of ratings of 2 stars.
+   * @param threeStarsDelta The difference to add to the number of ratings of 3 stars.
+   * @param fourStarsDelta  The difference to add to the number of ratings of 4 stars.
+   * @param fiveStarsDelta  The difference to add to the number of ratings of 5 stars.
+   * @return The number of restaurants updated.
+   */
+  @Transactional
+  @Modifying
+  // The rating is assigned first because MySQL uses the already updated values in the following assignments
+  @Query("update Restaurant r set " +
+      "r.rating = case when r.ratingCount + :countDelta > 0 " +
+      "then cast(r.ratingSum + :sumDelta as Double) / (r.ratingCount + :countDelta) else 0.0 end, " +
+      "r.ratingSum = r.ratingSum + :sumDelta, " +
+      "r.ratingCount = r.ratingCount + :countDelta, " +
+      "r.ratingHistogram.oneStar = r.ratingHistogram.oneStar + :oneStarDelta, " +
+      "r.ratingHistogram.twoStars = r.ratingHistogram.twoStars + :twoStarsDelta, " +
+      "r.ratingHistogram.threeStars = r.ratingHistogram.threeStars + :threeStarsDelta, " +
+      "r.ratingHistogram.fourStars = r.ratingHistogram.fourStars + :fourStarsDelta, " +
+      "r.ratingHistogram.fiveStars = r.ratingHistogram.fiveStars + :fiveStarsDelta " +
+      "where r.id = :id")
+  int applyRatingDelta(Long id, long sumDelta, long countDelta, long oneStarDelta, long twoStarsDelta,
+                       long threeStarsDelta, long fourStarsDelta, long fiveStarsDelta);
+
+  /**
+   * Recalculates the rating aggregates and the histogram of the restaurants in a range of IDs from their subscriptions.
+   *
+   * @param fromId The ID after which the range starts (exclusive).
+   * @param toId   The ID where the range ends (inclusive).
+   * @return The number of restaurants updated.
+   */
+  @Transactional
+  @Modifying
+  @Query("update Restaurant r set " +
+      "r.rating = coalesce((select cast(sum(s.rating) as Double) / count(s) from Subscription s " +
+      "where s.restaurant.id = r.id and s.rating > 0), 0.0), " +
+      "r.ratingSum = coalesce((select sum(s.rating) from Subscription s where s.restaurant.id = r.id), 0L), " +
+      "r.ratingCount = (select count(s) from Subscription s where s.restaurant.id = r.id and s.rating > 0), " +
+      "r.ratingHistogram.oneStar = " + COUNT_RATINGS + "1), " +
+      "r.ratingHistogram.twoStars = " + COUNT_RATINGS + "2), " +
+      "r.ratingHistogram.threeStars = " + COUNT_RATINGS + "3), " +
+      "r.ratingHistogram.fourStars = " + COUNT_RATINGS + "4), " +
+      "r.ratingHistogram.fiveStars = " + COUNT_RATINGS + "5) " +
+      "where r.id > :fromId and r.id <= :toId")
+  int reconcileRatings(Long fromId, Long toId);
+
+  /**
+   * Get the catalog version of a restaurant, without loading the restaurant.
+   *
+   * @param id The ID of the restaurant.
+   * @return An {@link Optional} containing the catalog version, if the restaurant exists.
+   */
+  @Query("select r.catalogVersion from Restaurant r where r.id = :id")
+  Optional<Long> findCatalogVersionById(Long id);
+
+  /**
+   * Increases the catalog version of a restaurant, marking a change of its data, menu or ratings.
+   *
+   * @param id The ID of the restaurant.
+   */
+  @Transactional
+  @Modifying
+  @Query("update Restaurant r set r.catalogVersion = r.catalogVersion + 1 where r.id = :id")
+  void incrementCatalogVersion(Long id);
+
+  /**
+   * Increases the catalog version of every restaurant.
+   */
+  @Transactional
+  @Modifying
+  @Query("update Restaurant r set r.catalogVersion = r.catalogVersion + 1")
+  void incrementAllCatalogVersions();
+
+  /**
+   * Streams every restaurant joined with each of its dishes, ordered by the ID of the restaurant, so the rows of a
+   * restaurant are consecutive. Restaurants without dishes produce a single row with {@code null} dish fields. <br/>
+   * The rows are {@link CatalogRowDto} projections instead of entities, so the persistence context stays empty while
+   * streaming and the rows are fetched from the database {@value #CATALOG_FETCH_SIZE} at a time.
+   *
+   * @return A {@link Stream} of catalog rows, to be consumed within a transaction and closed.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = CATALOG_FETCH_SIZE))
+  @Query("select new com.raisedeel.foodappmanager.restaurant.dto.CatalogRowDto(" +
+      "r.id, r.name, r.type, r.description, r.email, r.telephone, r.address, r.rating, r.ratingCount, r.photoUrl, " +
+      "d.id, d.name, d.price, d.category, d.description, d.photoUrl) " +
+      "from Restaurant r left join r.menu d order by r.id")
+  Stream<CatalogRowDto> streamCatalog();
+
+  /**
+   * Get the greatest ID of the restaurants.
+   *
+   * @return An {@link Optional} containing the greatest ID, empty if there are no restaurants.
+   */
+  @Query("select max(r.id) from Restaurant r")
+  Optional<Long> findMaxId();
 }
@@ -0,0 +1,225 @@
+package com.raisedeel.foodappmanager.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantImportDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the restaurants of an imported catalog one at a time, in the same formats the catalog is exported:
+ * <ul>
+ *   <li><b>NDJSON:</b> One {@link RestaurantImportDto} per line, blank lines are skipped.</li>
+ *   <li><b>CSV:</b> The header of the export followed by one row per dish (RFC 4180). The consecutive rows with the
+ *   same value in the id column belong to the same restaurant, a row with empty dish columns adds no dish.</li>
+ * </ul>
+ * A restaurant that cannot be read is returned with the reason instead of stopping the import, so the rest of the
+ * file can still be imported.
+ */
+abstract class CatalogImportReader {
+
+  /**
+   * A restaurant read from the catalog, or the reason why it could not be read.
+   *
+   * @param row        the line of the file where the restaurant starts.
+   * @param restaurant the restaurant read, {@code null} if it could not be read.
+   * @param error      the reason why the restaurant could not be read, {@code null} if it was read.
+   */
+  record Entry(long row, RestaurantImportDto restaurant, String error) {
+  }
+
+  static CatalogImportReader of(CatalogFormat format, InputStream inputStream, ObjectMapper objectMapper) {
+    BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+
+    return switch (format) {
+      case NDJSON -> new Ndjson(reader, objectMapper);
+      case CSV -> new Csv(reader);
+    };
+  }
+
+  /**
+   * Reads the next restaurant of the catalog.
+   *
+   * @return the next {@link Entry}, {@code null} at the end of the catalog.
+   * @throws IOException if the catalog could not be read.
+   */
+  abstract Entry next() throws IOException;
+
+  private static class Ndjson extends CatalogImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long line;
+
+    Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+      this.reader = reader;
+      this.objectMapper = objectMapper;
+    }
+
+    @Override
+    Entry next() throws IOException {
+      String text;
+
+      while ((text = reader.readLine()) != null) {
+        line++;
+        if (text.isBlank()) {
+          continue;
+        }
+
+        try {
+          return new Entry(line, objectMapper.readValue(text, RestaurantImportDto.class), null);
+        } catch (JsonProcessingException ex) {
+          return new Entry(line, null, "The restaurant is not valid JSON: " + ex.getOriginalMessage());
+        }
+      }
+      return null;
+    }
+  }
+
+  private static class Csv extends CatalogImportReader {
+
+    private static final int COLUMNS = RestaurantServiceImpl.CATALOG_CSV_HEADER.split(",").length;
+
+    private final BufferedReader reader;
+    private long line;
+    // The record read ahead, the next restaurant starts with it
+    private List<String> record;
+    private long recordLine;
+    private boolean started;
+
+    Csv(BufferedReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    Entry next() throws IOException {
+      if (!started) {
+        started = true;
+        advance();
+        if (record != null && !String.join(",", record).equals(RestaurantServiceImpl.CATALOG_CSV_HEADER)) {
+          throw new InvalidOperationException("The first line of the CSV must be the header: " +
+              RestaurantServiceImpl.CATALOG_CSV_HEADER);
+        }
+        advance();
+      }
+
+      if (record == null) {
+        return null;
+      }
+
+      long row = recordLine;
+      String key = record.get(0);
+      RestaurantImportDto restaurant = new RestaurantImportDto();
+      String error = null;
+
+      do {
+        if (error == null && record.size() != COLUMNS) {
+          error = "The line " + recordLine + " has " + record.size() + " columns instead of " + COLUMNS;
+        } else if (error == null) {
+          if (recordLine == row) {
+            readRestaurant(restaurant.getRestaurant());
+          }
+          error = readDish(restaurant.getMenu());
+        }
+        advance();
+      } while (record != null && record.get(0).equals(key));
+
+      return error == null ? new Entry(row, restaurant, null) : new Entry(row, null, error);
+    }
+
+    private void readRestaurant(RestaurantDto restaurantDto) {
+      restaurantDto.setName(record.get(1));
+      restaurantDto.setType(record.get(2));
+      restaurantDto.setDescription(record.get(3));
+      restaurantDto.setEmail(record.get(4));
+      restaurantDto.setTelephone(record.get(5));
+      restaurantDto.setAddress(record.get(6));
+      restaurantDto.setPhotoUrl(record.get(9));
+    }
+
+    private String readDish(List<DishDto> menu) {
+      // The columns of the dish are empty for a restaurant without dishes
+      if (record.subList(11, COLUMNS).stream().allMatch(String::isEmpty)) {
+        return null;
+      }
+
+      DishDto dishDto = new DishDto();
+      dishDto.setName(record.get(11));
+      dishDto.setCategory(record.get(13));
+      dishDto.setDescription(record.get(14));
+      dishDto.setPhotoUrl(record.get(15));
+
+      if (!record.get(12).isEmpty()) {
+        try {
+          dishDto.setPrice(new BigDecimal(record.get(12)));
+        } catch (NumberFormatException ex) {
+          return "The price of the dish in the line " + recordLine + " is not a number";
+        }
+      }
+
+      menu.add(dishDto);
+      return null;
+    }
+
+    private void advance() throws IOException {
+      do {
+        record = readRecord();
+      } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+    }
+
+    private List<String> readRecord() throws IOException {
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+
+      recordLine = ++line;
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+
+      while (true) {
+        if (quoted) {
+          if (c == -1) {
+            // An unclosed quote takes the rest of the file, the number of columns reports the error
+            quoted = false;
+            continue;
+          }
+          if (c == '"') {
+            c = reader.read();
+            if (c != '"') {
+              quoted = false;
+              continue;
+            }
+          }
+          if (c == '\n') {
+            line++;
+          }
+          field.append((char) c);
+        } else if (c == '"' && field.isEmpty()) {
+          quoted = true;
+        } else if (c == ',') {
+          fields.add(field.toString());
+          field.setLength(0);
+        } else if (c == '\n' || c == -1) {
+          fields.add(field.toString());
+          return fields;
+        } else if (c != '\r') {
+          field.append((char) c);
+        }
+        c = reader.read();
+      }
+    }
+  }
+}
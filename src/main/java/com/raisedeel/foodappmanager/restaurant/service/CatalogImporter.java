@@ -0,0 +1,212 @@
+package com.raisedeel.foodappmanager.restaurant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.DishMapper;
+import com.raisedeel.foodappmanager.dish.model.Dish;
+import com.raisedeel.foodappmanager.geocoding.Geocoder;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportErrorDto;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantImportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantMapper;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Imports restaurants with their menus in bulk. <br/>
+ * The restaurants are read from the file one at a time and validated with the constraints of the
+ * {@link com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto} and the
+ * {@link com.raisedeel.foodappmanager.dish.dto.DishDto}, the valid ones are saved in batches of
+ * {@code app.import.batch-size} restaurants, each batch in its own transaction. The rejected restaurants are reported
+ * with their line and reasons without stopping the import. A batch rejected by the database (e.g. by a constraint
+ * the validation does not check) is saved again one restaurant at a time, so only the restaurants rejected are
+ * reported and the others are still imported. The address of every restaurant is located by the {@link Geocoder}.
+ * <p/>
+ * The IDs of the restaurants and dishes are reserved from pooled sequences, so Hibernate groups their inserts in JDBC
+ * batches ({@code hibernate.jdbc.batch_size}) instead of executing one insert per row. Only the current batch of
+ * restaurants is kept in memory, whatever the size of the file.
+ *
+ * @see CatalogImportReader
+ */
+@Component
+public class CatalogImporter {
+
+  private final RestaurantRepository restaurantRepository;
+  private final RestaurantMapper restaurantMapper;
+  private final DishMapper dishMapper;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Geocoder geocoder;
+  private final int batchSize;
+
+  public CatalogImporter(
+      RestaurantRepository restaurantRepository,
+      RestaurantMapper restaurantMapper,
+      DishMapper dishMapper,
+      Validator validator,
+      ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher,
+      Geocoder geocoder,
+      @Value("${app.import.batch-size:500}") int batchSize) {
+    this.restaurantRepository = restaurantRepository;
+    this.restaurantMapper = restaurantMapper;
+    this.dishMapper = dishMapper;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.eventPublisher = eventPublisher;
+    this.geocoder = geocoder;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Imports the restaurants of the catalog read from the given stream.
+   *
+   * @param format      the {@link CatalogFormat} of the catalog.
+   * @param inputStream the stream with the catalog.
+   * @return the {@link CatalogImportReportDto} with the number of restaurants and dishes imported and the rejected
+   * restaurants.
+   * @throws IOException if the catalog could not be read from the stream.
+   */
+  public CatalogImportReportDto importCatalog(CatalogFormat format, InputStream inputStream) throws IOException {
+    CatalogImportReader reader = CatalogImportReader.of(format, inputStream, objectMapper);
+    List<CatalogImportErrorDto> errors = new ArrayList<>();
+    List<Restaurant> batch = new ArrayList<>(batchSize);
+    // The line of each restaurant of the batch
+    List<Long> rows = new ArrayList<>(batchSize);
+    List<Restaurant> saved = new ArrayList<>();
+    int restaurants = 0;
+    int dishes = 0;
+
+    for (CatalogImportReader.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+      List<String> messages = entry.error() != null ? List.of(entry.error()) : validate(entry.restaurant());
+      if (!messages.isEmpty()) {
+        errors.add(new CatalogImportErrorDto(entry.row(), messages));
+        continue;
+      }
+
+      batch.add(toRestaurant(entry.restaurant()));
+      rows.add(entry.row());
+
+      if (batch.size() == batchSize) {
+        save(batch, rows, saved, errors);
+      }
+    }
+    save(batch, rows, saved, errors);
+
+    for (Restaurant restaurant : saved) {
+      restaurants++;
+      dishes += restaurant.getMenu().size();
+    }
+    // The restaurants rejected by the database are found after the ones rejected by the validation
+    errors.sort(Comparator.comparingLong(CatalogImportErrorDto::row));
+
+    // The new restaurants may have been looked up before they existed
+    if (restaurants > 0) {
+      eventPublisher.publishEvent(RestaurantChangedEvent.all());
+    }
+
+    return new CatalogImportReportDto(restaurants, dishes, errors);
+  }
+
+  private List<String> validate(RestaurantImportDto restaurantImportDto) {
+    return validator.validate(restaurantImportDto).stream()
+        .map(this::toMessage)
+        .sorted()
+        .toList();
+  }
+
+  private String toMessage(ConstraintViolation<RestaurantImportDto> violation) {
+    String path = violation.getPropertyPath().toString();
+
+    // The fields of the restaurant are unwrapped, so only the dishes are identified by their path (e.g. menu[0])
+    return path.startsWith("menu[")
+        ? path.substring(0, path.indexOf(']') + 1) + ": " + violation.getMessage()
+        : violation.getMessage();
+  }
+
+  private Restaurant toRestaurant(RestaurantImportDto restaurantImportDto) {
+    Restaurant restaurant = restaurantMapper.dtoToRestaurant(restaurantImportDto.getRestaurant());
+    List<DishDto> dishDtos = restaurantImportDto.getMenu() != null ? restaurantImportDto.getMenu() : List.of();
+    List<Dish> menu = new ArrayList<>(dishDtos.size());
+
+    // The IDs sent (e.g. in an exported catalog) are ignored, the restaurants and dishes are always created
+    restaurant.setId(null);
+    restaurant.setRating(0);
+    geocoder.geocode(restaurant.getAddress()).ifPresentOrElse(coordinates -> {
+      restaurant.setLatitude(coordinates.latitude());
+      restaurant.setLongitude(coordinates.longitude());
+    }, () -> {
+      restaurant.setLatitude(null);
+      restaurant.setLongitude(null);
+    });
+    for (DishDto dishDto : dishDtos) {
+      Dish dish = dishMapper.dtoToDish(dishDto);
+      dish.setId(null);
+      dish.setRestaurant(restaurant);
+      menu.add(dish);
+    }
+    restaurant.setMenu(menu);
+
+    return restaurant;
+  }
+
+  private void save(List<Restaurant> batch, List<Long> rows, List<Restaurant> saved,
+                    List<CatalogImportErrorDto> errors) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    try {
+      transactionTemplate.executeWithoutResult(status -> restaurantRepository.saveAll(batch));
+      saved.addAll(batch);
+    } catch (DataAccessException ex) {
+      // The whole batch was rolled back, so each restaurant is saved again on its own to find the ones rejected
+      for (int i = 0; i < batch.size(); i++) {
+        Restaurant restaurant = batch.get(i);
+        clearIds(restaurant);
+        try {
+          transactionTemplate.executeWithoutResult(status -> restaurantRepository.save(restaurant));
+          saved.add(restaurant);
+        } catch (DataAccessException rowEx) {
+          errors.add(new CatalogImportErrorDto(rows.get(i), List.of(toMessage(rowEx))));
+        }
+      }
+    }
+
+    batch.clear();
+    rows.clear();
+  }
+
+  private void clearIds(Restaurant restaurant) {
+    // The IDs reserved by the rolled back insert, so the restaurant is inserted again instead of merged
+    restaurant.setId(null);
+    restaurant.setVersion(0);
+    restaurant.getMenu().forEach(dish -> dish.setId(null));
+  }
+
+  private String toMessage(DataAccessException ex) {
+    // Only the first line of the reason, without the statement executed
+    String reason = String.valueOf(ex.getMostSpecificCause().getMessage()).lines().findFirst().orElse("");
+    return "The restaurant was rejected by the database: " + reason;
+  }
+}
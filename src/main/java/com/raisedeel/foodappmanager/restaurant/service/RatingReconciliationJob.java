@@ -0,0 +1,29 @@
+package com.raisedeel.foodappmanager.restaurant.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that recalculates the rating aggregates and histogram of every restaurant from its subscriptions. <br/>
+ * The aggregates are maintained incrementally on every change of a rating, this job fixes any drift caused by
+ * writes that bypassed the service layer (e.g. manual changes in the database or deletions cascaded by the database).
+ * <p/>
+ * The schedule is configured with the {@code app.rating.reconciliation-cron} property, by default every day at 4 AM.
+ *
+ * @see RestaurantService#rebuildRatingAggregates()
+ */
+@AllArgsConstructor
+@Component
+public class RatingReconciliationJob {
+
+  RestaurantService restaurantService;
+
+  /**
+   * Recalculates the rating aggregates of all the restaurants.
+   */
+  @Scheduled(cron = "${app.rating.reconciliation-cron:0 0 4 * * *}")
+  public void reconcile() {
+    restaurantService.rebuildRatingAggregates();
+  }
+}
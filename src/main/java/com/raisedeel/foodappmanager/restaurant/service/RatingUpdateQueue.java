@@ -0,0 +1,264 @@
+package com.raisedeel.foodappmanager.restaurant.service;
+
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
+import com.raisedeel.foodappmanager.restaurant.model.RatingDelta;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.sync.service.SyncChangeRecorder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntSupplier;
+
+/**
+ * Write-behind queue for the rating aggregates of the restaurants. <br/>
+ * Instead of updating the restaurant row on every rating change, the changes are recorded as {@link RatingDelta}
+ * objects and combined per restaurant, a periodic flush then applies a single update for each restaurant with pending
+ * changes. During a burst of ratings for the same restaurant, this turns many contended updates of the same row
+ * into one.
+ * <p/>
+ * The behavior of the queue:
+ * <ul>
+ *   <li>A change is recorded after the transaction that produced it commits, so rolled back changes are never applied.</li>
+ *   <li>The IDs of the restaurants with pending changes are kept in a bounded queue ({@code app.rating.queue-capacity}).
+ *   When the queue is full, the change is applied in the calling thread, slowing down the writers (backpressure).</li>
+ *   <li>The queue is flushed every {@code app.rating.flush-interval} milliseconds and when the application shuts down.</li>
+ *   <li>A change that fails to be applied is logged and queued again to be retried by the next flush. If the queue is
+ *   full by then it is lost, the {@link RatingReconciliationJob} fixes the aggregates later.</li>
+ *   <li>The recalculation of the aggregates of a range of restaurants ({@link #rebuild(long, long, IntSupplier)})
+ *   already counts the changes committed, so it discards their pending changes. No change of the range is recorded or
+ *   applied while it runs.</li>
+ * </ul>
+ * The metrics {@code rating.queue.depth} (restaurants waiting to be flushed) and {@code rating.queue.coalescing.ratio}
+ * (rating changes received per update executed) are published to the {@link MeterRegistry}. Every update applied
+ * publishes a {@link RestaurantChangedEvent}, so the cached restaurant shows the new rating.
+ *
+ * @see RatingDelta
+ * @see RestaurantRepository#applyRatingDelta(Long, RatingDelta)
+ */
+@Slf4j
+@Component
+public class RatingUpdateQueue {
+
+  private final ConcurrentMap<Long, RatingDelta> pending = new ConcurrentHashMap<>();
+  private final BlockingQueue<Long> dirty;
+  // Shared by the changes recorded or applied, held exclusively while the aggregates of a range are recalculated
+  private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+  private final RestaurantRepository restaurantRepository;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final SyncChangeRecorder syncChangeRecorder;
+
+  private final Counter received;
+  private final Counter applied;
+  private final Counter overflowed;
+
+  public RatingUpdateQueue(
+      RestaurantRepository restaurantRepository,
+      PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher,
+      SyncChangeRecorder syncChangeRecorder,
+      MeterRegistry meterRegistry,
+      @Value("${app.rating.queue-capacity:10000}") int capacity) {
+    this.restaurantRepository = restaurantRepository;
+    this.eventPublisher = eventPublisher;
+    this.syncChangeRecorder = syncChangeRecorder;
+    this.dirty = new LinkedBlockingQueue<>(capacity);
+
+    // The changes may be applied after the transaction that produced them, so they always need their own
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+    this.received = Counter.builder("rating.queue.received")
+        .description("Rating changes recorded in the queue")
+        .register(meterRegistry);
+    this.applied = Counter.builder("rating.queue.applied")
+        .description("Updates of the rating aggregates executed")
+        .register(meterRegistry);
+    this.overflowed = Counter.builder("rating.queue.overflowed")
+        .description("Rating changes applied by the writer because the queue was full")
+        .register(meterRegistry);
+    Gauge.builder("rating.queue.depth", dirty, BlockingQueue::size)
+        .description("Restaurants with rating changes waiting to be applied")
+        .register(meterRegistry);
+    Gauge.builder("rating.queue.coalescing.ratio", this, RatingUpdateQueue::getCoalescingRatio)
+        .description("Rating changes received per update of the rating aggregates")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records the change of a subscription rating of a restaurant. If a transaction is active, the change is recorded
+   * once it commits.
+   *
+   * @param restaurantId the ID of the restaurant rated.
+   * @param oldRating    the previous rating of the subscription (0 for a new subscription).
+   * @param newRating    the new rating of the subscription (0 for a deleted subscription).
+   */
+  public void enqueue(Long restaurantId, int oldRating, int newRating) {
+    RatingDelta delta = RatingDelta.of(oldRating, newRating);
+    if (delta.isEmpty()) return;
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          record(restaurantId, delta);
+        }
+      });
+    } else {
+      record(restaurantId, delta);
+    }
+  }
+
+  /**
+   * Applies all the pending changes, executing one update per restaurant. The changes that fail are left for the next
+   * flush.
+   */
+  @Scheduled(fixedDelayString = "${app.rating.flush-interval:500}")
+  public void flush() {
+    // Only the restaurants queued so far, a change that fails is queued again and must not be retried right away
+    List<Long> restaurantIds = new ArrayList<>(dirty.size());
+    dirty.drainTo(restaurantIds);
+
+    for (Long restaurantId : restaurantIds) {
+      apply(restaurantId);
+    }
+  }
+
+  /**
+   * Recalculates the aggregates of a range of restaurants from their subscriptions, discarding the pending changes of
+   * the range as the recalculation counts them. The changes are neither recorded nor applied meanwhile, only a change
+   * committed right before the recalculation but recorded after it can still be counted twice.
+   *
+   * @param fromId        the ID after which the range starts.
+   * @param toId          the last ID of the range.
+   * @param recalculation the recalculation of the range, committed before returning.
+   * @return the number of restaurants recalculated.
+   */
+  public int rebuild(long fromId, long toId, IntSupplier recalculation) {
+    rebuildLock.writeLock().lock();
+    try {
+      pending.keySet().removeIf(restaurantId -> restaurantId > fromId && restaurantId <= toId);
+      // Otherwise a later change of the range would not be queued, as it is queued again only when it was not pending
+      dirty.removeIf(restaurantId -> restaurantId > fromId && restaurantId <= toId);
+      return recalculation.getAsInt();
+    } finally {
+      rebuildLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Applies the pending changes before the application shuts down.
+   */
+  @PreDestroy
+  public void shutdown() {
+    flush();
+  }
+
+  /**
+   * Gets the number of restaurants with changes waiting to be applied.
+   *
+   * @return the depth of the queue.
+   */
+  public int getDepth() {
+    return dirty.size();
+  }
+
+  /**
+   * Gets the number of rating changes received per update executed since the application started.
+   *
+   * @return the coalescing ratio, 1 if no update was executed yet.
+   */
+  public double getCoalescingRatio() {
+    double updates = applied.count();
+    return updates == 0 ? 1.0 : received.count() / updates;
+  }
+
+  private void record(Long restaurantId, RatingDelta delta) {
+    received.increment();
+
+    rebuildLock.readLock().lock();
+    try {
+      boolean[] created = {false};
+      pending.compute(restaurantId, (id, current) -> {
+        if (current == null) {
+          created[0] = true;
+          return delta;
+        }
+        return current.plus(delta);
+      });
+
+      // Only the first change of a restaurant is queued, the following ones are combined with it
+      if (created[0] && !dirty.offer(restaurantId)) {
+        overflowed.increment();
+        apply(restaurantId);
+      }
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  private void apply(Long restaurantId) {
+    rebuildLock.readLock().lock();
+    try {
+      // Removing the delta atomically guarantees that every change is applied once, changes recorded from now on
+      // create a new delta and queue the restaurant again
+      RatingDelta delta = pending.remove(restaurantId);
+      if (delta == null || delta.isEmpty()) return;
+
+      try {
+        transactionTemplate.executeWithoutResult(status -> {
+          restaurantRepository.applyRatingDelta(restaurantId, delta);
+          eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
+          // The update does not go through the entity, so the clients are told about the new rating explicitly
+          syncChangeRecorder.recordRestaurantUpdated(restaurantId);
+        });
+        applied.increment();
+      } catch (RuntimeException ex) {
+        log.error("Failed to apply the rating changes of the restaurant {}, retrying on the next flush",
+            restaurantId, ex);
+        requeue(restaurantId, delta);
+      }
+    } finally {
+      rebuildLock.readLock().unlock();
+    }
+  }
+
+  private void requeue(Long restaurantId, RatingDelta delta) {
+    boolean[] created = {false};
+    pending.compute(restaurantId, (id, current) -> {
+      if (current == null) {
+        created[0] = true;
+        return delta;
+      }
+      return current.plus(delta);
+    });
+
+    // A change recorded meanwhile already queued the restaurant again
+    if (created[0] && !dirty.offer(restaurantId)) {
+      // Applying it here could fail again, the reconciliation fixes the aggregates instead
+      pending.remove(restaurantId);
+      log.warn("The rating changes of the restaurant {} were discarded, the queue is full", restaurantId);
+    }
+  }
+}
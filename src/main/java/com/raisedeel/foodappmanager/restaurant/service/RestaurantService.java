@@ -1,8 +1,18 @@
 package com.raisedeel.foodappmanager.restaurant.service;
 
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.response.Versioned;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RatingHistogramDto;
 import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSort;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
 
 /**
  * A service interface for restaurant management operations.<br/>
@@ -20,7 +30,7 @@ public interface RestaurantService {
   RestaurantDto createRestaurant(RestaurantDto restaurantDto);
 
   /**
-   * Retrieves the restaurant with the given id.
+   * Retrieves the restaurant with the given id, including its menu.
    *
    * @param id the ID of the restaurant to retrieve.
    * @return the {@link RestaurantDto} representing the retrieved restaurant.
@@ -28,11 +38,68 @@ public interface RestaurantService {
   RestaurantDto retrieveRestaurant(Long id);
 
   /**
-   * Retrieves all restaurants from the database.
+   * Retrieves the restaurant with the given id, including its menu, along with the catalog version it was read at.
    *
-   * @return a list of {@link RestaurantDto} representing all restaurants.
+   * @param id the ID of the restaurant to retrieve.
+   * @return the {@link RestaurantDto} of the restaurant with its catalog version.
+   */
+  Versioned<RestaurantDto> retrieveVersionedRestaurant(Long id);
+
+  /**
+   * Retrieves a page of restaurants from the database in the given order. The menus are not included.
+   *
+   * @param sort   the {@link RestaurantSort} of the listing.
+   * @param size   the maximum number of restaurants in the page.
+   * @param cursor the continuation token of the previous page, or {@code null} to retrieve the first page.
+   * @return a {@link CursorPage} of {@link RestaurantSummaryDto} with the token to retrieve the next page.
+   */
+  CursorPage<RestaurantSummaryDto> retrieveRestaurants(RestaurantSort sort, int size, String cursor);
+
+  /**
+   * Retrieves the distribution of the ratings given to the restaurant with the given id.
+   *
+   * @param id the ID of the restaurant.
+   * @return the {@link RatingHistogramDto} of the restaurant.
+   */
+  RatingHistogramDto retrieveRatingHistogram(Long id);
+
+  /**
+   * Retrieves the catalog version of the restaurant with the given id, which changes whenever the restaurant, its
+   * menu or its ratings change.
+   *
+   * @param id the ID of the restaurant.
+   * @return an {@link Optional} with the catalog version, empty if the restaurant does not exist.
+   */
+  Optional<Long> retrieveCatalogVersion(Long id);
+
+  /**
+   * Writes every restaurant with its menu to the given stream in the given format, reading the catalog from the
+   * database as it is written so the memory used does not depend on the size of the catalog.
+   *
+   * @param format       the {@link CatalogFormat} of the export.
+   * @param outputStream the stream receiving the export, it is flushed but not closed.
+   * @throws IOException if the export could not be written to the stream.
+   */
+  void exportCatalog(CatalogFormat format, OutputStream outputStream) throws IOException;
+
+  /**
+   * Creates the restaurants, with their menus, read from the given stream in the given format. The restaurants that
+   * are not valid are reported and skipped, the rest are imported.
+   *
+   * @param format      the {@link CatalogFormat} of the catalog.
+   * @param inputStream the stream with the catalog.
+   * @return the {@link CatalogImportReportDto} with the result of the import.
+   * @throws IOException if the catalog could not be read from the stream.
+   */
+  CatalogImportReportDto importCatalog(CatalogFormat format, InputStream inputStream) throws IOException;
+
+  /**
+   * Recalculates the rating aggregates and the rating histogram of every restaurant from the subscriptions,
+   * processing the restaurants in chunks.
+   *
+   * @return the number of restaurants recalculated.
    */
-  List<RestaurantDto> retrieveRestaurants();
+  int rebuildRatingAggregates();
 
   /**
    * Updates the restaurant with the given id using the data in the {@link RestaurantDto}.
@@ -1,15 +1,47 @@
 package com.raisedeel.foodappmanager.restaurant.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.CacheConfig;
+import com.raisedeel.foodappmanager.concurrent.OptimisticRetry;
+import com.raisedeel.foodappmanager.concurrent.SingleFlight;
 import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
 import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.geocoding.Coordinates;
+import com.raisedeel.foodappmanager.geocoding.Geocoder;
+import com.raisedeel.foodappmanager.pagination.Cursor;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.response.Versioned;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogRowDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RatingHistogramDto;
 import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
 import com.raisedeel.foodappmanager.restaurant.dto.RestaurantMapper;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSort;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheGuard;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
 import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Implementation of the {@link RestaurantService} interface for restaurant management operations.
@@ -22,48 +54,173 @@ import java.util.List;
 @Service
 public class RestaurantServiceImpl implements RestaurantService {
 
+  // The maximum number of restaurants that can be requested in a single page
+  public static final int MAX_PAGE_SIZE = 100;
+  // The header of the catalog exported as CSV, with the columns in the order of CatalogRowDto
+  public static final String CATALOG_CSV_HEADER = "id,name,type,description,email,telephone,address,rating," +
+      "totalOfRatings,photoUrl,dishId,dishName,dishPrice,dishCategory,dishDescription,dishPhotoUrl";
+  // The number of restaurant IDs recalculated in each transaction when rebuilding the rating aggregates
+  public static final long REBUILD_CHUNK_SIZE = 500;
+
   RestaurantRepository restaurantRepository;
   RestaurantMapper restaurantMapper;
+  RatingUpdateQueue ratingUpdateQueue;
+  OptimisticRetry optimisticRetry;
+  SingleFlight singleFlight;
+  RestaurantCacheGuard restaurantCacheGuard;
+  ApplicationEventPublisher eventPublisher;
+  ObjectMapper objectMapper;
+  CatalogImporter catalogImporter;
+  Geocoder geocoder;
 
   /**
    * {@inheritDoc}
+   * The restaurant is placed at the coordinates of its address found by the {@link Geocoder}.
    */
   @Override
   public RestaurantDto createRestaurant(RestaurantDto restaurantDto) {
     Restaurant restaurant = restaurantMapper.dtoToRestaurant(restaurantDto);
-    return restaurantMapper.restaurantToDto(restaurantRepository.save(restaurant));
+    locate(restaurant, geocoder.geocode(restaurant.getAddress()));
+    RestaurantDto savedRestaurant = restaurantMapper.restaurantToDto(restaurantRepository.save(restaurant));
+
+    // The restaurant may have been looked up before it existed
+    eventPublisher.publishEvent(new RestaurantChangedEvent(savedRestaurant.getId()));
+    return savedRestaurant;
   }
 
   /**
    * {@inheritDoc}
+   * The restaurant is cached until it changes, concurrent misses of the same restaurant share a single load.
    */
   @Override
   public RestaurantDto retrieveRestaurant(Long id) {
-    return restaurantMapper.restaurantToDto(getRestaurantById(id));
+    return restaurantCacheGuard.get(CacheConfig.RESTAURANTS, id,
+        () -> restaurantMapper.restaurantToDto(getRestaurantWithMenuById(id)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * The restaurant is read from the database, not from the cache, so the version is the one of the row read.
+   */
+  @Override
+  public Versioned<RestaurantDto> retrieveVersionedRestaurant(Long id) {
+    return singleFlight.execute("versionedRestaurant:" + id, () -> {
+      Restaurant restaurant = getRestaurantWithMenuById(id);
+      return new Versioned<>(restaurant.getCatalogVersion(), restaurantMapper.restaurantToDto(restaurant));
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}.
+   */
+  @Override
+  public CursorPage<RestaurantSummaryDto> retrieveRestaurants(RestaurantSort sort, int size, String cursor) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Cursor position = cursor != null ? Cursor.decode(cursor, sort.name()) : null;
+    long lastId = position != null ? position.id() : 0L;
+    // Fetch one more restaurant to know if there is a next page
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    List<RestaurantSummaryDto> restaurants = switch (sort) {
+      case ID -> restaurantRepository.findPageOrderById(lastId, limit);
+      case NAME -> restaurantRepository.findPageOrderByName(
+          position != null ? position.value() : "", lastId, limit);
+      case RATING -> restaurantRepository.findPageOrderByRating(
+          position != null ? position.valueAsDouble() : Double.MAX_VALUE, lastId, limit);
+    };
+
+    return CursorPage.of(restaurants, pageSize, restaurant -> positionOf(restaurant, sort));
+  }
+
+  /**
+   * {@inheritDoc}
+   * The version is read by the primary key of the restaurant every time, never from a cache, so a version cached
+   * before a change cannot be answered as current.
+   */
+  @Override
+  public Optional<Long> retrieveCatalogVersion(Long id) {
+    return restaurantRepository.findCatalogVersionById(id);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public RatingHistogramDto retrieveRatingHistogram(Long id) {
+    return singleFlight.execute("histogram:" + id, () -> restaurantRepository.findRatingHistogramById(id)
+        .orElseThrow(() -> new EntityNotFoundException("Restaurant")));
+  }
+
+  /**
+   * {@inheritDoc}
+   * The catalog is read through a single streamed query of projections, so no entity is kept in the persistence
+   * context and only the rows of the current fetch are held in memory.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public void exportCatalog(CatalogFormat format, OutputStream outputStream) throws IOException {
+    try (Stream<CatalogRowDto> rows = restaurantRepository.streamCatalog()) {
+      switch (format) {
+        case NDJSON -> writeCatalogAsNdjson(rows.iterator(), outputStream);
+        case CSV -> writeCatalogAsCsv(rows.iterator(), outputStream);
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * The restaurants are saved in batches by the {@link CatalogImporter}.
+   */
+  @Override
+  public CatalogImportReportDto importCatalog(CatalogFormat format, InputStream inputStream) throws IOException {
+    return catalogImporter.importCatalog(format, inputStream);
   }
 
   /**
    * {@inheritDoc}
+   * Each chunk of {@link #REBUILD_CHUNK_SIZE} IDs is recalculated in its own transaction to keep the locks short.
+   * The pending changes of the {@link RatingUpdateQueue} for a chunk are discarded as it is recalculated, so they are
+   * not counted twice.
    */
   @Override
-  public List<RestaurantDto> retrieveRestaurants() {
-    return ((List<Restaurant>) restaurantRepository.findAll())
-        .stream()
-        .map(restaurantMapper::restaurantToDto)
-        .toList();
+  public int rebuildRatingAggregates() {
+    long maxId = restaurantRepository.findMaxId().orElse(0L);
+    int rebuilt = 0;
+
+    for (long fromId = 0; fromId < maxId; fromId += REBUILD_CHUNK_SIZE) {
+      long chunkFromId = fromId;
+      long chunkToId = fromId + REBUILD_CHUNK_SIZE;
+      rebuilt += ratingUpdateQueue.rebuild(chunkFromId, chunkToId,
+          () -> restaurantRepository.reconcileRatings(chunkFromId, chunkToId));
+    }
+
+    eventPublisher.publishEvent(RestaurantChangedEvent.all());
+
+    return rebuilt;
   }
 
   /**
    * {@inheritDoc}
+   * The operation is retried if the restaurant is updated by another request at the same time. A new address is
+   * located by the {@link Geocoder} before the transaction starts.
    */
   @Override
   public RestaurantDto updateRestaurant(Long id, RestaurantDto restaurantDto) {
-    Restaurant updatedRestaurant = restaurantMapper.updateRestaurantFromDto(
-        restaurantDto,
-        getRestaurantById(id)
-    );
+    Optional<Coordinates> coordinates = Optional.ofNullable(restaurantDto.getAddress()).flatMap(geocoder::geocode);
+
+    return optimisticRetry.execute("Restaurant", () -> {
+      Restaurant updatedRestaurant = restaurantMapper.updateRestaurantFromDto(
+          restaurantDto,
+          getRestaurantWithMenuById(id)
+      );
+      if (restaurantDto.getAddress() != null) {
+        locate(updatedRestaurant, coordinates);
+      }
 
-    return restaurantMapper.restaurantToDto(restaurantRepository.save(updatedRestaurant));
+      eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+      return restaurantMapper.restaurantToDto(restaurantRepository.save(updatedRestaurant));
+    });
   }
 
   /**
@@ -80,6 +237,12 @@ public class RestaurantServiceImpl implements RestaurantService {
     }
 
     restaurantRepository.delete(restaurant);
+    eventPublisher.publishEvent(new RestaurantChangedEvent(id));
+  }
+
+  private void locate(Restaurant restaurant, Optional<Coordinates> coordinates) {
+    restaurant.setLatitude(coordinates.map(Coordinates::latitude).orElse(null));
+    restaurant.setLongitude(coordinates.map(Coordinates::longitude).orElse(null));
   }
 
   private Restaurant getRestaurantById(Long id) {
@@ -87,4 +250,111 @@ public class RestaurantServiceImpl implements RestaurantService {
         .orElseThrow(() -> new EntityNotFoundException("Restaurant"));
   }
 
+  private Restaurant getRestaurantWithMenuById(Long id) {
+    return restaurantRepository.findWithMenuById(id)
+        .orElseThrow(() -> new EntityNotFoundException("Restaurant"));
+  }
+
+  private void writeCatalogAsNdjson(Iterator<CatalogRowDto> rows, OutputStream outputStream) throws IOException {
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .setRootValueSeparator(null);
+    Long restaurantId = null;
+
+    while (rows.hasNext()) {
+      CatalogRowDto row = rows.next();
+
+      // The rows of a restaurant are consecutive, a new ID closes the previous restaurant
+      if (!row.id().equals(restaurantId)) {
+        if (restaurantId != null) {
+          endNdjsonRestaurant(generator);
+        }
+        restaurantId = row.id();
+
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.id());
+        generator.writeStringField("name", row.name());
+        generator.writeStringField("type", row.type());
+        generator.writeStringField("description", row.description());
+        generator.writeStringField("email", row.email());
+        generator.writeStringField("telephone", row.telephone());
+        generator.writeStringField("address", row.address());
+        generator.writeNumberField("rating", row.rating());
+        generator.writeNumberField("totalOfRatings", row.totalOfRatings());
+        generator.writeStringField("photoUrl", row.photoUrl());
+        generator.writeArrayFieldStart("menu");
+      }
+
+      if (row.dishId() != null) {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.dishId());
+        generator.writeStringField("name", row.dishName());
+        generator.writeNumberField("price", row.dishPrice());
+        generator.writeStringField("category", row.dishCategory());
+        generator.writeStringField("description", row.dishDescription());
+        generator.writeStringField("photoUrl", row.dishPhotoUrl());
+        generator.writeEndObject();
+      }
+    }
+
+    if (restaurantId != null) {
+      endNdjsonRestaurant(generator);
+    }
+    generator.close();
+  }
+
+  private void endNdjsonRestaurant(JsonGenerator generator) throws IOException {
+    generator.writeEndArray();
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  private void writeCatalogAsCsv(Iterator<CatalogRowDto> rows, OutputStream outputStream) throws IOException {
+    Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    writer.write(CATALOG_CSV_HEADER);
+    writer.write("\r\n");
+
+    while (rows.hasNext()) {
+      CatalogRowDto row = rows.next();
+      Object[] values = {
+          row.id(), row.name(), row.type(), row.description(), row.email(), row.telephone(), row.address(),
+          row.rating(), row.totalOfRatings(), row.photoUrl(), row.dishId(), row.dishName(), row.dishPrice(),
+          row.dishCategory(), row.dishDescription(), row.dishPhotoUrl()
+      };
+
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        writer.write(toCsvField(values[i]));
+      }
+      writer.write("\r\n");
+    }
+
+    writer.flush();
+  }
+
+  private String toCsvField(Object value) {
+    if (value == null) {
+      return "";
+    }
+
+    String field = value.toString();
+    // Fields with separators, quotes or line breaks are quoted, doubling their quotes (RFC 4180)
+    if (field.contains(",") || field.contains("\"") || field.contains("\n") || field.contains("\r")) {
+      return '"' + field.replace("\"", "\"\"") + '"';
+    }
+    return field;
+  }
+
+  private Cursor positionOf(RestaurantSummaryDto restaurant, RestaurantSort sort) {
+    String value = switch (sort) {
+      case ID -> "";
+      case NAME -> restaurant.name();
+      case RATING -> Double.toString(restaurant.rating());
+    };
+
+    return new Cursor(sort.name(), restaurant.id(), value);
+  }
+
 }
@@ -1,7 +1,18 @@
 package com.raisedeel.foodappmanager.restaurant.web;
 
+import com.raisedeel.foodappmanager.CacheConfig;
+import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
 import com.raisedeel.foodappmanager.exception.model.ErrorResponse;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RatingHistogramDto;
 import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSort;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.response.ETags;
+import com.raisedeel.foodappmanager.response.SerializedResponse;
+import com.raisedeel.foodappmanager.response.SerializedResponseCache;
 import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,11 +22,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
 @AllArgsConstructor
 @Tag(name = "3.- Restaurant Controller", description = "Allow the owners the creation and updating of restaurants. All users are allowed retrieving of data. Deletion of restaurants is restricted to the admin.")
@@ -24,6 +39,7 @@ import java.util.List;
 public class RestaurantController {
 
   RestaurantService restaurantService;
+  SerializedResponseCache serializedResponseCache;
 
   @Operation(summary = "Create a restaurant", description = "Creates the restaurant using the data sent but will be owner-less. To complete the creation process an administrator has to promote a user. Requires a valid Bearer Token.")
   @ApiResponses(value = {
@@ -37,22 +53,59 @@ public class RestaurantController {
     return new ResponseEntity<>(restaurantService.createRestaurant(restaurantDto), HttpStatus.CREATED);
   }
 
-  @Operation(summary = "Get a restaurant", description = "Get the restaurant with the given id. No token is required.")
+  @Operation(summary = "Get a restaurant", description = "Get the restaurant with the given id, including its menu. The response is compressed with gzip if the client accepts it. Send the ETag of a previous response in the If-None-Match header to skip the data if it did not change. No token is required.")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "200", description = "Successful operation",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = RestaurantDto.class))),
+      @ApiResponse(responseCode = "304", description = "The data did not change since the ETag sent in If-None-Match", content = @Content),
       @ApiResponse(responseCode = "404", description = "The restaurant could not be found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
   })
   @GetMapping(value = "/{id}", produces = "application/json")
-  public ResponseEntity<RestaurantDto> retrieveRestaurantHandler(@PathVariable Long id) {
-    return new ResponseEntity<>(restaurantService.retrieveRestaurant(id), HttpStatus.OK);
+  public ResponseEntity<byte[]> retrieveRestaurantHandler(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    long version = restaurantService.retrieveCatalogVersion(id)
+        .orElseThrow(() -> new EntityNotFoundException("Restaurant"));
+    String etag = ETags.of(id, version);
+
+    if (ETags.matches(ifNoneMatch, etag)) {
+      return ETags.notModified(etag);
+    }
+    SerializedResponse response = serializedResponseCache.get(CacheConfig.RESTAURANT_RESPONSES, id, version,
+        () -> restaurantService.retrieveVersionedRestaurant(id));
+    // The ETag of the version serialized, which may be newer than the one checked
+    return response.toResponseEntity(acceptEncoding, ETags.of(id, response.version()));
   }
 
-  @Operation(summary = "Get all restaurants", description = "Get all the restaurants. No token is required.")
-  @ApiResponse(responseCode = "200", description = "Successful operation")
+  @Operation(summary = "Get all restaurants", description = "Get a summary (without the menu) of the restaurants one page at a time, sorted by ID, NAME or RATING (default: ID). The page size is limited to 100 restaurants (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The cursor is invalid or belongs to another sort",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
   @GetMapping(value = "/all", produces = "application/json")
-  public ResponseEntity<List<RestaurantDto>> retrieveRestaurantsHandler() {
-    return new ResponseEntity<>(restaurantService.retrieveRestaurants(), HttpStatus.OK);
+  public ResponseEntity<CursorPage<RestaurantSummaryDto>> retrieveRestaurantsHandler(
+      @RequestParam(defaultValue = "ID") RestaurantSort sort,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(restaurantService.retrieveRestaurants(sort, size, cursor), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Get the rating histogram of a restaurant", description = "Get the number of ratings of 1 to 5 stars given to the restaurant with the given id. Ratings of 0 stars are not counted. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "404", description = "The restaurant could not be found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @GetMapping(value = "/{id}/histogram", produces = "application/json")
+  public ResponseEntity<RatingHistogramDto> retrieveRatingHistogramHandler(@PathVariable Long id) {
+    return new ResponseEntity<>(restaurantService.retrieveRatingHistogram(id), HttpStatus.OK);
   }
 
   @Operation(summary = "Update a restaurant", description = "Updates the past data of the restaurant using the data sent. Access restricted to Owner. Requires a valid Bearer Token.")
@@ -92,4 +145,58 @@ public class RestaurantController {
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
   }
 
+  @Operation(summary = "Rebuild the ratings of the restaurants", description = "Recalculates the rating, total of ratings and rating histogram of every restaurant from the subscriptions. Requires the administrator.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "204", description = "Successful operation", content = @Content),
+      @ApiResponse(responseCode = "401", description = "The bearer could not be authenticated",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "403", description = "The bearer is not an administrator",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @PostMapping(value = "/admin/histogram/rebuild", produces = "application/json")
+  public ResponseEntity<HttpStatus> rebuildRatingAggregatesHandler() {
+    restaurantService.rebuildRatingAggregates();
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+
+  @Operation(summary = "Export the catalog", description = "Streams every restaurant with its menu as NDJSON (one restaurant per line, the default) or CSV (one dish per row). The catalog is read from the database while it is sent, so it can be used for full dumps of large catalogs. Requires the administrator.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation", content = {
+          @Content(mediaType = "application/x-ndjson"),
+          @Content(mediaType = "text/csv")
+      }),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The format is invalid",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "401", description = "The bearer could not be authenticated",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "403", description = "The bearer is not an administrator",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @GetMapping(value = "/admin/export")
+  public ResponseEntity<StreamingResponseBody> exportCatalogHandler(
+      @RequestParam(defaultValue = "NDJSON") CatalogFormat format) {
+    return ResponseEntity.ok()
+        .contentType(format.getMediaType())
+        .header(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("catalog." + format.getExtension()).build().toString())
+        .body(outputStream -> restaurantService.exportCatalog(format, outputStream));
+  }
+
+  @Operation(summary = "Import a catalog", description = "Creates the restaurants with their menus sent in the body as NDJSON (one restaurant per line, the default) or CSV (one dish per row), in the same formats of the export. The restaurants are validated like in their creation, the invalid ones are reported with their line and the rest are imported. The restaurants are owner-less. Requires the administrator.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation, some restaurants may have been rejected"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The format is invalid or the CSV does not start with its header",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "401", description = "The bearer could not be authenticated",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "403", description = "The bearer is not an administrator",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @PostMapping(value = "/admin/import", produces = "application/json")
+  public ResponseEntity<CatalogImportReportDto> importCatalogHandler(
+      @RequestParam(defaultValue = "NDJSON") CatalogFormat format,
+      InputStream inputStream) throws IOException {
+    return new ResponseEntity<>(restaurantService.importCatalog(format, inputStream), HttpStatus.OK);
+  }
+
 }
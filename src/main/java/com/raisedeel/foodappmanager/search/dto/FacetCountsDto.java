@@ -0,0 +1,23 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+
+import java.util.Map;
+
+/**
+ * Data Transfer Object (DTO) representing the number of restaurants of each value of the facets of a filter. The
+ * counts of a facet apply the filters of the other facets but not its own, so they tell how many restaurants would be
+ * found by choosing each value instead.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Types:</b> The restaurants of each type.</li>
+ *   <li><b>Ratings:</b> The restaurants with a rating of at least 1 to 5 stars.</li>
+ *   <li><b>PriceBands:</b> The restaurants with dishes in each {@link PriceBand}.</li>
+ * </ul>
+ */
+public record FacetCountsDto(
+    Map<String, Long> types,
+    Map<Integer, Long> ratings,
+    Map<PriceBand, Long> priceBands
+) {
+}
@@ -0,0 +1,24 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a page of the restaurants found by a faceted filter, with the counts of
+ * its facets.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Content:</b> The summaries of the restaurants of the page, ordered by ID.</li>
+ *   <li><b>NextCursor:</b> An opaque continuation token to request the next page. <em>Null if this is the last page.</em></li>
+ *   <li><b>Total:</b> The number of restaurants matching the filter, in every page.</li>
+ *   <li><b>Facets:</b> The {@link FacetCountsDto} of the filter.</li>
+ * </ul>
+ */
+public record FacetPageDto(
+    List<RestaurantSummaryDto> content,
+    String nextCursor,
+    long total,
+    FacetCountsDto facets
+) {
+}
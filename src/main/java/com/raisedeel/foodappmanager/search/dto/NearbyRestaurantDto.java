@@ -0,0 +1,17 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+
+/**
+ * Data Transfer Object (DTO) representing a restaurant found around a position.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Restaurant:</b> The {@link RestaurantSummaryDto} of the restaurant.</li>
+ *   <li><b>DistanceKm:</b> The distance from the position to the restaurant, in kilometers.</li>
+ * </ul>
+ */
+public record NearbyRestaurantDto(
+    RestaurantSummaryDto restaurant,
+    double distanceKm
+) {
+}
@@ -0,0 +1,17 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+/**
+ * Defines how the words of a search are matched against the catalog. Every mode ranks the best matches first and
+ * uses the ID of the restaurant to break ties.
+ * <p/>The available modes are:
+ * <ul>
+ *   <li><b>TERMS:</b> Exact words in the name, type and description of the restaurant or the name, category and
+ *   description of its dishes, ranked by relevance.</li>
+ *   <li><b>FUZZY:</b> Words similar to the ones searched in the name of the restaurant or of its dishes, tolerating
+ *   typos, ranked by similarity.</li>
+ * </ul>
+ */
+public enum SearchMode {
+  TERMS,
+  FUZZY
+}
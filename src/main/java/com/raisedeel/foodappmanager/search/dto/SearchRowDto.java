@@ -0,0 +1,28 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+/**
+ * Data Transfer Object (DTO) representing a row read to index the catalog: the searchable fields of a restaurant
+ * joined with one of its dishes. This record is built directly by the repository query (as a projection), so the
+ * indexing never loads managed entities. <br/>
+ * The dish fields are {@code null} for a restaurant without dishes.
+ *
+ * @see com.raisedeel.foodappmanager.search.repository.SearchRowRepository
+ * @see com.raisedeel.foodappmanager.search.model.CatalogDocument
+ */
+public record SearchRowDto(
+    Long id,
+    long catalogVersion,
+    String name,
+    String type,
+    String description,
+    double rating,
+    long totalOfRatings,
+    Double latitude,
+    Double longitude,
+    Long dishId,
+    String dishName,
+    Double dishPrice,
+    String dishCategory,
+    String dishDescription
+) {
+}
@@ -0,0 +1,15 @@
+package com.raisedeel.foodappmanager.search.dto;
+
+import com.raisedeel.foodappmanager.search.model.SuggestionType;
+
+/**
+ * Data Transfer Object (DTO) representing a completion suggested for the text typed in the search box.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Text:</b> The text suggested, as written in the catalog.</li>
+ *   <li><b>Type:</b> Whether the text is the name of a restaurant, a type of restaurant or the name of a dish.</li>
+ *   <li><b>Weight:</b> The popularity of the suggestion, the suggestions are sorted by it.</li>
+ * </ul>
+ */
+public record SuggestionDto(String text, SuggestionType type, long weight) {
+}
@@ -0,0 +1,27 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+
+/**
+ * An in-memory index of the restaurants and their menus, kept up to date by the {@link CatalogIndexUpdater}. <br/>
+ * The updater never calls an index concurrently for the same restaurant and never replaces a document with an older
+ * version, but it may call it concurrently for different restaurants.
+ *
+ * @see CatalogIndexUpdater
+ */
+public interface CatalogIndex {
+
+  /**
+   * Adds a restaurant to the index, replacing the previous document of the restaurant if it was indexed.
+   *
+   * @param document the {@link CatalogDocument} of the restaurant.
+   */
+  void index(CatalogDocument document);
+
+  /**
+   * Removes a restaurant from the index, if it was indexed.
+   *
+   * @param restaurantId the ID of the restaurant.
+   */
+  void remove(long restaurantId);
+}
@@ -0,0 +1,240 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import com.raisedeel.foodappmanager.search.repository.SearchRowRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps every {@link CatalogIndex} up to date with the restaurants and their menus. <br/>
+ * The indexes are built when the application starts, reading the catalog in chunks of {@link #REBUILD_CHUNK_SIZE}
+ * restaurants. Then, every {@link RestaurantChangedEvent} queues the restaurant once the transaction that changed it
+ * commits, and a single background worker reads it again and replaces its document in the indexes, or removes it if
+ * it was deleted. An event affecting every restaurant (e.g. an import of the catalog) reads the whole catalog again.
+ * <p/>
+ * The writers never wait for the indexes nor hold a second connection to read the restaurant, and the indexes read
+ * the database through one connection at a time. A restaurant changed many times before the worker reads it is read
+ * once. A read that fails queues its restaurants again, to be retried after {@link #RETRY_DELAY_MS} milliseconds.
+ * The events published once the application is shutting down are ignored.
+ * <p/>
+ * The catalog version indexed of each restaurant is kept, so a document read before a concurrent change (e.g. by a
+ * rebuild in progress) never replaces a newer one and the unchanged restaurants are skipped when the whole catalog is
+ * read again.
+ *
+ * @see CatalogIndex
+ */
+@Slf4j
+@Component
+public class CatalogIndexUpdater {
+
+  // The number of restaurant IDs read in each transaction when building the indexes
+  public static final long REBUILD_CHUNK_SIZE = 500;
+  // The delay before reading again the restaurants of a read that failed
+  public static final long RETRY_DELAY_MS = 1000;
+  // The version of a deleted restaurant, greater than any version read
+  private static final long REMOVED = Long.MAX_VALUE;
+
+  private final ConcurrentMap<Long, Long> versions = new ConcurrentHashMap<>();
+  // The restaurants waiting to be read again, and whether the whole catalog is
+  private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean pendingAll = new AtomicBoolean();
+  // Whether the worker is already scheduled to read the restaurants waiting
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "catalog-index-updater");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private volatile boolean stopped;
+
+  private final List<CatalogIndex> indexes;
+  private final SearchRowRepository searchRowRepository;
+  private final RestaurantRepository restaurantRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  public CatalogIndexUpdater(
+      List<CatalogIndex> indexes,
+      SearchRowRepository searchRowRepository,
+      RestaurantRepository restaurantRepository,
+      PlatformTransactionManager transactionManager) {
+    this.indexes = indexes;
+    this.searchRowRepository = searchRowRepository;
+    this.restaurantRepository = restaurantRepository;
+
+    // The restaurants are read by the worker or at startup, always in a transaction of their own
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.transactionTemplate.setReadOnly(true);
+  }
+
+  /**
+   * Builds the indexes from the catalog once the application is ready.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    reindexAll();
+  }
+
+  /**
+   * Queues the restaurant changed to be indexed again by the worker, or every restaurant if the event affects all of
+   * them.
+   *
+   * @param event the {@link RestaurantChangedEvent} published.
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRestaurantChanged(RestaurantChangedEvent event) {
+    if (event.restaurantId() == null) {
+      pendingAll.set(true);
+    } else {
+      pending.add(event.restaurantId());
+    }
+
+    schedule(0);
+  }
+
+  /**
+   * Waits until the worker indexed every restaurant changed before the call.
+   */
+  public void awaitIndexed() {
+    try {
+      // The worker runs its tasks in order, so this one runs after the reads already scheduled
+      worker.submit(() -> {
+      }).get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  /**
+   * Stops the worker, the restaurants waiting are indexed when the application starts again.
+   */
+  @PreDestroy
+  public void shutdown() {
+    // Other beans may still publish events while they are destroyed (e.g. the last flush of the ratings)
+    stopped = true;
+    worker.shutdownNow();
+  }
+
+  /**
+   * Reads a restaurant with its menu and indexes it, or removes it from the indexes if it does not exist.
+   *
+   * @param restaurantId the ID of the restaurant.
+   */
+  public void reindex(Long restaurantId) {
+    List<CatalogDocument> documents = read(restaurantId - 1, restaurantId);
+
+    if (documents.isEmpty()) {
+      remove(restaurantId);
+    } else {
+      apply(documents.get(0));
+    }
+  }
+
+  /**
+   * Reads the whole catalog and indexes the restaurants changed since they were last indexed. The chunks of the
+   * catalog are read one after another, each in its own transaction.
+   *
+   * @return the number of restaurants read.
+   */
+  public long reindexAll() {
+    long maxId = restaurantRepository.findMaxId().orElse(0L);
+    long read = 0;
+
+    for (long fromId = 0; fromId < maxId; fromId += REBUILD_CHUNK_SIZE) {
+      List<CatalogDocument> documents = read(fromId, fromId + REBUILD_CHUNK_SIZE);
+      documents.forEach(this::apply);
+      read += documents.size();
+    }
+    return read;
+  }
+
+  private void schedule(long delay) {
+    if (stopped || !scheduled.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      worker.schedule(this::reindexPending, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException ex) {
+      // The worker was stopped after the check
+      scheduled.set(false);
+    }
+  }
+
+  private void reindexPending() {
+    // Cleared first, so a change queued from now on schedules the worker again
+    scheduled.set(false);
+
+    try {
+      if (pendingAll.getAndSet(false)) {
+        pending.clear();
+        try {
+          reindexAll();
+        } catch (RuntimeException ex) {
+          pendingAll.set(true);
+          throw ex;
+        }
+      }
+      for (Long restaurantId : pending) {
+        pending.remove(restaurantId);
+        try {
+          reindex(restaurantId);
+        } catch (RuntimeException ex) {
+          pending.add(restaurantId);
+          throw ex;
+        }
+      }
+    } catch (RuntimeException ex) {
+      log.error("Failed to index the restaurants changed, retrying in {} ms", RETRY_DELAY_MS, ex);
+      schedule(RETRY_DELAY_MS);
+    }
+  }
+
+  private List<CatalogDocument> read(long fromId, long toId) {
+    return transactionTemplate.execute(status ->
+        CatalogDocument.fromRows(searchRowRepository.findRowsBetween(fromId, toId)));
+  }
+
+  private void apply(CatalogDocument document) {
+    // The indexes of the same restaurant are updated one at a time
+    versions.compute(document.restaurantId(), (restaurantId, indexed) -> {
+      if (indexed != null && indexed >= document.catalogVersion()) {
+        return indexed;
+      }
+
+      indexes.forEach(index -> index.index(document));
+      return document.catalogVersion();
+    });
+  }
+
+  private void remove(Long restaurantId) {
+    versions.compute(restaurantId, (id, indexed) -> {
+      if (indexed == null || indexed != REMOVED) {
+        indexes.forEach(index -> index.remove(id));
+      }
+      return REMOVED;
+    });
+  }
+}
@@ -0,0 +1,108 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Numbers the restaurants of an in-memory index densely, so the index keeps the data of each restaurant in plain
+ * arrays indexed by its number instead of maps. <br/>
+ * The numbers of the removed restaurants are reused before new ones are assigned, so the highest number never
+ * exceeds the largest size the catalog reached. When every number of the arrays is taken their capacity is doubled,
+ * and the index is told to grow its own arrays to the same capacity.
+ * <p/>
+ * It is not thread safe, the index changes it under its write lock and reads it under its read lock.
+ */
+final class DocumentNumbers {
+
+  static final int INITIAL_CAPACITY = 1024;
+
+  // The number of the document of each restaurant indexed
+  private final Map<Long, Integer> numbers = new HashMap<>();
+  private final IntConsumer grow;
+  private long[] restaurantIds = new long[INITIAL_CAPACITY];
+  private int[] free = new int[16];
+  private int freeCount;
+  private int maxNumber;
+
+  /**
+   * @param grow called with the new capacity before a number beyond the current one is assigned.
+   */
+  DocumentNumbers(IntConsumer grow) {
+    this.grow = grow;
+  }
+
+  /**
+   * Assigns a number to a restaurant, reusing a released number if there is one.
+   *
+   * @param restaurantId the ID of the restaurant, which must not have a number.
+   * @return the number of the restaurant.
+   */
+  int allocate(long restaurantId) {
+    int number;
+
+    if (freeCount > 0) {
+      number = free[--freeCount];
+    } else {
+      if (maxNumber == restaurantIds.length) {
+        int capacity = maxNumber * 2;
+        restaurantIds = Arrays.copyOf(restaurantIds, capacity);
+        grow.accept(capacity);
+      }
+      number = maxNumber++;
+    }
+
+    numbers.put(restaurantId, number);
+    restaurantIds[number] = restaurantId;
+    return number;
+  }
+
+  /**
+   * Releases the number of a restaurant to be reused. The data of the number is still readable until the next
+   * {@link #allocate(long)}, so the index can clear it afterwards.
+   *
+   * @param restaurantId the ID of the restaurant.
+   * @return the number released, or -1 if the restaurant had no number.
+   */
+  int release(long restaurantId) {
+    Integer number = numbers.remove(restaurantId);
+    if (number == null) {
+      return -1;
+    }
+
+    if (freeCount == free.length) {
+      free = Arrays.copyOf(free, freeCount * 2);
+    }
+    free[freeCount++] = number;
+    return number;
+  }
+
+  /**
+   * Get the restaurant of a number.
+   *
+   * @param number the number of a restaurant indexed.
+   * @return the ID of the restaurant.
+   */
+  long restaurantId(int number) {
+    return restaurantIds[number];
+  }
+
+  /**
+   * Get the number of restaurants numbered.
+   *
+   * @return the number of restaurants with a number.
+   */
+  int size() {
+    return numbers.size();
+  }
+
+  /**
+   * Get the bound of the numbers assigned, the length of an array holding a value per number.
+   *
+   * @return the highest number ever assigned plus one.
+   */
+  int maxNumber() {
+    return maxNumber;
+  }
+}
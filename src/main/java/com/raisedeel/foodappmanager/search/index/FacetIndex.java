@@ -0,0 +1,283 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.dto.FacetCountsDto;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index for the faceted filtering of the restaurants by their type, their rating and the prices of
+ * their menu. <br/>
+ * Every restaurant is numbered densely and each value of a facet keeps a bitmap with the restaurants having it, so a
+ * filter is the intersection of a few bitmaps and the count of a value is the cardinality of an intersection, without
+ * reaching the database.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>There is a bitmap per type of restaurant (ignoring accents and case), per {@link PriceBand} and per star of
+ *   rating. The bitmaps of the ratings are cumulative, the bitmap of 4 stars holds every restaurant rated 4 or more, so
+ *   a minimum rating is a single bitmap.</li>
+ *   <li>The counts of a facet apply the filters of the other facets but not its own, so they show how many restaurants
+ *   each value would find instead of the one chosen.</li>
+ *   <li>The restaurants are numbered by {@link DocumentNumbers} and each one keeps its type and stars, so it is removed
+ *   or replaced by clearing only its bits.</li>
+ *   <li>A bitmap is as wide as the highest number it holds, not as the restaurants it holds, so the bitmap of a type
+ *   with a single restaurant may be as wide as the highest document number. The filters and counts clone and
+ *   intersect bitmaps of up to that width.</li>
+ * </ul>
+ *
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class FacetIndex implements CatalogIndex {
+
+  // The maximum stars of a rating, every restaurant has at least 0 stars
+  public static final int MAX_STARS = 5;
+
+  private static final PriceBand[] PRICE_BANDS = PriceBand.values();
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // The bitmap of every type by its folded name
+  private final Map<String, TypeBitmap> types = new HashMap<>();
+  private final BitSet[] stars = new BitSet[MAX_STARS + 1];
+  private final BitSet[] priceBands = new BitSet[PRICE_BANDS.length];
+  private final DocumentNumbers documents = new DocumentNumbers(this::grow);
+  private TypeBitmap[] documentTypes = new TypeBitmap[DocumentNumbers.INITIAL_CAPACITY];
+  private byte[] documentStars = new byte[DocumentNumbers.INITIAL_CAPACITY];
+
+  public FacetIndex() {
+    for (int i = 0; i < stars.length; i++) {
+      stars[i] = new BitSet();
+    }
+    for (int i = 0; i < priceBands.length; i++) {
+      priceBands[i] = new BitSet();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    String typeName = document.type() != null ? document.type() : "";
+    String typeKey = Tokenizer.fold(typeName);
+    int rating = (int) Math.max(0, Math.min(MAX_STARS, Math.floor(document.rating())));
+    boolean[] bands = new boolean[PRICE_BANDS.length];
+    for (CatalogDocument.DishDocument dish : document.dishes()) {
+      bands[PriceBand.of(dish.price()).ordinal()] = true;
+    }
+
+    lock.writeLock().lock();
+    try {
+      removeDocument(document.restaurantId());
+
+      int number = documents.allocate(document.restaurantId());
+      TypeBitmap type = types.computeIfAbsent(typeKey, key -> new TypeBitmap(key, typeName));
+      type.bitmap.set(number);
+      for (int i = 0; i <= rating; i++) {
+        stars[i].set(number);
+      }
+      for (int i = 0; i < bands.length; i++) {
+        if (bands[i]) {
+          priceBands[i].set(number);
+        }
+      }
+
+      documentTypes[number] = type;
+      documentStars[number] = (byte) rating;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(restaurantId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Filters the restaurants by their type, rating and the prices of their menu, returning the lowest IDs after a
+   * position and the counts of every facet. A restaurant matches if it has any of the types, at least the stars and
+   * any of the price bands requested, an empty filter matches every restaurant.
+   *
+   * @param typeNames the types of restaurant accepted, empty to accept any type.
+   * @param minStars  the minimum stars of the rating, from 0 to {@link #MAX_STARS}.
+   * @param bands     the {@link PriceBand} accepted, empty to accept any menu.
+   * @param afterId   the ID of the last restaurant of the previous page, 0 for the first page.
+   * @param limit     the maximum number of restaurants.
+   * @return a {@link FacetResult} with up to {@code limit} IDs, in ascending order, and the counts of the facets.
+   */
+  public FacetResult search(Collection<String> typeNames, int minStars, Collection<PriceBand> bands, long afterId,
+                            int limit) {
+    List<String> typeKeys = typeNames.stream().map(Tokenizer::fold).distinct().toList();
+    int starsFilter = Math.max(0, Math.min(MAX_STARS, minStars));
+
+    lock.readLock().lock();
+    try {
+      // The union of the values chosen of each facet, null if the facet is not filtered
+      BitSet typeFilter = typeKeys.isEmpty() ? null : union(typeKeys.stream()
+          .map(types::get)
+          .filter(Objects::nonNull)
+          .map(type -> type.bitmap)
+          .toList());
+      BitSet starFilter = stars[starsFilter];
+      BitSet bandFilter = bands.isEmpty() ? null : union(bands.stream()
+          .distinct()
+          .map(band -> priceBands[band.ordinal()])
+          .toList());
+
+      // Each facet is counted over the restaurants matching the filters of the other facets
+      BitSet withoutType = intersection(starFilter, bandFilter);
+      BitSet withoutStars = intersection(stars[0], typeFilter, bandFilter);
+      BitSet withoutBand = intersection(starFilter, typeFilter);
+      BitSet matching = intersection(withoutType, typeFilter);
+
+      Map<String, Long> typeCounts = new LinkedHashMap<>();
+      types.values().stream()
+          .sorted(Comparator.comparing(type -> type.name))
+          .forEach(type -> typeCounts.put(type.name, (long) intersectionCardinality(withoutType, type.bitmap)));
+      Map<Integer, Long> starCounts = new LinkedHashMap<>();
+      for (int i = 1; i <= MAX_STARS; i++) {
+        starCounts.put(i, (long) intersectionCardinality(withoutStars, stars[i]));
+      }
+      Map<PriceBand, Long> bandCounts = new EnumMap<>(PriceBand.class);
+      for (PriceBand band : PRICE_BANDS) {
+        bandCounts.put(band, (long) intersectionCardinality(withoutBand, priceBands[band.ordinal()]));
+      }
+
+      return new FacetResult(lowestIds(matching, afterId, limit), matching.cardinality(),
+          new FacetCountsDto(typeCounts, starCounts, bandCounts));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get the number of restaurants indexed.
+   *
+   * @return the number of documents of the index.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private List<Long> lowestIds(BitSet matching, long afterId, int limit) {
+    // The highest ID kept is at the head, so it is the one replaced by a lower one
+    PriorityQueue<Long> lowest = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+
+    for (int number = matching.nextSetBit(0); number >= 0; number = matching.nextSetBit(number + 1)) {
+      long restaurantId = documents.restaurantId(number);
+      if (restaurantId > afterId && (lowest.size() < limit || restaurantId < lowest.peek())) {
+        lowest.offer(restaurantId);
+        if (lowest.size() > limit) {
+          lowest.poll();
+        }
+      }
+    }
+
+    List<Long> ids = new ArrayList<>(lowest);
+    ids.sort(Comparator.naturalOrder());
+    return ids;
+  }
+
+  private static BitSet union(List<BitSet> bitmaps) {
+    BitSet union = new BitSet();
+    bitmaps.forEach(union::or);
+    return union;
+  }
+
+  private static BitSet intersection(BitSet first, BitSet... others) {
+    BitSet intersection = (BitSet) first.clone();
+    for (BitSet other : others) {
+      if (other != null) {
+        intersection.and(other);
+      }
+    }
+    return intersection;
+  }
+
+  private static int intersectionCardinality(BitSet first, BitSet second) {
+    BitSet intersection = (BitSet) first.clone();
+    intersection.and(second);
+    return intersection.cardinality();
+  }
+
+  private void removeDocument(long restaurantId) {
+    int number = documents.release(restaurantId);
+    if (number < 0) {
+      return;
+    }
+
+    TypeBitmap type = documentTypes[number];
+    type.bitmap.clear(number);
+    if (type.bitmap.isEmpty()) {
+      types.remove(type.key);
+    }
+    for (int i = 0; i <= documentStars[number]; i++) {
+      stars[i].clear(number);
+    }
+    for (BitSet band : priceBands) {
+      band.clear(number);
+    }
+
+    documentTypes[number] = null;
+  }
+
+  private void grow(int capacity) {
+    documentTypes = Arrays.copyOf(documentTypes, capacity);
+    documentStars = Arrays.copyOf(documentStars, capacity);
+  }
+
+  /**
+   * The result of a faceted filter.
+   *
+   * @param restaurantIds the IDs of the restaurants of the page, in ascending order.
+   * @param total         the number of restaurants matching the filter.
+   * @param facets        the {@link FacetCountsDto} of the filter.
+   */
+  public record FacetResult(List<Long> restaurantIds, long total, FacetCountsDto facets) {
+  }
+
+  /**
+   * The restaurants of a type, named as the first restaurant indexed with it.
+   */
+  private static class TypeBitmap {
+
+    final String key;
+    final String name;
+    final BitSet bitmap = new BitSet();
+
+    TypeBitmap(String key, String name) {
+      this.key = key;
+      this.name = name;
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for the full-text search of the restaurants and their menus. <br/>
+ * Every restaurant is a document made of its name, type and description plus the name, category and description of
+ * its dishes. Each term points to a posting list with the documents containing it and the weighted frequency of the
+ * term in each one, a term in the name of the restaurant weighs more than a term in the description of a dish.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>The documents are numbered by {@link DocumentNumbers}, so the posting lists are plain {@code int} and
+ *   {@code float} arrays and the scores of a query are accumulated in an array instead of a map.</li>
+ *   <li>The matches are ranked with BM25: the score of a term saturates with its frequency ({@link #K1}), is
+ *   normalized by the length of the document ({@link #B}) and is greater for the terms in fewer documents.</li>
+ *   <li>Each document keeps the posting lists it was added to, so it is removed or replaced without scanning the
+ *   whole index.</li>
+ *   <li>The terms are extracted before taking the write lock, which is only held to change the posting lists.</li>
+ * </ul>
+ *
+ * @see Tokenizer
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class FullTextIndex implements CatalogIndex {
+
+  // BM25 parameters, the saturation of the term frequency and the normalization by the length of the document
+  static final float K1 = 1.2f;
+  static final float B = 0.75f;
+  // The weight of a term in each field of the document
+  static final float NAME_WEIGHT = 3f;
+  static final float TYPE_WEIGHT = 2f;
+  static final float DESCRIPTION_WEIGHT = 1f;
+  static final float DISH_NAME_WEIGHT = 1.5f;
+  static final float DISH_CATEGORY_WEIGHT = 1f;
+  static final float DISH_DESCRIPTION_WEIGHT = 0.5f;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Postings> postings = new HashMap<>();
+  private final DocumentNumbers documents = new DocumentNumbers(this::grow);
+  private float[] lengths = new float[DocumentNumbers.INITIAL_CAPACITY];
+  private Postings[][] documentPostings = new Postings[DocumentNumbers.INITIAL_CAPACITY][];
+  private double totalLength;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    Map<String, Float> frequencies = termFrequencies(document);
+    float length = 0;
+    for (float frequency : frequencies.values()) {
+      length += frequency;
+    }
+
+    lock.writeLock().lock();
+    try {
+      removeDocument(document.restaurantId());
+
+      int number = documents.allocate(document.restaurantId());
+      Postings[] added = new Postings[frequencies.size()];
+      int i = 0;
+      for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+        Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+        termPostings.add(number, entry.getValue());
+        added[i++] = termPostings;
+      }
+
+      lengths[number] = length;
+      documentPostings[number] = added;
+      totalLength += length;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(restaurantId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the restaurants matching any term of the query, returning the best ranked after a position of the
+   * ranking. The more terms a restaurant matches, and the rarer they are, the better it ranks.
+   *
+   * @param query        the text searched.
+   * @param afterScore   the score of the last result of the previous page, {@link Double#POSITIVE_INFINITY} for the
+   *                     first page.
+   * @param afterId      the ID of the last result of the previous page, ignored for the first page.
+   * @param limit        the maximum number of results.
+   * @return a list of up to {@code limit} {@link ScoredRestaurant}, in the order of {@link ScoredRestaurant#RANKING}.
+   */
+  public List<ScoredRestaurant> search(String query, double afterScore, long afterId, int limit) {
+    List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+    // The worst result kept is at the head, so it is the one replaced by a better one
+    PriorityQueue<ScoredRestaurant> top = new PriorityQueue<>(limit + 1, ScoredRestaurant.RANKING.reversed());
+
+    lock.readLock().lock();
+    try {
+      int documentCount = documents.size();
+      if (terms.isEmpty() || documentCount == 0) {
+        return List.of();
+      }
+
+      float averageLength = (float) (totalLength / documentCount);
+      float[] scores = new float[documents.maxNumber()];
+      int[] matched = new int[16];
+      int matchedCount = 0;
+
+      for (String term : terms) {
+        Postings termPostings = postings.get(term);
+        if (termPostings == null) {
+          continue;
+        }
+
+        // Always positive, so a score of 0 means the document did not match yet
+        float idf = (float) Math.log(1 + (documentCount - termPostings.size + 0.5) / (termPostings.size + 0.5));
+        for (int i = 0; i < termPostings.size; i++) {
+          int number = termPostings.documents[i];
+          float frequency = termPostings.frequencies[i];
+          float norm = K1 * (1 - B + B * lengths[number] / averageLength);
+
+          if (scores[number] == 0) {
+            if (matchedCount == matched.length) {
+              matched = Arrays.copyOf(matched, matchedCount * 2);
+            }
+            matched[matchedCount++] = number;
+          }
+          scores[number] += idf * frequency * (K1 + 1) / (frequency + norm);
+        }
+      }
+
+      for (int i = 0; i < matchedCount; i++) {
+        int number = matched[i];
+        ScoredRestaurant result = new ScoredRestaurant(documents.restaurantId(number), scores[number]);
+
+        if (result.isAfter(afterScore, afterId)) {
+          top.offer(result);
+          if (top.size() > limit) {
+            top.poll();
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<ScoredRestaurant> results = new ArrayList<>(top);
+    results.sort(ScoredRestaurant.RANKING);
+    return results;
+  }
+
+  /**
+   * Get the number of restaurants indexed.
+   *
+   * @return the number of documents of the index.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Map<String, Float> termFrequencies(CatalogDocument document) {
+    Map<String, Float> frequencies = new HashMap<>();
+    addTerms(frequencies, document.name(), NAME_WEIGHT);
+    addTerms(frequencies, document.type(), TYPE_WEIGHT);
+    addTerms(frequencies, document.description(), DESCRIPTION_WEIGHT);
+
+    for (CatalogDocument.DishDocument dish : document.dishes()) {
+      addTerms(frequencies, dish.name(), DISH_NAME_WEIGHT);
+      addTerms(frequencies, dish.category(), DISH_CATEGORY_WEIGHT);
+      addTerms(frequencies, dish.description(), DISH_DESCRIPTION_WEIGHT);
+    }
+    return frequencies;
+  }
+
+  private void addTerms(Map<String, Float> frequencies, String text, float weight) {
+    for (String term : Tokenizer.tokenize(text)) {
+      frequencies.merge(term, weight, Float::sum);
+    }
+  }
+
+  private void removeDocument(long restaurantId) {
+    int number = documents.release(restaurantId);
+    if (number < 0) {
+      return;
+    }
+
+    for (Postings termPostings : documentPostings[number]) {
+      termPostings.remove(number);
+      if (termPostings.size == 0) {
+        postings.remove(termPostings.term);
+      }
+    }
+
+    totalLength -= lengths[number];
+    documentPostings[number] = null;
+  }
+
+  private void grow(int capacity) {
+    lengths = Arrays.copyOf(lengths, capacity);
+    documentPostings = Arrays.copyOf(documentPostings, capacity);
+  }
+
+  /**
+   * The documents containing a term and the weighted frequency of the term in each one, in no particular order.
+   */
+  private static class Postings {
+
+    final String term;
+    int[] documents = new int[4];
+    float[] frequencies = new float[4];
+    int size;
+
+    Postings(String term) {
+      this.term = term;
+    }
+
+    void add(int document, float frequency) {
+      if (size == documents.length) {
+        documents = Arrays.copyOf(documents, size * 2);
+        frequencies = Arrays.copyOf(frequencies, size * 2);
+      }
+      documents[size] = document;
+      frequencies[size++] = frequency;
+    }
+
+    void remove(int document) {
+      for (int i = 0; i < size; i++) {
+        if (documents[i] == document) {
+          // The order does not matter, the last posting takes its place
+          size--;
+          documents[i] = documents[size];
+          frequencies[i] = frequencies[size];
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,458 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index for the typo-tolerant search of the restaurants by their name and the names of their dishes.
+ * <br/>
+ * The words of the names form a vocabulary, each word is split into its trigrams (with its boundaries, "piza" is
+ * "$pi", "piz", "iza" and "za$") and every trigram points to the words containing it. A word searched is matched
+ * against the vocabulary in two steps:
+ * <ol>
+ *   <li>The words sharing the most trigrams with it are the candidates, ranked by their Dice coefficient. Only the
+ *   best {@link #MAX_CANDIDATES} are kept, so the cost of the next step is fixed whatever the size of the catalog.</li>
+ *   <li>The edit distance (with transpositions) between each candidate and the word searched is computed, the
+ *   candidates within {@link #maxDistance(int)} edits match with a similarity from 0 to 1.</li>
+ * </ol>
+ * The score of a restaurant is the sum, for every word searched, of the best similarity of the words of its names,
+ * a word only found in a dish weighs {@link #DISH_WEIGHT} of a word in the name of the restaurant.
+ * <p/>
+ * Like the {@link FullTextIndex}, the restaurants are numbered by {@link DocumentNumbers}. The words are numbered
+ * densely the same way, reusing the numbers of the removed ones, so their posting lists are plain {@code int} arrays.
+ *
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class FuzzyNameIndex implements CatalogIndex {
+
+  // The number of candidates of a word searched whose edit distance is computed
+  static final int MAX_CANDIDATES = 64;
+  // The minimum Dice coefficient of the trigrams of a candidate
+  static final float MIN_DICE = 0.3f;
+  // The weight of a word found in the name of a dish, relative to the name of the restaurant
+  static final float DISH_WEIGHT = 0.9f;
+
+  private static final int INITIAL_CAPACITY = 1024;
+  private static final char BOUNDARY = '$';
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  // The trigrams shared with each word of the vocabulary, the array is reused between the searches of a thread
+  private final ThreadLocal<int[]> threadCounts = ThreadLocal.withInitial(() -> new int[INITIAL_CAPACITY]);
+
+  private final Map<Long, IntPostings> trigrams = new HashMap<>();
+  private final Map<String, Integer> wordNumbers = new HashMap<>();
+  private String[] words = new String[INITIAL_CAPACITY];
+  private int[] trigramCounts = new int[INITIAL_CAPACITY];
+  private IntPostings[] wordPostings = new IntPostings[INITIAL_CAPACITY];
+  private final IntStack freeWords = new IntStack();
+  private int maxWord;
+
+  private final DocumentNumbers documents = new DocumentNumbers(this::grow);
+  private int[][] documentWords = new int[DocumentNumbers.INITIAL_CAPACITY][];
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    // The words of the names with their weight, the best one if a word is in several names
+    Map<String, Float> weights = new HashMap<>();
+    for (String word : Tokenizer.tokenize(document.name())) {
+      weights.put(word, 1f);
+    }
+    for (CatalogDocument.DishDocument dish : document.dishes()) {
+      for (String word : Tokenizer.tokenize(dish.name())) {
+        weights.putIfAbsent(word, DISH_WEIGHT);
+      }
+    }
+
+    lock.writeLock().lock();
+    try {
+      removeDocument(document.restaurantId());
+
+      int number = documents.allocate(document.restaurantId());
+      int[] added = new int[weights.size()];
+      int i = 0;
+      for (Map.Entry<String, Float> entry : weights.entrySet()) {
+        int word = wordNumber(entry.getKey());
+        wordPostings[word].add(number, entry.getValue());
+        added[i++] = word;
+      }
+
+      documentWords[number] = added;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(restaurantId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the restaurants whose name or dishes have words similar to the ones of the query, returning the best
+   * ranked after a position of the ranking.
+   *
+   * @param query      the text searched, possibly misspelled.
+   * @param afterScore the score of the last result of the previous page, {@link Double#POSITIVE_INFINITY} for the
+   *                   first page.
+   * @param afterId    the ID of the last result of the previous page, ignored for the first page.
+   * @param limit      the maximum number of results.
+   * @return a list of up to {@code limit} {@link ScoredRestaurant}, in the order of {@link ScoredRestaurant#RANKING}.
+   */
+  public List<ScoredRestaurant> search(String query, double afterScore, long afterId, int limit) {
+    List<String> queryWords = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+    PriorityQueue<ScoredRestaurant> top = new PriorityQueue<>(limit + 1, ScoredRestaurant.RANKING.reversed());
+
+    lock.readLock().lock();
+    try {
+      if (queryWords.isEmpty() || documents.size() == 0) {
+        return List.of();
+      }
+
+      float[] scores = new float[documents.maxNumber()];
+      float[] best = new float[documents.maxNumber()];
+      int[] matched = new int[16];
+      int matchedCount = 0;
+      int[] touched = new int[16];
+
+      for (String queryWord : queryWords) {
+        int touchedCount = 0;
+
+        for (Candidate candidate : candidates(queryWord)) {
+          IntPostings postings = wordPostings[candidate.word()];
+          for (int i = 0; i < postings.size; i++) {
+            int number = postings.values[i];
+            float similarity = candidate.similarity() * postings.weights[i];
+
+            if (best[number] == 0) {
+              if (touchedCount == touched.length) {
+                touched = Arrays.copyOf(touched, touchedCount * 2);
+              }
+              touched[touchedCount++] = number;
+            }
+            best[number] = Math.max(best[number], similarity);
+          }
+        }
+
+        // Only the best match of each word searched counts, then the array is cleared for the next word
+        for (int i = 0; i < touchedCount; i++) {
+          int number = touched[i];
+          if (scores[number] == 0) {
+            if (matchedCount == matched.length) {
+              matched = Arrays.copyOf(matched, matchedCount * 2);
+            }
+            matched[matchedCount++] = number;
+          }
+          scores[number] += best[number];
+          best[number] = 0;
+        }
+      }
+
+      for (int i = 0; i < matchedCount; i++) {
+        int number = matched[i];
+        ScoredRestaurant result = new ScoredRestaurant(documents.restaurantId(number), scores[number]);
+
+        if (result.isAfter(afterScore, afterId)) {
+          top.offer(result);
+          if (top.size() > limit) {
+            top.poll();
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<ScoredRestaurant> results = new ArrayList<>(top);
+    results.sort(ScoredRestaurant.RANKING);
+    return results;
+  }
+
+  /**
+   * Get the number of words of the vocabulary of the names.
+   *
+   * @return the number of different words.
+   */
+  public int vocabularySize() {
+    lock.readLock().lock();
+    try {
+      return wordNumbers.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Get the maximum number of edits for a word to match a word searched, greater for longer words.
+   *
+   * @param length the length of the word searched.
+   * @return the maximum edit distance allowed.
+   */
+  static int maxDistance(int length) {
+    if (length <= 2) {
+      return 0;
+    }
+    return length <= 5 ? 1 : length <= 9 ? 2 : 3;
+  }
+
+  /**
+   * Computes the edit distance between two words: the insertions, deletions, substitutions and transpositions of two
+   * adjacent characters needed to turn one into the other (optimal string alignment).
+   *
+   * @param a the first word.
+   * @param b the second word.
+   * @return the number of edits.
+   */
+  static int editDistance(String a, String b) {
+    int[] previous2 = new int[b.length() + 1];
+    int[] previous = new int[b.length() + 1];
+    int[] current = new int[b.length() + 1];
+    for (int j = 0; j <= b.length(); j++) {
+      previous[j] = j;
+    }
+
+    for (int i = 1; i <= a.length(); i++) {
+      current[0] = i;
+      for (int j = 1; j <= b.length(); j++) {
+        int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+        current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+
+        if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+          current[j] = Math.min(current[j], previous2[j - 2] + 1);
+        }
+      }
+
+      int[] recycled = previous2;
+      previous2 = previous;
+      previous = current;
+      current = recycled;
+    }
+    return previous[b.length()];
+  }
+
+  // The words of the vocabulary within the edit distance allowed of the word searched, with their similarity
+  private List<Candidate> candidates(String queryWord) {
+    long[] queryTrigrams = trigramsOf(queryWord);
+    int[] counts = sharedCounts();
+    // Every count is set back to 0 before returning
+    int[] touched = new int[16];
+    int touchedCount = 0;
+
+    for (long trigram : queryTrigrams) {
+      IntPostings postings = trigrams.get(trigram);
+      if (postings == null) {
+        continue;
+      }
+
+      for (int i = 0; i < postings.size; i++) {
+        int word = postings.values[i];
+        if (counts[word]++ == 0) {
+          if (touchedCount == touched.length) {
+            touched = Arrays.copyOf(touched, touchedCount * 2);
+          }
+          touched[touchedCount++] = word;
+        }
+      }
+    }
+
+    // The best candidates by Dice coefficient, the worst one at the head
+    PriorityQueue<Candidate> best = new PriorityQueue<>(MAX_CANDIDATES + 1,
+        (first, second) -> Float.compare(first.similarity(), second.similarity()));
+    for (int i = 0; i < touchedCount; i++) {
+      int word = touched[i];
+      float dice = 2f * counts[word] / (queryTrigrams.length + trigramCounts[word]);
+      counts[word] = 0;
+
+      if (dice >= MIN_DICE) {
+        best.offer(new Candidate(word, dice));
+        if (best.size() > MAX_CANDIDATES) {
+          best.poll();
+        }
+      }
+    }
+
+    int maxDistance = maxDistance(queryWord.length());
+    List<Candidate> candidates = new ArrayList<>(best.size());
+    for (Candidate candidate : best) {
+      String word = words[candidate.word()];
+      int distance = editDistance(queryWord, word);
+
+      if (distance <= maxDistance) {
+        float similarity = 1f - (float) distance / Math.max(queryWord.length(), word.length());
+        candidates.add(new Candidate(candidate.word(), similarity));
+      }
+    }
+    return candidates;
+  }
+
+  private int[] sharedCounts() {
+    int[] counts = threadCounts.get();
+    if (counts.length < maxWord) {
+      counts = new int[words.length];
+      threadCounts.set(counts);
+    }
+    return counts;
+  }
+
+  // The distinct trigrams of a word with its boundaries, each encoded in a long
+  private static long[] trigramsOf(String word) {
+    String padded = BOUNDARY + word + BOUNDARY;
+    long[] result = new long[Math.max(1, padded.length() - 2)];
+    int count = 0;
+
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      long trigram = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+      boolean repeated = false;
+      for (int j = 0; j < count && !repeated; j++) {
+        repeated = result[j] == trigram;
+      }
+      if (!repeated) {
+        result[count++] = trigram;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private int wordNumber(String word) {
+    Integer number = wordNumbers.get(word);
+    if (number != null) {
+      return number;
+    }
+
+    int added = freeWords.isEmpty() ? nextWord() : freeWords.pop();
+    long[] wordTrigrams = trigramsOf(word);
+    for (long trigram : wordTrigrams) {
+      trigrams.computeIfAbsent(trigram, key -> new IntPostings()).add(added, 0);
+    }
+
+    wordNumbers.put(word, added);
+    words[added] = word;
+    trigramCounts[added] = wordTrigrams.length;
+    wordPostings[added] = new IntPostings();
+    return added;
+  }
+
+  private void removeDocument(long restaurantId) {
+    int number = documents.release(restaurantId);
+    if (number < 0) {
+      return;
+    }
+
+    for (int word : documentWords[number]) {
+      wordPostings[word].remove(number);
+      if (wordPostings[word].size == 0) {
+        removeWord(word);
+      }
+    }
+
+    documentWords[number] = null;
+  }
+
+  private void removeWord(int word) {
+    for (long trigram : trigramsOf(words[word])) {
+      IntPostings postings = trigrams.get(trigram);
+      postings.remove(word);
+      if (postings.size == 0) {
+        trigrams.remove(trigram);
+      }
+    }
+
+    wordNumbers.remove(words[word]);
+    words[word] = null;
+    wordPostings[word] = null;
+    freeWords.push(word);
+  }
+
+  private int nextWord() {
+    if (maxWord == words.length) {
+      int capacity = maxWord * 2;
+      words = Arrays.copyOf(words, capacity);
+      trigramCounts = Arrays.copyOf(trigramCounts, capacity);
+      wordPostings = Arrays.copyOf(wordPostings, capacity);
+    }
+    return maxWord++;
+  }
+
+  private void grow(int capacity) {
+    documentWords = Arrays.copyOf(documentWords, capacity);
+  }
+
+  private record Candidate(int word, float similarity) {
+  }
+
+  /**
+   * A list of numbers (words or restaurants) with a weight each, in no particular order.
+   */
+  private static class IntPostings {
+
+    int[] values = new int[4];
+    float[] weights = new float[4];
+    int size;
+
+    void add(int value, float weight) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+        weights = Arrays.copyOf(weights, size * 2);
+      }
+      values[size] = value;
+      weights[size++] = weight;
+    }
+
+    void remove(int value) {
+      for (int i = 0; i < size; i++) {
+        if (values[i] == value) {
+          // The order does not matter, the last value takes its place
+          size--;
+          values[i] = values[size];
+          weights[i] = weights[size];
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * The numbers released, to be reused before new ones are assigned.
+   */
+  private static class IntStack {
+
+    int[] values = new int[16];
+    int size;
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void push(int value) {
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int pop() {
+      return values[--size];
+    }
+  }
+}
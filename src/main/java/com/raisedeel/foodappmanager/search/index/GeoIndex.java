@@ -0,0 +1,402 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of the restaurants for the searches around a position, nearest first. <br/>
+ * The Earth is divided in a grid of cells of {@link #CELL_LATITUDE} by {@link #CELL_LONGITUDE} degrees (about 1.2 by
+ * 2.4 km at the equator), keyed by the geohash of {@link #LATITUDE_BITS} + {@link #LONGITUDE_BITS} bits of the cell.
+ * Each cell holds the restaurants inside it, the restaurants without coordinates are not indexed.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>A search scans the cell of the position and then the rings of cells around it, keeping the nearest
+ *   restaurants found in a bounded heap. It stops when the closest point outside the rings scanned is farther than
+ *   the radius or than the farthest restaurant kept, so a search only reads the cells near the position.</li>
+ *   <li>The cells keep the coordinates of their restaurants in radians with the cosine of the latitude, so the
+ *   haversine distance of each restaurant costs two sines. The filters by rating and type are only checked for the
+ *   restaurants close enough.</li>
+ *   <li>The restaurants are numbered by {@link DocumentNumbers}, their rating, type and cell are kept in arrays
+ *   indexed by the number.</li>
+ * </ul>
+ *
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class GeoIndex implements CatalogIndex {
+
+  // The mean radius of the Earth in kilometers
+  public static final double EARTH_RADIUS_KM = 6371.0088;
+  // The bits of the geohash of a cell, a grid of 2^14 x 2^14 cells
+  static final int LATITUDE_BITS = 14;
+  static final int LONGITUDE_BITS = 14;
+  static final int LATITUDE_CELLS = 1 << LATITUDE_BITS;
+  static final int LONGITUDE_CELLS = 1 << LONGITUDE_BITS;
+  static final double CELL_LATITUDE = 180.0 / LATITUDE_CELLS;
+  static final double CELL_LONGITUDE = 360.0 / LONGITUDE_CELLS;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, Cell> cells = new HashMap<>();
+  // The number of every type of restaurant by its folded name, never removed as there are few types
+  private final Map<String, Integer> typeNumbers = new HashMap<>();
+  private final DocumentNumbers documents = new DocumentNumbers(this::grow);
+  private double[] ratings = new double[DocumentNumbers.INITIAL_CAPACITY];
+  private int[] types = new int[DocumentNumbers.INITIAL_CAPACITY];
+  private long[] documentCells = new long[DocumentNumbers.INITIAL_CAPACITY];
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    String typeKey = Tokenizer.fold(document.type() != null ? document.type() : "");
+
+    lock.writeLock().lock();
+    try {
+      removeDocument(document.restaurantId());
+      if (document.latitude() == null || document.longitude() == null) {
+        return;
+      }
+
+      int number = documents.allocate(document.restaurantId());
+      int y = cellY(document.latitude());
+      long cellKey = cellKey(cellX(document.longitude()), y);
+      cells.computeIfAbsent(cellKey, key -> new Cell(y))
+          .add(number, Math.toRadians(document.latitude()), Math.toRadians(document.longitude()));
+
+      ratings[number] = document.rating();
+      types[number] = typeNumbers.computeIfAbsent(typeKey, key -> typeNumbers.size());
+      documentCells[number] = cellKey;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    lock.writeLock().lock();
+    try {
+      removeDocument(restaurantId);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Searches the restaurants within a radius of a position, returning the nearest after a position of the order.
+   *
+   * @param latitude      the latitude of the position, in decimal degrees.
+   * @param longitude     the longitude of the position, in decimal degrees.
+   * @param radiusKm      the maximum distance of the restaurants, in kilometers.
+   * @param typeNames     the types of restaurant accepted, empty to accept any type.
+   * @param minRating     the minimum rating of the restaurants.
+   * @param afterDistance the distance of the last result of the previous page, a negative number for the first page.
+   * @param afterId       the ID of the last result of the previous page, ignored for the first page.
+   * @param limit         the maximum number of results.
+   * @return a list of up to {@code limit} {@link NearbyRestaurant}, in the order of
+   * {@link NearbyRestaurant#BY_DISTANCE}.
+   */
+  public List<NearbyRestaurant> search(double latitude, double longitude, double radiusKm,
+                                       Collection<String> typeNames, double minRating, double afterDistance,
+                                       long afterId, int limit) {
+    List<String> typeKeys = typeNames.stream().map(Tokenizer::fold).toList();
+    Query query;
+
+    lock.readLock().lock();
+    try {
+      BitSet typeFilter = null;
+      if (!typeKeys.isEmpty()) {
+        typeFilter = new BitSet();
+        for (String typeKey : typeKeys) {
+          Integer type = typeNumbers.get(typeKey);
+          if (type != null) {
+            typeFilter.set(type);
+          }
+        }
+        if (typeFilter.isEmpty()) {
+          return List.of();
+        }
+      }
+
+      query = new Query(latitude, longitude, radiusKm, typeFilter, minRating, afterDistance, afterId, limit);
+      int centerX = cellX(longitude);
+      int centerY = cellY(latitude);
+
+      // The rows and columns of cells that can hold a restaurant within the radius
+      double radiusDegrees = Math.toDegrees(Math.min(radiusKm / EARTH_RADIUS_KM, Math.PI));
+      int minY = cellY(Math.max(-90, latitude - radiusDegrees));
+      int maxY = cellY(Math.min(90, latitude + radiusDegrees));
+      boolean reachesPole = Math.abs(latitude) + radiusDegrees >= 90;
+      int columnRings = reachesPole ? 0 : (int) Math.ceil(Math.toDegrees(Math.asin(Math.min(1,
+          Math.sin(Math.toRadians(radiusDegrees)) / Math.cos(Math.toRadians(latitude))))) / CELL_LONGITUDE);
+      long area = (long) (maxY - minY + 1) * (reachesPole ? LONGITUDE_CELLS : 2L * columnRings + 1);
+
+      if (area > documents.size()) {
+        // Near the poles the cells are too narrow, reading every restaurant of the rows is cheaper
+        for (Cell cell : cells.values()) {
+          if (cell.y >= minY && cell.y <= maxY) {
+            query.scan(cell);
+          }
+        }
+      } else if (reachesPole) {
+        // Every longitude is within the radius, the rings would not bound the distance
+        for (int y = minY; y <= maxY; y++) {
+          for (int x = 0; x < LONGITUDE_CELLS; x++) {
+            query.scan(x, y);
+          }
+        }
+      } else {
+        int rings = Math.max(columnRings, Math.max(centerY - minY, maxY - centerY));
+        for (int ring = 0; ring <= rings; ring++) {
+          if (ring > 0 && query.distanceOutside(centerX, centerY, ring - 1) > query.boundKm()) {
+            break;
+          }
+
+          if (ring == 0) {
+            query.scan(centerX, centerY);
+            continue;
+          }
+          // The parts of the ring outside the rows and columns of the radius are skipped
+          int columns = Math.min(ring, columnRings);
+          for (int x = centerX - columns; x <= centerX + columns; x++) {
+            if (centerY - ring >= minY) {
+              query.scan(x, centerY - ring);
+            }
+            if (centerY + ring <= maxY) {
+              query.scan(x, centerY + ring);
+            }
+          }
+          if (ring <= columnRings) {
+            for (int y = Math.max(minY, centerY - ring + 1); y <= Math.min(maxY, centerY + ring - 1); y++) {
+              query.scan(centerX - ring, y);
+              query.scan(centerX + ring, y);
+            }
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<NearbyRestaurant> results = new ArrayList<>(query.nearest);
+    results.sort(NearbyRestaurant.BY_DISTANCE);
+    return results;
+  }
+
+  /**
+   * Get the number of restaurants indexed.
+   *
+   * @return the number of restaurants with coordinates.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static int cellX(double longitude) {
+    return Math.min(LONGITUDE_CELLS - 1, (int) Math.floor((longitude + 180) / CELL_LONGITUDE));
+  }
+
+  private static int cellY(double latitude) {
+    return Math.min(LATITUDE_CELLS - 1, (int) Math.floor((latitude + 90) / CELL_LATITUDE));
+  }
+
+  private static long cellKey(int x, int y) {
+    // The bits of the longitude and the latitude are interleaved, the longitude first, as in a geohash
+    long key = 0;
+    for (int bit = LONGITUDE_BITS - 1; bit >= 0; bit--) {
+      key = (key << 2) | ((long) (x >> bit & 1) << 1) | (y >> bit & 1);
+    }
+    return key;
+  }
+
+  private static double haversine(double distanceKm) {
+    double sine = Math.sin(Math.min(distanceKm / EARTH_RADIUS_KM, Math.PI) / 2);
+    return sine * sine;
+  }
+
+  private void removeDocument(long restaurantId) {
+    int number = documents.release(restaurantId);
+    if (number < 0) {
+      return;
+    }
+
+    Cell cell = cells.get(documentCells[number]);
+    cell.remove(number);
+    if (cell.size == 0) {
+      cells.remove(documentCells[number]);
+    }
+  }
+
+  private void grow(int capacity) {
+    ratings = Arrays.copyOf(ratings, capacity);
+    types = Arrays.copyOf(types, capacity);
+    documentCells = Arrays.copyOf(documentCells, capacity);
+  }
+
+  /**
+   * The state of a search: the position, the filters and the nearest restaurants found so far. Only used under the
+   * read lock.
+   */
+  private final class Query {
+
+    final double latitude;
+    final double longitude;
+    final double latitudeRadians;
+    final double longitudeRadians;
+    final double cosLatitude;
+    final double radiusKm;
+    final BitSet typeFilter;
+    final double minRating;
+    final double afterDistance;
+    final long afterId;
+    final int limit;
+    // The farthest restaurant kept is at the head, so it is the one replaced by a nearer one
+    final PriorityQueue<NearbyRestaurant> nearest;
+
+    Query(double latitude, double longitude, double radiusKm, BitSet typeFilter, double minRating,
+          double afterDistance, long afterId, int limit) {
+      this.latitude = latitude;
+      this.longitude = longitude;
+      this.latitudeRadians = Math.toRadians(latitude);
+      this.longitudeRadians = Math.toRadians(longitude);
+      this.cosLatitude = Math.cos(latitudeRadians);
+      this.radiusKm = radiusKm;
+      this.typeFilter = typeFilter;
+      this.minRating = minRating;
+      this.afterDistance = afterDistance;
+      this.afterId = afterId;
+      this.limit = limit;
+      this.nearest = new PriorityQueue<>(limit + 1, NearbyRestaurant.BY_DISTANCE.reversed());
+    }
+
+    /**
+     * The maximum distance of a restaurant that could still be kept.
+     */
+    double boundKm() {
+      return nearest.size() < limit ? radiusKm : Math.min(radiusKm, nearest.peek().distanceKm());
+    }
+
+    /**
+     * The minimum distance from the position to any point outside the square of cells around the cell of the
+     * position, crossing either its northern or southern edge or one of its meridians.
+     */
+    double distanceOutside(int centerX, int centerY, int ring) {
+      double south = (centerY - ring) * CELL_LATITUDE - 90;
+      double north = (centerY + ring + 1) * CELL_LATITUDE - 90;
+      double latitudeGap = Math.min(
+          south > -90 ? latitude - south : Double.POSITIVE_INFINITY,
+          north < 90 ? north - latitude : Double.POSITIVE_INFINITY);
+
+      double west = (centerX - ring) * CELL_LONGITUDE - 180;
+      double east = (centerX + ring + 1) * CELL_LONGITUDE - 180;
+      double longitudeGap = Math.min(longitude - west, east - longitude);
+      // The distance to the great circle of the nearest meridian of the square
+      double meridianDistance = Math.asin(cosLatitude * Math.sin(Math.toRadians(longitudeGap)));
+
+      return Math.min(Math.toRadians(latitudeGap), meridianDistance) * EARTH_RADIUS_KM;
+    }
+
+    void scan(int x, int y) {
+      if (y < 0 || y >= LATITUDE_CELLS) {
+        return;
+      }
+      Cell cell = cells.get(cellKey(Math.floorMod(x, LONGITUDE_CELLS), y));
+      if (cell != null) {
+        scan(cell);
+      }
+    }
+
+    void scan(Cell cell) {
+      double bound = haversine(boundKm());
+      for (int i = 0; i < cell.size; i++) {
+        double latitudeSine = Math.sin((cell.latitudes[i] - latitudeRadians) / 2);
+        double longitudeSine = Math.sin((cell.longitudes[i] - longitudeRadians) / 2);
+        double distance = latitudeSine * latitudeSine
+            + cosLatitude * cell.cosLatitudes[i] * longitudeSine * longitudeSine;
+        if (distance > bound) {
+          continue;
+        }
+
+        int number = cell.documents[i];
+        if (ratings[number] < minRating || (typeFilter != null && !typeFilter.get(types[number]))) {
+          continue;
+        }
+
+        NearbyRestaurant result = new NearbyRestaurant(documents.restaurantId(number),
+            2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1, distance))));
+        if (result.isAfter(afterDistance, afterId)) {
+          nearest.offer(result);
+          if (nearest.size() > limit) {
+            nearest.poll();
+          }
+          bound = haversine(boundKm());
+        }
+      }
+    }
+  }
+
+  /**
+   * The restaurants inside a cell of the grid and their coordinates, in no particular order.
+   */
+  private static class Cell {
+
+    // The row of the cell in the grid
+    final int y;
+    int[] documents = new int[4];
+    double[] latitudes = new double[4];
+    double[] longitudes = new double[4];
+    double[] cosLatitudes = new double[4];
+    int size;
+
+    Cell(int y) {
+      this.y = y;
+    }
+
+    void add(int document, double latitude, double longitude) {
+      if (size == documents.length) {
+        documents = Arrays.copyOf(documents, size * 2);
+        latitudes = Arrays.copyOf(latitudes, size * 2);
+        longitudes = Arrays.copyOf(longitudes, size * 2);
+        cosLatitudes = Arrays.copyOf(cosLatitudes, size * 2);
+      }
+      documents[size] = document;
+      latitudes[size] = latitude;
+      longitudes[size] = longitude;
+      cosLatitudes[size++] = Math.cos(latitude);
+    }
+
+    void remove(int document) {
+      for (int i = 0; i < size; i++) {
+        if (documents[i] == document) {
+          // The order does not matter, the last restaurant takes its place
+          size--;
+          documents[i] = documents[size];
+          latitudes[i] = latitudes[size];
+          longitudes[i] = longitudes[size];
+          cosLatitudes[i] = cosLatitudes[size];
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory leaderboards of the best rated restaurants, one per type of restaurant (ignoring accents and case) and
+ * one of every restaurant. <br/>
+ * Each leaderboard is a skip list ordered by rating and ID, so the top restaurants are the first ones of the list and
+ * are read without sorting anything. Only the restaurants with at least one rating are ranked.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>The reads never take a lock, they iterate the skip lists while they are updated. A restaurant being moved
+ *   may be missing from a read for an instant, and it is listed once even if a read meets both of its entries.</li>
+ *   <li>The ratings are read again by the {@link CatalogIndexUpdater} after every flush of the
+ *   {@link com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue}, so a new average moves the restaurant
+ *   by removing its old entry and adding the new one. A restaurant whose rating and type did not change is not
+ *   touched.</li>
+ *   <li>The updates of a restaurant are never concurrent (see {@link CatalogIndexUpdater}), and the leaderboards are
+ *   created and dropped atomically with the entries added to them and removed from them.</li>
+ * </ul>
+ *
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class LeaderboardIndex implements CatalogIndex {
+
+  // The leaderboard of every type by its folded name
+  private final ConcurrentMap<String, NavigableSet<RatedRestaurant>> leaderboards = new ConcurrentHashMap<>();
+  private final NavigableSet<RatedRestaurant> overall = new ConcurrentSkipListSet<>(RatedRestaurant.BEST_RATED);
+  // The current entry of each restaurant ranked
+  private final ConcurrentMap<Long, RatedRestaurant> entries = new ConcurrentHashMap<>();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    if (document.totalOfRatings() == 0) {
+      remove(document.restaurantId());
+      return;
+    }
+
+    RatedRestaurant entry = new RatedRestaurant(document.restaurantId(),
+        Tokenizer.fold(document.type() != null ? document.type() : ""), document.rating());
+    RatedRestaurant previous = entries.put(entry.restaurantId(), entry);
+    if (entry.equals(previous)) {
+      return;
+    }
+
+    if (previous != null) {
+      removeEntry(previous);
+    }
+    overall.add(entry);
+    leaderboards.compute(entry.typeKey(), (typeKey, leaderboard) -> {
+      NavigableSet<RatedRestaurant> updated = leaderboard != null
+          ? leaderboard
+          : new ConcurrentSkipListSet<>(RatedRestaurant.BEST_RATED);
+      updated.add(entry);
+      return updated;
+    });
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    RatedRestaurant previous = entries.remove(restaurantId);
+    if (previous != null) {
+      removeEntry(previous);
+    }
+  }
+
+  /**
+   * Get the best rated restaurants of a type, or of every type. The time is proportional to the number of
+   * restaurants returned, whatever the size of the catalog.
+   *
+   * @param type  the type of restaurant, {@code null} for every type.
+   * @param limit the maximum number of restaurants.
+   * @return a list of up to {@code limit} IDs of restaurants, the best rating first and ties broken by ID.
+   */
+  public List<Long> top(String type, int limit) {
+    NavigableSet<RatedRestaurant> leaderboard = type != null ? leaderboards.get(Tokenizer.fold(type)) : overall;
+    if (leaderboard == null) {
+      return List.of();
+    }
+
+    // A restaurant moved during the iteration may be met again at its new position
+    Set<Long> top = new LinkedHashSet<>();
+    Iterator<RatedRestaurant> iterator = leaderboard.iterator();
+    while (top.size() < limit && iterator.hasNext()) {
+      top.add(iterator.next().restaurantId());
+    }
+    return new ArrayList<>(top);
+  }
+
+  /**
+   * Get the number of restaurants ranked.
+   *
+   * @return the number of restaurants with at least one rating.
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private void removeEntry(RatedRestaurant entry) {
+    overall.remove(entry);
+    leaderboards.computeIfPresent(entry.typeKey(), (typeKey, leaderboard) -> {
+      leaderboard.remove(entry);
+      return leaderboard.isEmpty() ? null : leaderboard;
+    });
+  }
+
+  /**
+   * The entry of a restaurant in the leaderboards.
+   */
+  private record RatedRestaurant(long restaurantId, String typeKey, double rating) {
+
+    // The best rating first, ties broken by the ID of the restaurant
+    static final Comparator<RatedRestaurant> BEST_RATED = Comparator
+        .comparingDouble(RatedRestaurant::rating).reversed()
+        .thenComparingLong(RatedRestaurant::restaurantId);
+  }
+}
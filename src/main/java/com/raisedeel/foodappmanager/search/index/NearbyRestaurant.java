@@ -0,0 +1,32 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import java.util.Comparator;
+
+/**
+ * A restaurant found by a search around a position, with its distance to the position.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant found.</li>
+ *   <li><b>DistanceKm:</b> The great-circle distance from the position to the restaurant, in kilometers.</li>
+ * </ul>
+ */
+public record NearbyRestaurant(long restaurantId, double distanceKm) {
+
+  /**
+   * The order of the results of a search around a position: nearest first, ties broken by the ID of the restaurant.
+   */
+  public static final Comparator<NearbyRestaurant> BY_DISTANCE = Comparator
+      .comparingDouble(NearbyRestaurant::distanceKm)
+      .thenComparingLong(NearbyRestaurant::restaurantId);
+
+  /**
+   * Checks if this result goes after a position of the order, used to seek the next page of a search.
+   *
+   * @param distanceKm   the distance of the last result of the previous page.
+   * @param restaurantId the ID of the last result of the previous page.
+   * @return {@code true} if this result is ordered after the position.
+   */
+  public boolean isAfter(double distanceKm, long restaurantId) {
+    return this.distanceKm > distanceKm || (this.distanceKm == distanceKm && this.restaurantId > restaurantId);
+  }
+}
@@ -0,0 +1,32 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import java.util.Comparator;
+
+/**
+ * A restaurant found by a search, with the score of its match.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant found.</li>
+ *   <li><b>Score:</b> How well the restaurant matches the query, greater is better.</li>
+ * </ul>
+ */
+public record ScoredRestaurant(long restaurantId, double score) {
+
+  /**
+   * The order of the results of a search: best score first, ties broken by the ID of the restaurant.
+   */
+  public static final Comparator<ScoredRestaurant> RANKING = Comparator
+      .comparingDouble(ScoredRestaurant::score).reversed()
+      .thenComparingLong(ScoredRestaurant::restaurantId);
+
+  /**
+   * Checks if this result goes after a position of the ranking, used to seek the next page of a search.
+   *
+   * @param score        the score of the last result of the previous page.
+   * @param restaurantId the ID of the last result of the previous page.
+   * @return {@code true} if this result is ranked after the position.
+   */
+  public boolean isAfter(double score, long restaurantId) {
+    return this.score < score || (this.score == score && this.restaurantId > restaurantId);
+  }
+}
@@ -0,0 +1,550 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import com.raisedeel.foodappmanager.search.model.SuggestionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the completions of the search box: the names of the restaurants, their types and the names of
+ * their dishes, each with a popularity weight. <br/>
+ * The same text of the same type is a single suggestion shared by every restaurant using it, weighing the sum of
+ * their contributions: the name of a restaurant weighs 1 plus its number of ratings, a type or a dish weighs 1 per
+ * restaurant or dish using it. A suggestion is completed from the start of any of its words.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>The folded texts (see {@link Tokenizer}) are kept in a radix tree: the chains of nodes with a single child are
+ *   compressed into one node with a multi-character label, and the empty nodes are pruned as suggestions are removed.</li>
+ *   <li>Every node keeps the greatest weight of its subtree, so the top suggestions of a prefix are found best first,
+ *   visiting only the branches that can still contain one, instead of scanning every completion.</li>
+ *   <li>Each restaurant keeps the suggestions it contributes to, so its previous contribution is subtracted when it
+ *   is indexed again or removed.</li>
+ * </ul>
+ * The estimated memory of the index is published as the {@code search.suggest.memory} metric, with the number of
+ * suggestions ({@code search.suggest.entries}) and of nodes of the tree ({@code search.suggest.nodes}).
+ *
+ * @see CatalogIndexUpdater
+ */
+@Component
+public class SuggestionIndex implements CatalogIndex {
+
+  // Estimated sizes in bytes of the objects of the index, assuming a 64-bit JVM with compressed references
+  static final int OBJECT_HEADER = 12;
+  static final int ARRAY_HEADER = 16;
+  static final int REFERENCE = 4;
+
+  private static final Node[] NO_CHILDREN = {};
+  private static final Suggestion[] NO_SUGGESTIONS = {};
+  private static final Comparator<Candidate> BEST_FIRST = Comparator
+      .comparingLong(Candidate::weight).reversed()
+      // At the same weight, a suggestion found goes before a branch still to explore
+      .thenComparing(candidate -> candidate.suggestion() == null);
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Node root = new Node(new char[0]);
+  private final Map<Key, Suggestion> suggestions = new HashMap<>();
+  // The suggestions each restaurant contributes to and the weight of its contribution
+  private final Map<Long, Contribution> contributions = new HashMap<>();
+
+  public SuggestionIndex(MeterRegistry meterRegistry) {
+    Gauge.builder("search.suggest.memory", this, SuggestionIndex::estimatedBytes)
+        .description("Estimated memory of the autocomplete index")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("search.suggest.entries", this, SuggestionIndex::size)
+        .description("Suggestions of the autocomplete index")
+        .register(meterRegistry);
+    Gauge.builder("search.suggest.nodes", this, SuggestionIndex::nodeCount)
+        .description("Nodes of the tree of the autocomplete index")
+        .register(meterRegistry);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void index(CatalogDocument document) {
+    Map<Key, Long> weights = new LinkedHashMap<>();
+    Map<Key, String> texts = new HashMap<>();
+    contribute(weights, texts, SuggestionType.RESTAURANT, document.name(), 1 + document.totalOfRatings());
+    contribute(weights, texts, SuggestionType.TYPE, document.type(), 1);
+    for (CatalogDocument.DishDocument dish : document.dishes()) {
+      contribute(weights, texts, SuggestionType.DISH, dish.name(), 1);
+    }
+
+    lock.writeLock().lock();
+    try {
+      Set<Suggestion> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+      subtract(contributions.remove(document.restaurantId()), changed);
+
+      Suggestion[] contributed = new Suggestion[weights.size()];
+      long[] contributedWeights = new long[weights.size()];
+      int i = 0;
+      for (Map.Entry<Key, Long> entry : weights.entrySet()) {
+        Suggestion suggestion = suggestions.computeIfAbsent(entry.getKey(),
+            key -> new Suggestion(key, texts.get(key)));
+        suggestion.weight += entry.getValue();
+        changed.add(suggestion);
+        contributed[i] = suggestion;
+        contributedWeights[i++] = entry.getValue();
+      }
+
+      contributions.put(document.restaurantId(), new Contribution(contributed, contributedWeights));
+      changed.forEach(this::update);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void remove(long restaurantId) {
+    lock.writeLock().lock();
+    try {
+      Set<Suggestion> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+      subtract(contributions.remove(restaurantId), changed);
+      changed.forEach(this::update);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Finds the most popular suggestions with a word starting with the text typed.
+   *
+   * @param prefix the text typed, folded like the suggestions.
+   * @param limit  the maximum number of suggestions.
+   * @return a list of up to {@code limit} {@link SuggestionDto}, the most popular first.
+   */
+  public List<SuggestionDto> suggest(String prefix, int limit) {
+    String folded = String.join(" ", Tokenizer.tokenize(prefix));
+    List<SuggestionDto> results = new ArrayList<>();
+    if (folded.isEmpty()) {
+      return results;
+    }
+
+    lock.readLock().lock();
+    try {
+      Node node = find(folded);
+      if (node == null) {
+        return results;
+      }
+
+      // A suggestion is reached through every one of its words, so the ones already returned are skipped
+      Set<Suggestion> found = Collections.newSetFromMap(new IdentityHashMap<>());
+      PriorityQueue<Candidate> candidates = new PriorityQueue<>(BEST_FIRST);
+      candidates.add(new Candidate(node.maxWeight, node, null));
+
+      while (!candidates.isEmpty() && results.size() < limit) {
+        Candidate candidate = candidates.poll();
+
+        if (candidate.suggestion() != null) {
+          Suggestion suggestion = candidate.suggestion();
+          if (found.add(suggestion)) {
+            results.add(new SuggestionDto(suggestion.text, suggestion.key.type(), suggestion.weight));
+          }
+        } else {
+          for (Suggestion suggestion : candidate.node().suggestions) {
+            candidates.add(new Candidate(suggestion.weight, null, suggestion));
+          }
+          for (Node child : candidate.node().children) {
+            candidates.add(new Candidate(child.maxWeight, child, null));
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return results;
+  }
+
+  /**
+   * Get the number of suggestions of the index.
+   *
+   * @return the number of different texts suggested.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return suggestions.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Counts the nodes of the tree, walking the whole tree.
+   *
+   * @return the number of nodes, including the root.
+   */
+  public int nodeCount() {
+    lock.readLock().lock();
+    try {
+      return countNodes(root);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Estimates the memory retained by the index, walking the whole tree: the nodes with their labels and arrays, the
+   * suggestions with their texts and the contributions of the restaurants.
+   *
+   * @return the estimated number of bytes.
+   */
+  public long estimatedBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = nodeBytes(root);
+
+      for (Suggestion suggestion : suggestions.values()) {
+        // The entry of the map, the key, the suggestion and their two strings
+        bytes += align(OBJECT_HEADER + 3 * REFERENCE + 4) + align(OBJECT_HEADER + 2 * REFERENCE)
+            + align(OBJECT_HEADER + 2 * REFERENCE + 8)
+            + stringBytes(suggestion.key.text()) + stringBytes(suggestion.text);
+      }
+      for (Contribution contribution : contributions.values()) {
+        bytes += align(OBJECT_HEADER + 3 * REFERENCE + 4) + align(OBJECT_HEADER + 2 * REFERENCE) + 24
+            + align(ARRAY_HEADER + (long) REFERENCE * contribution.suggestions.length)
+            + align(ARRAY_HEADER + 8L * contribution.weights.length);
+      }
+      return bytes + align(ARRAY_HEADER + (long) REFERENCE * suggestions.size() * 2)
+          + align(ARRAY_HEADER + (long) REFERENCE * contributions.size() * 2);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void contribute(Map<Key, Long> weights, Map<Key, String> texts, SuggestionType type, String text,
+                          long weight) {
+    String folded = String.join(" ", Tokenizer.tokenize(text));
+    if (folded.isEmpty()) {
+      return;
+    }
+
+    Key key = new Key(type, folded);
+    weights.merge(key, weight, Long::sum);
+    texts.putIfAbsent(key, text.strip());
+  }
+
+  private void subtract(Contribution contribution, Set<Suggestion> changed) {
+    if (contribution == null) {
+      return;
+    }
+
+    for (int i = 0; i < contribution.suggestions.length; i++) {
+      Suggestion suggestion = contribution.suggestions[i];
+      suggestion.weight -= contribution.weights[i];
+      changed.add(suggestion);
+    }
+  }
+
+  /**
+   * Applies the new weight of a suggestion to the tree, adding it if it is new or removing it if no restaurant
+   * contributes to it anymore.
+   */
+  private void update(Suggestion suggestion) {
+    if (suggestion.weight <= 0) {
+      suggestions.remove(suggestion.key);
+      if (suggestion.inTree) {
+        keysOf(suggestion).forEach(key -> remove(key, suggestion));
+      }
+    } else if (!suggestion.inTree) {
+      suggestion.inTree = true;
+      keysOf(suggestion).forEach(key -> insert(key, suggestion));
+    } else {
+      keysOf(suggestion).forEach(this::reweigh);
+    }
+  }
+
+  // The suffixes of the folded text starting at each word
+  private Set<String> keysOf(Suggestion suggestion) {
+    String text = suggestion.key.text();
+    Set<String> keys = new LinkedHashSet<>();
+    keys.add(text);
+    for (int i = text.indexOf(' '); i >= 0; i = text.indexOf(' ', i + 1)) {
+      keys.add(text.substring(i + 1));
+    }
+    return keys;
+  }
+
+  private void insert(String key, Suggestion suggestion) {
+    List<Node> path = new ArrayList<>();
+    Node node = root;
+    path.add(node);
+    int i = 0;
+
+    while (i < key.length()) {
+      int index = childIndex(node, key.charAt(i));
+
+      if (index < 0) {
+        Node leaf = new Node(key.substring(i).toCharArray());
+        leaf.suggestions = new Suggestion[]{suggestion};
+        node.children = insertAt(node.children, -index - 1, leaf);
+        path.add(leaf);
+        recompute(path);
+        return;
+      }
+
+      Node child = node.children[index];
+      int common = commonPrefix(child.label, key, i);
+      if (common < child.label.length) {
+        // The key diverges within the label, the child is split at that point
+        Node middle = new Node(Arrays.copyOf(child.label, common));
+        child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+        middle.children = new Node[]{child};
+        middle.maxWeight = child.maxWeight;
+        node.children[index] = middle;
+        child = middle;
+      }
+
+      node = child;
+      path.add(node);
+      i += common;
+    }
+
+    node.suggestions = Arrays.copyOf(node.suggestions, node.suggestions.length + 1);
+    node.suggestions[node.suggestions.length - 1] = suggestion;
+    recompute(path);
+  }
+
+  private void remove(String key, Suggestion suggestion) {
+    List<Node> path = pathOf(key);
+    if (path == null) {
+      return;
+    }
+
+    Node node = path.get(path.size() - 1);
+    node.suggestions = Arrays.stream(node.suggestions)
+        .filter(other -> other != suggestion)
+        .toArray(Suggestion[]::new);
+
+    // The nodes left empty are pruned and the ones left with a single child are merged with it
+    for (int i = path.size() - 1; i > 0; i--) {
+      Node current = path.get(i);
+      Node parent = path.get(i - 1);
+
+      if (current.suggestions.length == 0 && current.children.length == 0) {
+        parent.children = removeAt(parent.children, childIndex(parent, current.label[0]));
+      } else if (current.suggestions.length == 0 && current.children.length == 1) {
+        Node child = current.children[0];
+        char[] label = Arrays.copyOf(current.label, current.label.length + child.label.length);
+        System.arraycopy(child.label, 0, label, current.label.length, child.label.length);
+        child.label = label;
+        parent.children[childIndex(parent, label[0])] = child;
+      } else {
+        current.maxWeight = maxWeightOf(current);
+      }
+    }
+    root.maxWeight = maxWeightOf(root);
+  }
+
+  private void reweigh(String key) {
+    List<Node> path = pathOf(key);
+    if (path != null) {
+      recompute(path);
+    }
+  }
+
+  // The nodes from the root to the node where the key ends, null if the key is not in the tree
+  private List<Node> pathOf(String key) {
+    List<Node> path = new ArrayList<>();
+    Node node = root;
+    path.add(node);
+    int i = 0;
+
+    while (i < key.length()) {
+      int index = childIndex(node, key.charAt(i));
+      if (index < 0) {
+        return null;
+      }
+
+      node = node.children[index];
+      if (commonPrefix(node.label, key, i) != node.label.length) {
+        return null;
+      }
+      path.add(node);
+      i += node.label.length;
+    }
+    return path;
+  }
+
+  // The node whose subtree has every key starting with the prefix, null if there is none
+  private Node find(String prefix) {
+    Node node = root;
+    int i = 0;
+
+    while (i < prefix.length()) {
+      int index = childIndex(node, prefix.charAt(i));
+      if (index < 0) {
+        return null;
+      }
+
+      node = node.children[index];
+      int common = commonPrefix(node.label, prefix, i);
+      // The prefix may end within the label
+      if (common < node.label.length && i + common < prefix.length()) {
+        return null;
+      }
+      i += common;
+    }
+    return node;
+  }
+
+  private void recompute(List<Node> path) {
+    for (int i = path.size() - 1; i >= 0; i--) {
+      Node node = path.get(i);
+      node.maxWeight = maxWeightOf(node);
+    }
+  }
+
+  private static long maxWeightOf(Node node) {
+    long maxWeight = 0;
+    for (Suggestion suggestion : node.suggestions) {
+      maxWeight = Math.max(maxWeight, suggestion.weight);
+    }
+    for (Node child : node.children) {
+      maxWeight = Math.max(maxWeight, child.maxWeight);
+    }
+    return maxWeight;
+  }
+
+  // The children are sorted by the first character of their label, returns -(insertion point) - 1 if not found
+  private static int childIndex(Node node, char first) {
+    int low = 0;
+    int high = node.children.length - 1;
+
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      char current = node.children[middle].label[0];
+      if (current < first) {
+        low = middle + 1;
+      } else if (current > first) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static int commonPrefix(char[] label, String key, int offset) {
+    int length = Math.min(label.length, key.length() - offset);
+    int i = 0;
+    while (i < length && label[i] == key.charAt(offset + i)) {
+      i++;
+    }
+    return i;
+  }
+
+  private static Node[] insertAt(Node[] children, int index, Node child) {
+    Node[] result = new Node[children.length + 1];
+    System.arraycopy(children, 0, result, 0, index);
+    result[index] = child;
+    System.arraycopy(children, index, result, index + 1, children.length - index);
+    return result;
+  }
+
+  private static Node[] removeAt(Node[] children, int index) {
+    if (children.length == 1) {
+      return NO_CHILDREN;
+    }
+    Node[] result = new Node[children.length - 1];
+    System.arraycopy(children, 0, result, 0, index);
+    System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+    return result;
+  }
+
+  private static int countNodes(Node node) {
+    int count = 1;
+    for (Node child : node.children) {
+      count += countNodes(child);
+    }
+    return count;
+  }
+
+  private static long nodeBytes(Node node) {
+    long bytes = align(OBJECT_HEADER + 3 * REFERENCE + 8) + align(ARRAY_HEADER + 2L * node.label.length);
+    if (node.children.length > 0) {
+      bytes += align(ARRAY_HEADER + (long) REFERENCE * node.children.length);
+    }
+    if (node.suggestions.length > 0) {
+      bytes += align(ARRAY_HEADER + (long) REFERENCE * node.suggestions.length);
+    }
+    for (Node child : node.children) {
+      bytes += nodeBytes(child);
+    }
+    return bytes;
+  }
+
+  private static long stringBytes(String text) {
+    // The string and its array of bytes, one per character for the Latin-1 texts
+    return align(OBJECT_HEADER + REFERENCE + 8) + align(ARRAY_HEADER + text.length());
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  private record Key(SuggestionType type, String text) {
+  }
+
+  private record Contribution(Suggestion[] suggestions, long[] weights) {
+  }
+
+  private record Candidate(long weight, Node node, Suggestion suggestion) {
+  }
+
+  /**
+   * A text suggested, with the text as written by the first restaurant using it and the sum of the contributions.
+   */
+  private static class Suggestion {
+
+    final Key key;
+    final String text;
+    long weight;
+    boolean inTree;
+
+    Suggestion(Key key, String text) {
+      this.key = key;
+      this.text = text;
+    }
+  }
+
+  /**
+   * A node of the radix tree, the key of a node is the concatenation of the labels from the root.
+   */
+  private static class Node {
+
+    char[] label;
+    // Sorted by the first character of their label
+    Node[] children = NO_CHILDREN;
+    // The suggestions whose key ends at this node
+    Suggestion[] suggestions = NO_SUGGESTIONS;
+    long maxWeight;
+
+    Node(char[] label) {
+      this.label = label;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.raisedeel.foodappmanager.search.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Splits the text of the catalog and of the queries into the terms of the search indexes. <br/>
+ * The text is folded before it is split: the accents and other combining marks are removed and the letters are
+ * lowercased, so "Café" and "cafe" are the same term. The terms are the runs of letters and digits.
+ */
+public final class Tokenizer {
+
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+  private Tokenizer() {
+  }
+
+  /**
+   * Folds a text, removing its accents and lowercasing it.
+   *
+   * @param text the text to fold.
+   * @return the folded text, empty if the text is {@code null}.
+   */
+  public static String fold(String text) {
+    if (text == null) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+    return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Splits a text into its folded terms, in the order they appear and including repetitions.
+   *
+   * @param text the text to split.
+   * @return a list with the terms, empty if the text is {@code null} or has no letters or digits.
+   */
+  public static List<String> tokenize(String text) {
+    List<String> terms = new ArrayList<>();
+
+    for (String term : SEPARATORS.split(fold(text))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+}
@@ -0,0 +1,80 @@
+package com.raisedeel.foodappmanager.search.model;
+
+import com.raisedeel.foodappmanager.search.dto.SearchRowDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a restaurant with its menu as it is indexed by the in-memory search indexes.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant.</li>
+ *   <li><b>CatalogVersion:</b> The catalog version of the restaurant when it was read, an index never replaces a
+ *   document with an older one.</li>
+ *   <li><b>Name, Type, Description:</b> The searchable fields of the restaurant.</li>
+ *   <li><b>Rating:</b> The rating of the restaurant.</li>
+ *   <li><b>TotalOfRatings:</b> The number of ratings of the restaurant.</li>
+ *   <li><b>Latitude, Longitude:</b> The position of the restaurant, null if its address could not be located.</li>
+ *   <li><b>Dishes:</b> The dishes of the restaurant.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.search.index.CatalogIndex
+ */
+public record CatalogDocument(
+    long restaurantId,
+    long catalogVersion,
+    String name,
+    String type,
+    String description,
+    double rating,
+    long totalOfRatings,
+    Double latitude,
+    Double longitude,
+    List<DishDocument> dishes
+) {
+
+  /**
+   * Groups the rows read from the database into documents. The rows of a restaurant must be consecutive.
+   *
+   * @param rows the rows ordered by the ID of the restaurant.
+   * @return a list with a {@link CatalogDocument} per restaurant, in the order of the rows.
+   */
+  public static List<CatalogDocument> fromRows(List<SearchRowDto> rows) {
+    List<CatalogDocument> documents = new ArrayList<>();
+    SearchRowDto restaurant = null;
+    List<DishDocument> dishes = null;
+
+    for (SearchRowDto row : rows) {
+      // A new ID closes the previous restaurant
+      if (restaurant == null || !restaurant.id().equals(row.id())) {
+        if (restaurant != null) {
+          documents.add(of(restaurant, dishes));
+        }
+        restaurant = row;
+        dishes = new ArrayList<>();
+      }
+
+      if (row.dishId() != null) {
+        dishes.add(new DishDocument(row.dishId(), row.dishName(), row.dishPrice(), row.dishCategory(),
+            row.dishDescription()));
+      }
+    }
+
+    if (restaurant != null) {
+      documents.add(of(restaurant, dishes));
+    }
+    return documents;
+  }
+
+  private static CatalogDocument of(SearchRowDto row, List<DishDocument> dishes) {
+    return new CatalogDocument(row.id(), row.catalogVersion(), row.name(), row.type(), row.description(),
+        row.rating(), row.totalOfRatings(), row.latitude(), row.longitude(), List.copyOf(dishes));
+  }
+
+  /**
+   * Represents a dish of the menu of an indexed restaurant.
+   */
+  public record DishDocument(long id, String name, double price, String category, String description) {
+  }
+}
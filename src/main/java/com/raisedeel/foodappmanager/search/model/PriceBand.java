@@ -0,0 +1,41 @@
+package com.raisedeel.foodappmanager.search.model;
+
+/**
+ * Defines the bands of the prices of the dishes used to filter the restaurants by the prices of their menu. A
+ * restaurant is in every band with at least one of its dishes.
+ * <p/>The available bands are:
+ * <ul>
+ *   <li><b>UNDER_10:</b> Dishes under $10.</li>
+ *   <li><b>FROM_10_TO_20:</b> Dishes from $10 to under $20.</li>
+ *   <li><b>FROM_20_TO_40:</b> Dishes from $20 to under $40.</li>
+ *   <li><b>FROM_40:</b> Dishes of $40 or more.</li>
+ * </ul>
+ */
+public enum PriceBand {
+  UNDER_10(0),
+  FROM_10_TO_20(10),
+  FROM_20_TO_40(20),
+  FROM_40(40);
+
+  private final double minPrice;
+
+  PriceBand(double minPrice) {
+    this.minPrice = minPrice;
+  }
+
+  /**
+   * Finds the band of a price.
+   *
+   * @param price the price of a dish.
+   * @return the {@link PriceBand} containing the price.
+   */
+  public static PriceBand of(double price) {
+    PriceBand[] bands = values();
+    for (int i = bands.length - 1; i > 0; i--) {
+      if (price >= bands[i].minPrice) {
+        return bands[i];
+      }
+    }
+    return bands[0];
+  }
+}
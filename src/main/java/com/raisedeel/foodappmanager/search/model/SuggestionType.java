@@ -0,0 +1,12 @@
+package com.raisedeel.foodappmanager.search.model;
+
+/**
+ * The field of the catalog a suggestion of the autocomplete comes from.
+ *
+ * @see com.raisedeel.foodappmanager.search.index.SuggestionIndex
+ */
+public enum SuggestionType {
+  RESTAURANT,
+  TYPE,
+  DISH
+}
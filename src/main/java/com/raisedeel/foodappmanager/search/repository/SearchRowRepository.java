@@ -0,0 +1,32 @@
+package com.raisedeel.foodappmanager.search.repository;
+
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.search.dto.SearchRowDto;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+
+import java.util.List;
+
+/**
+ * This Spring Data JPA repository interface reads the {@link Restaurant} entities and their dishes to build the
+ * in-memory search indexes. It only declares read queries, the restaurants are managed through the
+ * {@link com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository}.
+ */
+public interface SearchRowRepository extends Repository<Restaurant, Long> {
+
+  /**
+   * Get the restaurants in a range of IDs joined with each of their dishes, ordered by the ID of the restaurant, so
+   * the rows of a restaurant are consecutive. Restaurants without dishes produce a single row with {@code null} dish
+   * fields.
+   *
+   * @param fromId The ID after which the range starts (exclusive).
+   * @param toId   The ID where the range ends (inclusive).
+   * @return A list of {@link SearchRowDto} projections.
+   */
+  @Query("select new com.raisedeel.foodappmanager.search.dto.SearchRowDto(" +
+      "r.id, r.catalogVersion, r.name, r.type, r.description, r.rating, r.ratingCount, " +
+      "r.latitude, r.longitude, " +
+      "d.id, d.name, d.price, d.category, d.description) " +
+      "from Restaurant r left join r.menu d where r.id > :fromId and r.id <= :toId order by r.id")
+  List<SearchRowDto> findRowsBetween(Long fromId, Long toId);
+}
@@ -0,0 +1,85 @@
+package com.raisedeel.foodappmanager.search.service;
+
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.search.dto.FacetPageDto;
+import com.raisedeel.foodappmanager.search.dto.NearbyRestaurantDto;
+import com.raisedeel.foodappmanager.search.dto.SearchMode;
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+
+import java.util.List;
+
+/**
+ * Service interface for the search of restaurants through the in-memory search indexes.
+ */
+public interface SearchService {
+
+  /**
+   * Searches the restaurants whose data or menu match the words of a query, best matches first.
+   *
+   * @param query  the text searched.
+   * @param mode   the {@link SearchMode} matching the words, exact or tolerating typos.
+   * @param size   the maximum number of restaurants in the page.
+   * @param cursor the continuation token of the previous page, {@code null} for the first page.
+   * @return a {@link CursorPage} with the summaries of the restaurants found.
+   * @throws com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException if the cursor is invalid or
+   *                                                                                    belongs to another mode.
+   */
+  CursorPage<RestaurantSummaryDto> searchRestaurants(String query, SearchMode mode, int size, String cursor);
+
+  /**
+   * Suggests the names of restaurants, types of restaurant and names of dishes with a word starting with the text
+   * typed, the most popular first.
+   *
+   * @param prefix the text typed in the search box.
+   * @param size   the maximum number of suggestions.
+   * @return a list of {@link SuggestionDto}, empty if nothing starts with the text.
+   */
+  List<SuggestionDto> suggest(String prefix, int size);
+
+  /**
+   * Filters the restaurants by their type, minimum rating and the prices of their dishes, counting the restaurants of
+   * every value of each facet.
+   *
+   * @param types      the types of restaurant accepted, empty to accept any type.
+   * @param minRating  the minimum stars of the rating of the restaurants, from 0 to 5.
+   * @param priceBands the {@link PriceBand} of the dishes accepted, empty to accept any menu.
+   * @param size       the maximum number of restaurants in the page.
+   * @param cursor     the continuation token of the previous page, {@code null} for the first page.
+   * @return a {@link FacetPageDto} with the summaries of the restaurants found, ordered by ID, and the facet counts.
+   * @throws com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException if the cursor is invalid or
+   *                                                                                    the minimum rating is out of
+   *                                                                                    range.
+   */
+  FacetPageDto filterRestaurants(List<String> types, int minRating, List<PriceBand> priceBands, int size,
+                                 String cursor);
+
+  /**
+   * Searches the restaurants around a position, nearest first. Without a radius, it finds the nearest restaurants
+   * up to the maximum radius.
+   *
+   * @param latitude  the latitude of the position, in decimal degrees.
+   * @param longitude the longitude of the position, in decimal degrees.
+   * @param radiusKm  the maximum distance of the restaurants in kilometers, {@code null} for the maximum radius.
+   * @param types     the types of restaurant accepted, empty to accept any type.
+   * @param minRating the minimum rating of the restaurants.
+   * @param size      the maximum number of restaurants in the page.
+   * @param cursor    the continuation token of the previous page, {@code null} for the first page.
+   * @return a {@link CursorPage} with the summaries of the restaurants found and their distances.
+   * @throws com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException if the position, the radius
+   *                                                                                    or the cursor are invalid.
+   */
+  CursorPage<NearbyRestaurantDto> searchNearby(double latitude, double longitude, Double radiusKm,
+                                               List<String> types, double minRating, int size, String cursor);
+
+  /**
+   * Get the best rated restaurants of a type, or of every type. Only the restaurants with at least one rating are
+   * ranked.
+   *
+   * @param type the type of restaurant, {@code null} for every type.
+   * @param size the maximum number of restaurants.
+   * @return a list of {@link RestaurantSummaryDto}, the best rating first and ties broken by ID.
+   */
+  List<RestaurantSummaryDto> retrieveTopRated(String type, int size);
+}
@@ -0,0 +1,215 @@
+package com.raisedeel.foodappmanager.search.service;
+
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.geocoding.Coordinates;
+import com.raisedeel.foodappmanager.pagination.Cursor;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.search.dto.FacetPageDto;
+import com.raisedeel.foodappmanager.search.dto.NearbyRestaurantDto;
+import com.raisedeel.foodappmanager.search.dto.SearchMode;
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.index.FacetIndex;
+import com.raisedeel.foodappmanager.search.index.FullTextIndex;
+import com.raisedeel.foodappmanager.search.index.FuzzyNameIndex;
+import com.raisedeel.foodappmanager.search.index.GeoIndex;
+import com.raisedeel.foodappmanager.search.index.LeaderboardIndex;
+import com.raisedeel.foodappmanager.search.index.NearbyRestaurant;
+import com.raisedeel.foodappmanager.search.index.ScoredRestaurant;
+import com.raisedeel.foodappmanager.search.index.SuggestionIndex;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementation of the {@link SearchService} interface for the search of restaurants.
+ * <p/>
+ * The restaurants are found and ranked by the in-memory indexes, only the summaries of the restaurants of the page
+ * are read from the database, with a single query by their IDs. The suggestions of the autocomplete never reach the
+ * database.
+ *
+ * @see SearchService
+ */
+@AllArgsConstructor
+@Service
+public class SearchServiceImpl implements SearchService {
+
+  // The maximum number of restaurants that can be requested in a single page
+  public static final int MAX_PAGE_SIZE = 100;
+  // The maximum number of suggestions that can be requested at once
+  public static final int MAX_SUGGESTIONS = 20;
+  // The key of the cursors of the faceted filter, ordered by ID
+  static final String FACETS_CURSOR_KEY = "FACETS";
+  // The maximum radius in kilometers of a search around a position
+  public static final double MAX_RADIUS_KM = 100;
+  // The key of the cursors of the searches around a position, ordered by distance
+  static final String NEARBY_CURSOR_KEY = "NEARBY";
+
+  FullTextIndex fullTextIndex;
+  FuzzyNameIndex fuzzyNameIndex;
+  SuggestionIndex suggestionIndex;
+  FacetIndex facetIndex;
+  GeoIndex geoIndex;
+  LeaderboardIndex leaderboardIndex;
+  RestaurantRepository restaurantRepository;
+
+  /**
+   * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}. The next page continues after the score of
+   * the last restaurant, so it is consistent as long as the restaurants found do not change between the requests.
+   */
+  @Override
+  public CursorPage<RestaurantSummaryDto> searchRestaurants(String query, SearchMode mode, int size, String cursor) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Cursor position = cursor != null ? Cursor.decode(cursor, mode.name()) : null;
+    double afterScore = position != null ? position.valueAsDouble() : Double.POSITIVE_INFINITY;
+    long afterId = position != null ? position.id() : 0L;
+
+    // Find one more restaurant to know if there is a next page
+    List<ScoredRestaurant> results = switch (mode) {
+      case TERMS -> fullTextIndex.search(query, afterScore, afterId, pageSize + 1);
+      case FUZZY -> fuzzyNameIndex.search(query, afterScore, afterId, pageSize + 1);
+    };
+
+    return toPage(results, mode, pageSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   * The number of suggestions is limited between 1 and {@link #MAX_SUGGESTIONS}. The suggestions are answered from
+   * memory, without reaching the database.
+   */
+  @Override
+  public List<SuggestionDto> suggest(String prefix, int size) {
+    return suggestionIndex.suggest(prefix, Math.max(1, Math.min(size, MAX_SUGGESTIONS)));
+  }
+
+  /**
+   * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}. The restaurants and the counts are found
+   * by intersecting the bitmaps of the {@link FacetIndex}, only the summaries of the page are read from the database.
+   */
+  @Override
+  public FacetPageDto filterRestaurants(List<String> types, int minRating, List<PriceBand> priceBands, int size,
+                                        String cursor) {
+    if (minRating < 0 || minRating > FacetIndex.MAX_STARS) {
+      throw new InvalidOperationException("The minimum rating must be between 0 and " + FacetIndex.MAX_STARS);
+    }
+
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    long afterId = cursor != null ? Cursor.decode(cursor, FACETS_CURSOR_KEY).id() : 0L;
+
+    // Find one more restaurant to know if there is a next page
+    FacetIndex.FacetResult result = facetIndex.search(types, minRating, priceBands, afterId, pageSize + 1);
+
+    Map<Long, RestaurantSummaryDto> summaries = new HashMap<>();
+    if (!result.restaurantIds().isEmpty()) {
+      restaurantRepository.findSummariesByIdIn(result.restaurantIds())
+          .forEach(summary -> summaries.put(summary.id(), summary));
+    }
+
+    // A restaurant deleted after it was found is skipped
+    List<RestaurantSummaryDto> found = result.restaurantIds().stream()
+        .map(summaries::get)
+        .filter(Objects::nonNull)
+        .toList();
+    CursorPage<RestaurantSummaryDto> page = CursorPage.of(found, pageSize,
+        summary -> new Cursor(FACETS_CURSOR_KEY, summary.id(), ""));
+
+    return new FacetPageDto(page.getContent(), page.getNextCursor(), result.total(), result.facets());
+  }
+
+  /**
+   * {@inheritDoc}
+   * The radius is limited to {@link #MAX_RADIUS_KM} and the size of the page between 1 and {@link #MAX_PAGE_SIZE}.
+   * The next page continues after the distance of the last restaurant.
+   */
+  @Override
+  public CursorPage<NearbyRestaurantDto> searchNearby(double latitude, double longitude, Double radiusKm,
+                                                      List<String> types, double minRating, int size,
+                                                      String cursor) {
+    if (!Coordinates.isValid(latitude, longitude)) {
+      throw new InvalidOperationException("The latitude must be between -90 and 90 and the longitude between " +
+          "-180 and 180");
+    }
+    if (radiusKm != null && (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM)) {
+      throw new InvalidOperationException("The radius must be greater than 0 and up to " + MAX_RADIUS_KM + " km");
+    }
+
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Cursor position = cursor != null ? Cursor.decode(cursor, NEARBY_CURSOR_KEY) : null;
+    double afterDistance = position != null ? position.valueAsDouble() : -1;
+    long afterId = position != null ? position.id() : 0L;
+
+    // Find one more restaurant to know if there is a next page
+    List<NearbyRestaurant> results = geoIndex.search(latitude, longitude,
+        radiusKm != null ? radiusKm : MAX_RADIUS_KM, types, minRating, afterDistance, afterId, pageSize + 1);
+    if (results.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+
+    Map<Long, RestaurantSummaryDto> summaries = new HashMap<>();
+    restaurantRepository.findSummariesByIdIn(results.stream().map(NearbyRestaurant::restaurantId).toList())
+        .forEach(summary -> summaries.put(summary.id(), summary));
+
+    // A restaurant deleted after it was found is skipped
+    List<NearbyRestaurant> found = results.stream()
+        .filter(result -> summaries.containsKey(result.restaurantId()))
+        .toList();
+
+    return CursorPage.of(found, pageSize,
+            result -> new Cursor(NEARBY_CURSOR_KEY, result.restaurantId(), Double.toString(result.distanceKm())))
+        .map(result -> new NearbyRestaurantDto(summaries.get(result.restaurantId()), result.distanceKm()));
+  }
+
+  /**
+   * {@inheritDoc}
+   * The number of restaurants is limited between 1 and {@link #MAX_PAGE_SIZE}. The ranking is read from the
+   * {@link LeaderboardIndex} without sorting, only the summaries of the restaurants ranked are read from the database.
+   */
+  @Override
+  public List<RestaurantSummaryDto> retrieveTopRated(String type, int size) {
+    List<Long> restaurantIds = leaderboardIndex.top(type, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    if (restaurantIds.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, RestaurantSummaryDto> summaries = new HashMap<>();
+    restaurantRepository.findSummariesByIdIn(restaurantIds)
+        .forEach(summary -> summaries.put(summary.id(), summary));
+
+    // A restaurant deleted after it was ranked is skipped
+    return restaurantIds.stream()
+        .map(summaries::get)
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  private CursorPage<RestaurantSummaryDto> toPage(List<ScoredRestaurant> results, SearchMode mode, int pageSize) {
+    if (results.isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+
+    Map<Long, RestaurantSummaryDto> summaries = new HashMap<>();
+    restaurantRepository.findSummariesByIdIn(results.stream().map(ScoredRestaurant::restaurantId).toList())
+        .forEach(summary -> summaries.put(summary.id(), summary));
+
+    // A restaurant deleted after it was found is skipped
+    List<ScoredRestaurant> found = results.stream()
+        .filter(result -> summaries.containsKey(result.restaurantId()))
+        .toList();
+
+    return CursorPage.of(found, pageSize, result -> positionOf(result, mode))
+        .map(result -> summaries.get(result.restaurantId()));
+  }
+
+  private Cursor positionOf(ScoredRestaurant result, SearchMode mode) {
+    return new Cursor(mode.name(), result.restaurantId(), Double.toString(result.score()));
+  }
+}
@@ -0,0 +1,108 @@
+package com.raisedeel.foodappmanager.search.web;
+
+import com.raisedeel.foodappmanager.exception.model.ErrorResponse;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.search.dto.FacetPageDto;
+import com.raisedeel.foodappmanager.search.dto.NearbyRestaurantDto;
+import com.raisedeel.foodappmanager.search.dto.SearchMode;
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+import com.raisedeel.foodappmanager.search.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Tag(name = "6.- Search Controller", description = "Allow all users searching the restaurants by their data and their menus.")
+@RestController
+@RequestMapping("/restaurant/search")
+public class SearchController {
+
+  SearchService searchService;
+
+  @Operation(summary = "Search restaurants", description = "Get a summary (without the menu) of the restaurants matching any word of q, best matches first. In the TERMS mode (default) the words are searched in the name, type and description of the restaurants and the name, category and description of their dishes. In the FUZZY mode words similar to the ones of q are searched in the names of the restaurants and their dishes, tolerating typos. Accents and case are ignored. The page size is limited to 100 restaurants (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The cursor is invalid or belongs to another mode",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @GetMapping(produces = "application/json")
+  public ResponseEntity<CursorPage<RestaurantSummaryDto>> searchRestaurantsHandler(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "TERMS") SearchMode mode,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(searchService.searchRestaurants(q, mode, size, cursor), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Suggest completions", description = "Get the names of restaurants, types of restaurant and names of dishes with a word starting with q, the most popular first, to complete the text typed in a search box. Accents and case are ignored. The number of suggestions is limited to 20 (default: 10). No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation")
+  })
+  @GetMapping(value = "/suggest", produces = "application/json")
+  public ResponseEntity<List<SuggestionDto>> suggestHandler(
+      @RequestParam String q,
+      @RequestParam(defaultValue = "10") int size) {
+    return new ResponseEntity<>(searchService.suggest(q, size), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Filter restaurants by facets", description = "Get a summary (without the menu) of the restaurants with any of the types, a rating of at least minRating stars (0 to 5, default: 0) and a dish in any of the priceBands (UNDER_10, FROM_10_TO_20, FROM_20_TO_40 or FROM_40), ordered by ID. A facet without values is not filtered. The response has the total of restaurants found and the counts of every type, rating and price band, each counted with the filters of the other facets. Accents and case of the types are ignored. The page size is limited to 100 restaurants (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The minimum rating is out of range or the cursor is invalid",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @GetMapping(value = "/facets", produces = "application/json")
+  public ResponseEntity<FacetPageDto> filterRestaurantsHandler(
+      @RequestParam(name = "type", required = false) List<String> types,
+      @RequestParam(defaultValue = "0") int minRating,
+      @RequestParam(name = "priceBand", required = false) List<PriceBand> priceBands,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(searchService.filterRestaurants(types != null ? types : List.of(), minRating,
+        priceBands != null ? priceBands : List.of(), size, cursor), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Search restaurants near a position", description = "Get a summary (without the menu) of the restaurants within radius kilometers of the position (lat, lon), nearest first, with their distance in kilometers. Without radius, the nearest restaurants up to 100 km are found. The restaurants can be filtered by any of the types (ignoring accents and case) and by a minimum rating. The restaurants are placed at the coordinates of their address. The page size is limited to 100 restaurants (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The position, the radius or the cursor are invalid",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
+  @GetMapping(value = "/nearby", produces = "application/json")
+  public ResponseEntity<CursorPage<NearbyRestaurantDto>> searchNearbyHandler(
+      @RequestParam double lat,
+      @RequestParam double lon,
+      @RequestParam(required = false) Double radius,
+      @RequestParam(name = "type", required = false) List<String> types,
+      @RequestParam(defaultValue = "0") double minRating,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(searchService.searchNearby(lat, lon, radius, types != null ? types : List.of(),
+        minRating, size, cursor), HttpStatus.OK);
+  }
+
+  @Operation(summary = "Get the best rated restaurants", description = "Get a summary (without the menu) of the best rated restaurants of the type (ignoring accents and case), or of every type if no type is sent, the best rating first. Only the restaurants with at least one rating are ranked. The number of restaurants is limited to 100 (default: 10). No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation")
+  })
+  @GetMapping(value = "/top", produces = "application/json")
+  public ResponseEntity<List<RestaurantSummaryDto>> retrieveTopRatedHandler(
+      @RequestParam(required = false) String type,
+      @RequestParam(defaultValue = "10") int size) {
+    return new ResponseEntity<>(searchService.retrieveTopRated(type, size), HttpStatus.OK);
+  }
+}
@@ -11,6 +11,7 @@ import com.raisedeel.foodappmanager.security.providers.CustomAuthenticationProvi
 import com.raisedeel.foodappmanager.security.validators.AuthenticationChecker;
 import com.raisedeel.foodappmanager.user.model.User;
 import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +21,11 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
+
+import java.util.Optional;
 
 import static com.raisedeel.foodappmanager.security.filters.JwtFiltersConfigurer.filtersConfigurer;
 
@@ -32,7 +38,8 @@ import static com.raisedeel.foodappmanager.security.filters.JwtFiltersConfigurer
  * This implementation in specific configures:
  * <ul>
  *   <li>Disables CSRF.</li>
- *   <li>Enable authentication for all endpoints except the register and the GET endpoints.</li>
+ *   <li>Enable authentication for all endpoints except the register, the GET endpoints and the health check.</li>
+ *   <li>Restricts the admin endpoints and the actuator endpoints other than the health check to the admin.</li>
  *   <li>Creates and assign {@link AuthenticationChecker}s in POST and PUT endpoints to restrict
  *   users from manipulating others users data.</li>
  *   <li>Adds a {@link CustomAuthenticationProvider} for the app.</li>
@@ -88,6 +95,12 @@ public class SecurityConfig {
         };
 
     AuthenticationChecker<Dish> dishChecker = new AuthenticationChecker<>(dishRepository) {
+      @Override
+      protected Optional<Dish> fetchEntity(Long id) {
+        // The restaurant of a dish is lazy, so it is fetched with the dish before leaving the repository
+        return dishRepository.findWithRestaurantById(id);
+      }
+
       @Override
       protected User convertEntityToUser(Dish entity) {
         return entity.getRestaurant() != null ? entity.getRestaurant().getOwner() : null;
@@ -101,14 +114,25 @@ public class SecurityConfig {
             "/user/register", // permit all non-registered users to be registered to the app
             "/v3/api-docs/**", "/swagger-ui/**") // permit all api documentation urls
         .permitAll()
-        .requestMatchers(HttpMethod.GET, "/restaurant/**", "/dish/**", "/subscription/**").permitAll()
+        // The response of a streamed export is written in an async dispatch, after its request was authorized as an
+        // admin. Only the dispatch of the export is let through, any other async dispatch is checked as a request
+        .requestMatchers(new AndRequestMatcher(
+            new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+            new AntPathRequestMatcher("/restaurant/admin/export", HttpMethod.GET.name())))
+        .permitAll()
+        // Checked before the public GET endpoints, so the GET endpoints of the admin are not public
+        .requestMatchers("/user/promote/**", "/user/demote/*", "/restaurant/remove/*", "/restaurant/admin/**").hasRole("ADMIN")
+        // The health is public, the metrics and caches of the application (which can be cleared) are for the admin
+        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+        .requestMatchers("/actuator/**").hasRole("ADMIN")
+        .requestMatchers(HttpMethod.GET, "/restaurant/**", "/dish/**", "/subscription/**", "/sync").permitAll()
         .requestMatchers(HttpMethod.PUT, "/user/{id}").access(
             (authentication, context) ->
                 new AuthorizationDecision(
                     userChecker.check(authentication.get(), Long.valueOf(context.getVariables().get("id")), false)
                 )
         )
-        .requestMatchers("/restaurant/{id}", "/dish/restaurant/{id}").access(
+        .requestMatchers("/restaurant/{id}", "/dish/restaurant/{id}", "/dish/restaurant/{id}/menu").access(
             (authentication, context) ->
                 new AuthorizationDecision(
                     restaurantChecker.check(authentication.get(), Long.valueOf(context.getVariables().get("id")), true)
@@ -120,7 +144,6 @@ public class SecurityConfig {
                     dishChecker.check(authentication.get(), Long.valueOf(context.getVariables().get("id")), true)
                 )
         )
-        .requestMatchers("/user/promote/**", "/user/demote/*", "/restaurant/remove/*").hasRole("ADMIN")
         .anyRequest().authenticated() // Make all endpoint before this point ask for authentication
         .and()
         .authenticationProvider(customAuthenticationProvider) // This provider will handle JWT authentication
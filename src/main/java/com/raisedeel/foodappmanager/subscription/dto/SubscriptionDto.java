@@ -1,5 +1,6 @@
 package com.raisedeel.foodappmanager.subscription.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -16,6 +17,7 @@ import lombok.NoArgsConstructor;
  *   <li><b>Rating:</b> The user's rating for the restaurant. <em>The rating must be between 0 and 5 stars.</em></li>
  *   <li><b>UserId:</b> The ID of the user. <em>Can only be read in a response.</em></li>
  *   <li><b>RestaurantId:</b> The ID of the restaurant. <em>Can only be read in a response.</em></li>
+ *   <li><b>Version:</b> The version of the subscription, used for its ETag. <em>Never sent or received.</em></li>
  * </ul>
  *
  * @see com.raisedeel.foodappmanager.subscription.model.Subscription
@@ -33,4 +35,6 @@ public class SubscriptionDto {
   private Long userId;
   @JsonProperty(access = JsonProperty.Access.READ_ONLY)
   private Long restaurantId;
+  @JsonIgnore
+  private long version;
 }
@@ -33,13 +33,15 @@ public interface SubscriptionMapper {
 
   /**
    * Updates a {@link Subscription} object from a {@link SubscriptionDto}, while ignoring null values.
-   * This method is useful for selectively updating Subscription attributes.
+   * This method is useful for selectively updating Subscription attributes. The version is not updated, it is
+   * managed by JPA.
    *
    * @param subscriptionDto the {@link SubscriptionDto} containing updated information.
    * @param subscription    the {@link Subscription} object to be updated.
    * @return the updated {@link Subscription} object.
    */
   @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+  @Mapping(target = "version", ignore = true)
   Subscription updateSubscriptionFromDto(SubscriptionDto subscriptionDto, @MappingTarget Subscription subscription);
 
   /**
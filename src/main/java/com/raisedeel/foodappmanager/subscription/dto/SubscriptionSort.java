@@ -0,0 +1,15 @@
+package com.raisedeel.foodappmanager.subscription.dto;
+
+/**
+ * Defines the orders available when listing the subscriptions of a user or a restaurant. Every order uses the ID of
+ * the subscription to break ties, which keeps the pages of a listing stable.
+ * <p/>The available orders are:
+ * <ul>
+ *   <li><b>ID:</b> Ascending by ID, the order of subscription.</li>
+ *   <li><b>RATING:</b> Descending by rating, the best ratings first.</li>
+ * </ul>
+ */
+public enum SubscriptionSort {
+  ID,
+  RATING
+}
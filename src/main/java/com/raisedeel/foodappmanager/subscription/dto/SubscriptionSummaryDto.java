@@ -0,0 +1,25 @@
+package com.raisedeel.foodappmanager.subscription.dto;
+
+/**
+ * Data Transfer Object (DTO) representing a lightweight view of a subscription. This record only holds the IDs and
+ * the rating of the subscription and is built directly by the repository queries (as a projection), so listing
+ * subscriptions never loads their users or restaurants. <br/>
+ * Used by the listing endpoints, the subscription with its version is provided by {@link SubscriptionDto}.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>ID:</b> The unique identifier of the subscription.</li>
+ *   <li><b>Rating:</b> The user's rating for the restaurant.</li>
+ *   <li><b>UserId:</b> The ID of the subscribed user.</li>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.subscription.model.Subscription
+ * @see SubscriptionDto
+ */
+public record SubscriptionSummaryDto(
+    Long id,
+    int rating,
+    Long userId,
+    Long restaurantId
+) {
+}
@@ -0,0 +1,18 @@
+package com.raisedeel.foodappmanager.subscription.dto;
+
+/**
+ * Data Transfer Object (DTO) identifying the current version of a subscription, built directly by the repository
+ * without loading the subscription. Used to check the ETag of a conditional request.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>ID:</b> The unique identifier of the subscription.</li>
+ *   <li><b>Version:</b> The version of the subscription, increased on every change of its rating.</li>
+ * </ul>
+ *
+ * @see com.raisedeel.foodappmanager.subscription.model.Subscription
+ */
+public record SubscriptionVersionDto(
+    Long id,
+    long version
+) {
+}
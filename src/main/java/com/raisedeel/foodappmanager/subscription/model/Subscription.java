@@ -3,21 +3,22 @@ package com.raisedeel.foodappmanager.subscription.model;
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
 import com.raisedeel.foodappmanager.user.model.User;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
 
 /**
  * {@link Entity} class representing a subscription in the application. This class is used to map subscription-related
  * data to the database and represents various attributes of a subscription, including its rating, user, and restaurant.
  * It also enforces uniqueness, ensuring that each user and restaurant pair is unique and not repeated, preventing users
- * from rating the same restaurant more than once.
+ * from rating the same restaurant more than once. The indexes by user or restaurant and ID (or descending rating and
+ * ascending ID, the order of the listing) let the paginated listings seek the first subscription of a page instead of
+ * sorting every subscription.
  * <p/><b>Fields</b>
  * <ul>
  *   <li><b>ID:</b> The unique identifier for this restaurant, automatically assigned by Spring JPA upon creation.</li>
  *   <li><b>Rating:</b> The user's rating for the restaurant.</li>
- *   <li><b>UserId:</b> A {@link User} entity representing the rating user.</li>
- *   <li><b>Restaurant</b> A {@link Restaurant} entity representing the rated restaurant.</li>
+ *   <li><b>Version:</b> The version of the subscription, used to detect concurrent updates (optimistic locking).</li>
+ *   <li><b>UserId:</b> A {@link User} entity representing the rating user. <em>Loaded lazily.</em></li>
+ *   <li><b>Restaurant</b> A {@link Restaurant} entity representing the rated restaurant. <em>Loaded lazily.</em></li>
  * </ul>
  *
  * @see Entity
@@ -28,18 +29,28 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "restaurant_id"})})
+@Table(uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "restaurant_id"})}, indexes = {
+    @Index(name = "idx_subscription_user_id", columnList = "user_id, id"),
+    @Index(name = "idx_subscription_restaurant_id", columnList = "restaurant_id, id"),
+    @Index(name = "idx_subscription_restaurant_rating_id", columnList = "restaurant_id, rating desc, id")
+})
 public class Subscription {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Long id;
   private int rating;
+  @Version
+  private long version;
 
-  @ManyToOne
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "user_id", referencedColumnName = "id")
   private User user;
 
-  @ManyToOne
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "restaurant_id", referencedColumnName = "id")
   private Restaurant restaurant;
 }
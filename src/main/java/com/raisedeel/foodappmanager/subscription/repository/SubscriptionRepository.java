@@ -1,6 +1,9 @@
 package com.raisedeel.foodappmanager.subscription.repository;
 
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSummaryDto;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionVersionDto;
 import com.raisedeel.foodappmanager.subscription.model.Subscription;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -22,12 +25,25 @@ import java.util.Optional;
  *   <li>Query and filter subscription entities using Spring Data JPA repository query methods,
  *   including operations such as calculating the average rating.</li>
  * </ul>
+ * The listings of the subscriptions of a user or a restaurant are paginated by keyset, seeking the position of the last
+ * subscription of the previous page, and return {@link SubscriptionSummaryDto} projections, so the users and
+ * restaurants are never loaded. The size of each page is limited through the {@link Pageable} parameter (use a single
+ * page, e.g. {@code PageRequest.of(0, size)}).
  *
  * @see CrudRepository
  * @see Subscription
  */
 public interface SubscriptionRepository extends CrudRepository<Subscription, Long> {
 
+  // Constructor expression shared by the queries returning a SubscriptionSummaryDto projection
+  String SUMMARY = "select new com.raisedeel.foodappmanager.subscription.dto.SubscriptionSummaryDto(" +
+      "s.id, s.rating, s.user.id, s.restaurant.id) from Subscription s ";
+
+  // Keyset conditions and orders of the listings, after the filter by user or restaurant
+  String AFTER_ID = "and s.id > :lastId order by s.id";
+  String AFTER_RATING = "and (s.rating < :lastRating or (s.rating = :lastRating and s.id > :lastId)) " +
+      "order by s.rating desc, s.id";
+
   /**
    * Find a subscription entity by the IDs of the user and restaurant.
    *
@@ -38,12 +54,51 @@ public interface SubscriptionRepository extends CrudRepository<Subscription, Lon
   Optional<Subscription> findByUserIdAndRestaurantId(Long userId, Long restaurantId);
 
   /**
-   * Get a list of subscription entities associated with a specific user.
+   * Get the ID and version of a subscription by the IDs of the user and restaurant, without loading the subscription.
    *
-   * @param userId The ID of the user.
-   * @return A list of matching subscription entities.
+   * @param userId       The ID of the user.
+   * @param restaurantId The ID of the restaurant.
+   * @return An {@link Optional} containing the version of the subscription, if found.
+   */
+  @Query("select new com.raisedeel.foodappmanager.subscription.dto.SubscriptionVersionDto(s.id, s.version) " +
+      "from Subscription s where s.user.id = :userId and s.restaurant.id = :restaurantId")
+  Optional<SubscriptionVersionDto> findVersionByUserIdAndRestaurantId(Long userId, Long restaurantId);
+
+  /**
+   * Get the summary of a subscription by the IDs of the user and restaurant, without loading the subscription.
+   *
+   * @param userId       The ID of the user.
+   * @param restaurantId The ID of the restaurant.
+   * @return An {@link Optional} containing the summary of the subscription, if found.
    */
-  List<Subscription> findAllByUserId(Long userId);
+  @Query(SUMMARY + "where s.user.id = :userId and s.restaurant.id = :restaurantId")
+  Optional<SubscriptionSummaryDto> findSummaryByUserIdAndRestaurantId(Long userId, Long restaurantId);
+
+  /**
+   * Get a page of the subscriptions of a user ordered by ID, starting after the given ID.
+   *
+   * @param userId   The ID of the user.
+   * @param lastId   The ID of the last subscription of the previous page (0 for the first page).
+   * @param pageable The size of the page.
+   * @return A list of subscription summaries.
+   */
+  @Query(SUMMARY + "where s.user.id = :userId " + AFTER_ID)
+  List<SubscriptionSummaryDto> findPageByUserIdOrderById(Long userId, Long lastId, Pageable pageable);
+
+  /**
+   * Get a page of the subscriptions of a user ordered by descending rating and ID, starting after the given rating
+   * and ID.
+   *
+   * @param userId     The ID of the user.
+   * @param lastRating The rating of the last subscription of the previous page ({@link Integer#MAX_VALUE} for the
+   *                   first page).
+   * @param lastId     The ID of the last subscription of the previous page (0 for the first page).
+   * @param pageable   The size of the page.
+   * @return A list of subscription summaries.
+   */
+  @Query(SUMMARY + "where s.user.id = :userId " + AFTER_RATING)
+  List<SubscriptionSummaryDto> findPageByUserIdOrderByRating(Long userId, Integer lastRating, Long lastId,
+                                                             Pageable pageable);
 
   /**
    * Get a list of subscription entities associated with a specific restaurant.
@@ -53,6 +108,32 @@ public interface SubscriptionRepository extends CrudRepository<Subscription, Lon
    */
   List<Subscription> findAllByRestaurantId(Long restaurantId);
 
+  /**
+   * Get a page of the subscriptions of a restaurant ordered by ID, starting after the given ID.
+   *
+   * @param restaurantId The ID of the restaurant.
+   * @param lastId       The ID of the last subscription of the previous page (0 for the first page).
+   * @param pageable     The size of the page.
+   * @return A list of subscription summaries.
+   */
+  @Query(SUMMARY + "where s.restaurant.id = :restaurantId " + AFTER_ID)
+  List<SubscriptionSummaryDto> findPageByRestaurantIdOrderById(Long restaurantId, Long lastId, Pageable pageable);
+
+  /**
+   * Get a page of the subscriptions of a restaurant ordered by descending rating and ID, starting after the given
+   * rating and ID.
+   *
+   * @param restaurantId The ID of the restaurant.
+   * @param lastRating   The rating of the last subscription of the previous page ({@link Integer#MAX_VALUE} for the
+   *                     first page).
+   * @param lastId       The ID of the last subscription of the previous page (0 for the first page).
+   * @param pageable     The size of the page.
+   * @return A list of subscription summaries.
+   */
+  @Query(SUMMARY + "where s.restaurant.id = :restaurantId " + AFTER_RATING)
+  List<SubscriptionSummaryDto> findPageByRestaurantIdOrderByRating(Long restaurantId, Integer lastRating, Long lastId,
+                                                                   Pageable pageable);
+
   /**
    * Calculate the average rating for a restaurant by its ID, excluding ratings with a value of 0.
    *
@@ -62,6 +143,20 @@ public interface SubscriptionRepository extends CrudRepository<Subscription, Lon
   @Query("select AVG(nullif(s.rating, 0)) from Subscription s where s.restaurant.id = :restaurantId")
   Optional<Double> averageOfRatingsByRestaurantId(Long restaurantId);
 
+  /**
+   * Delete a subscription entity by its ID, only if its rating is still the given one. A subscription rated again
+   * after its rating was read is not deleted, so the rating removed from the aggregates of the restaurant is always
+   * the one deleted.
+   *
+   * @param id     The ID of the subscription.
+   * @param rating The rating of the subscription when it was read.
+   * @return The number of subscriptions deleted, 0 if the subscription was deleted or rated again.
+   */
+  @Transactional
+  @Modifying
+  @Query("delete from Subscription s where s.id = :id and s.rating = :rating")
+  int deleteByIdAndRating(Long id, int rating);
+
   /**
    * Delete a subscription entity by the IDs of the user and restaurant.
    *
@@ -1,8 +1,12 @@
 package com.raisedeel.foodappmanager.subscription.service;
 
+import com.raisedeel.foodappmanager.pagination.CursorPage;
 import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSort;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSummaryDto;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionVersionDto;
 
-import java.util.List;
+import java.util.Optional;
 
 /**
  * A service interface for subscription management operations.<br/>
@@ -21,20 +25,41 @@ public interface SubscriptionService {
   SubscriptionDto retrieveSubscription(Long userId, Long restaurantId);
 
   /**
-   * Retrieves the subscriptions associated with a specific user ID.
+   * Retrieves the current version of the subscription with the given user and restaurant IDs, without loading it.
+   *
+   * @param userId       the ID of the user.
+   * @param restaurantId the ID of the restaurant.
+   * @return an {@link Optional} with the {@link SubscriptionVersionDto}, empty if the subscription does not exist.
+   */
+  Optional<SubscriptionVersionDto> retrieveSubscriptionVersion(Long userId, Long restaurantId);
+
+  /**
+   * Retrieves a page of the subscriptions associated with a specific user ID in the given order.
    *
    * @param userId the ID of the user's subscription.
-   * @return a list of {@link SubscriptionDto} representing all subscriptions.
+   * @param sort   the {@link SubscriptionSort} of the listing.
+   * @param size   the maximum number of subscriptions in the page.
+   * @param cursor the continuation token of the previous page, or {@code null} to retrieve the first page.
+   * @return a {@link CursorPage} of {@link SubscriptionSummaryDto} with the token to retrieve the next page.
+   * @throws com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException if the cursor is invalid or
+   *                                                                                    belongs to another sort.
    */
-  List<SubscriptionDto> retrieveSubscriptionsFromUser(Long userId);
+  CursorPage<SubscriptionSummaryDto> retrieveSubscriptionsFromUser(Long userId, SubscriptionSort sort, int size,
+                                                                   String cursor);
 
   /**
-   * Retrieves the subscriptions associated with a specific restaurant ID.
+   * Retrieves a page of the subscriptions associated with a specific restaurant ID in the given order.
    *
    * @param restaurantId the ID of the restaurant's subscription.
-   * @return a list of {@link SubscriptionDto} representing all subscriptions.
+   * @param sort         the {@link SubscriptionSort} of the listing.
+   * @param size         the maximum number of subscriptions in the page.
+   * @param cursor       the continuation token of the previous page, or {@code null} to retrieve the first page.
+   * @return a {@link CursorPage} of {@link SubscriptionSummaryDto} with the token to retrieve the next page.
+   * @throws com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException if the cursor is invalid or
+   *                                                                                    belongs to another sort.
    */
-  List<SubscriptionDto> retrieveSubscriptionsFromRestaurants(Long restaurantId);
+  CursorPage<SubscriptionSummaryDto> retrieveSubscriptionsFromRestaurants(Long restaurantId, SubscriptionSort sort,
+                                                                          int size, String cursor);
 
   /**
    * Saves a subscription with a rating of 0 associated with the user and restaurant IDs into the database.
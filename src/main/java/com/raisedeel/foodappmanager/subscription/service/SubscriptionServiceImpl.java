@@ -1,18 +1,34 @@
 package com.raisedeel.foodappmanager.subscription.service;
 
+import com.raisedeel.foodappmanager.concurrent.OptimisticRetry;
+import com.raisedeel.foodappmanager.concurrent.SingleFlight;
 import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
+import com.raisedeel.foodappmanager.pagination.Cursor;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
 import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
 import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
 import com.raisedeel.foodappmanager.subscription.dto.SubscriptionMapper;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSort;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSummaryDto;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionVersionDto;
 import com.raisedeel.foodappmanager.subscription.model.Subscription;
 import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
+import com.raisedeel.foodappmanager.sync.service.SyncChangeRecorder;
+import com.raisedeel.foodappmanager.trending.service.TrendingTracker;
 import com.raisedeel.foodappmanager.user.model.User;
 import com.raisedeel.foodappmanager.user.repository.UserRepository;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Implementation of the {@link SubscriptionService} interface for subscription management operations.
@@ -25,18 +41,27 @@ import java.util.List;
 @Service
 public class SubscriptionServiceImpl implements SubscriptionService {
 
+  // The maximum number of subscriptions that can be requested in a single page
+  public static final int MAX_PAGE_SIZE = 100;
+
   SubscriptionRepository subscriptionRepository;
   RestaurantRepository restaurantRepository;
   UserRepository userRepository;
   SubscriptionMapper subscriptionMapper;
+  RatingUpdateQueue ratingUpdateQueue;
+  OptimisticRetry optimisticRetry;
+  SingleFlight singleFlight;
+  TrendingTracker trendingTracker;
+  ApplicationEventPublisher eventPublisher;
+  SyncChangeRecorder syncChangeRecorder;
 
   /**
    * {@inheritDoc}
    */
   @Override
   public SubscriptionDto retrieveSubscription(Long userId, Long restaurantId) {
-    return subscriptionMapper.subscriptionToDto(
-        getSubscriptionByUserIdAndRestaurantId(userId, restaurantId)
+    return singleFlight.execute("subscription:" + userId + ":" + restaurantId, () ->
+        subscriptionMapper.subscriptionToDto(getSubscriptionByUserIdAndRestaurantId(userId, restaurantId))
     );
   }
 
@@ -44,26 +69,61 @@ public class SubscriptionServiceImpl implements SubscriptionService {
    * {@inheritDoc}
    */
   @Override
-  public List<SubscriptionDto> retrieveSubscriptionsFromUser(Long userId) {
-    return subscriptionRepository.findAllByUserId(userId)
-        .stream()
-        .map(subscriptionMapper::subscriptionToDto)
-        .toList();
+  public Optional<SubscriptionVersionDto> retrieveSubscriptionVersion(Long userId, Long restaurantId) {
+    return subscriptionRepository.findVersionByUserIdAndRestaurantId(userId, restaurantId);
+  }
+
+  /**
+   * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}.
+   */
+  @Override
+  public CursorPage<SubscriptionSummaryDto> retrieveSubscriptionsFromUser(Long userId, SubscriptionSort sort, int size,
+                                                                          String cursor) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Cursor position = cursor != null ? Cursor.decode(cursor, sort.name()) : null;
+    long lastId = position != null ? position.id() : 0L;
+    // Fetch one more subscription to know if there is a next page
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    return singleFlight.execute("userSubscriptions:" + userId + ":" + sort + ":" + pageSize + ":" + cursor, () -> {
+      List<SubscriptionSummaryDto> subscriptions = switch (sort) {
+        case ID -> subscriptionRepository.findPageByUserIdOrderById(userId, lastId, limit);
+        case RATING -> subscriptionRepository.findPageByUserIdOrderByRating(
+            userId, position != null ? position.valueAsInt() : Integer.MAX_VALUE, lastId, limit);
+      };
+      return CursorPage.of(subscriptions, pageSize, subscription -> positionOf(subscription, sort));
+    });
   }
 
   /**
    * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}.
    */
   @Override
-  public List<SubscriptionDto> retrieveSubscriptionsFromRestaurants(Long restaurantId) {
-    return subscriptionRepository.findAllByRestaurantId(restaurantId)
-        .stream()
-        .map(subscriptionMapper::subscriptionToDto)
-        .toList();
+  public CursorPage<SubscriptionSummaryDto> retrieveSubscriptionsFromRestaurants(Long restaurantId,
+                                                                                 SubscriptionSort sort, int size,
+                                                                                 String cursor) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    Cursor position = cursor != null ? Cursor.decode(cursor, sort.name()) : null;
+    long lastId = position != null ? position.id() : 0L;
+    // Fetch one more subscription to know if there is a next page
+    Pageable limit = PageRequest.of(0, pageSize + 1);
+
+    return singleFlight.execute(
+        "restaurantSubscriptions:" + restaurantId + ":" + sort + ":" + pageSize + ":" + cursor, () -> {
+          List<SubscriptionSummaryDto> subscriptions = switch (sort) {
+            case ID -> subscriptionRepository.findPageByRestaurantIdOrderById(restaurantId, lastId, limit);
+            case RATING -> subscriptionRepository.findPageByRestaurantIdOrderByRating(
+                restaurantId, position != null ? position.valueAsInt() : Integer.MAX_VALUE, lastId, limit);
+          };
+          return CursorPage.of(subscriptions, pageSize, subscription -> positionOf(subscription, sort));
+        });
   }
 
   /**
    * {@inheritDoc}
+   * The subscription is recorded by the {@link TrendingTracker} once the transaction commits.
    */
   @Override
   public SubscriptionDto subscribeToRestaurant(Long userId, Long restaurantId) {
@@ -74,39 +134,81 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     subscription.setUser(user);
     subscription.setRestaurant(restaurant);
 
-    return subscriptionMapper.subscriptionToDto(subscriptionRepository.save(subscription));
+    SubscriptionDto subscriptionDto = subscriptionMapper.subscriptionToDto(subscriptionRepository.save(subscription));
+    trendingTracker.record(restaurantId);
+    return subscriptionDto;
   }
 
   /**
    * {@inheritDoc}
+   * The subscription is deleted and its rating removed from the aggregates of the {@link Restaurant} in a single
+   * transaction, with a statement each and without loading any entity. The aggregates are updated in place instead of
+   * through the {@link RatingUpdateQueue}, so the rating of the restaurant stops counting the subscription when it is
+   * deleted (a previous change of its rating still waiting in the queue is applied when the queue is flushed). <br/>
+   * The operation is retried if the subscription is rated by another request at the same time, so the rating removed
+   * is always the latest one.
    */
   @Override
   public void unsubscribeToRestaurant(Long userId, Long restaurantId) {
-    updateRating(new SubscriptionDto(), userId, restaurantId);
-    subscriptionRepository.deleteByUserIdAndRestaurantId(userId, restaurantId);
+    optimisticRetry.execute("Subscription", () -> {
+      SubscriptionSummaryDto subscription = subscriptionRepository
+          .findSummaryByUserIdAndRestaurantId(userId, restaurantId)
+          .orElseThrow(() -> new EntityNotFoundException("Subscription"));
+
+      if (subscriptionRepository.deleteByIdAndRating(subscription.id(), subscription.rating()) == 0) {
+        throw new ObjectOptimisticLockingFailureException(Subscription.class, subscription.id());
+      }
+
+      // A subscription without rating is not counted in the aggregates
+      if (subscription.rating() > 0) {
+        restaurantRepository.updateRatingAggregates(restaurantId, subscription.rating(), 0);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
+        // The update does not go through the entity, so the clients are told about the new rating explicitly
+        syncChangeRecorder.recordRestaurantUpdated(restaurantId);
+      }
+      return null;
+    });
   }
 
   /**
    * {@inheritDoc}
-   * Subsequently, this operation updates the average rating in the associated {@link Restaurant} entity,
-   * identified by the restaurantId parameter.
+   * Subsequently, the difference between the old and the new rating is sent to the {@link RatingUpdateQueue}, which
+   * applies it to the rating aggregates of the associated {@link Restaurant} entity, identified by the restaurantId
+   * parameter, once the transaction commits. <br/>
+   * The operation is retried if the subscription is updated by another request at the same time, so the difference
+   * is always calculated from the latest rating. The rating is recorded by the {@link TrendingTracker} once the
+   * transaction commits.
    */
   @Override
   public SubscriptionDto updateRating(SubscriptionDto subscriptionDto, Long userId, Long restaurantId) {
-    Restaurant restaurant = getRestaurantById(restaurantId);
+    return optimisticRetry.execute("Subscription", () -> {
+      SubscriptionDto updatedDto = rate(subscriptionDto, userId, restaurantId);
+      trendingTracker.record(restaurantId);
+      return updatedDto;
+    });
+  }
+
+  private SubscriptionDto rate(SubscriptionDto subscriptionDto, Long userId, Long restaurantId) {
     Subscription subscription = getSubscriptionByUserIdAndRestaurantId(userId, restaurantId);
+    int oldRating = subscription.getRating();
 
     SubscriptionDto updatedDto = subscriptionMapper.subscriptionToDto(subscriptionRepository.save(
         subscriptionMapper.updateSubscriptionFromDto(subscriptionDto, subscription)
     ));
 
-    restaurant.setRating(
-        subscriptionRepository.averageOfRatingsByRestaurantId(restaurantId).orElse(0.0)
-    );
-    restaurantRepository.save(restaurant);
+    ratingUpdateQueue.enqueue(restaurantId, oldRating, updatedDto.getRating());
     return updatedDto;
   }
 
+  private Cursor positionOf(SubscriptionSummaryDto subscription, SubscriptionSort sort) {
+    String value = switch (sort) {
+      case ID -> "";
+      case RATING -> Integer.toString(subscription.rating());
+    };
+
+    return new Cursor(sort.name(), subscription.id(), value);
+  }
+
   private Subscription getSubscriptionByUserIdAndRestaurantId(Long userId, Long restaurantId) {
     return subscriptionRepository.findByUserIdAndRestaurantId(userId, restaurantId)
         .orElseThrow(() -> new EntityNotFoundException("Subscription"));
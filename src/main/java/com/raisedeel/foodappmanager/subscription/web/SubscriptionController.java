@@ -1,7 +1,11 @@
 package com.raisedeel.foodappmanager.subscription.web;
 
 import com.raisedeel.foodappmanager.exception.model.ErrorResponse;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.response.ETags;
 import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSort;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionSummaryDto;
 import com.raisedeel.foodappmanager.subscription.service.SubscriptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,12 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @AllArgsConstructor
 @Tag(name = "2.- Subscription Controller", description = "Allow users the creation, retrieving, updating and deletion of subscriptions on any preferred restaurant.")
 @RestController
@@ -45,33 +48,74 @@ public class SubscriptionController {
     );
   }
 
-  @Operation(summary = "Get a subscription", description = "Get the subscription from the user and restaurant given. No token is required.")
+  @Operation(summary = "Get a subscription", description = "Get the subscription from the user and restaurant given. Send the ETag of a previous response in the If-None-Match header to skip the data if it did not change. No token is required.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "304", description = "The data did not change since the ETag sent in If-None-Match", content = @Content),
       @ApiResponse(responseCode = "404", description = "The subscription could not be found",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
           content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
   })
   @GetMapping(value = "/user/{userId}/restaurant/{restaurantId}", produces = "application/json")
   public ResponseEntity<SubscriptionDto> retrieveSubscriptionHandler(
       @PathVariable Long userId,
-      @PathVariable Long restaurantId) {
-    return new ResponseEntity<>(subscriptionService.retrieveSubscription(userId, restaurantId), HttpStatus.OK);
+      @PathVariable Long restaurantId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+    if (ifNoneMatch != null) {
+      // Only the version is read to check the ETag, the subscription is loaded if it changed
+      String etag = subscriptionService.retrieveSubscriptionVersion(userId, restaurantId)
+          .map(version -> ETags.of(version.id(), version.version()))
+          .orElse(null);
+      if (ETags.matches(ifNoneMatch, etag)) {
+        return ETags.notModified(etag);
+      }
+    }
+
+    SubscriptionDto subscriptionDto = subscriptionService.retrieveSubscription(userId, restaurantId);
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(ETags.of(subscriptionDto.getId(), subscriptionDto.getVersion()))
+        .body(subscriptionDto);
   }
 
-  @Operation(summary = "Get all subscriptions from a user", description = "Get the subscriptions from the user with the given id. No token is required.")
-  @ApiResponse(responseCode = "200", description = "Successful operation")
+  @Operation(summary = "Get all subscriptions from a user", description = "Get the subscriptions from the user with the given id one page at a time, sorted by ID or RATING (default: ID). The page size is limited to 100 subscriptions (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The cursor is invalid or belongs to another sort",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
   @GetMapping(value = "/user/{userId}", produces = "application/json")
-  public ResponseEntity<List<SubscriptionDto>> retrieveSubscriptionsFromUserHandler(
-      @PathVariable Long userId) {
-    return new ResponseEntity<>(subscriptionService.retrieveSubscriptionsFromUser(userId), HttpStatus.OK);
+  public ResponseEntity<CursorPage<SubscriptionSummaryDto>> retrieveSubscriptionsFromUserHandler(
+      @PathVariable Long userId,
+      @RequestParam(defaultValue = "ID") SubscriptionSort sort,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(
+        subscriptionService.retrieveSubscriptionsFromUser(userId, sort, size, cursor),
+        HttpStatus.OK
+    );
   }
 
-  @Operation(summary = "Get all subscriptions from a restaurant", description = "Get the subscriptions from the restaurant with the given id. No token is required.")
-  @ApiResponse(responseCode = "200", description = "Successful operation")
+  @Operation(summary = "Get all subscriptions from a restaurant", description = "Get the subscriptions from the restaurant with the given id one page at a time, sorted by ID or RATING (default: ID). The page size is limited to 100 subscriptions (default: 20). Send the nextCursor of a response as the cursor parameter to get the next page, a null nextCursor marks the last page. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation"),
+      @ApiResponse(responseCode = "400", description = "Unsuccessful operation. The cursor is invalid or belongs to another sort",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+      @ApiResponse(responseCode = "503", description = "The same data was being loaded by another request and took too long",
+          content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+  })
   @GetMapping(value = "/restaurant/{restaurantId}", produces = "application/json")
-  public ResponseEntity<List<SubscriptionDto>> retrieveSubscriptionsFromRestaurantHandler(
-      @PathVariable Long restaurantId) {
-    return new ResponseEntity<>(subscriptionService.retrieveSubscriptionsFromRestaurants(restaurantId), HttpStatus.OK);
+  public ResponseEntity<CursorPage<SubscriptionSummaryDto>> retrieveSubscriptionsFromRestaurantHandler(
+      @PathVariable Long restaurantId,
+      @RequestParam(defaultValue = "ID") SubscriptionSort sort,
+      @RequestParam(defaultValue = "20") int size,
+      @RequestParam(required = false) String cursor) {
+    return new ResponseEntity<>(
+        subscriptionService.retrieveSubscriptionsFromRestaurants(restaurantId, sort, size, cursor),
+        HttpStatus.OK
+    );
   }
 
   @Operation(summary = "Update the rating of a user", description = "Updates the rating of the user on the restaurant, then updates the average of ratings on the restaurant. Requires a valid Bearer Token.")
@@ -0,0 +1,34 @@
+package com.raisedeel.foodappmanager.sync.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.sync.model.SyncEntityType;
+
+/**
+ * Data Transfer Object (DTO) representing the last change of a restaurant or a dish. Only the data of the entity
+ * changed is sent, the empty fields are omitted.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Seq:</b> The change sequence number.</li>
+ *   <li><b>Type:</b> The type of the entity changed, see {@link SyncEntityType}.</li>
+ *   <li><b>Id:</b> The ID of the restaurant or dish changed.</li>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant the entity belongs to (its own ID for a restaurant).</li>
+ *   <li><b>Deleted:</b> Whether the entity was deleted (a tombstone).</li>
+ *   <li><b>Restaurant:</b> The current data of the restaurant. <em>Only for a restaurant not deleted.</em></li>
+ *   <li><b>Dish:</b> The current data of the dish. <em>Only for a dish not deleted.</em></li>
+ * </ul>
+ *
+ * @see SyncPageDto
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncChangeDto(
+    long seq,
+    SyncEntityType type,
+    Long id,
+    Long restaurantId,
+    boolean deleted,
+    RestaurantSummaryDto restaurant,
+    DishDto dish
+) {
+}
@@ -0,0 +1,24 @@
+package com.raisedeel.foodappmanager.sync.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a page of the changes of the catalog after a change sequence number. A
+ * client keeps the {@code nextSince} of the last page it applied and sends it in the next synchronization.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Changes:</b> The changes of the page in the order they were committed, see {@link SyncChangeDto}. Only
+ *   the last change of every entity is kept.</li>
+ *   <li><b>NextSince:</b> The sequence number to request the next page with.</li>
+ *   <li><b>HasMore:</b> Whether there are more changes after this page.</li>
+ *   <li><b>Reset:</b> Whether deletions after the sequence number sent were purged. The client must then discard its
+ *   copy of the catalog and synchronize again from 0.</li>
+ * </ul>
+ */
+public record SyncPageDto(
+    List<SyncChangeDto> changes,
+    long nextSince,
+    boolean hasMore,
+    boolean reset
+) {
+}
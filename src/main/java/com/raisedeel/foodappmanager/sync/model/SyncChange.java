@@ -0,0 +1,49 @@
+package com.raisedeel.foodappmanager.sync.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link Entity} class representing the last change of a restaurant or a dish, an entry of the change log the clients
+ * synchronize their copy of the catalog with.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Seq:</b> The change sequence number, increasing in the order the changes are committed.</li>
+ *   <li><b>EntityType:</b> The type of the entity changed, see {@link SyncEntityType}.</li>
+ *   <li><b>EntityId:</b> The ID of the restaurant or dish changed.</li>
+ *   <li><b>RestaurantId:</b> The ID of the restaurant the entity belongs to (its own ID for a restaurant).</li>
+ *   <li><b>Deleted:</b> Whether the entity was deleted, the entry is then a tombstone.</li>
+ *   <li><b>ChangedAt:</b> The time of the change in milliseconds since the epoch, used to purge old tombstones.</li>
+ * </ul>
+ * The log is compacted as it is written: every change of an entity replaces its previous entry, so the log holds at
+ * most one entry per restaurant or dish (the tombstones included). The entries are only written by the
+ * {@link com.raisedeel.foodappmanager.sync.service.SyncChangeRecorder}.
+ *
+ * @see SyncState
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "sync_change", indexes = {
+    @Index(name = "idx_sync_change_entity", columnList = "entity_type, entity_id"),
+    @Index(name = "idx_sync_change_deleted_changed_at", columnList = "deleted, changed_at")
+})
+public class SyncChange {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long seq;
+  @Enumerated(EnumType.STRING)
+  @Column(name = "entity_type", nullable = false)
+  private SyncEntityType entityType;
+  @Column(name = "entity_id", nullable = false)
+  private Long entityId;
+  @Column(name = "restaurant_id")
+  private Long restaurantId;
+  @Column(name = "deleted", nullable = false)
+  private boolean deleted;
+  @Column(name = "changed_at", nullable = false)
+  private long changedAt;
+}
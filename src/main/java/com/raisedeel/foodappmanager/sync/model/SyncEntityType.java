@@ -0,0 +1,14 @@
+package com.raisedeel.foodappmanager.sync.model;
+
+/**
+ * Defines the entities of the catalog whose changes are recorded for the synchronization of the clients.
+ * <p/>The available types are:
+ * <ul>
+ *   <li><b>RESTAURANT:</b> A {@link com.raisedeel.foodappmanager.restaurant.model.Restaurant}, including its ratings.</li>
+ *   <li><b>DISH:</b> A {@link com.raisedeel.foodappmanager.dish.model.Dish} of the menu of a restaurant.</li>
+ * </ul>
+ */
+public enum SyncEntityType {
+  RESTAURANT,
+  DISH
+}
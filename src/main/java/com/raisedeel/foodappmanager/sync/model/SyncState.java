@@ -0,0 +1,36 @@
+package com.raisedeel.foodappmanager.sync.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * {@link Entity} class representing the state of the change log, stored in a single row with the ID {@value #ID}.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>ID:</b> Always {@value #ID}.</li>
+ *   <li><b>PurgedSeq:</b> The highest sequence number of the tombstones purged. A client that synchronized before it
+ *   may have missed a deletion and has to download the catalog again.</li>
+ * </ul>
+ * Every transaction writing to the log locks this row until it commits, so the sequence numbers are assigned in the
+ * order the changes become visible and a client never skips a change committed late.
+ *
+ * @see SyncChange
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "sync_state")
+public class SyncState {
+  public static final long ID = 1;
+
+  @Id
+  private Long id;
+  @Column(name = "purged_seq", nullable = false)
+  private long purgedSeq;
+}
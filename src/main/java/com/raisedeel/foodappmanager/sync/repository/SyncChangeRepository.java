@@ -0,0 +1,50 @@
+package com.raisedeel.foodappmanager.sync.repository;
+
+import com.raisedeel.foodappmanager.sync.model.SyncChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This Spring Data JPA repository interface is dedicated to the reading and purging of the {@link SyncChange}
+ * entries of the change log. The entries are written by the
+ * {@link com.raisedeel.foodappmanager.sync.service.SyncChangeRecorder} with plain JDBC statements.
+ *
+ * @see CrudRepository
+ * @see SyncChange
+ */
+public interface SyncChangeRepository extends CrudRepository<SyncChange, Long> {
+
+  /**
+   * Get a page of the changes after the given sequence number, in the order they were committed.
+   *
+   * @param since    The sequence number of the last change already known (0 for the whole log).
+   * @param pageable The size of the page.
+   * @return A list of changes.
+   */
+  @Query("select c from SyncChange c where c.seq > :since order by c.seq")
+  List<SyncChange> findPageAfter(long since, Pageable pageable);
+
+  /**
+   * Get the highest sequence number of the tombstones written up to the given time.
+   *
+   * @param changedBefore The time in milliseconds since the epoch.
+   * @return An {@link Optional} containing the sequence number, if there is any tombstone that old.
+   */
+  @Query("select max(c.seq) from SyncChange c where c.deleted = true and c.changedAt <= :changedBefore")
+  Optional<Long> findLastTombstoneSeq(long changedBefore);
+
+  /**
+   * Delete the tombstones up to the given sequence number.
+   *
+   * @param seq The highest sequence number deleted.
+   * @return The number of tombstones deleted.
+   */
+  @Modifying
+  @Query("delete from SyncChange c where c.deleted = true and c.seq <= :seq")
+  int deleteTombstonesUpTo(long seq);
+}
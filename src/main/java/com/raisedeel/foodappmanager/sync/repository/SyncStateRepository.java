@@ -0,0 +1,28 @@
+package com.raisedeel.foodappmanager.sync.repository;
+
+import com.raisedeel.foodappmanager.sync.model.SyncState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Optional;
+
+/**
+ * This Spring Data JPA repository interface is dedicated to the management of the {@link SyncState} of the change
+ * log.
+ *
+ * @see CrudRepository
+ * @see SyncState
+ */
+public interface SyncStateRepository extends CrudRepository<SyncState, Long> {
+
+  /**
+   * Find the state by its ID, locking its row until the end of the transaction, so the purge of the tombstones does
+   * not run while the log is written.
+   *
+   * @param id The ID of the state, {@link SyncState#ID}.
+   * @return An {@link Optional} containing the state, if it was created.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  Optional<SyncState> findForUpdateById(Long id);
+}
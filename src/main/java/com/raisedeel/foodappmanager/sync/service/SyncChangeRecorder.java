@@ -0,0 +1,219 @@
+package com.raisedeel.foodappmanager.sync.service;
+
+import com.raisedeel.foodappmanager.dish.model.Dish;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.sync.model.SyncEntityType;
+import com.raisedeel.foodappmanager.sync.model.SyncState;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records the changes of the restaurants and dishes in the change log the clients synchronize with. <br/>
+ * The inserts, updates and deletes of the entities are received as Hibernate events, the changes written with bulk
+ * queries (e.g. the ratings) have to be recorded with {@link #recordRestaurantUpdated(Long)}.
+ * <p/>
+ * The changes of a transaction are collected per entity and written right before it commits, after its last flush:
+ * <ul>
+ *   <li>The row of the {@link SyncState} is locked first, so the transactions writing to the log commit one after
+ *   another and the sequence numbers are assigned in commit order.</li>
+ *   <li>The previous entry of every entity changed is deleted (compaction), an entity created and deleted in the same
+ *   transaction is not recorded at all.</li>
+ *   <li>The new entries are inserted in a single JDBC batch, whatever the number of entities changed (e.g. an
+ *   import of the catalog).</li>
+ * </ul>
+ * If the transaction rolls back, its changes are discarded.
+ *
+ * @see com.raisedeel.foodappmanager.sync.model.SyncChange
+ */
+@Component
+public class SyncChangeRecorder implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  static final String LOCK_STATE = "select purged_seq from sync_state where id = ? for update";
+  static final String DELETE_CHANGE = "delete from sync_change where entity_type = ? and entity_id = ?";
+  static final String INSERT_CHANGE = "insert into sync_change (entity_type, entity_id, restaurant_id, deleted, " +
+      "changed_at) values (?, ?, ?, ?, ?)";
+
+  // The changes of the transaction in progress of every session
+  private final ConcurrentMap<SharedSessionContractImplementor, PendingChanges> pending = new ConcurrentHashMap<>();
+  private final EntityManager entityManager;
+
+  public SyncChangeRecorder(EntityManagerFactory entityManagerFactory, EntityManager entityManager) {
+    this.entityManager = entityManager;
+
+    EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .getService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_INSERT, this);
+    registry.appendListeners(EventType.POST_UPDATE, this);
+    registry.appendListeners(EventType.POST_DELETE, this);
+  }
+
+  /**
+   * Records a change of a restaurant written without loading it, e.g. a change of its ratings. Must be called within
+   * the transaction writing the change.
+   *
+   * @param restaurantId the ID of the restaurant changed.
+   */
+  public void recordRestaurantUpdated(Long restaurantId) {
+    pendingChanges(entityManager.unwrap(EventSource.class))
+        .record(SyncEntityType.RESTAURANT, restaurantId, restaurantId, false, false);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    record(event.getSession(), event.getEntity(), true, false);
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    record(event.getSession(), event.getEntity(), false, false);
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    record(event.getSession(), event.getEntity(), false, true);
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+
+  private void record(EventSource session, Object entity, boolean created, boolean deleted) {
+    if (entity instanceof Restaurant restaurant) {
+      pendingChanges(session)
+          .record(SyncEntityType.RESTAURANT, restaurant.getId(), restaurant.getId(), created, deleted);
+    } else if (entity instanceof Dish dish) {
+      // The restaurant may be a proxy, its ID is read without loading it
+      Long restaurantId = dish.getRestaurant() != null ? dish.getRestaurant().getId() : null;
+      pendingChanges(session).record(SyncEntityType.DISH, dish.getId(), restaurantId, created, deleted);
+    }
+  }
+
+  private PendingChanges pendingChanges(EventSource session) {
+    return pending.computeIfAbsent(session, key -> {
+      PendingChanges changes = new PendingChanges();
+      session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) changes);
+      session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) changes);
+      return changes;
+    });
+  }
+
+  private record Key(SyncEntityType entityType, Long entityId) {
+  }
+
+  private static class Change {
+    Long restaurantId;
+    boolean created;
+    boolean deleted;
+
+    Change(Long restaurantId, boolean created, boolean deleted) {
+      this.restaurantId = restaurantId;
+      this.created = created;
+      this.deleted = deleted;
+    }
+  }
+
+  /**
+   * The changes of a transaction, written by Hibernate before the transaction completes and discarded after.
+   */
+  private class PendingChanges implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+    private final Map<Key, Change> changes = new LinkedHashMap<>();
+
+    void record(SyncEntityType entityType, Long entityId, Long restaurantId, boolean created, boolean deleted) {
+      Key key = new Key(entityType, entityId);
+      Change change = changes.get(key);
+
+      if (change == null) {
+        changes.put(key, new Change(restaurantId, created, deleted));
+      } else if (deleted && change.created) {
+        // The clients never saw the entity
+        changes.remove(key);
+      } else {
+        change.restaurantId = restaurantId;
+        change.deleted = deleted;
+      }
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+      if (!changes.isEmpty()) {
+        session.doWork(this::write);
+      }
+    }
+
+    @Override
+    public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+      pending.remove(session, this);
+    }
+
+    private void write(Connection connection) throws SQLException {
+      try (PreparedStatement lock = connection.prepareStatement(LOCK_STATE)) {
+        lock.setLong(1, SyncState.ID);
+        try (ResultSet state = lock.executeQuery()) {
+          if (!state.next()) {
+            throw new IllegalStateException("The state of the change log was not created");
+          }
+        }
+      }
+
+      try (PreparedStatement delete = connection.prepareStatement(DELETE_CHANGE);
+           PreparedStatement insert = connection.prepareStatement(INSERT_CHANGE)) {
+        long changedAt = System.currentTimeMillis();
+        boolean compacted = false;
+
+        for (Map.Entry<Key, Change> entry : changes.entrySet()) {
+          Key key = entry.getKey();
+          Change change = entry.getValue();
+
+          // A new entity has no previous entry to replace
+          if (!change.created) {
+            delete.setString(1, key.entityType().name());
+            delete.setLong(2, key.entityId());
+            delete.addBatch();
+            compacted = true;
+          }
+
+          insert.setString(1, key.entityType().name());
+          insert.setLong(2, key.entityId());
+          insert.setObject(3, change.restaurantId, Types.BIGINT);
+          insert.setBoolean(4, change.deleted);
+          insert.setLong(5, changedAt);
+          insert.addBatch();
+        }
+
+        if (compacted) {
+          delete.executeBatch();
+        }
+        insert.executeBatch();
+      }
+    }
+  }
+}
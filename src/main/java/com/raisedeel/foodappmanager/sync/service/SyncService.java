@@ -0,0 +1,27 @@
+package com.raisedeel.foodappmanager.sync.service;
+
+import com.raisedeel.foodappmanager.sync.dto.SyncPageDto;
+
+/**
+ * Service interface for the synchronization of the copies of the catalog kept by the clients, offering the
+ * changes of the restaurants and dishes after a change sequence number.
+ */
+public interface SyncService {
+
+  /**
+   * Retrieves a page of the changes of the catalog after the given change sequence number.
+   *
+   * @param since the sequence number of the last change applied by the client, 0 to download the whole catalog.
+   * @param size  the maximum number of changes in the page.
+   * @return a {@link SyncPageDto} with the changes and the sequence number of the next page.
+   */
+  SyncPageDto retrieveChanges(long since, int size);
+
+  /**
+   * Deletes the tombstones older than the retention period. The clients that synchronized before the last tombstone
+   * deleted have to download the catalog again.
+   *
+   * @return the number of tombstones deleted.
+   */
+  int purgeTombstones();
+}
@@ -0,0 +1,149 @@
+package com.raisedeel.foodappmanager.sync.service;
+
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.DishMapper;
+import com.raisedeel.foodappmanager.dish.repository.DishRepository;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.sync.dto.SyncChangeDto;
+import com.raisedeel.foodappmanager.sync.dto.SyncPageDto;
+import com.raisedeel.foodappmanager.sync.model.SyncChange;
+import com.raisedeel.foodappmanager.sync.model.SyncEntityType;
+import com.raisedeel.foodappmanager.sync.model.SyncState;
+import com.raisedeel.foodappmanager.sync.repository.SyncChangeRepository;
+import com.raisedeel.foodappmanager.sync.repository.SyncStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link SyncService} interface for the synchronization of the catalog.
+ * <p/>
+ * This service reads the change log written by the {@link SyncChangeRecorder}. The tombstones are kept for the
+ * {@code app.sync.tombstone-retention} period (30 days by default), a client synchronizing less often than that has
+ * to download the catalog again.
+ *
+ * @see SyncService
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+
+  public static final int MAX_PAGE_SIZE = 1000;
+
+  private final SyncChangeRepository syncChangeRepository;
+  private final SyncStateRepository syncStateRepository;
+  private final RestaurantRepository restaurantRepository;
+  private final DishRepository dishRepository;
+  private final DishMapper dishMapper;
+  private final Duration tombstoneRetention;
+
+  public SyncServiceImpl(
+      SyncChangeRepository syncChangeRepository,
+      SyncStateRepository syncStateRepository,
+      RestaurantRepository restaurantRepository,
+      DishRepository dishRepository,
+      DishMapper dishMapper,
+      @Value("${app.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+    this.syncChangeRepository = syncChangeRepository;
+    this.syncStateRepository = syncStateRepository;
+    this.restaurantRepository = restaurantRepository;
+    this.dishRepository = dishRepository;
+    this.dishMapper = dishMapper;
+    this.tombstoneRetention = tombstoneRetention;
+  }
+
+  /**
+   * {@inheritDoc}
+   * The size of the page is limited between 1 and {@link #MAX_PAGE_SIZE}. The changes and the data of the entities
+   * are read in the same transaction, with one query per type of entity.
+   */
+  @Override
+  @Transactional(readOnly = true)
+  public SyncPageDto retrieveChanges(long since, int size) {
+    int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    long purgedSeq = syncStateRepository.findById(SyncState.ID).map(SyncState::getPurgedSeq).orElse(0L);
+
+    // A client starting from 0 has nothing to delete, so it does not need the purged tombstones
+    if (since > 0 && since < purgedSeq) {
+      return new SyncPageDto(List.of(), 0, true, true);
+    }
+
+    // Fetch one more change to know if there is a next page
+    List<SyncChange> rows = syncChangeRepository.findPageAfter(since, PageRequest.of(0, pageSize + 1));
+    boolean hasMore = rows.size() > pageSize;
+    List<SyncChange> changes = hasMore ? rows.subList(0, pageSize) : rows;
+
+    Map<Long, RestaurantSummaryDto> restaurants = new HashMap<>();
+    List<Long> restaurantIds = idsOf(changes, SyncEntityType.RESTAURANT);
+    if (!restaurantIds.isEmpty()) {
+      restaurantRepository.findSummariesByIdIn(restaurantIds)
+          .forEach(restaurant -> restaurants.put(restaurant.id(), restaurant));
+    }
+    Map<Long, DishDto> dishes = new HashMap<>();
+    dishRepository.findAllById(idsOf(changes, SyncEntityType.DISH))
+        .forEach(dish -> dishes.put(dish.getId(), dishMapper.dishToDto(dish)));
+
+    List<SyncChangeDto> changeDtos = changes.stream()
+        .map(change -> toDto(change, restaurants, dishes))
+        .toList();
+
+    long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+    return new SyncPageDto(changeDtos, nextSince, hasMore, false);
+  }
+
+  /**
+   * {@inheritDoc}
+   * The state of the log is locked while the tombstones are deleted.
+   */
+  @Override
+  @Transactional
+  public int purgeTombstones() {
+    SyncState state = syncStateRepository.findForUpdateById(SyncState.ID)
+        .orElseThrow(() -> new IllegalStateException("The state of the change log was not created"));
+    Optional<Long> lastSeq = syncChangeRepository
+        .findLastTombstoneSeq(System.currentTimeMillis() - tombstoneRetention.toMillis());
+
+    if (lastSeq.isEmpty()) {
+      return 0;
+    }
+
+    state.setPurgedSeq(Math.max(state.getPurgedSeq(), lastSeq.get()));
+    return syncChangeRepository.deleteTombstonesUpTo(lastSeq.get());
+  }
+
+  private SyncChangeDto toDto(SyncChange change, Map<Long, RestaurantSummaryDto> restaurants,
+                              Map<Long, DishDto> dishes) {
+    RestaurantSummaryDto restaurant = null;
+    DishDto dish = null;
+
+    if (!change.isDeleted()) {
+      switch (change.getEntityType()) {
+        case RESTAURANT -> restaurant = restaurants.get(change.getEntityId());
+        case DISH -> dish = dishes.get(change.getEntityId());
+      }
+    }
+
+    // An entity deleted without going through Hibernate (e.g. directly in the database) is sent as deleted
+    boolean deleted = restaurant == null && dish == null;
+    return new SyncChangeDto(change.getSeq(), change.getEntityType(), change.getEntityId(),
+        change.getRestaurantId(), deleted, restaurant, dish);
+  }
+
+  private List<Long> idsOf(List<SyncChange> changes, SyncEntityType entityType) {
+    List<Long> ids = new ArrayList<>();
+    for (SyncChange change : changes) {
+      if (change.getEntityType() == entityType && !change.isDeleted()) {
+        ids.add(change.getEntityId());
+      }
+    }
+    return ids;
+  }
+}
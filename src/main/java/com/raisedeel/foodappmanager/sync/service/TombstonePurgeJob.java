@@ -0,0 +1,29 @@
+package com.raisedeel.foodappmanager.sync.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled job that deletes the tombstones of the change log older than the retention period, so the log does not
+ * grow with every restaurant or dish ever deleted. The entries of the existing entities are already compacted when
+ * they are written.
+ * <p/>
+ * The schedule is configured with the {@code app.sync.purge-cron} property, by default every day at 4:30 AM.
+ *
+ * @see SyncService#purgeTombstones()
+ */
+@AllArgsConstructor
+@Component
+public class TombstonePurgeJob {
+
+  SyncService syncService;
+
+  /**
+   * Deletes the tombstones older than the retention period.
+   */
+  @Scheduled(cron = "${app.sync.purge-cron:0 30 4 * * *}")
+  public void purge() {
+    syncService.purgeTombstones();
+  }
+}
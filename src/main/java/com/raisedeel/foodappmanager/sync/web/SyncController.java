@@ -0,0 +1,35 @@
+package com.raisedeel.foodappmanager.sync.web;
+
+import com.raisedeel.foodappmanager.sync.dto.SyncPageDto;
+import com.raisedeel.foodappmanager.sync.service.SyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@AllArgsConstructor
+@Tag(name = "5.- Sync Controller", description = "Allow the clients keeping a copy of the catalog to download only the restaurants and dishes changed since their last synchronization.")
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+  SyncService syncService;
+
+  @Operation(summary = "Get the changes of the catalog", description = "Get the restaurants and dishes created, updated or deleted after the change sequence number since (default: 0, the whole catalog), in the order they were committed. Only the last change of every restaurant or dish is returned, deleted ones are returned as tombstones without data. The page size is limited to 1000 changes (default: 100). Send the nextSince of a response as since to get the next page, hasMore is false on the last page. If reset is true, deletions were purged since the last synchronization and the copy must be downloaded again from 0. No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation")
+  })
+  @GetMapping(produces = "application/json")
+  public ResponseEntity<SyncPageDto> retrieveChangesHandler(
+      @RequestParam(defaultValue = "0") long since,
+      @RequestParam(defaultValue = "100") int size) {
+    return new ResponseEntity<>(syncService.retrieveChanges(since, size), HttpStatus.OK);
+  }
+}
@@ -0,0 +1,19 @@
+package com.raisedeel.foodappmanager.trending.dto;
+
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+
+/**
+ * Data Transfer Object (DTO) representing a trending restaurant.
+ * <p/><b>Fields</b>
+ * <ul>
+ *   <li><b>Restaurant:</b> The {@link RestaurantSummaryDto} of the restaurant.</li>
+ *   <li><b>Score:</b> The events of the window weighted by their age, the latest ones weigh more.</li>
+ *   <li><b>Events:</b> The number of subscriptions and ratings of the restaurant in the window.</li>
+ * </ul>
+ */
+public record TrendingRestaurantDto(
+    RestaurantSummaryDto restaurant,
+    double score,
+    long events
+) {
+}
@@ -0,0 +1,23 @@
+package com.raisedeel.foodappmanager.trending.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Defines the windows of time of the trending restaurants. The events of a window are scored with an exponential
+ * decay, an event loses half of its weight every half-life, so the latest activity counts more.
+ * <p/>The available windows are:
+ * <ul>
+ *   <li><b>HOUR:</b> The events of the last hour, with a half-life of 30 minutes.</li>
+ *   <li><b>DAY:</b> The events of the last day, with a half-life of 6 hours.</li>
+ * </ul>
+ */
+@AllArgsConstructor
+@Getter
+public enum TrendingWindow {
+  HOUR(60, 30),
+  DAY(24 * 60, 6 * 60);
+
+  private final int minutes;
+  private final int halfLifeMinutes;
+}
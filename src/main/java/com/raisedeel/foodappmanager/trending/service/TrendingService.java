@@ -0,0 +1,22 @@
+package com.raisedeel.foodappmanager.trending.service;
+
+import com.raisedeel.foodappmanager.trending.dto.TrendingRestaurantDto;
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+
+import java.util.List;
+
+/**
+ * Service interface for the restaurants trending by their recent subscriptions and ratings.
+ */
+public interface TrendingService {
+
+  /**
+   * Get the restaurants with the most recent activity in a window of time, the highest score first. The events of
+   * the window are weighted by their age, so the latest ones count more.
+   *
+   * @param window the {@link TrendingWindow} scored.
+   * @param size   the maximum number of restaurants.
+   * @return a list of {@link TrendingRestaurantDto}, empty if no restaurant had activity in the window.
+   */
+  List<TrendingRestaurantDto> retrieveTrending(TrendingWindow window, int size);
+}
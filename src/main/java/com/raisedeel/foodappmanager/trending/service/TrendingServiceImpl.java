@@ -0,0 +1,54 @@
+package com.raisedeel.foodappmanager.trending.service;
+
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.trending.dto.TrendingRestaurantDto;
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+import com.raisedeel.foodappmanager.trending.service.TrendingTracker.TrendingScore;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of the {@link TrendingService} interface for the trending restaurants.
+ * <p/>
+ * The restaurants are scored and ranked in memory by the {@link TrendingTracker}, only the summaries of the
+ * restaurants returned are read from the database, with a single query by their IDs.
+ *
+ * @see TrendingService
+ */
+@AllArgsConstructor
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+  // The maximum number of restaurants that can be requested at once
+  public static final int MAX_SIZE = 100;
+
+  TrendingTracker trendingTracker;
+  RestaurantRepository restaurantRepository;
+
+  /**
+   * {@inheritDoc}
+   * The number of restaurants is limited between 1 and {@link #MAX_SIZE}.
+   */
+  @Override
+  public List<TrendingRestaurantDto> retrieveTrending(TrendingWindow window, int size) {
+    List<TrendingScore> scores = trendingTracker.trending(window, Math.max(1, Math.min(size, MAX_SIZE)));
+    if (scores.isEmpty()) {
+      return List.of();
+    }
+
+    Map<Long, RestaurantSummaryDto> summaries = new HashMap<>();
+    restaurantRepository.findSummariesByIdIn(scores.stream().map(TrendingScore::restaurantId).toList())
+        .forEach(summary -> summaries.put(summary.id(), summary));
+
+    // A restaurant deleted after its events were recorded is skipped
+    return scores.stream()
+        .filter(score -> summaries.containsKey(score.restaurantId()))
+        .map(score -> new TrendingRestaurantDto(summaries.get(score.restaurantId()), score.score(), score.events()))
+        .toList();
+  }
+}
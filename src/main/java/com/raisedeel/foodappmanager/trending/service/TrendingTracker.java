@@ -0,0 +1,322 @@
+package com.raisedeel.foodappmanager.trending.service;
+
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counts the recent subscriptions and ratings of the restaurants in memory to find the trending ones. <br/>
+ * Every restaurant tracked has a ring of {@link #BUCKETS} buckets of {@link #BUCKET_MINUTES} minutes, a whole day,
+ * with the number of events of each bucket. The score of a {@link TrendingWindow} adds the buckets of the window,
+ * each one weighted by an exponential decay of its age.
+ * <p/>
+ * The implementation details:
+ * <ul>
+ *   <li>The rings are slices of a single {@code long} array, one row per restaurant. A ring is only rolled forward
+ *   when an event is recorded, the buckets older than the last event are ignored by the reads.</li>
+ *   <li>At most {@code app.trending.capacity} restaurants are tracked, chosen with the Space-Saving algorithm: when
+ *   the table is full, a new restaurant takes the row of the restaurant with the lowest decayed count of events. The
+ *   count is inherited, so a restaurant receiving events keeps its row, while the buckets start empty.</li>
+ *   <li>The decayed counts are kept as logarithms relative to a fixed instant (forward decay), so their order never
+ *   changes with time and the lowest one is the root of a min-heap.</li>
+ *   <li>An event is recorded after the transaction that produced it commits, so rolled back events are not
+ *   counted.</li>
+ * </ul>
+ * The metrics {@code trending.restaurants} (restaurants tracked) and {@code trending.evictions} (restaurants replaced
+ * by others) are published to the {@link MeterRegistry}.
+ */
+@Component
+public class TrendingTracker {
+
+  // The length of a bucket and the buckets of a ring, a whole day
+  public static final int BUCKET_MINUTES = 10;
+  public static final int BUCKETS = 24 * 60 / BUCKET_MINUTES;
+
+  private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(BUCKET_MINUTES);
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final int capacity;
+  // The weight of an event of each age, in buckets, of each window
+  private final Map<TrendingWindow, double[]> decays = new EnumMap<>(TrendingWindow.class);
+  // The decay of the counts of the Space-Saving table per bucket, in the logarithmic scale
+  private final double logDecayPerBucket;
+  private final long landmark;
+  // The row of each restaurant tracked
+  private final Map<Long, Integer> rows = new HashMap<>();
+  private long[] restaurantIds = new long[INITIAL_CAPACITY];
+  private long[] counts = new long[INITIAL_CAPACITY * BUCKETS];
+  private long[] lastBuckets = new long[INITIAL_CAPACITY];
+  private double[] logCounts = new double[INITIAL_CAPACITY];
+  // A min-heap of the rows by their decayed count of events, and the position of each row in the heap
+  private int[] heap = new int[INITIAL_CAPACITY];
+  private int[] heapPositions = new int[INITIAL_CAPACITY];
+  private int size;
+
+  private final Counter evictions;
+
+  public TrendingTracker(
+      MeterRegistry meterRegistry,
+      @Value("${app.trending.capacity:10000}") int capacity) {
+    this.capacity = capacity;
+    this.landmark = System.currentTimeMillis() / BUCKET_MILLIS;
+
+    for (TrendingWindow window : TrendingWindow.values()) {
+      double[] decay = new double[window.getMinutes() / BUCKET_MINUTES];
+      for (int age = 0; age < decay.length; age++) {
+        decay[age] = Math.pow(0.5, (double) age * BUCKET_MINUTES / window.getHalfLifeMinutes());
+      }
+      decays.put(window, decay);
+    }
+    this.logDecayPerBucket = Math.log(2) * BUCKET_MINUTES / TrendingWindow.DAY.getHalfLifeMinutes();
+
+    this.evictions = Counter.builder("trending.evictions")
+        .description("Restaurants no longer tracked as trending to track others")
+        .register(meterRegistry);
+    Gauge.builder("trending.restaurants", this, TrendingTracker::size)
+        .description("Restaurants tracked as trending")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Records an event (a subscription or a rating) of a restaurant now. If a transaction is active, the event is
+   * recorded once it commits.
+   *
+   * @param restaurantId the ID of the restaurant.
+   */
+  public void record(long restaurantId) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          record(restaurantId, System.currentTimeMillis());
+        }
+      });
+    } else {
+      record(restaurantId, System.currentTimeMillis());
+    }
+  }
+
+  /**
+   * Records an event of a restaurant at the given time.
+   *
+   * @param restaurantId the ID of the restaurant.
+   * @param timeMillis   the time of the event, in milliseconds since the epoch.
+   */
+  public void record(long restaurantId, long timeMillis) {
+    long bucket = timeMillis / BUCKET_MILLIS;
+
+    lock.writeLock().lock();
+    try {
+      Integer row = rows.get(restaurantId);
+      if (row == null) {
+        row = track(restaurantId, bucket);
+      }
+
+      // The buckets passed since the last event of the restaurant are emptied, a late event goes to the last one
+      long lastBucket = lastBuckets[row];
+      if (bucket > lastBucket) {
+        for (long passed = Math.max(lastBucket + 1, bucket - BUCKETS + 1); passed <= bucket; passed++) {
+          counts[row * BUCKETS + (int) (passed % BUCKETS)] = 0;
+        }
+        lastBuckets[row] = bucket;
+      } else {
+        bucket = lastBucket;
+      }
+      counts[row * BUCKETS + (int) (bucket % BUCKETS)]++;
+
+      logCounts[row] = logAdd(logCounts[row], (bucket - landmark) * logDecayPerBucket);
+      siftDown(heapPositions[row]);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Get the restaurants with the highest scores in a window of time ending now.
+   *
+   * @param window the {@link TrendingWindow} scored.
+   * @param limit  the maximum number of restaurants.
+   * @return a list of up to {@code limit} {@link TrendingScore}, the highest score first and ties broken by ID.
+   */
+  public List<TrendingScore> trending(TrendingWindow window, int limit) {
+    return trending(window, limit, System.currentTimeMillis());
+  }
+
+  /**
+   * Get the restaurants with the highest scores in a window of time ending at the given time.
+   *
+   * @param window     the {@link TrendingWindow} scored.
+   * @param limit      the maximum number of restaurants.
+   * @param timeMillis the end of the window, in milliseconds since the epoch.
+   * @return a list of up to {@code limit} {@link TrendingScore}, the highest score first and ties broken by ID.
+   */
+  public List<TrendingScore> trending(TrendingWindow window, int limit, long timeMillis) {
+    long now = timeMillis / BUCKET_MILLIS;
+    double[] decay = decays.get(window);
+    // The lowest score kept is at the head, so it is the one replaced by a higher one
+    PriorityQueue<TrendingScore> top = new PriorityQueue<>(limit + 1, TrendingScore.RANKING.reversed());
+
+    lock.readLock().lock();
+    try {
+      for (int row = 0; row < size; row++) {
+        long lastBucket = lastBuckets[row];
+        if (now - lastBucket >= decay.length) {
+          continue;
+        }
+
+        double score = 0;
+        long events = 0;
+        long oldest = Math.max(now - decay.length + 1, lastBucket - BUCKETS + 1);
+        for (long bucket = Math.min(lastBucket, now); bucket >= oldest; bucket--) {
+          long count = counts[row * BUCKETS + (int) (bucket % BUCKETS)];
+          score += count * decay[(int) (now - bucket)];
+          events += count;
+        }
+
+        if (events > 0) {
+          top.offer(new TrendingScore(restaurantIds[row], score, events));
+          if (top.size() > limit) {
+            top.poll();
+          }
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+
+    List<TrendingScore> results = new ArrayList<>(top);
+    results.sort(TrendingScore.RANKING);
+    return results;
+  }
+
+  /**
+   * Get the number of restaurants tracked.
+   *
+   * @return the number of rows of the table, up to {@code app.trending.capacity}.
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int track(long restaurantId, long bucket) {
+    int row;
+
+    if (size < capacity) {
+      row = size++;
+      ensureCapacity(size);
+      heap[row] = row;
+      heapPositions[row] = row;
+      // The new count is the lowest, it is moved down by the event being recorded
+      logCounts[row] = Double.NEGATIVE_INFINITY;
+      siftUp(row);
+    } else {
+      // Space-Saving: the restaurant with the lowest count is replaced, its count is kept as the new one
+      row = heap[0];
+      rows.remove(restaurantIds[row]);
+      evictions.increment();
+    }
+
+    rows.put(restaurantId, row);
+    restaurantIds[row] = restaurantId;
+    Arrays.fill(counts, row * BUCKETS, (row + 1) * BUCKETS, 0);
+    lastBuckets[row] = bucket;
+    return row;
+  }
+
+  private void ensureCapacity(int rowCount) {
+    if (rowCount <= restaurantIds.length) {
+      return;
+    }
+
+    int newCapacity = Math.min(capacity, restaurantIds.length * 2);
+    restaurantIds = Arrays.copyOf(restaurantIds, newCapacity);
+    counts = Arrays.copyOf(counts, newCapacity * BUCKETS);
+    lastBuckets = Arrays.copyOf(lastBuckets, newCapacity);
+    logCounts = Arrays.copyOf(logCounts, newCapacity);
+    heap = Arrays.copyOf(heap, newCapacity);
+    heapPositions = Arrays.copyOf(heapPositions, newCapacity);
+  }
+
+  private void siftUp(int position) {
+    int row = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) / 2;
+      if (logCounts[heap[parent]] <= logCounts[row]) {
+        break;
+      }
+      place(heap[parent], position);
+      position = parent;
+    }
+    place(row, position);
+  }
+
+  private void siftDown(int position) {
+    int row = heap[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && logCounts[heap[child + 1]] < logCounts[heap[child]]) {
+        child++;
+      }
+      if (logCounts[row] <= logCounts[heap[child]]) {
+        break;
+      }
+      place(heap[child], position);
+      position = child;
+    }
+    place(row, position);
+  }
+
+  private void place(int row, int position) {
+    heap[position] = row;
+    heapPositions[row] = position;
+  }
+
+  private static double logAdd(double a, double b) {
+    // log(e^a + e^b) without overflowing
+    double max = Math.max(a, b);
+    return max == Double.NEGATIVE_INFINITY ? max : max + Math.log1p(Math.exp(Math.min(a, b) - max));
+  }
+
+  /**
+   * The score of a restaurant in a window of time.
+   *
+   * @param restaurantId the ID of the restaurant.
+   * @param score        the events of the window weighted by their age.
+   * @param events       the number of events of the window.
+   */
+  public record TrendingScore(long restaurantId, double score, long events) {
+
+    /**
+     * The order of the trending restaurants: highest score first, ties broken by the ID of the restaurant.
+     */
+    public static final Comparator<TrendingScore> RANKING = Comparator
+        .comparingDouble(TrendingScore::score).reversed()
+        .thenComparingLong(TrendingScore::restaurantId);
+  }
+}
@@ -0,0 +1,38 @@
+package com.raisedeel.foodappmanager.trending.web;
+
+import com.raisedeel.foodappmanager.trending.dto.TrendingRestaurantDto;
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+import com.raisedeel.foodappmanager.trending.service.TrendingService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Tag(name = "7.- Trending Controller", description = "Allow all users discovering the restaurants with the most recent activity.")
+@RestController
+@RequestMapping("/restaurant/trending")
+public class TrendingController {
+
+  TrendingService trendingService;
+
+  @Operation(summary = "Get the trending restaurants", description = "Get a summary (without the menu) of the restaurants with the most subscriptions and ratings in the window (HOUR or DAY, default: DAY), the highest score first. Each event is weighted by its age, losing half of its weight every 30 minutes in the HOUR window and every 6 hours in the DAY window. The number of restaurants is limited to 100 (default: 10). No token is required.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successful operation")
+  })
+  @GetMapping(produces = "application/json")
+  public ResponseEntity<List<TrendingRestaurantDto>> retrieveTrendingHandler(
+      @RequestParam(defaultValue = "DAY") TrendingWindow window,
+      @RequestParam(defaultValue = "10") int size) {
+    return new ResponseEntity<>(trendingService.retrieveTrending(window, size), HttpStatus.OK);
+  }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.raisedeel.foodappmanager.subscription.model.Subscription;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -52,6 +53,7 @@ public class User implements UserDetails {
 
   @ToString.Exclude
   @EqualsAndHashCode.Exclude
+  @BatchSize(size = 50)
   @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
   private List<Subscription> subscriptions;
 
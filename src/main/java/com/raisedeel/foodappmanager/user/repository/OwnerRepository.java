@@ -1,8 +1,12 @@
 package com.raisedeel.foodappmanager.user.repository;
 
 import com.raisedeel.foodappmanager.user.model.UserOwner;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.List;
+
 /**
  * This Spring Data JPA repository interface is dedicated to the management of {@link UserOwner} entities.
  * It extends the {@link CrudRepository} interface, which provides a set of generic CRUD operations for data access.
@@ -20,4 +24,13 @@ import org.springframework.data.repository.CrudRepository;
  * @see UserOwner
  */
 public interface OwnerRepository extends CrudRepository<UserOwner, Long> {
+
+  /**
+   * Get all the owner entities, fetching their restaurants and the menus of the restaurants in the same query.
+   *
+   * @return A list of all the owner entities.
+   */
+  @EntityGraph(attributePaths = {"restaurantOwned", "restaurantOwned.menu"})
+  @Query("select o from UserOwner o")
+  List<UserOwner> findAllWithRestaurant();
 }
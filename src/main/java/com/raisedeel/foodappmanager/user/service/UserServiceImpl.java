@@ -56,7 +56,7 @@ public class UserServiceImpl implements UserService {
    */
   @Override
   public List<UserDto> retrieveOwners() {
-    return ((List<UserOwner>) ownerRepository.findAll()).stream().map(userMapper::ownerToDto).toList();
+    return ownerRepository.findAllWithRestaurant().stream().map(userMapper::ownerToDto).toList();
   }
 
   /**
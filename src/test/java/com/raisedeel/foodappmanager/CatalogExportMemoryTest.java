@@ -0,0 +1,138 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+    // Lazy execution lets H2 return the rows of the query as they are read instead of building the whole result
+    "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;LAZY_QUERY_EXECUTION=1",
+    "spring.jpa.show-sql=false"
+})
+@DisplayName("Test of the memory used when exporting a large catalog")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class CatalogExportMemoryTest {
+
+  // The number of restaurants, the dishes of each one and the dishes inserted in each batch
+  static final int RESTAURANTS = 10_000;
+  static final int DISHES = 100;
+  static final int BATCH_SIZE = 10_000;
+  // The bytes written between samples of the heap and the maximum growth of the heap allowed during the export
+  static final long SAMPLE_BYTES = 16L * 1024 * 1024;
+  static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+  static final String INSERT_DISH = "insert into dish (id, name, price, category, description, photo_url, " +
+      "restaurant_id) values (?, ?, ?, ?, ?, ?, ?)";
+
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  public void setup() {
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      Long restaurantId = restaurantRepository.save(
+          new Restaurant(null, "Restaurant " + i, "Bar", "A bar, with \"quotes\"", "res" + i + "@gmail.com",
+              "7551234567", "Some place", null, null, 0, 0, 0, null, "url", 0, 0, null, null, null)
+      ).getId();
+
+      for (int j = 0; j < DISHES; j++) {
+        // The IDs of the dishes are reserved from a sequence, so they are assigned here
+        batch.add(new Object[]{(long) i * DISHES + j + 1, "Dish " + j, 10.0, "Drinks", "A drink", "url", restaurantId});
+
+        if (batch.size() == BATCH_SIZE) {
+          jdbcTemplate.batchUpdate(INSERT_DISH, batch);
+          batch.clear();
+        }
+      }
+    }
+
+    if (!batch.isEmpty()) {
+      jdbcTemplate.batchUpdate(INSERT_DISH, batch);
+    }
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @EnumSource(CatalogFormat.class)
+  @DisplayName("Check if the heap does not grow with the size of the exported catalog")
+  public void exportCatalogMemoryTest(CatalogFormat format) throws Exception {
+    long baseline = usedHeapAfterGc();
+    HeapSamplingOutputStream outputStream = new HeapSamplingOutputStream();
+
+    long start = System.nanoTime();
+    restaurantService.exportCatalog(format, outputStream);
+    long time = System.nanoTime() - start;
+
+    long growth = Math.max(0, outputStream.maxUsedHeap - baseline);
+    System.out.printf("%s: %,d bytes and %,d lines exported in %,d ms, the heap grew %,d KB at most%n",
+        format, outputStream.bytes, outputStream.lines, time / 1_000_000, growth / 1024);
+
+    // NDJSON writes a line per restaurant, CSV a line per dish plus the header
+    Assertions.assertEquals(format == CatalogFormat.NDJSON ? RESTAURANTS : RESTAURANTS * DISHES + 1,
+        outputStream.lines);
+    Assertions.assertTrue(outputStream.samples > 0);
+    Assertions.assertTrue(growth < MAX_HEAP_GROWTH, "The heap grew " + growth + " bytes during the export");
+  }
+
+  private static long usedHeapAfterGc() {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /**
+   * Discards the bytes written, counting them and their lines, and samples the used heap after a garbage collection
+   * every {@link #SAMPLE_BYTES} bytes, so only the memory retained by the export is measured.
+   */
+  static class HeapSamplingOutputStream extends OutputStream {
+
+    long bytes;
+    long lines;
+    int samples;
+    long maxUsedHeap;
+
+    @Override
+    public void write(int b) {
+      count(b);
+      sample();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      for (int i = off; i < off + len; i++) {
+        count(b[i]);
+      }
+      sample();
+    }
+
+    private void count(int b) {
+      bytes++;
+      if (b == '\n') lines++;
+    }
+
+    private void sample() {
+      if (bytes / SAMPLE_BYTES > samples) {
+        samples++;
+        maxUsedHeap = Math.max(maxUsedHeap, usedHeapAfterGc());
+      }
+    }
+  }
+}
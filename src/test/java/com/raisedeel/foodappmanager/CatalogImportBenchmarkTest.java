@@ -0,0 +1,109 @@
+package com.raisedeel.foodappmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.service.DishService;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantImportDto;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Benchmark of the bulk import of restaurants against creating them one request at a time")
+public class CatalogImportBenchmarkTest {
+
+  // The number of restaurants imported and the dishes of each one
+  static final int RESTAURANTS = 1_000;
+  static final int DISHES = 20;
+
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  DishService dishService;
+  @Autowired
+  ObjectMapper objectMapper;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @DisplayName("Compare the time and statements of the per-request creation against the bulk import")
+  public void importCatalogBenchmark() throws Exception {
+    List<RestaurantImportDto> catalog = createCatalog();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    // Previous path, a creation of the restaurant and a creation per dish, each in its own transaction
+    statistics.clear();
+    long start = System.nanoTime();
+    for (RestaurantImportDto restaurantImportDto : catalog) {
+      Long restaurantId = restaurantService.createRestaurant(restaurantImportDto.getRestaurant()).getId();
+      for (DishDto dishDto : restaurantImportDto.getMenu()) {
+        dishService.createDish(dishDto, restaurantId);
+      }
+    }
+    long requestTime = System.nanoTime() - start;
+    long requestStatements = statistics.getPrepareStatementCount();
+
+    ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+    for (RestaurantImportDto restaurantImportDto : catalog) {
+      ndjson.write(objectMapper.writeValueAsBytes(restaurantImportDto));
+      ndjson.write('\n');
+    }
+
+    statistics.clear();
+    start = System.nanoTime();
+    CatalogImportReportDto report = restaurantService.importCatalog(CatalogFormat.NDJSON,
+        new ByteArrayInputStream(ndjson.toByteArray()));
+    long importTime = System.nanoTime() - start;
+    long importStatements = statistics.getPrepareStatementCount();
+
+    System.out.printf("%,d restaurants with %,d dishes: per request %,d ms and %,d statements, " +
+            "bulk import %,d ms and %,d statements%n",
+        RESTAURANTS, RESTAURANTS * DISHES, requestTime / 1_000_000, requestStatements,
+        importTime / 1_000_000, importStatements);
+    Assertions.assertEquals(List.of(), report.errors());
+    Assertions.assertEquals(RESTAURANTS, report.restaurantsImported());
+    Assertions.assertEquals(RESTAURANTS * DISHES, report.dishesImported());
+    Assertions.assertTrue(importStatements < requestStatements);
+  }
+
+  private List<RestaurantImportDto> createCatalog() {
+    List<RestaurantImportDto> catalog = new ArrayList<>(RESTAURANTS);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      RestaurantDto restaurantDto = new RestaurantDto();
+      restaurantDto.setName("Restaurant " + i);
+      restaurantDto.setType("Bar");
+      restaurantDto.setDescription("Normal Bar");
+      restaurantDto.setEmail("res" + i + "@gmail.com");
+      restaurantDto.setTelephone("7551234567");
+      restaurantDto.setAddress("Some place");
+
+      List<DishDto> menu = new ArrayList<>(DISHES);
+      for (int j = 0; j < DISHES; j++) {
+        menu.add(new DishDto(null, "Dish " + j, new BigDecimal("10.0"), "Drinks", "A drink", "url"));
+      }
+      catalog.add(new RestaurantImportDto(restaurantDto, menu));
+    }
+    return catalog;
+  }
+}
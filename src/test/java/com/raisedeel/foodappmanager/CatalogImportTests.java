@@ -0,0 +1,156 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.dish.repository.DishRepository;
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogFormat;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportErrorDto;
+import com.raisedeel.foodappmanager.restaurant.dto.CatalogImportReportDto;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Checks that the import of the catalog saves the valid restaurants with their menus across several batches and
+ * reports the invalid ones, and the ones rejected by the database, with their line.
+ */
+@SpringBootTest(properties = "app.import.batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the bulk import of restaurants and their menus")
+public class CatalogImportTests {
+
+  static final String RESTAURANT = "\"name\":\"Restaurant\",\"type\":\"Bar\",\"description\":\"Normal Bar\"," +
+      "\"email\":\"res@gmail.com\",\"telephone\":\"7551234567\",\"address\":\"Some place\"";
+  static final String DISH = "{\"name\":\"Dish\",\"price\":10.5,\"category\":\"Drinks\",\"description\":\"A drink\"}";
+
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  DishRepository dishRepository;
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Check if the valid restaurants of a NDJSON file are imported and the invalid ones reported")
+  public void importNdjsonTest() throws IOException {
+    long restaurants = restaurantRepository.count();
+    long dishes = dishRepository.count();
+
+    CatalogImportReportDto report = importCatalog(CatalogFormat.NDJSON, String.join("\n",
+        "{" + RESTAURANT + ",\"menu\":[" + DISH + "," + DISH + "]}",
+        "{" + RESTAURANT + "}",
+        "",
+        "{" + RESTAURANT.replace("Restaurant", "") + ",\"menu\":[" + DISH + "]}",
+        "{" + RESTAURANT + ",\"menu\":[" + DISH.replace("10.5", "-1") + "]}",
+        "not json",
+        "{\"id\":100," + RESTAURANT + ",\"menu\":[" + DISH + "]}"
+    ));
+
+    Assertions.assertEquals(3, report.restaurantsImported());
+    Assertions.assertEquals(3, report.dishesImported());
+    Assertions.assertEquals(List.of(4L, 5L, 6L), report.errors().stream().map(CatalogImportErrorDto::row).toList());
+    Assertions.assertEquals(List.of("Restaurant name cannot be blank"), report.errors().get(0).message());
+    Assertions.assertEquals(List.of("menu[0]: Price cannot be lower than $0"), report.errors().get(1).message());
+    Assertions.assertEquals(restaurants + 3, restaurantRepository.count());
+    Assertions.assertEquals(dishes + 3, dishRepository.count());
+    // The ID sent is ignored
+    Assertions.assertTrue(restaurantRepository.findById(100L).isEmpty());
+  }
+
+  @Test
+  @DisplayName("Check if the rows of a CSV file are grouped by restaurant and the invalid ones reported")
+  public void importCsvTest() throws IOException {
+    long dishes = dishRepository.count();
+
+    CatalogImportReportDto report = importCatalog(CatalogFormat.CSV, String.join("\r\n",
+        RestaurantServiceImpl.CATALOG_CSV_HEADER,
+        "1,Restaurant,Bar,\"A bar, with \"\"quotes\"\"\",res@gmail.com,7551234567,Some place,0.0,0,,1,Dish,10.5,Drinks,A drink,",
+        "1,Restaurant,Bar,\"A bar, with \"\"quotes\"\"\",res@gmail.com,7551234567,Some place,0.0,0,,2,Dish,11,Drinks,\"Two\nlines\",",
+        "2,Restaurant,Bar,Normal Bar,res@gmail.com,7551234567,Some place,0.0,0,,,,,,,",
+        "3,Restaurant,Bar,Normal Bar,res@gmail.com",
+        "4,Restaurant,Bar,Normal Bar,res@gmail.com,7551234567,Some place,0.0,0,,1,Dish,ten,Drinks,A drink,",
+        ""
+    ));
+
+    Assertions.assertEquals(2, report.restaurantsImported());
+    Assertions.assertEquals(2, report.dishesImported());
+    // The second dish spans two lines
+    Assertions.assertEquals(List.of(6L, 7L), report.errors().stream().map(CatalogImportErrorDto::row).toList());
+    Assertions.assertEquals(dishes + 2, dishRepository.count());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants rejected by the database are reported and the rest of their batch imported")
+  public void importRejectedByDatabaseTest() throws IOException {
+    long restaurants = restaurantRepository.count();
+    long dishes = dishRepository.count();
+    // A constraint the validation does not check
+    jdbcTemplate.execute("alter table restaurant add constraint rejected_name check (name <> 'Rejected')");
+
+    try {
+      CatalogImportReportDto report = importCatalog(CatalogFormat.NDJSON, String.join("\n",
+          "{" + RESTAURANT + ",\"menu\":[" + DISH + "]}",
+          "{" + RESTAURANT.replace("\"Restaurant\"", "\"Rejected\"") + ",\"menu\":[" + DISH + "," + DISH + "]}",
+          "{" + RESTAURANT.replace("Normal Bar", "a".repeat(256)) + "}",
+          "{" + RESTAURANT + ",\"menu\":[" + DISH + "]}"
+      ));
+
+      Assertions.assertEquals(2, report.restaurantsImported());
+      Assertions.assertEquals(2, report.dishesImported());
+      Assertions.assertEquals(List.of(2L, 3L), report.errors().stream().map(CatalogImportErrorDto::row).toList());
+      Assertions.assertTrue(report.errors().get(0).message().get(0).startsWith("The restaurant was rejected"));
+      Assertions.assertEquals(List.of("Description cannot be larger than 255 characters"),
+          report.errors().get(1).message());
+      Assertions.assertEquals(restaurants + 2, restaurantRepository.count());
+      Assertions.assertEquals(dishes + 2, dishRepository.count());
+    } finally {
+      jdbcTemplate.execute("alter table restaurant drop constraint rejected_name");
+    }
+  }
+
+  @Test
+  @DisplayName("Check if a CSV file without the header is rejected")
+  public void importCsvWithoutHeaderTest() {
+    Assertions.assertThrows(InvalidOperationException.class, () -> importCatalog(CatalogFormat.CSV,
+        "1,Restaurant,Bar,Normal Bar,res@gmail.com,7551234567,Some place,0.0,0,,,,,,,"));
+  }
+
+  @Test
+  @DisplayName("Check if an exported catalog can be imported again")
+  public void exportAndImportTest() throws IOException {
+    importCatalog(CatalogFormat.NDJSON, "{" + RESTAURANT + ",\"menu\":[" + DISH + "]}");
+
+    for (CatalogFormat format : CatalogFormat.values()) {
+      long restaurants = restaurantRepository.count();
+      long dishes = dishRepository.count();
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      restaurantService.exportCatalog(format, outputStream);
+
+      CatalogImportReportDto report = importCatalog(format, outputStream.toString(StandardCharsets.UTF_8));
+
+      Assertions.assertEquals(List.of(), report.errors());
+      Assertions.assertEquals(restaurants, report.restaurantsImported());
+      Assertions.assertEquals(dishes, report.dishesImported());
+    }
+  }
+
+  private CatalogImportReportDto importCatalog(CatalogFormat format, String catalog) throws IOException {
+    InputStream inputStream = new ByteArrayInputStream(catalog.getBytes(StandardCharsets.UTF_8));
+    return restaurantService.importCatalog(format, inputStream);
+  }
+}
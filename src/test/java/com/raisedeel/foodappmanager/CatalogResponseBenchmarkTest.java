@@ -0,0 +1,83 @@
+package com.raisedeel.foodappmanager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.dish.dto.DishMapperImpl;
+import com.raisedeel.foodappmanager.dish.model.Dish;
+import com.raisedeel.foodappmanager.response.SerializedResponse;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantMapper;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantMapperImpl;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the two ways of producing the body of GET /restaurant/{id}: mapping the restaurant and
+ * serializing the DTO on every request, against reading the bytes of a {@link SerializedResponse} cached before.
+ */
+@DisplayName("Benchmark of the serialization of a restaurant against its cached serialized response")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CatalogResponseBenchmarkTest {
+
+  @Param({"10", "50"})
+  int dishes;
+
+  RestaurantMapper restaurantMapper;
+  ObjectMapper objectMapper;
+  Restaurant restaurant;
+  SerializedResponse serializedResponse;
+
+  @Test
+  @DisplayName("Compare mapping and serializing a restaurant against writing its cached bytes")
+  public void catalogResponseBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(CatalogResponseBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() throws Exception {
+    restaurantMapper = new RestaurantMapperImpl(new DishMapperImpl());
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    restaurant = new Restaurant(1L, "Restaurant", "Bar", "Normal Bar", "res@gmail.com", "7551234567", "Some place",
+        null, null, 4.5, 45, 10, null, "url", 0, 0, null, null, null);
+    List<Dish> menu = new ArrayList<>();
+    for (int i = 0; i < dishes; i++) {
+      menu.add(new Dish((long) i, "Dish " + i, 10.0, "Drinks", "A drink", "url", restaurant));
+    }
+    restaurant.setMenu(menu);
+
+    serializedResponse = SerializedResponse.of(mapAndSerialize(), 0);
+  }
+
+  @Benchmark
+  public byte[] mapAndSerialize() throws Exception {
+    return objectMapper.writeValueAsBytes(restaurantMapper.restaurantToDto(restaurant));
+  }
+
+  @Benchmark
+  public byte[] cachedBytes() {
+    return serializedResponse.toResponseEntity(null, null).getBody();
+  }
+
+  @Benchmark
+  public byte[] cachedGzipBytes() {
+    return serializedResponse.toResponseEntity("gzip", null).getBody();
+  }
+}
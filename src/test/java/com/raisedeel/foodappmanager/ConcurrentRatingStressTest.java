@@ -0,0 +1,141 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.exception.exceptions.ConcurrentUpdateException;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.model.RestaurantRatingHistogram;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
+import com.raisedeel.foodappmanager.subscription.model.Subscription;
+import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
+import com.raisedeel.foodappmanager.subscription.service.SubscriptionService;
+import com.raisedeel.foodappmanager.user.model.Role;
+import com.raisedeel.foodappmanager.user.model.User;
+import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Stress test to check that concurrent rating and restaurant updates are not lost")
+public class ConcurrentRatingStressTest {
+
+  // The number of concurrent writers, the number of subscriptions they share and the operations done by each one
+  static final int WRITERS = 64;
+  static final int SUBSCRIPTIONS = 16;
+  static final int OPERATIONS = 25;
+
+  @Autowired
+  SubscriptionService subscriptionService;
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  SubscriptionRepository subscriptionRepository;
+
+  @Test
+  @DisplayName("Check if the ratings stay consistent with the subscriptions under 64 concurrent writers")
+  public void concurrentRatingsTest() throws Exception {
+    Long restaurantId = restaurantRepository.save(
+        new Restaurant(null, "Restaurant", "Bar", "Description", null, null, null, null, null, 0.0, 0, 0, null, null,
+            0, 0, null, null, null)
+    ).getId();
+
+    List<Long> userIds = new ArrayList<>();
+    for (int i = 0; i < SUBSCRIPTIONS; i++) {
+      Long userId = userRepository.save(
+          new User(null, "User " + i, "user" + i + "@gmail.com", "password", null, Role.ROLE_CLIENT, null)
+      ).getId();
+      subscriptionService.subscribeToRestaurant(userId, restaurantId);
+      userIds.add(userId);
+    }
+
+    AtomicInteger ratings = new AtomicInteger();
+    AtomicInteger descriptions = new AtomicInteger();
+    AtomicInteger conflicts = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+    List<Future<?>> writers = new ArrayList<>();
+
+    for (int i = 0; i < WRITERS; i++) {
+      int writer = i;
+      writers.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < OPERATIONS; j++) {
+          try {
+            // One of every eight writers acts as the owner editing the restaurant, the rest rate it
+            if (writer % 8 == 0) {
+              RestaurantDto restaurantDto = new RestaurantDto();
+              restaurantDto.setDescription("Description " + writer + "-" + j);
+              restaurantService.updateRestaurant(restaurantId, restaurantDto);
+              descriptions.incrementAndGet();
+            } else {
+              SubscriptionDto subscriptionDto = new SubscriptionDto();
+              subscriptionDto.setRating(ThreadLocalRandom.current().nextInt(6));
+              subscriptionService.updateRating(subscriptionDto, userIds.get(writer % SUBSCRIPTIONS), restaurantId);
+              ratings.incrementAndGet();
+            }
+          } catch (ConcurrentUpdateException ex) {
+            // The retries were exhausted, the update was rejected instead of silently lost
+            conflicts.incrementAndGet();
+          }
+        }
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> future : writers) {
+      future.get();
+    }
+    executor.shutdown();
+    ratingUpdateQueue.flush();
+
+    long sum = 0;
+    long count = 0;
+    long[] stars = new long[6];
+    for (Subscription subscription : subscriptionRepository.findAllByRestaurantId(restaurantId)) {
+      sum += subscription.getRating();
+      stars[subscription.getRating()]++;
+      if (subscription.getRating() > 0) count++;
+    }
+
+    Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+    System.out.printf("%d ratings and %d restaurant updates applied, %d rejected by conflicts%n",
+        ratings.get(), descriptions.get(), conflicts.get());
+
+    Assertions.assertEquals(WRITERS * OPERATIONS, ratings.get() + descriptions.get() + conflicts.get());
+    // Every rating applied is reflected in the aggregates, none was lost or counted twice
+    Assertions.assertEquals(sum, restaurant.getRatingSum());
+    Assertions.assertEquals(count, restaurant.getRatingCount());
+    Assertions.assertEquals(count == 0 ? 0.0 : (double) sum / count, restaurant.getRating(), 1e-9);
+    Assertions.assertEquals(
+        new RestaurantRatingHistogram(stars[1], stars[2], stars[3], stars[4], stars[5]),
+        restaurant.getRatingHistogram()
+    );
+    // The rating updates never overwrite the fields edited by the owner
+    Assertions.assertEquals("Restaurant", restaurant.getName());
+    Assertions.assertTrue(restaurant.getDescription().startsWith("Description "));
+    Assertions.assertTrue(descriptions.get() == 0 || !restaurant.getDescription().equals("Description"));
+  }
+}
@@ -0,0 +1,275 @@
+package com.raisedeel.foodappmanager;
+
+import com.jayway.jsonpath.JsonPath;
+import com.raisedeel.foodappmanager.dish.model.Dish;
+import com.raisedeel.foodappmanager.dish.repository.DishRepository;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.search.index.CatalogIndexUpdater;
+import com.raisedeel.foodappmanager.security.JwtTokenUtil;
+import com.raisedeel.foodappmanager.subscription.model.Subscription;
+import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
+import com.raisedeel.foodappmanager.user.model.Role;
+import com.raisedeel.foodappmanager.user.model.User;
+import com.raisedeel.foodappmanager.user.model.UserOwner;
+import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Asserts the exact number of SQL statements executed by the read endpoints (and the deletion of a subscription), so
+ * a change in the mappings or the queries that brings back the N+1 loading of menus, owners or subscriptions fails
+ * the build. <br/>
+ * Every collection holds several elements, so an extra query per element would be noticed in the count. <br/>
+ * The caches are cleared before every test, so the counts are the ones of a cold cache.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the number of SQL statements executed by every read endpoint")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class EndpointQueryCountTests {
+
+  // The number of restaurants, dishes per restaurant and clients subscribed to every restaurant
+  static final int SIZE = 3;
+
+  @Autowired
+  MockMvc mockMvc;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  DishRepository dishRepository;
+  @Autowired
+  SubscriptionRepository subscriptionRepository;
+  @Autowired
+  CacheManager cacheManager;
+  @Autowired
+  CatalogIndexUpdater catalogIndexUpdater;
+
+  Statistics statistics;
+  List<Restaurant> restaurants = new ArrayList<>();
+  List<User> clients = new ArrayList<>();
+  List<Dish> dishes = new ArrayList<>();
+
+  @BeforeAll
+  public void setup() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    for (int i = 0; i < SIZE; i++) {
+      clients.add(userRepository.save(
+          new User(null, "Client " + i, "client" + i + "@gmail.com", "password", "Some place", Role.ROLE_CLIENT, null)
+      ));
+    }
+
+    for (int i = 0; i < SIZE; i++) {
+      Restaurant restaurant = restaurantRepository.save(
+          new Restaurant(null, "Restaurant " + i, "Bar", "Normal Bar", "res" + i + "@gmail.com", "7551234567",
+              "Some place", null, null, 0, 0, 0, null, "url", 0, 0, null, null, null)
+      );
+      restaurants.add(restaurant);
+
+      userRepository.save(
+          new UserOwner(null, "Owner " + i, "owner" + i + "@gmail.com", "password", "Some place", restaurant)
+      );
+
+      for (int j = 0; j < SIZE; j++) {
+        dishes.add(dishRepository.save(new Dish(null, "Dish " + j, 10.0, "Drinks", "A drink", "url", restaurant)));
+      }
+
+      for (User client : clients) {
+        subscriptionRepository.save(new Subscription(null, 4, 0, client, restaurant));
+      }
+    }
+  }
+
+  @BeforeEach
+  public void clearCaches() {
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  @Test
+  @DisplayName("Retrieving a restaurant reads its version and fetches its menu and owner in a single statement")
+  public void retrieveRestaurantTest() throws Exception {
+    // The lookup of the catalog version for the ETag and the restaurant itself
+    assertStatements(2, MockMvcRequestBuilders.get("/restaurant/" + restaurants.get(0).getId()));
+  }
+
+  @Test
+  @DisplayName("Retrieving a restaurant with its current ETag only reads its version")
+  public void retrieveRestaurantNotModifiedTest() throws Exception {
+    String etag = retrieveETag("/restaurant/" + restaurants.get(0).getId());
+
+    assertStatements(1, MockMvcRequestBuilders.get("/restaurant/" + restaurants.get(0).getId())
+        .header(HttpHeaders.IF_NONE_MATCH, etag), status().isNotModified());
+  }
+
+  @Test
+  @DisplayName("Listing restaurants executes a single statement")
+  public void retrieveRestaurantsTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/restaurant/all"));
+  }
+
+  @Test
+  @DisplayName("Retrieving the rating histogram of a restaurant executes a single statement")
+  public void retrieveRatingHistogramTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/restaurant/" + restaurants.get(0).getId() + "/histogram"));
+  }
+
+  @Test
+  @DisplayName("Retrieving a dish does not load its restaurant")
+  public void retrieveDishTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/dish/" + dishes.get(0).getId()));
+  }
+
+  @Test
+  @DisplayName("Retrieving a menu reads the version of its restaurant and its dishes in a single statement")
+  public void retrieveDishesByRestaurantTest() throws Exception {
+    // The lookup of the catalog version for the ETag and the dishes
+    assertStatements(2, MockMvcRequestBuilders.get("/dish/restaurant/" + restaurants.get(0).getId()));
+  }
+
+  @Test
+  @DisplayName("Retrieving a menu with its current ETag only reads the version of its restaurant")
+  public void retrieveDishesByRestaurantNotModifiedTest() throws Exception {
+    String etag = retrieveETag("/dish/restaurant/" + restaurants.get(0).getId());
+
+    assertStatements(1, MockMvcRequestBuilders.get("/dish/restaurant/" + restaurants.get(0).getId())
+        .header(HttpHeaders.IF_NONE_MATCH, etag), status().isNotModified());
+  }
+
+  @Test
+  @DisplayName("Retrieving a subscription does not load its user and restaurant")
+  public void retrieveSubscriptionTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get(
+        "/subscription/user/" + clients.get(0).getId() + "/restaurant/" + restaurants.get(0).getId()
+    ));
+  }
+
+  @Test
+  @DisplayName("Retrieving a subscription with its current ETag only reads its version")
+  public void retrieveSubscriptionNotModifiedTest() throws Exception {
+    String url = "/subscription/user/" + clients.get(0).getId() + "/restaurant/" + restaurants.get(0).getId();
+    String etag = retrieveETag(url);
+
+    assertStatements(1, MockMvcRequestBuilders.get(url).header(HttpHeaders.IF_NONE_MATCH, etag),
+        status().isNotModified());
+  }
+
+  @Test
+  @DisplayName("Retrieving the subscriptions of a user executes a single statement")
+  public void retrieveSubscriptionsFromUserTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/subscription/user/" + clients.get(0).getId()));
+  }
+
+  @Test
+  @DisplayName("Retrieving the subscriptions of a restaurant executes a single statement")
+  public void retrieveSubscriptionsFromRestaurantTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/subscription/restaurant/" + restaurants.get(0).getId()));
+  }
+
+  @Test
+  @DisplayName("Paging the subscriptions of a restaurant by rating executes a single statement per page")
+  public void retrieveSubscriptionsFromRestaurantByPagesTest() throws Exception {
+    String url = "/subscription/restaurant/" + restaurants.get(0).getId();
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(url).param("sort", "RATING").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(2))
+        .andReturn();
+    String cursor = JsonPath.read(result.getResponse().getContentAsString(), "$.nextCursor");
+
+    assertStatements(1, MockMvcRequestBuilders.get(url).param("sort", "RATING").param("size", "2")
+        .param("cursor", cursor));
+    mockMvc.perform(MockMvcRequestBuilders.get(url).param("sort", "RATING").param("size", "2").param("cursor", cursor))
+        .andExpect(jsonPath("$.content.size()").value(SIZE - 2))
+        .andExpect(jsonPath("$.content[0].rating").value(4))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    // A cursor of another sort is rejected
+    mockMvc.perform(MockMvcRequestBuilders.get(url).param("cursor", cursor))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Deleting a rated subscription updates the rating of its restaurant in place")
+  public void unsubscribeToRestaurantTest() throws Exception {
+    User client = userRepository.save(
+        new User(null, "Leaving client", "leaving@gmail.com", "password", "Some place", Role.ROLE_CLIENT, null)
+    );
+    Restaurant restaurant = restaurants.get(SIZE - 1);
+    subscriptionRepository.save(new Subscription(null, 5, 0, client, restaurant));
+    restaurantRepository.updateRatingAggregates(restaurant.getId(), 0, 5);
+    long ratingCount = restaurantRepository.findById(restaurant.getId()).orElseThrow().getRatingCount();
+
+    // The rating of the subscription, its deletion and the update of the aggregates in a single transaction, then
+    // the increase of the catalog version before it commits and the reindex of the restaurant in the background after
+    assertStatements(5, MockMvcRequestBuilders
+            .delete("/subscription/user/" + client.getId() + "/restaurant/" + restaurant.getId())
+            .header("Authorization", createToken(client)),
+        status().isNoContent());
+
+    Assertions.assertEquals(ratingCount - 1,
+        restaurantRepository.findById(restaurant.getId()).orElseThrow().getRatingCount());
+    Assertions.assertTrue(subscriptionRepository.findByUserIdAndRestaurantId(client.getId(), restaurant.getId())
+        .isEmpty());
+  }
+
+  @Test
+  @DisplayName("Retrieving a user executes a single statement")
+  public void retrieveUserTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/user/" + clients.get(0).getId())
+        .header("Authorization", createToken(clients.get(0))));
+  }
+
+  @Test
+  @DisplayName("Listing the owners fetches their restaurants and menus in a single statement")
+  public void retrieveOwnersTest() throws Exception {
+    assertStatements(1, MockMvcRequestBuilders.get("/user/owners")
+        .header("Authorization", createToken(clients.get(0))));
+  }
+
+  private void assertStatements(long expected, RequestBuilder request) throws Exception {
+    assertStatements(expected, request, status().isOk());
+  }
+
+  private void assertStatements(long expected, RequestBuilder request, ResultMatcher status) throws Exception {
+    // The reindexes run in the background, so the ones of earlier changes are finished first and the ones of the
+    // request are counted
+    catalogIndexUpdater.awaitIndexed();
+    statistics.clear();
+    mockMvc.perform(request).andExpect(status);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(expected, statistics.getPrepareStatementCount());
+  }
+
+  private String retrieveETag(String url) throws Exception {
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(url)).andExpect(status().isOk()).andReturn();
+    return result.getResponse().getHeader(HttpHeaders.ETAG);
+  }
+
+  private String createToken(User user) {
+    return JwtTokenUtil.createToken(user.getEmail(), user.getRole().toString());
+  }
+}
@@ -0,0 +1,80 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.search.index.FacetIndex;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the faceted filter over a generated catalog of 200k restaurants, filtering nothing (counting the
+ * whole catalog), a single facet and every facet at once.
+ */
+@DisplayName("Benchmark of the faceted filter of a catalog of 200k restaurants")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FacetIndexBenchmarkTest {
+
+  // The number of restaurants, the dishes of each one and the types of restaurant
+  static final int RESTAURANTS = 200_000;
+  static final int DISHES = 10;
+  static final int TYPES = 40;
+
+  FacetIndex facetIndex;
+
+  @Test
+  @DisplayName("Measure the time of a faceted filter in a catalog of 200k restaurants")
+  public void facetIndexBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(FacetIndexBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() {
+    facetIndex = new FacetIndex();
+    Random random = new Random(42);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      List<CatalogDocument.DishDocument> dishes = new ArrayList<>(DISHES);
+      for (int j = 0; j < DISHES; j++) {
+        // Most dishes are cheap, a few are expensive
+        double price = Math.round(5 + random.nextGaussian() * 10 + random.nextInt(15));
+        dishes.add(new CatalogDocument.DishDocument((long) i * DISHES + j, "Dish", Math.max(1, price), "Main", ""));
+      }
+      facetIndex.index(new CatalogDocument(i + 1, 0, "Restaurant " + i, "Type " + random.nextInt(TYPES), "",
+          random.nextDouble() * 5, 0, null, null, dishes));
+    }
+  }
+
+  @Benchmark
+  public FacetIndex.FacetResult filterNothing() {
+    return facetIndex.search(List.of(), 0, List.of(), 0, 21);
+  }
+
+  @Benchmark
+  public FacetIndex.FacetResult filterType() {
+    return facetIndex.search(List.of("Type 7"), 0, List.of(), 0, 21);
+  }
+
+  @Benchmark
+  public FacetIndex.FacetResult filterEveryFacet() {
+    return facetIndex.search(List.of("Type 7", "Type 12", "Type 30"), 4,
+        List.of(PriceBand.FROM_20_TO_40, PriceBand.FROM_40), 0, 21);
+  }
+}
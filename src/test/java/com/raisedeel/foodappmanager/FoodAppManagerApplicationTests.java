@@ -43,8 +43,15 @@ public class FoodAppManagerApplicationTests {
       "res@gmail.com",
       "7551234567",
       "Some place",
+      null,
+      null,
+      0,
+      0,
       0,
+      null,
       "url",
+      0,
+      0,
       null,
       null,
       null);
@@ -0,0 +1,103 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.search.index.FuzzyNameIndex;
+import com.raisedeel.foodappmanager.search.index.ScoredRestaurant;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the fuzzy search over the names of a generated catalog of 10k restaurants and 1M dishes, searching
+ * a common word spelled right and misspelled, a misspelled rare word and a query of several misspelled words.
+ */
+@DisplayName("Benchmark of the fuzzy search of a catalog of 1M names")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FuzzySearchBenchmarkTest {
+
+  // The number of restaurants, the dishes of each one and the rare words of the generated vocabulary
+  static final int RESTAURANTS = 10_000;
+  static final int DISHES = 100;
+  static final int RARE_WORDS = 20_000;
+  static final String[] COMMON_WORDS = {"taco", "pizza", "salad", "soup", "chicken", "beef", "cheese", "rice",
+      "beans", "spicy", "grilled", "fried", "fresh", "house", "special", "sauce", "bread", "coffee", "juice", "cake"};
+  static final String[] CATEGORIES = {"Drinks", "Starters", "Main", "Desserts"};
+
+  FuzzyNameIndex fuzzyNameIndex;
+
+  @Test
+  @DisplayName("Measure the time of a fuzzy search in a catalog of 1M names")
+  public void fuzzySearchBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(FuzzySearchBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() {
+    fuzzyNameIndex = new FuzzyNameIndex();
+    Random random = new Random(42);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      List<CatalogDocument.DishDocument> dishes = new ArrayList<>(DISHES);
+      for (int j = 0; j < DISHES; j++) {
+        dishes.add(new CatalogDocument.DishDocument((long) i * DISHES + j, words(random, 3), 10.0,
+            CATEGORIES[random.nextInt(CATEGORIES.length)], words(random, 6)));
+      }
+      fuzzyNameIndex.index(new CatalogDocument(i + 1, 0, "Restaurant " + words(random, 2), "Bar",
+          words(random, 10), 0, 0, null, null, dishes));
+    }
+  }
+
+  @Benchmark
+  public List<ScoredRestaurant> searchCommonWord() {
+    return fuzzyNameIndex.search("pizza", Double.POSITIVE_INFINITY, 0, 20);
+  }
+
+  @Benchmark
+  public List<ScoredRestaurant> searchMisspelledCommonWord() {
+    return fuzzyNameIndex.search("piza", Double.POSITIVE_INFINITY, 0, 20);
+  }
+
+  @Benchmark
+  public List<ScoredRestaurant> searchMisspelledRareWord() {
+    return fuzzyNameIndex.search("wrod1234", Double.POSITIVE_INFINITY, 0, 20);
+  }
+
+  @Benchmark
+  public List<ScoredRestaurant> searchSeveralMisspelledWords() {
+    return fuzzyNameIndex.search("spicy chiken with chese sause", Double.POSITIVE_INFINITY, 0, 20);
+  }
+
+  private static String words(Random random, int count) {
+    StringBuilder text = new StringBuilder();
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      // Half of the words are common, the other half are spread over a large vocabulary
+      if (random.nextBoolean()) {
+        text.append(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]);
+      } else {
+        text.append("word").append(random.nextInt(RARE_WORDS));
+      }
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,86 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.search.index.GeoIndex;
+import com.raisedeel.foodappmanager.search.index.NearbyRestaurant;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the searches around a position over 500k restaurants spread over a city of about 50 km, denser in
+ * its center. Every call searches around a random position of the city. The time of each call is sampled, so the
+ * percentiles (p99 included) are printed along with the average.
+ */
+@DisplayName("Benchmark of the search around a position of 500k restaurants")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeoIndexBenchmarkTest {
+
+  // The number of restaurants, the types of restaurant and the center of the city
+  static final int RESTAURANTS = 500_000;
+  static final int TYPES = 20;
+  static final double CENTER_LATITUDE = 19.4326;
+  static final double CENTER_LONGITUDE = -99.1332;
+  // About 12 km in degrees, the standard deviation of the position of the restaurants
+  static final double SPREAD = 0.11;
+
+  GeoIndex geoIndex;
+  Random positions = new Random(7);
+
+  @Test
+  @DisplayName("Measure the time of a search around a position of 500k restaurants")
+  public void geoIndexBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(GeoIndexBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() {
+    geoIndex = new GeoIndex();
+    Random random = new Random(42);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      geoIndex.index(new CatalogDocument(i + 1, 0, "Restaurant " + i, "Type " + random.nextInt(TYPES), "",
+          random.nextDouble() * 5, 0, CENTER_LATITUDE + random.nextGaussian() * SPREAD,
+          CENTER_LONGITUDE + random.nextGaussian() * SPREAD, List.of()));
+    }
+  }
+
+  @Benchmark
+  public List<NearbyRestaurant> nearest() {
+    return geoIndex.search(latitude(), longitude(), 100, List.of(), 0, -1, 0, 21);
+  }
+
+  @Benchmark
+  public List<NearbyRestaurant> nearestOfTypeAndRating() {
+    return geoIndex.search(latitude(), longitude(), 100, List.of("Type 3"), 4.5, -1, 0, 21);
+  }
+
+  @Benchmark
+  public List<NearbyRestaurant> withinRadius() {
+    return geoIndex.search(latitude(), longitude(), 2, List.of(), 0, -1, 0, 101);
+  }
+
+  private double latitude() {
+    return CENTER_LATITUDE + (positions.nextDouble() - 0.5) * 4 * SPREAD;
+  }
+
+  private double longitude() {
+    return CENTER_LONGITUDE + (positions.nextDouble() - 0.5) * 4 * SPREAD;
+  }
+}
@@ -0,0 +1,162 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.subscription.model.Subscription;
+import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
+import com.raisedeel.foodappmanager.user.model.Role;
+import com.raisedeel.foodappmanager.user.model.User;
+import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@SpringBootTest(properties = {
+    "app.rating.queue-capacity=2",
+    // Long enough for the scheduled flush to not run during the tests
+    "app.rating.flush-interval=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the coalescing and backpressure of the queue of rating changes")
+public class RatingUpdateQueueTests {
+
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  SubscriptionRepository subscriptionRepository;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @Test
+  @DisplayName("Check if many rating changes of a restaurant are applied with a single update")
+  public void coalescingOfRatingsTest() {
+    Long restaurantId = createRestaurant();
+
+    for (int i = 0; i < 100; i++) {
+      ratingUpdateQueue.enqueue(restaurantId, 0, 5);
+    }
+    ratingUpdateQueue.enqueue(restaurantId, 5, 1);
+
+    Assertions.assertEquals(1, ratingUpdateQueue.getDepth());
+    Assertions.assertEquals(0, restaurantRepository.findById(restaurantId).orElseThrow().getRatingCount());
+
+    ratingUpdateQueue.flush();
+
+    Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+    Assertions.assertEquals(0, ratingUpdateQueue.getDepth());
+    Assertions.assertEquals(100, restaurant.getRatingCount());
+    Assertions.assertEquals(496, restaurant.getRatingSum());
+    Assertions.assertEquals(4.96, restaurant.getRating(), 1e-9);
+    Assertions.assertEquals(1, restaurant.getRatingHistogram().getOneStar());
+    Assertions.assertEquals(99, restaurant.getRatingHistogram().getFiveStars());
+    Assertions.assertTrue(ratingUpdateQueue.getCoalescingRatio() > 1);
+  }
+
+  @Test
+  @DisplayName("Check if the rating changes are applied by the writer when the queue is full")
+  public void backpressureOfRatingsTest() {
+    Long[] restaurantIds = {createRestaurant(), createRestaurant(), createRestaurant()};
+
+    for (Long restaurantId : restaurantIds) {
+      ratingUpdateQueue.enqueue(restaurantId, 0, 4);
+    }
+
+    // The third restaurant did not fit in the queue
+    Assertions.assertEquals(2, ratingUpdateQueue.getDepth());
+    Assertions.assertEquals(1, restaurantRepository.findById(restaurantIds[2]).orElseThrow().getRatingCount());
+
+    ratingUpdateQueue.flush();
+
+    for (Long restaurantId : restaurantIds) {
+      Assertions.assertEquals(4.0, restaurantRepository.findById(restaurantId).orElseThrow().getRating());
+    }
+  }
+
+  @Test
+  @DisplayName("Check if the pending rating changes of the restaurants rebuilt are not counted twice")
+  public void rebuildOfPendingRatingsTest() {
+    Long restaurantId = createRestaurant();
+    User user = userRepository.save(
+        new User(null, "Rater", "rater@gmail.com", "password", null, Role.ROLE_CLIENT, null));
+    subscriptionRepository.save(
+        new Subscription(null, 5, 0, user, restaurantRepository.findById(restaurantId).orElseThrow()));
+    // The change of the subscription is still waiting in the queue when the restaurant is rebuilt
+    ratingUpdateQueue.enqueue(restaurantId, 0, 5);
+
+    Assertions.assertEquals(1, ratingUpdateQueue.rebuild(restaurantId - 1, restaurantId,
+        () -> restaurantRepository.reconcileRatings(restaurantId - 1, restaurantId)));
+    ratingUpdateQueue.flush();
+
+    Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+    Assertions.assertEquals(1, restaurant.getRatingCount());
+    Assertions.assertEquals(5, restaurant.getRatingSum());
+    Assertions.assertEquals(1, restaurant.getRatingHistogram().getFiveStars());
+  }
+
+  @Test
+  @DisplayName("Check if the rating changes that fail to be applied are retried by the next flush")
+  public void failedRatingsTest() {
+    Long restaurantId = createRestaurant();
+    Long otherId = createRestaurant();
+    // Rejects the rating of the restaurant until the constraint is dropped
+    jdbcTemplate.execute(
+        "alter table restaurant add constraint no_ratings check (rating_count = 0 or id <> " + restaurantId + ")");
+
+    try {
+      ratingUpdateQueue.enqueue(restaurantId, 0, 5);
+      ratingUpdateQueue.enqueue(otherId, 0, 5);
+
+      Assertions.assertDoesNotThrow(() -> ratingUpdateQueue.flush());
+      Assertions.assertEquals(1, ratingUpdateQueue.getDepth());
+      Assertions.assertEquals(0, restaurantRepository.findById(restaurantId).orElseThrow().getRatingCount());
+      Assertions.assertEquals(1, restaurantRepository.findById(otherId).orElseThrow().getRatingCount());
+    } finally {
+      jdbcTemplate.execute("alter table restaurant drop constraint no_ratings");
+    }
+
+    ratingUpdateQueue.enqueue(restaurantId, 0, 4);
+    ratingUpdateQueue.flush();
+
+    Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+    Assertions.assertEquals(0, ratingUpdateQueue.getDepth());
+    Assertions.assertEquals(2, restaurant.getRatingCount());
+    Assertions.assertEquals(9, restaurant.getRatingSum());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants rebuilt leave the queue and their later changes are queued again")
+  public void rebuildOfQueuedRatingsTest() {
+    Long restaurantId = createRestaurant();
+    ratingUpdateQueue.enqueue(restaurantId, 0, 5);
+
+    ratingUpdateQueue.rebuild(restaurantId - 1, restaurantId,
+        () -> restaurantRepository.reconcileRatings(restaurantId - 1, restaurantId));
+    Assertions.assertEquals(0, ratingUpdateQueue.getDepth());
+
+    ratingUpdateQueue.enqueue(restaurantId, 0, 3);
+    Assertions.assertEquals(1, ratingUpdateQueue.getDepth());
+    ratingUpdateQueue.flush();
+
+    Assertions.assertEquals(3, restaurantRepository.findById(restaurantId).orElseThrow().getRatingSum());
+  }
+
+  private Long createRestaurant() {
+    return restaurantRepository.save(
+        new Restaurant(null, "Restaurant", null, null, null, null, null, null, null, 0.0, 0, 0, null, null, 0, 0,
+            null, null, null)
+    ).getId();
+  }
+}
@@ -0,0 +1,337 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.service.DishService;
+import com.raisedeel.foodappmanager.response.ETags;
+import com.raisedeel.foodappmanager.response.SerializedResponse;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantCacheGuard;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import com.raisedeel.foodappmanager.security.JwtTokenUtil;
+import com.raisedeel.foodappmanager.user.model.Role;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Checks that every write path evicts the cached restaurant and menu it changes, along with their serialized
+ * responses, so a read after a write never returns stale data.
+ */
+// The endpoints of the actuator exposed by the application, the test properties only expose the health
+@SpringBootTest(properties = {"app.rating.flush-interval=3600000",
+    "management.endpoints.web.exposure.include=health,metrics,caches"})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check that the cached restaurants and menus are evicted when they change")
+public class RestaurantCacheTests {
+
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  DishService dishService;
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  CacheManager cacheManager;
+  @Autowired
+  RestaurantCacheGuard restaurantCacheGuard;
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  @DisplayName("Check if the restaurant is cached and evicted when it is updated")
+  public void updateRestaurantTest() {
+    Long restaurantId = createRestaurant();
+
+    Assertions.assertEquals("Description", restaurantService.retrieveRestaurant(restaurantId).getDescription());
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANTS, restaurantId));
+
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setDescription("New description");
+    restaurantService.updateRestaurant(restaurantId, restaurantDto);
+
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    Assertions.assertEquals("New description", restaurantService.retrieveRestaurant(restaurantId).getDescription());
+  }
+
+  @Test
+  @DisplayName("Check if a restaurant loaded before a change is not cached after the change commits")
+  public void loadRacingWithChangeTest() throws Exception {
+    Long restaurantId = createRestaurant();
+    String etag = retrieveETag("/restaurant/" + restaurantId);
+
+    // The restaurant is read, then the change commits and evicts it before the load stores what it read
+    RestaurantDto loaded = restaurantCacheGuard.get(CacheConfig.RESTAURANTS, restaurantId, () -> {
+      RestaurantDto oldRestaurant = restaurantService.retrieveVersionedRestaurant(restaurantId).data();
+      RestaurantDto restaurantDto = new RestaurantDto();
+      restaurantDto.setDescription("New description");
+      restaurantService.updateRestaurant(restaurantId, restaurantDto);
+      return oldRestaurant;
+    });
+    Assertions.assertEquals("Description", loaded.getDescription());
+
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    Assertions.assertEquals("New description", restaurantService.retrieveRestaurant(restaurantId).getDescription());
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANTS, restaurantId));
+
+    // The same for the menu, changed by a dish created while it is loaded
+    List<DishDto> loadedMenu = restaurantCacheGuard.get(CacheConfig.RESTAURANT_MENUS, restaurantId, () -> {
+      List<DishDto> oldMenu = dishService.retrieveVersionedDishesByRestaurant(restaurantId).data();
+      dishService.createDish(createDish("Dish"), restaurantId);
+      return oldMenu;
+    });
+    Assertions.assertEquals(List.of(), loadedMenu);
+
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANT_MENUS, restaurantId));
+    Assertions.assertEquals(1, dishService.retrieveDishesByRestaurant(restaurantId).size());
+
+    // The ETag read before the changes is no longer current
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/" + restaurantId).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.description").value("New description"));
+  }
+
+  @Test
+  @DisplayName("Check if the restaurant is evicted when its rating changes")
+  public void updateRatingTest() {
+    Long restaurantId = createRestaurant();
+
+    Assertions.assertEquals(0, restaurantService.retrieveRestaurant(restaurantId).getTotalOfRatings());
+
+    ratingUpdateQueue.enqueue(restaurantId, 0, 5);
+    // The change is not applied yet, so the cached restaurant is still valid
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    ratingUpdateQueue.flush();
+
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    RestaurantDto restaurantDto = restaurantService.retrieveRestaurant(restaurantId);
+    Assertions.assertEquals(1, restaurantDto.getTotalOfRatings());
+    Assertions.assertEquals(0, new BigDecimal("5.0").compareTo(restaurantDto.getRating()));
+  }
+
+  @Test
+  @DisplayName("Check if the restaurant and its menu are evicted when a dish is created, updated or deleted")
+  public void updateMenuTest() {
+    Long restaurantId = createRestaurant();
+    warmCaches(restaurantId);
+
+    DishDto dishDto = dishService.createDish(createDish("Dish"), restaurantId);
+    assertEvicted(restaurantId);
+    Assertions.assertEquals(1, dishService.retrieveDishesByRestaurant(restaurantId).size());
+    Assertions.assertEquals(1, restaurantService.retrieveRestaurant(restaurantId).getMenu().size());
+
+    warmCaches(restaurantId);
+    dishService.updateDish(dishDto.getId(), createDish("New dish"));
+    assertEvicted(restaurantId);
+    Assertions.assertEquals("New dish", dishService.retrieveDishesByRestaurant(restaurantId).get(0).getName());
+    Assertions.assertEquals("New dish", restaurantService.retrieveRestaurant(restaurantId).getMenu().get(0).getName());
+
+    warmCaches(restaurantId);
+    dishService.deleteDish(dishDto.getId());
+    assertEvicted(restaurantId);
+    Assertions.assertEquals(List.of(), dishService.retrieveDishesByRestaurant(restaurantId));
+    Assertions.assertEquals(0, restaurantService.retrieveRestaurant(restaurantId).getMenu().size());
+  }
+
+  @Test
+  @DisplayName("Check if the caches are cleared when the rating aggregates are rebuilt")
+  public void rebuildRatingAggregatesTest() {
+    Long restaurantId = createRestaurant();
+    warmCaches(restaurantId);
+
+    restaurantService.rebuildRatingAggregates();
+
+    assertEvicted(restaurantId);
+  }
+
+  @Test
+  @DisplayName("Check if the serialized responses are evicted and served compressed when the client accepts gzip")
+  public void serializedResponsesTest() throws Exception {
+    Long restaurantId = createRestaurant();
+    // Enough dishes for the responses to be compressed
+    for (int i = 0; i < 20; i++) {
+      dishService.createDish(createDish("Dish " + i), restaurantId);
+    }
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/" + restaurantId))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(jsonPath("$.menu.size()").value(20));
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANT_RESPONSES, restaurantId));
+
+    MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/" + restaurantId)
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn();
+    Assertions.assertTrue(decompress(result.getResponse().getContentAsByteArray()).startsWith("[{"));
+    Assertions.assertTrue(isCached(CacheConfig.MENU_RESPONSES, restaurantId));
+
+    // A quality of 0 refuses the coding, even if another coding accepts anything
+    mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/" + restaurantId)
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *;q=1"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/" + restaurantId)
+            .header(HttpHeaders.ACCEPT_ENCODING, "br;q=1.0, *;q=0.5"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setName("New name");
+    restaurantService.updateRestaurant(restaurantId, restaurantDto);
+
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANT_RESPONSES, restaurantId));
+    Assertions.assertFalse(isCached(CacheConfig.MENU_RESPONSES, restaurantId));
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/" + restaurantId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("New name"));
+
+    // A body serialized from an older version, cached by a read racing with the change, is replaced
+    long version = restaurantService.retrieveCatalogVersion(restaurantId).orElseThrow();
+    Objects.requireNonNull(cacheManager.getCache(CacheConfig.RESTAURANT_RESPONSES)).put(restaurantId,
+        SerializedResponse.of("{\"name\":\"Old name\"}".getBytes(StandardCharsets.UTF_8), version - 1));
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/" + restaurantId))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("New name"));
+
+    // A body serialized from a newer version than the one checked is sent with the ETag of its own version
+    Objects.requireNonNull(cacheManager.getCache(CacheConfig.RESTAURANT_RESPONSES)).put(restaurantId,
+        SerializedResponse.of("{\"name\":\"Newer name\"}".getBytes(StandardCharsets.UTF_8), version + 1));
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/" + restaurantId))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, ETags.of(restaurantId, version + 1)))
+        .andExpect(jsonPath("$.name").value("Newer name"));
+  }
+
+  @Test
+  @DisplayName("Check if the ETags of the restaurant and its menu change when the restaurant, a dish or a rating change")
+  public void catalogVersionTest() throws Exception {
+    Long restaurantId = createRestaurant();
+    String etag = assertETagChanged(restaurantId, null);
+
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setDescription("New description");
+    restaurantService.updateRestaurant(restaurantId, restaurantDto);
+    etag = assertETagChanged(restaurantId, etag);
+
+    DishDto dishDto = dishService.createDish(createDish("Dish"), restaurantId);
+    etag = assertETagChanged(restaurantId, etag);
+    dishService.updateDish(dishDto.getId(), createDish("New dish"));
+    etag = assertETagChanged(restaurantId, etag);
+    dishService.deleteDish(dishDto.getId());
+    etag = assertETagChanged(restaurantId, etag);
+
+    ratingUpdateQueue.enqueue(restaurantId, 0, 3);
+    ratingUpdateQueue.flush();
+    assertETagChanged(restaurantId, etag);
+  }
+
+  private String assertETagChanged(Long restaurantId, String oldETag) throws Exception {
+    String etag = null;
+
+    for (String url : new String[]{"/restaurant/" + restaurantId, "/dish/restaurant/" + restaurantId}) {
+      MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(url)
+              .header(HttpHeaders.IF_NONE_MATCH, oldETag != null ? oldETag : "\"none\""))
+          .andExpect(status().isOk())
+          .andReturn();
+      etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+      Assertions.assertNotEquals(oldETag, etag);
+
+      // The client with the current ETag does not receive the data again
+      mockMvc.perform(MockMvcRequestBuilders.get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+          .andExpect(status().isNotModified())
+          .andExpect(content().string(""));
+    }
+    return etag;
+  }
+
+  @Test
+  @DisplayName("Check if only the admin can read the metrics and clear the caches through the actuator")
+  public void actuatorTest() throws Exception {
+    Long restaurantId = createRestaurant();
+    restaurantService.retrieveRestaurant(restaurantId);
+    String clientToken = JwtTokenUtil.createToken("client@gmail.com", Role.ROLE_CLIENT.toString());
+    String adminToken = JwtTokenUtil.createToken("admin", Role.ROLE_ADMIN.toString());
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+        .andExpect(status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics").header("Authorization", clientToken))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(MockMvcRequestBuilders.delete("/actuator/caches").header("Authorization", clientToken))
+        .andExpect(status().isForbidden());
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANTS, restaurantId));
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics").header("Authorization", adminToken))
+        .andExpect(status().isOk());
+    mockMvc.perform(MockMvcRequestBuilders.delete("/actuator/caches").header("Authorization", adminToken))
+        .andExpect(status().isNoContent());
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANTS, restaurantId));
+  }
+
+  private String retrieveETag(String url) throws Exception {
+    return mockMvc.perform(MockMvcRequestBuilders.get(url)).andExpect(status().isOk()).andReturn()
+        .getResponse().getHeader(HttpHeaders.ETAG);
+  }
+
+  private String decompress(byte[] body) throws IOException {
+    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private Long createRestaurant() {
+    return restaurantRepository.save(
+        new Restaurant(null, "Restaurant", "Bar", "Description", null, null, null, null, null, 0.0, 0, 0, null, null,
+            0, 0, null, null, null)
+    ).getId();
+  }
+
+  private DishDto createDish(String name) {
+    DishDto dishDto = new DishDto();
+    dishDto.setName(name);
+    dishDto.setPrice(new BigDecimal("10.0"));
+    dishDto.setCategory("Drinks");
+    return dishDto;
+  }
+
+  private void warmCaches(Long restaurantId) {
+    restaurantService.retrieveRestaurant(restaurantId);
+    dishService.retrieveDishesByRestaurant(restaurantId);
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    Assertions.assertTrue(isCached(CacheConfig.RESTAURANT_MENUS, restaurantId));
+  }
+
+  private void assertEvicted(Long restaurantId) {
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANTS, restaurantId));
+    Assertions.assertFalse(isCached(CacheConfig.RESTAURANT_MENUS, restaurantId));
+  }
+
+  private boolean isCached(String cacheName, Long restaurantId) {
+    return Objects.requireNonNull(cacheManager.getCache(cacheName)).get(restaurantId) != null;
+  }
+}
@@ -0,0 +1,491 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.service.DishService;
+import com.raisedeel.foodappmanager.exception.exceptions.InvalidOperationException;
+import com.raisedeel.foodappmanager.pagination.CursorPage;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantDto;
+import com.raisedeel.foodappmanager.restaurant.dto.RestaurantSummaryDto;
+import com.raisedeel.foodappmanager.restaurant.event.RestaurantChangedEvent;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import com.raisedeel.foodappmanager.search.dto.FacetPageDto;
+import com.raisedeel.foodappmanager.search.dto.NearbyRestaurantDto;
+import com.raisedeel.foodappmanager.search.dto.SearchMode;
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.index.CatalogIndex;
+import com.raisedeel.foodappmanager.search.index.CatalogIndexUpdater;
+import com.raisedeel.foodappmanager.search.index.FullTextIndex;
+import com.raisedeel.foodappmanager.search.index.GeoIndex;
+import com.raisedeel.foodappmanager.search.index.NearbyRestaurant;
+import com.raisedeel.foodappmanager.search.index.SuggestionIndex;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import com.raisedeel.foodappmanager.search.model.PriceBand;
+import com.raisedeel.foodappmanager.search.model.SuggestionType;
+import com.raisedeel.foodappmanager.search.repository.SearchRowRepository;
+import com.raisedeel.foodappmanager.search.service.SearchService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the restaurants are found by their data and their menus, ranked by relevance, and that the index
+ * follows every change of the restaurants and dishes. Each test searches its own words, as the database is shared. <br/>
+ * The indexes are updated in the background, so every test waits for them after changing the catalog.
+ */
+@SpringBootTest(properties = "app.rating.flush-interval=3600000")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the full-text search of restaurants")
+public class SearchTests {
+
+  @Autowired
+  SearchService searchService;
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  DishService dishService;
+  @Autowired
+  CatalogIndexUpdater catalogIndexUpdater;
+  @Autowired
+  FullTextIndex fullTextIndex;
+  @Autowired
+  SuggestionIndex suggestionIndex;
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+  @Autowired
+  SearchRowRepository searchRowRepository;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  @DisplayName("Check if a restaurant is found by its name and its dishes ignoring accents and case")
+  public void searchRestaurantTest() throws Exception {
+    Long restaurantId = createRestaurant("Café Zanzíbar", "Bar");
+    dishService.createDish(createDish("Quesadilla de Huitlacoche"), restaurantId);
+    catalogIndexUpdater.awaitIndexed();
+
+    Assertions.assertEquals(List.of(restaurantId), search("CAFE zanzibar"));
+    Assertions.assertEquals(List.of(restaurantId), search("huitlacoche"));
+    Assertions.assertEquals(List.of(), search("unknownword"));
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search").param("q", "quesadilla huitlacoche"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(restaurantId))
+        .andExpect(jsonPath("$.content[0].name").value("Café Zanzíbar"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Check if a match in the name of the restaurant ranks above a match in a dish")
+  public void rankingTest() {
+    Long dishMatch = createRestaurant("Fonda", "Mexican");
+    dishService.createDish(createDish("Tlayuda"), dishMatch);
+    Long nameMatch = createRestaurant("Tlayuda House", "Mexican");
+    catalogIndexUpdater.awaitIndexed();
+
+    Assertions.assertEquals(List.of(nameMatch, dishMatch), search("tlayuda"));
+  }
+
+  @Test
+  @DisplayName("Check if the index follows the updates and deletions of the restaurants and dishes")
+  public void updateIndexTest() {
+    int indexed = fullTextIndex.size();
+    Long restaurantId = createRestaurant("Pulqueria", "Bar");
+    DishDto dishDto = dishService.createDish(createDish("Curado"), restaurantId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(indexed + 1, fullTextIndex.size());
+
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setName("Cantina");
+    restaurantService.updateRestaurant(restaurantId, restaurantDto);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(), search("pulqueria"));
+    Assertions.assertEquals(List.of(restaurantId), search("cantina"));
+
+    dishService.updateDish(dishDto.getId(), createDish("Tepache"));
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(), search("curado"));
+    Assertions.assertEquals(List.of(restaurantId), search("tepache"));
+
+    restaurantService.deleteRestaurant(restaurantId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(), search("cantina tepache"));
+    Assertions.assertEquals(indexed, fullTextIndex.size());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants found are returned one page at a time")
+  public void searchByPageTest() {
+    List<Long> restaurantIds = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      restaurantIds.add(createRestaurant("Pozoleria " + i, "Mexican"));
+    }
+    catalogIndexUpdater.awaitIndexed();
+
+    List<Long> found = new ArrayList<>();
+    String cursor = null;
+    do {
+      CursorPage<RestaurantSummaryDto> page = searchService.searchRestaurants("pozoleria", SearchMode.TERMS, 2,
+          cursor);
+      Assertions.assertTrue(page.getContent().size() <= 2);
+      page.getContent().forEach(restaurant -> found.add(restaurant.id()));
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+
+    // Every restaurant has the same score, so they are ordered by ID
+    Assertions.assertEquals(restaurantIds, found);
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants are found by their names and dishes with misspelled words in the fuzzy mode")
+  public void fuzzySearchTest() throws Exception {
+    Long dishMatch = createRestaurant("Trattoria Bellavista", "Italian");
+    dishService.createDish(createDish("Carbonara"), dishMatch);
+    Long nameMatch = createRestaurant("Carbonara Express", "Italian");
+    catalogIndexUpdater.awaitIndexed();
+
+    Assertions.assertEquals(List.of(), search("carbonra"));
+    // A match in the name of the restaurant ranks above the same match in a dish
+    Assertions.assertEquals(List.of(nameMatch, dishMatch), search("carbonra", SearchMode.FUZZY));
+    Assertions.assertEquals(List.of(dishMatch), search("bellavsta", SearchMode.FUZZY));
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search")
+            .param("q", "trattorai")
+            .param("mode", "FUZZY"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(dishMatch));
+
+    // A cursor cannot be used with another mode
+    String cursor = searchService.searchRestaurants("carbonra", SearchMode.FUZZY, 1, null).getNextCursor();
+    Assertions.assertNotNull(cursor);
+    Assertions.assertThrows(InvalidOperationException.class,
+        () -> searchService.searchRestaurants("carbonra", SearchMode.TERMS, 1, cursor));
+  }
+
+  @Test
+  @DisplayName("Check if the completions of a prefix are suggested by popularity and follow the changes")
+  public void suggestTest() throws Exception {
+    int nodes = suggestionIndex.nodeCount();
+    long bytes = suggestionIndex.estimatedBytes();
+    Long firstId = createRestaurant("Birriería Don Chuy", "Mexican");
+    dishService.createDish(createDish("Birria"), firstId);
+    Long secondId = createRestaurant("Tacos", "Mexican");
+    dishService.createDish(createDish("Birria"), secondId);
+    catalogIndexUpdater.awaitIndexed();
+
+    // The dish is served by two restaurants, so it goes first
+    Assertions.assertEquals(
+        List.of(new SuggestionDto("Birria", SuggestionType.DISH, 2),
+            new SuggestionDto("Birriería Don Chuy", SuggestionType.RESTAURANT, 1)),
+        searchService.suggest("BIRR", 10)
+    );
+    // Any word of the suggestion can be completed
+    Assertions.assertEquals(List.of("Birriería Don Chuy"), texts("don ch"));
+    Assertions.assertEquals(List.of("Birria"), texts("birria"));
+    Assertions.assertEquals(List.of(), texts("birrias"));
+    Assertions.assertTrue(suggestionIndex.estimatedBytes() > bytes);
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/suggest").param("q", "birr").param("size", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()").value(1))
+        .andExpect(jsonPath("$[0].text").value("Birria"))
+        .andExpect(jsonPath("$[0].type").value("DISH"));
+
+    restaurantService.deleteRestaurant(firstId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(new SuggestionDto("Birria", SuggestionType.DISH, 1)),
+        searchService.suggest("birr", 10));
+
+    restaurantService.deleteRestaurant(secondId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(), texts("birr"));
+    // The nodes left empty are pruned
+    Assertions.assertEquals(nodes, suggestionIndex.nodeCount());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants are filtered by type and price band with the counts of each facet")
+  public void facetFilterTest() throws Exception {
+    Long firstId = createRestaurant("Tiki One", "Tiki Bar");
+    DishDto dishDto = dishService.createDish(createDish("Mai Tai", "8.0"), firstId);
+    Long secondId = createRestaurant("Tiki Two", "Tiki Bar");
+    dishService.createDish(createDish("Zombie", "25.0"), secondId);
+    Long thirdId = createRestaurant("Poke Place", "Poké Shop");
+    dishService.createDish(createDish("Poke Bowl", "8.0"), thirdId);
+    catalogIndexUpdater.awaitIndexed();
+
+    FacetPageDto page = searchService.filterRestaurants(List.of("tiki bar"), 0, List.of(), 100, null);
+    Assertions.assertEquals(List.of(firstId, secondId), ids(page));
+    Assertions.assertEquals(2, page.total());
+    // The price bands are counted within the type chosen
+    Assertions.assertEquals(1, page.facets().priceBands().get(PriceBand.UNDER_10));
+    Assertions.assertEquals(1, page.facets().priceBands().get(PriceBand.FROM_20_TO_40));
+    Assertions.assertEquals(0, page.facets().priceBands().get(PriceBand.FROM_40));
+
+    // Any of the values of a facet matches, ignoring accents and case
+    page = searchService.filterRestaurants(List.of("Tiki Bar", "POKE SHOP"), 0, List.of(PriceBand.UNDER_10), 100,
+        null);
+    Assertions.assertEquals(List.of(firstId, thirdId), ids(page));
+    // The types are counted within the price band chosen
+    Assertions.assertEquals(1, page.facets().types().get("Tiki Bar"));
+    Assertions.assertEquals(1, page.facets().types().get("Poké Shop"));
+    Assertions.assertEquals(List.of(),
+        ids(searchService.filterRestaurants(List.of("Tiki Bar"), 1, List.of(), 100, null)));
+
+    // The bitmaps follow the changes of the dishes and restaurants
+    dishService.updateDish(dishDto.getId(), createDish("Mai Tai", "45.0"));
+    restaurantService.deleteRestaurant(secondId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(),
+        ids(searchService.filterRestaurants(List.of("Tiki Bar"), 0, List.of(PriceBand.UNDER_10), 100, null)));
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/facets")
+            .param("type", "Tiki Bar")
+            .param("priceBand", "FROM_40"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(1))
+        .andExpect(jsonPath("$.content[0].id").value(firstId))
+        .andExpect(jsonPath("$.total").value(1))
+        .andExpect(jsonPath("$.facets.priceBands.FROM_40").value(1))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/facets").param("minRating", "6"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants around a position are found nearest first and follow the changes of address")
+  public void nearbySearchTest() throws Exception {
+    RestaurantDto nearRestaurant = createRestaurant("Churreria Sol", "Churrería", "Calle Mayor 1, 40.4168, -3.7038");
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(40.4168, nearRestaurant.getLatitude());
+    Assertions.assertEquals(-3.7038, nearRestaurant.getLongitude());
+    Long nearId = nearRestaurant.getId();
+    Long farId = createRestaurant("Churreria Norte", "Churrería", "Calle Norte 2, 40.4500, -3.7038").getId();
+    Long barId = createRestaurant("Bodega Sol", "Bar", "Plaza Sol 3, 40.4170, -3.7040").getId();
+    catalogIndexUpdater.awaitIndexed();
+
+    List<NearbyRestaurantDto> found = nearby(null, List.of("CHURRERIA"), 0, null).getContent();
+    Assertions.assertEquals(List.of(nearId, farId), found.stream().map(result -> result.restaurant().id()).toList());
+    Assertions.assertEquals(0, found.get(0).distanceKm(), 0.001);
+    Assertions.assertEquals(3.69, found.get(1).distanceKm(), 0.01);
+
+    // Within a radius, with any type
+    Assertions.assertEquals(List.of(nearId, barId), nearbyIds(1.0, List.of()));
+    Assertions.assertEquals(List.of(), nearby(null, List.of(), 1, null).getContent());
+
+    // The next page continues after the distance of the last restaurant
+    CursorPage<NearbyRestaurantDto> page = searchService.searchNearby(40.4168, -3.7038, 1.0, List.of(), 0, 1, null);
+    Assertions.assertEquals(nearId, page.getContent().get(0).restaurant().id());
+    page = searchService.searchNearby(40.4168, -3.7038, 1.0, List.of(), 0, 1, page.getNextCursor());
+    Assertions.assertEquals(barId, page.getContent().get(0).restaurant().id());
+    Assertions.assertNull(page.getNextCursor());
+
+    // The index follows the changes of address
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setAddress("Calle Mayor 5, 40.4169, -3.7038");
+    restaurantService.updateRestaurant(farId, restaurantDto);
+    restaurantService.deleteRestaurant(barId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(nearId, farId), nearbyIds(1.0, List.of()));
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/nearby")
+            .param("lat", "40.4168")
+            .param("lon", "-3.7038")
+            .param("radius", "0.5")
+            .param("type", "churreria"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(2))
+        .andExpect(jsonPath("$.content[0].restaurant.id").value(nearId))
+        .andExpect(jsonPath("$.content[1].restaurant.id").value(farId))
+        .andExpect(jsonPath("$.content[1].distanceKm").isNumber());
+
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/nearby")
+            .param("lat", "40.4168")
+            .param("lon", "-3.7038")
+            .param("radius", "500"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurants near a pole are found across it without scanning every longitude")
+  public void polarNearbySearchTest() {
+    GeoIndex geoIndex = new GeoIndex();
+    geoIndex.index(polarDocument(1, 89.95, 0));
+    geoIndex.index(polarDocument(2, 89.9, 180));
+    geoIndex.index(polarDocument(3, 89.5, 90));
+    geoIndex.index(polarDocument(4, 89.0, 90));
+    geoIndex.index(polarDocument(5, -89.99, 45));
+
+    List<NearbyRestaurant> found = Assertions.assertTimeout(Duration.ofSeconds(1),
+        () -> geoIndex.search(89.95, 0, 100, List.of(), 0, -1, 0, 10));
+    Assertions.assertEquals(List.of(1L, 2L, 3L), found.stream().map(NearbyRestaurant::restaurantId).toList());
+    Assertions.assertEquals(16.68, found.get(1).distanceKm(), 0.01);
+
+    found = Assertions.assertTimeout(Duration.ofSeconds(1),
+        () -> geoIndex.search(-89.99, -135, 5, List.of(), 0, -1, 0, 10));
+    Assertions.assertEquals(List.of(5L), found.stream().map(NearbyRestaurant::restaurantId).toList());
+    Assertions.assertEquals(2.22, found.get(0).distanceKm(), 0.01);
+  }
+
+  @Test
+  @DisplayName("Check if the best rated restaurants of a type are ranked and follow the changes of their ratings")
+  public void topRatedTest() throws Exception {
+    Long firstId = createRestaurant("Pizzeria Uno", "Pizza Napoletana");
+    Long secondId = createRestaurant("Pizzeria Due", "Pizza Napoletana");
+    createRestaurant("Pizzeria Tre", "Pizza Napoletana");
+    catalogIndexUpdater.awaitIndexed();
+
+    ratingUpdateQueue.enqueue(firstId, 0, 4);
+    ratingUpdateQueue.enqueue(secondId, 0, 5);
+    ratingUpdateQueue.flush();
+    catalogIndexUpdater.awaitIndexed();
+    // The restaurants without ratings are not ranked
+    Assertions.assertEquals(List.of(secondId, firstId), topRated("pizza napoletana", 10));
+
+    // The same rating is ranked by ID
+    ratingUpdateQueue.enqueue(firstId, 4, 5);
+    ratingUpdateQueue.flush();
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(firstId, secondId), topRated("Pizza Napoletana", 10));
+    Assertions.assertEquals(List.of(firstId), topRated("Pizza Napoletana", 1));
+
+    restaurantService.deleteRestaurant(firstId);
+    catalogIndexUpdater.awaitIndexed();
+    Assertions.assertEquals(List.of(secondId), topRated("Pizza Napoletana", 10));
+    Assertions.assertEquals(List.of(), topRated("Pizza Romana", 10));
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/search/top").param("type", "Pizza Napoletana"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.size()").value(1))
+        .andExpect(jsonPath("$[0].id").value(secondId))
+        .andExpect(jsonPath("$[0].rating").value(5.0));
+  }
+
+  private List<Long> topRated(String type, int size) {
+    return searchService.retrieveTopRated(type, size).stream().map(RestaurantSummaryDto::id).toList();
+  }
+
+  private CursorPage<NearbyRestaurantDto> nearby(Double radiusKm, List<String> types, double minRating,
+                                                 String cursor) {
+    return searchService.searchNearby(40.4168, -3.7038, radiusKm, types, minRating, 100, cursor);
+  }
+
+  private static CatalogDocument polarDocument(long restaurantId, double latitude, double longitude) {
+    return new CatalogDocument(restaurantId, 0, "Restaurant " + restaurantId, "Bar", "", 0, 0, latitude, longitude,
+        List.of());
+  }
+
+  private List<Long> nearbyIds(Double radiusKm, List<String> types) {
+    return nearby(radiusKm, types, 0, null).getContent().stream().map(result -> result.restaurant().id()).toList();
+  }
+
+  @Test
+  @DisplayName("Check if a restaurant that fails to be indexed is retried and the events after the shutdown ignored")
+  public void reindexFailureTest() throws InterruptedException {
+    Long restaurantId = createRestaurant("Retried", "Bar");
+    AtomicInteger attempts = new AtomicInteger();
+    CountDownLatch indexed = new CountDownLatch(1);
+    CatalogIndex failingOnce = new CatalogIndex() {
+      @Override
+      public void index(CatalogDocument document) {
+        if (attempts.incrementAndGet() == 1) {
+          throw new IllegalStateException("Index unavailable");
+        }
+        indexed.countDown();
+      }
+
+      @Override
+      public void remove(long restaurantId) {
+      }
+    };
+    CatalogIndexUpdater updater = new CatalogIndexUpdater(
+        List.of(failingOnce), searchRowRepository, restaurantRepository, transactionManager);
+
+    updater.onRestaurantChanged(new RestaurantChangedEvent(restaurantId));
+
+    Assertions.assertTrue(indexed.await(CatalogIndexUpdater.RETRY_DELAY_MS * 5, TimeUnit.MILLISECONDS));
+    Assertions.assertEquals(2, attempts.get());
+
+    // As the last flush of the ratings does while the application shuts down
+    updater.shutdown();
+    Assertions.assertDoesNotThrow(() -> updater.onRestaurantChanged(new RestaurantChangedEvent(restaurantId)));
+  }
+
+  private List<Long> ids(FacetPageDto page) {
+    return page.content().stream().map(RestaurantSummaryDto::id).toList();
+  }
+
+  private List<String> texts(String prefix) {
+    return searchService.suggest(prefix, 10).stream().map(SuggestionDto::text).toList();
+  }
+
+  private List<Long> search(String query) {
+    return search(query, SearchMode.TERMS);
+  }
+
+  private List<Long> search(String query, SearchMode mode) {
+    return searchService.searchRestaurants(query, mode, 100, null).getContent().stream()
+        .map(RestaurantSummaryDto::id)
+        .toList();
+  }
+
+  private Long createRestaurant(String name, String type) {
+    return createRestaurant(name, type, "Some place").getId();
+  }
+
+  private RestaurantDto createRestaurant(String name, String type, String address) {
+    RestaurantDto restaurantDto = new RestaurantDto();
+    restaurantDto.setName(name);
+    restaurantDto.setType(type);
+    restaurantDto.setDescription("Description");
+    restaurantDto.setEmail("res@gmail.com");
+    restaurantDto.setTelephone("7551234567");
+    restaurantDto.setAddress(address);
+    return restaurantService.createRestaurant(restaurantDto);
+  }
+
+  private DishDto createDish(String name) {
+    return createDish(name, "10.0");
+  }
+
+  private DishDto createDish(String name, String price) {
+    DishDto dishDto = new DishDto();
+    dishDto.setName(name);
+    dishDto.setPrice(new BigDecimal(price));
+    dishDto.setCategory("Drinks");
+    return dishDto;
+  }
+}
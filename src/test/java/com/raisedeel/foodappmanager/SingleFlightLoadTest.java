@@ -0,0 +1,105 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.dish.model.Dish;
+import com.raisedeel.foodappmanager.dish.repository.DishRepository;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Load test of concurrent requests for the same restaurant")
+public class SingleFlightLoadTest {
+
+  // The number of concurrent callers, the rounds of calls and the dishes of the restaurant
+  static final int CALLERS = 200;
+  static final int ROUNDS = 10;
+  static final int DISHES = 20;
+
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  DishRepository dishRepository;
+  @Autowired
+  CacheManager cacheManager;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @DisplayName("Compare the statements executed with and without sharing the loads of the same restaurant")
+  public void concurrentRetrieveRestaurantTest() throws Exception {
+    Restaurant restaurant = restaurantRepository.save(
+        new Restaurant(null, "Restaurant", "Bar", "Description", null, null, null, null, null, 0.0, 0, 0, null, null,
+            0, 0, null, null, null)
+    );
+    for (int i = 0; i < DISHES; i++) {
+      dishRepository.save(new Dish(null, "Dish " + i, 10.0, "Drinks", "A drink", "url", restaurant));
+    }
+    Long restaurantId = restaurant.getId();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    // Previous behavior, every caller loading the restaurant by itself
+    statistics.clear();
+    long start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      runConcurrently(() -> restaurantRepository.findWithMenuById(restaurantId).orElseThrow());
+    }
+    long unsharedTime = System.nanoTime() - start;
+    long unsharedStatements = statistics.getPrepareStatementCount();
+
+    // Every round starts with a cold cache, so all the callers miss it at the same time
+    statistics.clear();
+    start = System.nanoTime();
+    for (int i = 0; i < ROUNDS; i++) {
+      Objects.requireNonNull(cacheManager.getCache(CacheConfig.RESTAURANTS)).clear();
+      runConcurrently(() -> restaurantService.retrieveRestaurant(restaurantId));
+    }
+    long sharedTime = System.nanoTime() - start;
+    long sharedStatements = statistics.getPrepareStatementCount();
+
+    System.out.printf("%,d calls: %,d statements in %,d ms without sharing, %,d statements in %,d ms sharing the loads%n",
+        CALLERS * ROUNDS, unsharedStatements, unsharedTime / 1_000_000, sharedStatements, sharedTime / 1_000_000);
+    Assertions.assertEquals((long) CALLERS * ROUNDS, unsharedStatements);
+    Assertions.assertTrue(sharedStatements < unsharedStatements);
+  }
+
+  private void runConcurrently(Runnable call) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    List<Future<?>> callers = new ArrayList<>();
+
+    for (int i = 0; i < CALLERS; i++) {
+      callers.add(executor.submit(() -> {
+        start.await();
+        call.run();
+        return null;
+      }));
+    }
+
+    start.countDown();
+    for (Future<?> caller : callers) {
+      caller.get();
+    }
+    executor.shutdown();
+  }
+}
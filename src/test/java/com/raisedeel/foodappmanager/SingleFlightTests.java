@@ -0,0 +1,113 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.concurrent.SingleFlight;
+import com.raisedeel.foodappmanager.exception.exceptions.EntityNotFoundException;
+import com.raisedeel.foodappmanager.exception.exceptions.LoadTimeoutException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Tests to check the sharing, error propagation and timeouts of the single-flight loads")
+public class SingleFlightTests {
+
+  static final int CALLERS = 8;
+
+  SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(5));
+
+  @Test
+  @DisplayName("Check if concurrent callers of the same key share a single load")
+  public void sharedLoadTest() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> results = runCallers(() -> singleFlight.execute("key", () -> {
+      loads.incrementAndGet();
+      await(release);
+      return "value";
+    }), release);
+
+    for (Future<String> result : results) {
+      Assertions.assertEquals("value", result.get());
+    }
+    Assertions.assertEquals(1, loads.get());
+    // The load finished, so the next caller loads again
+    Assertions.assertEquals("other", singleFlight.execute("key", () -> "other"));
+  }
+
+  @Test
+  @DisplayName("Check if the exception of a shared load is received by every caller")
+  public void errorPropagationTest() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+
+    List<Future<String>> results = runCallers(() -> singleFlight.execute("key", () -> {
+      await(release);
+      throw new EntityNotFoundException("Restaurant");
+    }), release);
+
+    for (Future<String> result : results) {
+      ExecutionException ex = Assertions.assertThrows(ExecutionException.class, result::get);
+      Assertions.assertInstanceOf(EntityNotFoundException.class, ex.getCause());
+    }
+  }
+
+  @Test
+  @DisplayName("Check if a caller stops waiting for a shared load after its timeout")
+  public void timeoutTest() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    Future<String> slow = executor.submit(() -> singleFlight.execute("key", () -> {
+      started.countDown();
+      await(release);
+      return "value";
+    }));
+    started.await();
+
+    Assertions.assertThrows(LoadTimeoutException.class,
+        () -> singleFlight.execute("key", Duration.ofMillis(50), () -> "unused"));
+    // Other keys are not affected by the slow load
+    Assertions.assertEquals("other", singleFlight.execute("other", () -> "other"));
+
+    release.countDown();
+    Assertions.assertEquals("value", slow.get());
+    executor.shutdown();
+  }
+
+  private List<Future<String>> runCallers(Callable<String> caller, CountDownLatch release)
+      throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    List<Future<String>> results = new ArrayList<>();
+    for (int i = 0; i < CALLERS; i++) {
+      results.add(executor.submit(caller));
+    }
+
+    // Give every caller the time to join the load before it finishes
+    Thread.sleep(200);
+    release.countDown();
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    return results;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,12 +1,14 @@
 package com.raisedeel.foodappmanager;
 
 import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.model.RestaurantRatingHistogram;
 import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
 import com.raisedeel.foodappmanager.subscription.model.Subscription;
 import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.util.Arrays;
 
@@ -22,9 +24,13 @@ public class SubscriptionRepositoryTest {
   @Autowired
   SubscriptionRepository subscriptionRepository;
 
+  @Autowired
+  TestEntityManager entityManager;
+
   // The size of the array can be modified depending on the number of subscriptions to test
   Subscription[] subscriptions = new Subscription[100];
-  Restaurant restaurant = new Restaurant(1L, null, null, null, null, null, null, 0.0, null, null, null, null);
+  Restaurant restaurant = new Restaurant(1L, null, null, null, null, null, null, null, null, 0.0, 0, 0, null, null,
+      0, 0, null, null, null);
   double rating;
 
   {
@@ -32,6 +38,7 @@ public class SubscriptionRepositoryTest {
       Subscription sub = new Subscription(
           i + 1L,
           (int) (Math.random() * 6),
+          0,
           null,
           restaurant
       );
@@ -84,4 +91,56 @@ public class SubscriptionRepositoryTest {
     Assertions.assertEquals(decreasedRating, subscriptionRepository.averageOfRatingsByRestaurantId(1L).orElse(0.0));
   }
 
+  @Test
+  @DisplayName("Check if the incrementally maintained rating and histogram stay accurate after random rating changes and deletions")
+  @Order(3)
+  public void incrementalRatingsTest() {
+    // The aggregates start from the ratings already stored in the subscriptions
+    restaurantRepository.reconcileRatings(0L, 1L);
+
+    int[] ratings = new int[subscriptions.length];
+    int bound = (int) (Math.random() * subscriptions.length);
+
+    for (int i = 0; i < subscriptions.length; i++) {
+      Subscription sub = subscriptionRepository.findById(subscriptions[i].getId()).orElseThrow();
+      int oldRating = sub.getRating();
+      ratings[i] = (int) (Math.random() * 6);
+
+      sub.setRating(ratings[i]);
+      subscriptionRepository.save(sub);
+      restaurantRepository.updateRatingAggregates(1L, oldRating, ratings[i]);
+    }
+
+    for (int i = 0; i < bound; i++) {
+      subscriptionRepository.deleteById(subscriptions[i].getId());
+      restaurantRepository.updateRatingAggregates(1L, ratings[i], 0);
+    }
+
+    long sum = 0;
+    long count = 0;
+    long[] stars = new long[6];
+    for (int i = bound; i < subscriptions.length; i++) {
+      sum += ratings[i];
+      stars[ratings[i]]++;
+      if (ratings[i] != 0) count++;
+    }
+
+    entityManager.flush();
+    entityManager.clear();
+    Restaurant updatedRestaurant = restaurantRepository.findById(1L).orElseThrow();
+
+    Assertions.assertEquals(sum, updatedRestaurant.getRatingSum());
+    Assertions.assertEquals(count, updatedRestaurant.getRatingCount());
+    Assertions.assertEquals(
+        new RestaurantRatingHistogram(stars[1], stars[2], stars[3], stars[4], stars[5]),
+        updatedRestaurant.getRatingHistogram()
+    );
+    Assertions.assertEquals(count == 0 ? 0.0 : (double) sum / count, updatedRestaurant.getRating());
+    Assertions.assertEquals(
+        subscriptionRepository.averageOfRatingsByRestaurantId(1L).orElse(0.0),
+        updatedRestaurant.getRating(),
+        1e-9
+    );
+  }
+
 }
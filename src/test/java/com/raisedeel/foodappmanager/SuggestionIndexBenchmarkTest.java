@@ -0,0 +1,102 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.search.dto.SuggestionDto;
+import com.raisedeel.foodappmanager.search.index.SuggestionIndex;
+import com.raisedeel.foodappmanager.search.model.CatalogDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the suggestions of the autocomplete over a generated catalog of 10k restaurants and 1M dishes,
+ * completing a single letter (the most completions), a word and a rare word. The estimated memory of the index is
+ * printed when it is built.
+ */
+@DisplayName("Benchmark of the autocomplete of a catalog of 1M dishes")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SuggestionIndexBenchmarkTest {
+
+  // The number of restaurants, the dishes of each one and the rare words of the generated vocabulary
+  static final int RESTAURANTS = 10_000;
+  static final int DISHES = 100;
+  static final int RARE_WORDS = 100_000;
+  static final String[] COMMON_WORDS = {"taco", "pizza", "salad", "soup", "chicken", "beef", "cheese", "rice",
+      "beans", "spicy", "grilled", "fried", "fresh", "house", "special", "sauce", "bread", "coffee", "juice", "cake"};
+  static final String[] TYPES = {"Bar", "Pizzeria", "Taqueria", "Sushi", "Cafe", "Bakery"};
+
+  SuggestionIndex suggestionIndex;
+
+  @Test
+  @DisplayName("Measure the time of a suggestion in a catalog of 1M dishes")
+  public void suggestionIndexBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(SuggestionIndexBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() {
+    suggestionIndex = new SuggestionIndex(new SimpleMeterRegistry());
+    Random random = new Random(42);
+
+    for (int i = 0; i < RESTAURANTS; i++) {
+      List<CatalogDocument.DishDocument> dishes = new ArrayList<>(DISHES);
+      for (int j = 0; j < DISHES; j++) {
+        dishes.add(new CatalogDocument.DishDocument((long) i * DISHES + j, words(random, 2), 10.0, "Main", ""));
+      }
+      suggestionIndex.index(new CatalogDocument(i + 1, 0, "Restaurant " + words(random, 2),
+          TYPES[random.nextInt(TYPES.length)], "", 0, random.nextInt(1000), null, null, dishes));
+    }
+
+    System.out.printf("%,d suggestions in %,d nodes, %,d KB estimated%n", suggestionIndex.size(),
+        suggestionIndex.nodeCount(), suggestionIndex.estimatedBytes() / 1024);
+  }
+
+  @Benchmark
+  public List<SuggestionDto> suggestLetter() {
+    return suggestionIndex.suggest("p", 10);
+  }
+
+  @Benchmark
+  public List<SuggestionDto> suggestWord() {
+    return suggestionIndex.suggest("pizza ch", 10);
+  }
+
+  @Benchmark
+  public List<SuggestionDto> suggestRareWord() {
+    return suggestionIndex.suggest("word1234", 10);
+  }
+
+  private static String words(Random random, int count) {
+    StringBuilder text = new StringBuilder();
+
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      // Half of the words are common, the other half are spread over a large vocabulary
+      if (random.nextBoolean()) {
+        text.append(COMMON_WORDS[random.nextInt(COMMON_WORDS.length)]);
+      } else {
+        text.append("word").append(random.nextInt(RARE_WORDS));
+      }
+    }
+    return text.toString();
+  }
+}
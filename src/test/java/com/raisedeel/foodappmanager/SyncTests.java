@@ -0,0 +1,175 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.MenuDto;
+import com.raisedeel.foodappmanager.dish.service.DishService;
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.restaurant.service.RestaurantService;
+import com.raisedeel.foodappmanager.sync.dto.SyncChangeDto;
+import com.raisedeel.foodappmanager.sync.dto.SyncPageDto;
+import com.raisedeel.foodappmanager.sync.model.SyncEntityType;
+import com.raisedeel.foodappmanager.sync.service.SyncService;
+import com.raisedeel.foodappmanager.sync.service.SyncServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that every change of the restaurants and dishes is recorded in the change log, compacted to the last change
+ * of each entity, and that the clients are asked to download the catalog again once the tombstones they missed are
+ * purged.
+ */
+@SpringBootTest(properties = {
+    "app.rating.flush-interval=3600000",
+    // Every tombstone is old enough to be purged
+    "app.sync.tombstone-retention=0s"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the synchronization of the catalog through the change log")
+public class SyncTests {
+
+  @Autowired
+  SyncService syncService;
+  @Autowired
+  RestaurantService restaurantService;
+  @Autowired
+  DishService dishService;
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  @DisplayName("Check if only the last change of every restaurant and dish after the sequence number is returned")
+  public void retrieveChangesTest() throws Exception {
+    long since = lastSeq();
+    Long restaurantId = createRestaurant();
+    DishDto dish = dishService.createDish(createDish("Dish"), restaurantId);
+    DishDto deletedDish = dishService.createDish(createDish("Deleted dish"), restaurantId);
+    dishService.updateDish(dish.getId(), createDish("New dish"));
+    dishService.deleteDish(deletedDish.getId());
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/sync").param("since", String.valueOf(since)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.changes.size()").value(3))
+        .andExpect(jsonPath("$.changes[0].type").value("RESTAURANT"))
+        .andExpect(jsonPath("$.changes[0].id").value(restaurantId))
+        .andExpect(jsonPath("$.changes[0].restaurant.name").value("Restaurant"))
+        .andExpect(jsonPath("$.changes[1].type").value("DISH"))
+        .andExpect(jsonPath("$.changes[1].id").value(dish.getId()))
+        .andExpect(jsonPath("$.changes[1].restaurantId").value(restaurantId))
+        .andExpect(jsonPath("$.changes[1].dish.name").value("New dish"))
+        .andExpect(jsonPath("$.changes[2].id").value(deletedDish.getId()))
+        .andExpect(jsonPath("$.changes[2].deleted").value(true))
+        .andExpect(jsonPath("$.changes[2].dish").doesNotExist())
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.reset").value(false));
+
+    // Nothing changed after the last change returned
+    SyncPageDto page = syncService.retrieveChanges(lastSeq(), 100);
+    Assertions.assertEquals(List.of(), page.changes());
+    Assertions.assertFalse(page.hasMore());
+  }
+
+  @Test
+  @DisplayName("Check if the changes are returned one page at a time")
+  public void retrieveChangesByPageTest() {
+    long since = lastSeq();
+    Long restaurantId = createRestaurant();
+    dishService.replaceMenu(restaurantId, new MenuDto(null, 0, List.of(createDish("First"), createDish("Second"))),
+        null);
+
+    SyncPageDto firstPage = syncService.retrieveChanges(since, 2);
+    Assertions.assertEquals(2, firstPage.changes().size());
+    Assertions.assertTrue(firstPage.hasMore());
+    Assertions.assertEquals(firstPage.changes().get(1).seq(), firstPage.nextSince());
+
+    SyncPageDto secondPage = syncService.retrieveChanges(firstPage.nextSince(), 2);
+    Assertions.assertEquals(1, secondPage.changes().size());
+    Assertions.assertEquals("Second", secondPage.changes().get(0).dish().getName());
+    Assertions.assertFalse(secondPage.hasMore());
+  }
+
+  @Test
+  @DisplayName("Check if a change of the rating, written without the entity, is recorded")
+  public void ratingChangeTest() {
+    Long restaurantId = createRestaurant();
+    long since = lastSeq();
+
+    ratingUpdateQueue.enqueue(restaurantId, 0, 4);
+    ratingUpdateQueue.flush();
+
+    List<SyncChangeDto> changes = syncService.retrieveChanges(since, 100).changes();
+    Assertions.assertEquals(1, changes.size());
+    Assertions.assertEquals(restaurantId, changes.get(0).id());
+    Assertions.assertEquals(4.0, changes.get(0).restaurant().rating());
+  }
+
+  @Test
+  @DisplayName("Check if the clients are asked to download the catalog again when the tombstones they missed are purged")
+  public void purgeTombstonesTest() {
+    Long restaurantId = createRestaurant();
+    DishDto dish = dishService.createDish(createDish("Dish"), restaurantId);
+    long since = lastSeq();
+
+    restaurantService.deleteRestaurant(restaurantId);
+
+    List<SyncChangeDto> changes = syncService.retrieveChanges(since, 100).changes();
+    Assertions.assertEquals(
+        Set.of(SyncEntityType.RESTAURANT + ":" + restaurantId, SyncEntityType.DISH + ":" + dish.getId()),
+        changes.stream().map(change -> change.type() + ":" + change.id()).collect(Collectors.toSet())
+    );
+    Assertions.assertTrue(changes.stream().allMatch(SyncChangeDto::deleted));
+
+    Assertions.assertTrue(syncService.purgeTombstones() >= 2);
+
+    SyncPageDto page = syncService.retrieveChanges(since, 100);
+    Assertions.assertTrue(page.reset());
+    Assertions.assertEquals(List.of(), page.changes());
+    // Downloading the catalog again does not need the tombstones
+    Assertions.assertFalse(syncService.retrieveChanges(0, 100).reset());
+  }
+
+  private long lastSeq() {
+    SyncPageDto page = syncService.retrieveChanges(0, SyncServiceImpl.MAX_PAGE_SIZE);
+    while (page.hasMore()) {
+      page = syncService.retrieveChanges(page.nextSince(), SyncServiceImpl.MAX_PAGE_SIZE);
+    }
+    return page.nextSince();
+  }
+
+  private Long createRestaurant() {
+    return restaurantRepository.save(
+        new Restaurant(null, "Restaurant", "Bar", "Description", null, null, null, null, null, 0.0, 0, 0, null, null,
+            0, 0, null, null, null)
+    ).getId();
+  }
+
+  private DishDto createDish(String name) {
+    DishDto dishDto = new DishDto();
+    dishDto.setName(name);
+    dishDto.setPrice(new BigDecimal("10.0"));
+    dishDto.setCategory("Drinks");
+    return dishDto;
+  }
+}
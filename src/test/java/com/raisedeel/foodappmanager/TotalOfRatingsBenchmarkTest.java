@@ -0,0 +1,76 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.subscription.model.Subscription;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest
+@DisplayName("Benchmark of the total of ratings of a restaurant with many subscriptions")
+public class TotalOfRatingsBenchmarkTest {
+
+  static final int BATCH_SIZE = 10_000;
+
+  @Autowired
+  RestaurantRepository restaurantRepository;
+
+  @Autowired
+  TestEntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbcTemplate;
+
+  @ParameterizedTest(name = "{0} subscriptions")
+  @ValueSource(ints = {10_000, 100_000, 1_000_000})
+  @DisplayName("Compare counting the loaded subscriptions against reading the stored total of ratings")
+  public void totalOfRatingsBenchmark(int size) {
+    Long restaurantId = restaurantRepository.save(
+        new Restaurant(null, "Restaurant", null, null, null, null, null, null, null, 0.0, 0, 0, null, null, 0, 0,
+            null, null, null)
+    ).getId();
+    // Flushed, so the subscriptions inserted through JDBC find their restaurant
+    entityManager.flush();
+    insertSubscriptions(restaurantId, size);
+    restaurantRepository.reconcileRatings(restaurantId - 1, restaurantId);
+    entityManager.clear();
+
+    // Previous implementation, loading every subscription of the restaurant
+    long start = System.nanoTime();
+    long loadedTotal = restaurantRepository.findById(restaurantId).orElseThrow().getSubscriptions().stream()
+        .filter((sub) -> sub.getRating() > 0)
+        .mapToInt(Subscription::getRating).count();
+    long loadedTime = System.nanoTime() - start;
+    entityManager.clear();
+
+    start = System.nanoTime();
+    long storedTotal = restaurantRepository.findById(restaurantId).orElseThrow().getTotalOfRatings();
+    long storedTime = System.nanoTime() - start;
+
+    System.out.printf("%,d subscriptions: loading the subscriptions took %,d ms, the stored total took %,d ms%n",
+        size, loadedTime / 1_000_000, storedTime / 1_000_000);
+    Assertions.assertEquals(loadedTotal, storedTotal);
+  }
+
+  private void insertSubscriptions(Long restaurantId, int size) {
+    List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+
+    for (int i = 0; i < size; i++) {
+      batch.add(new Object[]{(int) (Math.random() * 6), restaurantId});
+
+      if (batch.size() == BATCH_SIZE || i == size - 1) {
+        jdbcTemplate.batchUpdate("insert into subscription (rating, version, restaurant_id) values (?, 0, ?)", batch);
+        batch.clear();
+      }
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
+import com.raisedeel.foodappmanager.subscription.service.SubscriptionService;
+import com.raisedeel.foodappmanager.trending.dto.TrendingRestaurantDto;
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+import com.raisedeel.foodappmanager.trending.service.TrendingService;
+import com.raisedeel.foodappmanager.trending.service.TrendingTracker;
+import com.raisedeel.foodappmanager.trending.service.TrendingTracker.TrendingScore;
+import com.raisedeel.foodappmanager.user.model.Role;
+import com.raisedeel.foodappmanager.user.model.User;
+import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the trending restaurants are scored by their recent events, the latest ones weighing more, and that
+ * the number of restaurants tracked is bounded. The tracker of the application is shared by the tests, so the checks
+ * over it only look at the restaurants of each test.
+ */
+@SpringBootTest(properties = "app.rating.flush-interval=3600000")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Tests to check the trending restaurants")
+public class TrendingTests {
+
+  // The start of a bucket, so the ages of the events are whole buckets
+  private static final long NOW = 1_700_000_400_000L;
+  private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+  @Autowired
+  TrendingService trendingService;
+  @Autowired
+  SubscriptionService subscriptionService;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  MockMvc mockMvc;
+
+  @Test
+  @DisplayName("Check if the latest events weigh more in the shorter window")
+  public void decayOfEventsTest() {
+    TrendingTracker tracker = new TrendingTracker(new SimpleMeterRegistry(), 100);
+    for (int i = 0; i < 3; i++) {
+      tracker.record(1, NOW - 50 * MINUTE);
+    }
+    tracker.record(2, NOW);
+    tracker.record(2, NOW);
+
+    // 3 events of 50 minutes ago weigh less than 2 events of now in the last hour, but not in the last day
+    Assertions.assertEquals(List.of(2L, 1L), ids(tracker.trending(TrendingWindow.HOUR, 10, NOW)));
+    Assertions.assertEquals(List.of(1L, 2L), ids(tracker.trending(TrendingWindow.DAY, 10, NOW)));
+    Assertions.assertEquals(List.of(1L), ids(tracker.trending(TrendingWindow.DAY, 1, NOW)));
+
+    TrendingScore score = tracker.trending(TrendingWindow.HOUR, 10, NOW).get(1);
+    Assertions.assertEquals(3, score.events());
+    Assertions.assertEquals(3 * Math.pow(0.5, 50.0 / 30), score.score(), 1e-9);
+  }
+
+  @Test
+  @DisplayName("Check if the events out of the window are not counted")
+  public void expirationOfEventsTest() {
+    TrendingTracker tracker = new TrendingTracker(new SimpleMeterRegistry(), 100);
+    tracker.record(1, NOW - 120 * MINUTE);
+
+    Assertions.assertEquals(List.of(), tracker.trending(TrendingWindow.HOUR, 10, NOW));
+    Assertions.assertEquals(List.of(1L), ids(tracker.trending(TrendingWindow.DAY, 10, NOW)));
+    Assertions.assertEquals(List.of(), tracker.trending(TrendingWindow.DAY, 10, NOW + 24 * 60 * MINUTE));
+
+    // The ring of the restaurant goes around the whole day, dropping the old event
+    tracker.record(1, NOW + 24 * 60 * MINUTE);
+    Assertions.assertEquals(1, tracker.trending(TrendingWindow.DAY, 10, NOW + 24 * 60 * MINUTE).get(0).events());
+  }
+
+  @Test
+  @DisplayName("Check if the restaurant with the fewest events is replaced when the tracker is full")
+  public void evictionOfRestaurantsTest() {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    TrendingTracker tracker = new TrendingTracker(meterRegistry, 2);
+    for (int i = 0; i < 3; i++) {
+      tracker.record(1, NOW);
+    }
+    tracker.record(2, NOW);
+    tracker.record(2, NOW);
+    tracker.record(3, NOW);
+
+    Assertions.assertEquals(2, tracker.size());
+    Assertions.assertEquals(List.of(1L, 3L), ids(tracker.trending(TrendingWindow.DAY, 10, NOW)));
+    // The new restaurant starts with its own events only
+    Assertions.assertEquals(1, tracker.trending(TrendingWindow.DAY, 10, NOW).get(1).events());
+    Assertions.assertEquals(1, meterRegistry.get("trending.evictions").counter().count());
+    Assertions.assertEquals(2, meterRegistry.get("trending.restaurants").gauge().value());
+  }
+
+  @Test
+  @DisplayName("Check if the subscriptions and ratings make a restaurant trend")
+  public void trendingRestaurantsTest() throws Exception {
+    Long firstId = createRestaurant("Trending First");
+    Long secondId = createRestaurant("Trending Second");
+    Long[] userIds = {createUser("trending1@gmail.com"), createUser("trending2@gmail.com")};
+
+    subscriptionService.subscribeToRestaurant(userIds[0], secondId);
+    subscriptionService.subscribeToRestaurant(userIds[0], firstId);
+    subscriptionService.subscribeToRestaurant(userIds[1], firstId);
+    SubscriptionDto subscriptionDto = new SubscriptionDto();
+    subscriptionDto.setRating(5);
+    subscriptionService.updateRating(subscriptionDto, userIds[1], firstId);
+
+    List<TrendingRestaurantDto> trending = trendingService.retrieveTrending(TrendingWindow.HOUR, 100).stream()
+        .filter(restaurant -> List.of(firstId, secondId).contains(restaurant.restaurant().id()))
+        .toList();
+    Assertions.assertEquals(List.of(firstId, secondId), trending.stream().map(restaurant -> restaurant.restaurant().id()).toList());
+    Assertions.assertEquals(3, trending.get(0).events());
+    Assertions.assertEquals(1, trending.get(1).events());
+
+    // No token is required
+    mockMvc.perform(MockMvcRequestBuilders.get("/restaurant/trending")
+            .param("window", "HOUR")
+            .param("size", "100"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[?(@.restaurant.id == " + firstId + ")].events").value(3))
+        .andExpect(jsonPath("$[?(@.restaurant.id == " + secondId + ")].restaurant.name").value("Trending Second"));
+  }
+
+  private List<Long> ids(List<TrendingScore> scores) {
+    return scores.stream().map(TrendingScore::restaurantId).toList();
+  }
+
+  private Long createRestaurant(String name) {
+    return restaurantRepository.save(
+        new Restaurant(null, name, null, null, null, null, null, null, null, 0.0, 0, 0, null, null, 0, 0,
+            null, null, null)
+    ).getId();
+  }
+
+  private Long createUser(String email) {
+    return userRepository.save(
+        new User(null, "User", email, "password", null, Role.ROLE_CLIENT, null)
+    ).getId();
+  }
+}
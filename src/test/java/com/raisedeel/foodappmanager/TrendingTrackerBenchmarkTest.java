@@ -0,0 +1,86 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.trending.model.TrendingWindow;
+import com.raisedeel.foodappmanager.trending.service.TrendingTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the trending restaurants, tracking up to 10k of 1M restaurants whose events follow a skewed
+ * distribution (a few restaurants get most of the events), after a day of 1M events. It measures recording an event,
+ * replacing a tracked restaurant when a new one arrives, and scoring the tracked restaurants of each window.
+ */
+@DisplayName("Benchmark of the trending restaurants with 1M events over 1M restaurants")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TrendingTrackerBenchmarkTest {
+
+  // The number of restaurants with events, the restaurants tracked and the events of the day before the benchmark
+  static final int RESTAURANTS = 1_000_000;
+  static final int CAPACITY = 10_000;
+  static final int EVENTS = 1_000_000;
+  static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+  TrendingTracker trendingTracker;
+  // The restaurants of the events recorded by the benchmark, generated beforehand
+  long[] restaurantIds = new long[1 << 20];
+  long now;
+  int next;
+
+  @Test
+  @DisplayName("Measure the time of recording an event and scoring the trending restaurants")
+  public void trendingTrackerBenchmark() throws Exception {
+    Options options = new OptionsBuilder()
+        .include(TrendingTrackerBenchmarkTest.class.getSimpleName())
+        // The benchmarks run in the JVM of the tests, whose classpath cannot be passed to a forked JVM
+        .forks(0)
+        .build();
+    new Runner(options).run();
+  }
+
+  @Setup
+  public void setup() {
+    trendingTracker = new TrendingTracker(new SimpleMeterRegistry(), CAPACITY);
+    Random random = new Random(42);
+    for (int i = 0; i < restaurantIds.length; i++) {
+      restaurantIds[i] = skewedRestaurantId(random);
+    }
+
+    now = System.currentTimeMillis();
+    for (int i = 0; i < EVENTS; i++) {
+      trendingTracker.record(skewedRestaurantId(random), now - DAY_MILLIS + i * (DAY_MILLIS / EVENTS));
+    }
+  }
+
+  @Benchmark
+  public void recordEvent() {
+    trendingTracker.record(restaurantIds[next++ & (restaurantIds.length - 1)], now);
+  }
+
+  @Benchmark
+  public List<TrendingTracker.TrendingScore> trendingHour() {
+    return trendingTracker.trending(TrendingWindow.HOUR, 10, now);
+  }
+
+  @Benchmark
+  public List<TrendingTracker.TrendingScore> trendingDay() {
+    return trendingTracker.trending(TrendingWindow.DAY, 10, now);
+  }
+
+  private static long skewedRestaurantId(Random random) {
+    // The cube of a uniform number concentrates the events in the lowest IDs
+    return 1 + (long) (Math.pow(random.nextDouble(), 3) * RESTAURANTS);
+  }
+}
@@ -0,0 +1,113 @@
+package com.raisedeel.foodappmanager;
+
+import com.raisedeel.foodappmanager.restaurant.model.Restaurant;
+import com.raisedeel.foodappmanager.restaurant.repository.RestaurantRepository;
+import com.raisedeel.foodappmanager.restaurant.service.RatingUpdateQueue;
+import com.raisedeel.foodappmanager.subscription.dto.SubscriptionDto;
+import com.raisedeel.foodappmanager.subscription.repository.SubscriptionRepository;
+import com.raisedeel.foodappmanager.subscription.service.SubscriptionService;
+import com.raisedeel.foodappmanager.user.model.Role;
+import com.raisedeel.foodappmanager.user.model.User;
+import com.raisedeel.foodappmanager.user.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    // Long enough for the scheduled flush to not run during the benchmark
+    "app.rating.flush-interval=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@DisplayName("Benchmark of the single transaction unsubscription against rating to 0 and deleting afterwards")
+public class UnsubscribeBenchmarkTest {
+
+  // The number of subscriptions deleted by each path
+  static final int SUBSCRIPTIONS = 1_000;
+
+  @Autowired
+  SubscriptionService subscriptionService;
+  @Autowired
+  SubscriptionRepository subscriptionRepository;
+  @Autowired
+  RestaurantRepository restaurantRepository;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  RatingUpdateQueue ratingUpdateQueue;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+
+  @Test
+  @DisplayName("Compare the time and statements of the previous unsubscription against the single transaction")
+  public void unsubscribeBenchmark() {
+    Long restaurantId = restaurantRepository.save(
+        new Restaurant(null, "Restaurant", "Bar", "Normal Bar", null, null, null, null, null, 0.0, 0, 0, null, null,
+            0, 0, null, null, null)
+    ).getId();
+    List<Long> userIds = subscribeUsers(restaurantId, 2 * SUBSCRIPTIONS);
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+    // Previous path, the rating is set to 0 and the subscription deleted in separate transactions. Each change of
+    // the rating is flushed on its own, as when the unsubscriptions are further apart than the flush interval
+    SubscriptionDto unrated = new SubscriptionDto();
+    statistics.clear();
+    long start = System.nanoTime();
+    for (Long userId : userIds.subList(0, SUBSCRIPTIONS)) {
+      subscriptionService.updateRating(unrated, userId, restaurantId);
+      subscriptionRepository.deleteByUserIdAndRestaurantId(userId, restaurantId);
+      ratingUpdateQueue.flush();
+    }
+    long previousTime = System.nanoTime() - start;
+    long previousStatements = statistics.getPrepareStatementCount();
+    long previousTransactions = statistics.getTransactionCount();
+
+    statistics.clear();
+    start = System.nanoTime();
+    for (Long userId : userIds.subList(SUBSCRIPTIONS, 2 * SUBSCRIPTIONS)) {
+      subscriptionService.unsubscribeToRestaurant(userId, restaurantId);
+    }
+    long fusedTime = System.nanoTime() - start;
+    long fusedStatements = statistics.getPrepareStatementCount();
+    long fusedTransactions = statistics.getTransactionCount();
+
+    System.out.printf("%,d unsubscriptions: previous %,d ms, %,d statements and %,d transactions, " +
+            "single transaction %,d ms, %,d statements and %,d transactions%n",
+        SUBSCRIPTIONS, previousTime / 1_000_000, previousStatements, previousTransactions,
+        fusedTime / 1_000_000, fusedStatements, fusedTransactions);
+
+    Restaurant restaurant = restaurantRepository.findById(restaurantId).orElseThrow();
+    Assertions.assertEquals(0, restaurant.getRatingCount());
+    Assertions.assertEquals(0, restaurant.getRatingSum());
+    Assertions.assertEquals(0.0, restaurant.getRating());
+    Assertions.assertTrue(fusedStatements < previousStatements);
+    Assertions.assertTrue(fusedTransactions < previousTransactions);
+  }
+
+  private List<Long> subscribeUsers(Long restaurantId, int count) {
+    SubscriptionDto rated = new SubscriptionDto();
+    rated.setRating(4);
+
+    List<Long> userIds = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      Long userId = userRepository.save(
+          new User(null, "User " + i, "unsubscribe" + i + "@gmail.com", "password", null, Role.ROLE_CLIENT, null)
+      ).getId();
+      subscriptionService.subscribeToRestaurant(userId, restaurantId);
+      subscriptionService.updateRating(rated, userId, restaurantId);
+      userIds.add(userId);
+    }
+    ratingUpdateQueue.flush();
+    return userIds;
+  }
+}
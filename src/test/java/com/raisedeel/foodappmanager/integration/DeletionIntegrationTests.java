@@ -135,7 +135,7 @@ public class DeletionIntegrationTests {
 
     mockMvc.perform(request)
         .andExpect(status().is2xxSuccessful())
-        .andExpect(jsonPath("$.size()").value(0));
+        .andExpect(jsonPath("$.content.size()").value(0));
   }
 
 }
@@ -1,20 +1,25 @@
 package com.raisedeel.foodappmanager.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.raisedeel.foodappmanager.dish.dto.DishDto;
+import com.raisedeel.foodappmanager.dish.dto.MenuDto;
 import com.raisedeel.foodappmanager.dish.model.Dish;
 import com.raisedeel.foodappmanager.security.JwtTokenUtil;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import static com.raisedeel.foodappmanager.FoodAppManagerApplicationTests.users;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -149,4 +154,101 @@ public class DishIntegrationTests {
         .andExpect(jsonPath("$.[?(@.id == \"2\" && @.name == \"Beef\")]").doesNotExist());
   }
 
+  @Test
+  @DisplayName("Check if a non owner can't replace the menu")
+  @Order(8)
+  public void deniedReplaceOfMenuByNonOwnerTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.put("/dish/restaurant/1/menu")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(1).getEmail(), users.get(1).getRole().toString()))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(createMenu(salad())));
+
+    mockMvc.perform(request)
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.errorCode").value(403));
+  }
+
+  @Test
+  @DisplayName("Check if the menu can't be replaced with a dish of another menu")
+  @Order(9)
+  public void failedReplaceOfMenuWithUnknownDishTest() throws Exception {
+    DishDto beef = new DishDto(2L, "Beef", new BigDecimal("30.0"), "Meat", "Piece of beef", "url");
+    RequestBuilder request = MockMvcRequestBuilders.put("/dish/restaurant/1/menu")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(createMenu(salad(), beef)));
+
+    mockMvc.perform(request)
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value(400));
+  }
+
+  @Test
+  @DisplayName("Check if the menu can't be replaced if it changed since it was read")
+  @Order(10)
+  public void failedReplaceOfChangedMenuTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.put("/dish/restaurant/1/menu")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()))
+        .header(HttpHeaders.IF_MATCH, "\"1-0\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(createMenu(salad())));
+
+    mockMvc.perform(request)
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.errorCode").value(412));
+
+    // If-Match uses the strong comparison, the weak form of the current ETag does not match
+    String etag = mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    request = MockMvcRequestBuilders.put("/dish/restaurant/1/menu")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()))
+        .header(HttpHeaders.IF_MATCH, "W/" + etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(createMenu(salad())));
+
+    mockMvc.perform(request)
+        .andExpect(status().isPreconditionFailed());
+  }
+
+  @Test
+  @DisplayName("Check if the owner can replace the menu")
+  @Order(11)
+  public void successfulReplaceOfMenuByOwnerTest() throws Exception {
+    String etag = mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/1"))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    DishDto beef = new DishDto(null, "Beef", new BigDecimal("30.0"), "Meat", "Piece of beef", "url");
+
+    RequestBuilder request = MockMvcRequestBuilders.put("/dish/restaurant/1/menu")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()))
+        .header(HttpHeaders.IF_MATCH, etag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(createMenu(salad(), beef)));
+
+    String newETag = mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.restaurantId").value(1))
+        .andExpect(jsonPath("$.menu.size()").value(2))
+        .andExpect(jsonPath("$.menu[0].id").value(1))
+        .andExpect(jsonPath("$.menu[1].name").value("Beef"))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // The ETag returned is the one of the new menu
+    mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/1").header(HttpHeaders.IF_NONE_MATCH, newETag))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(MockMvcRequestBuilders.get("/dish/restaurant/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, newETag))
+        .andExpect(jsonPath("$.size()").value(2));
+  }
+
+  private DishDto salad() {
+    return new DishDto(1L, "Salad", new BigDecimal("40.0"), "Salads", "Simple salad", "url");
+  }
+
+  private MenuDto createMenu(DishDto... dishes) {
+    return new MenuDto(null, 0, List.of(dishes));
+  }
+
 }
@@ -8,15 +8,17 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import static com.raisedeel.foodappmanager.FoodAppManagerApplicationTests.restaurant;
 import static com.raisedeel.foodappmanager.FoodAppManagerApplicationTests.users;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @Order(2)
 @SpringBootTest
@@ -136,8 +138,15 @@ public class RestaurantIntegrationTests {
                 restaurant.getEmail(),
                 restaurant.getTelephone(),
                 "Some new place",
+                null,
+                null,
                 restaurant.getRating(),
+                restaurant.getRatingSum(),
+                restaurant.getRatingCount(),
+                restaurant.getRatingHistogram(),
                 restaurant.getPhotoUrl(),
+                restaurant.getVersion(),
+                restaurant.getCatalogVersion(),
                 restaurant.getOwner(),
                 restaurant.getMenu(),
                 restaurant.getSubscriptions())
@@ -149,4 +158,135 @@ public class RestaurantIntegrationTests {
         .andExpect(jsonPath("$.address").value("Some new place"));
   }
 
+  @Test
+  @DisplayName("Check if the restaurants are listed by pages")
+  @Order(9)
+  public void successfulGetRestaurantsPageTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/all")
+        .param("sort", "NAME")
+        .param("size", "1");
+
+    mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content.size()").value(1))
+        .andExpect(jsonPath("$.content[0].name").value(restaurant.getName()))
+        .andExpect(jsonPath("$.content[0].menu").doesNotExist())
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Check if an invalid cursor is rejected")
+  @Order(10)
+  public void invalidCursorOnRestaurantsPageTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/all")
+        .param("cursor", "not-a-cursor");
+
+    mockMvc.perform(request)
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value(400));
+  }
+
+  @Test
+  @DisplayName("Check if the rating histogram of a restaurant can be retrieved")
+  @Order(11)
+  public void successfulGetRatingHistogramTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/1/histogram");
+
+    mockMvc.perform(request)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.restaurantId").value(1))
+        .andExpect(jsonPath("$.oneStar").value(0))
+        .andExpect(jsonPath("$.fiveStars").value(0));
+  }
+
+  @Test
+  @DisplayName("Check if a non admin user can rebuild the ratings")
+  @Order(12)
+  public void deniedRebuildOfRatingsTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.post("/restaurant/admin/histogram/rebuild")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()));
+
+    mockMvc.perform(request)
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.errorCode").value(403));
+  }
+
+  @Test
+  @DisplayName("Check if the admin can rebuild the ratings")
+  @Order(13)
+  public void successfulRebuildOfRatingsTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.post("/restaurant/admin/histogram/rebuild")
+        .header("Authorization", JwtTokenUtil.createToken("admin", Role.ROLE_ADMIN.toString()));
+
+    mockMvc.perform(request)
+        .andExpect(status().isNoContent());
+  }
+
+  @Test
+  @DisplayName("Check if a non admin user can export the catalog")
+  @Order(14)
+  public void deniedExportOfCatalogTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/admin/export")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()));
+
+    mockMvc.perform(request)
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.errorCode").value(403));
+  }
+
+  @Test
+  @DisplayName("Check if the admin can export the catalog as NDJSON")
+  @Order(15)
+  public void successfulExportOfCatalogAsNdjsonTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/admin/export")
+        .header("Authorization", JwtTokenUtil.createToken("admin", Role.ROLE_ADMIN.toString()));
+
+    MvcResult result = mockMvc.perform(request)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String[] lines = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.ndjson\""))
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    Assertions.assertEquals(1, objectMapper.readTree(lines[0]).get("id").asLong());
+    Assertions.assertTrue(objectMapper.readTree(lines[0]).get("menu").isArray());
+  }
+
+  @Test
+  @DisplayName("Check if the admin can export the catalog as CSV")
+  @Order(16)
+  public void successfulExportOfCatalogAsCsvTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.get("/restaurant/admin/export")
+        .param("format", "CSV")
+        .header("Authorization", JwtTokenUtil.createToken("admin", Role.ROLE_ADMIN.toString()));
+
+    MvcResult result = mockMvc.perform(request)
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String[] lines = mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.csv\""))
+        .andReturn().getResponse().getContentAsString().split("\r\n");
+
+    Assertions.assertTrue(lines[0].startsWith("id,name,type,"));
+    Assertions.assertTrue(lines[1].startsWith("1,"));
+  }
+
+  @Test
+  @DisplayName("Check if a non admin user can import a catalog")
+  @Order(17)
+  public void deniedImportOfCatalogTest() throws Exception {
+    RequestBuilder request = MockMvcRequestBuilders.post("/restaurant/admin/import")
+        .header("Authorization", JwtTokenUtil.createToken(users.get(0).getEmail(), users.get(0).getRole().toString()))
+        .content(objectMapper.writeValueAsString(restaurant));
+
+    mockMvc.perform(request)
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.errorCode").value(403));
+  }
+
 }